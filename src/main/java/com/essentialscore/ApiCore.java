@@ -21,13 +21,21 @@ import java.util.regex.Pattern;
 import com.essentialscore.api.BasePlugin;
 import com.essentialscore.api.Module;
 import com.essentialscore.api.ModuleAPI;
+import com.essentialscore.api.ModuleEventChannels;
 import com.essentialscore.api.command.CommandManager;
+import com.essentialscore.api.event.EventBus;
+import com.essentialscore.api.performance.ProfilingSystem;
 import com.essentialscore.api.command.DynamicCommand;
 import com.essentialscore.api.impl.CoreModuleAPI;
 import com.essentialscore.api.language.LanguageManager;
 import com.essentialscore.api.module.ModuleFileManager;
+import com.essentialscore.api.module.ModuleCpuAccounting;
+import com.essentialscore.api.module.ModuleMemoryTracker;
 import com.essentialscore.api.module.ModuleSandbox;
+import com.essentialscore.api.module.ModuleWatchdog;
 import com.essentialscore.api.permission.PermissionManager;
+import com.essentialscore.api.scheduling.MainThreadScheduler;
+import com.essentialscore.api.util.FairShareExecutor;
 import com.essentialscore.commands.ApiCoreMainCommand;
 import com.essentialscore.placeholder.PlaceholderManager;
 import com.essentialscore.clickable.ClickableCommandManager;
@@ -72,6 +80,8 @@ public class ApiCore extends JavaPlugin implements Listener, BasePlugin {    /**
     private ThreadManager threadManager;    private PerformanceBenchmark performanceBenchmark;
     private PlaceholderManager placeholderManager;
     private ClickableCommandManager clickableCommandManager;
+    private EventBus eventBus;
+    private ProfilingSystem profilingSystem;
     
     // Thread-safe shared data with optimized initial capacity
     private final ConcurrentHashMap<String, Object> sharedData = new ConcurrentHashMap<>(32, 0.75f, 2);
@@ -105,8 +115,23 @@ public class ApiCore extends JavaPlugin implements Listener, BasePlugin {    /**
     // Permission cache for optimization
     private final ConcurrentHashMap<String, Boolean> permissionExactCache = new ConcurrentHashMap<>(128);
 
-    // Event-System für Module
-    private final Map<String, List<com.essentialscore.api.ModuleEventListener>> moduleListeners = new ConcurrentHashMap<>(8, 0.75f, 1);
+    // Event-System für Module (typisierte Kanäle, String-API als Adapter)
+    private final ModuleEventChannels moduleEventChannels = new ModuleEventChannels(getLogger());
+
+    // Gebundene MethodHandles für Modul-Methodenaufrufe
+    private final ModuleInvocationCache invocationCache = new ModuleInvocationCache();
+
+    // CPU-Zeit je Modul (Thread-CPU-Zeit an allen Modul-Einstiegspunkten)
+    private final ModuleCpuAccounting cpuAccounting = new ModuleCpuAccounting();
+
+    // Von Modulen registrierte Objekte (Caches, Datenmaps) für die Größenschätzung
+    private final ModuleMemoryTracker moduleMemoryTracker = new ModuleMemoryTracker();
+
+    // Hauptthread-Aufgaben der Module mit Zeitbudget pro Tick
+    private MainThreadScheduler mainThreadScheduler;
+    
+    // Gemeinsamer Pool für asynchrone Modul-Aufgaben mit fairer Aufteilung zwischen den Modulen
+    private FairShareExecutor modulePool;
     
     // API instances for modules
     private final Map<String, ModuleAPI> moduleAPIs = new ConcurrentHashMap<>(16, 0.75f, 1);
@@ -128,7 +153,7 @@ public class ApiCore extends JavaPlugin implements Listener, BasePlugin {    /**
      * @param listener Event-Listener des Moduls
      */
     public void registerModuleListener(String eventName, com.essentialscore.api.ModuleEventListener listener) {
-        moduleListeners.computeIfAbsent(eventName, k -> new CopyOnWriteArrayList<>()).add(listener);
+        moduleEventChannels.subscribe(eventName, listener);
     }
     
     /**
@@ -138,10 +163,7 @@ public class ApiCore extends JavaPlugin implements Listener, BasePlugin {    /**
      * @param listener Zu entfernender Event-Listener
      */
     public void unregisterModuleListener(String eventName, com.essentialscore.api.ModuleEventListener listener) {
-        List<com.essentialscore.api.ModuleEventListener> listeners = moduleListeners.get(eventName);
-        if (listeners != null) {
-            listeners.remove(listener);
-        }
+        moduleEventChannels.unsubscribe(eventName, listener);
     }
     
     /**
@@ -151,16 +173,93 @@ public class ApiCore extends JavaPlugin implements Listener, BasePlugin {    /**
      * @param data Eventdaten
      */
     public void fireModuleEvent(String eventName, Map<String, Object> data) {
-        List<com.essentialscore.api.ModuleEventListener> listeners = moduleListeners.get(eventName);
-        if (listeners != null) {
-            for (com.essentialscore.api.ModuleEventListener listener : listeners) {
-                try {
-                    listener.onModuleEvent(eventName, data);
-                } catch (Exception e) {
-                    getLogger().log(Level.WARNING, "Fehler bei der Verarbeitung des Events " + eventName + " durch einen Listener", e);
-                }
-            }
+        moduleEventChannels.publish(eventName, data);
+    }
+    
+    /**
+     * Gibt die Registry der typisierten Modul-Event-Kanäle zurück
+     * 
+     * @return Die Kanal-Registry
+     */
+    public ModuleEventChannels getModuleEventChannels() {
+        return moduleEventChannels;
+    }
+
+    /**
+     * Gibt den Cache für Modul-Methodenaufrufe zurück
+     * 
+     * @return Der Invocation-Cache
+     */
+    public ModuleInvocationCache getInvocationCache() {
+        return invocationCache;
+    }
+
+    /**
+     * Gibt die CPU-Zeit-Erfassung der Module zurück
+     * 
+     * @return Die CPU-Zeit-Erfassung
+     */
+    public ModuleCpuAccounting getCpuAccounting() {
+        return cpuAccounting;
+    }
+
+    /**
+     * Erstellt den Watchdog, der Sandbox-Aufrufe im aufrufenden Thread überwacht
+     * 
+     * @return Der Watchdog
+     */
+    private ModuleWatchdog createSandboxWatchdog() {
+        String actionName = getConfig().getString("security.sandbox.watchdog.action", "log");
+        ModuleWatchdog.Action action;
+        try {
+            action = ModuleWatchdog.Action.valueOf(actionName.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            console.categoryWarning(ConsoleFormatter.MessageCategory.SECURITY, 
+                "Unbekannte Watchdog-Aktion '" + actionName + "', verwende 'log'");
+            action = ModuleWatchdog.Action.LOG;
         }
+        
+        ModuleWatchdog watchdog = new ModuleWatchdog(getLogger(), 
+            getConfig().getLong("security.sandbox.watchdog.interval-ms", 50L), action);
+        // Der Hauptthread darf nie unterbrochen werden, INTERRUPT wird dort zu LOG
+        watchdog.setPrimaryThreadCheck(getServer()::isPrimaryThread);
+        watchdog.setOverrunListener(overrun -> {
+            if (overrun.getAction() == ModuleWatchdog.Action.DISABLE) {
+                // Deaktivieren im Hauptthread, sobald dieser wieder frei ist
+                getServer().getScheduler().runTask(this, () -> {
+                    disableModule(overrun.getModuleId());
+                    watchdog.clearFlag(overrun.getModuleId());
+                });
+            }
+        });
+        return watchdog;
+    }
+
+    /**
+     * Gibt den Scheduler für Hauptthread-Aufgaben mit Tick-Budget zurück
+     * 
+     * @return Der Scheduler oder null vor der Initialisierung
+     */
+    public MainThreadScheduler getMainThreadScheduler() {
+        return mainThreadScheduler;
+    }
+
+    /**
+     * Gibt den gemeinsamen Pool für asynchrone Modul-Aufgaben zurück
+     * 
+     * @return Der Pool oder null vor der Initialisierung
+     */
+    public FairShareExecutor getModulePool() {
+        return modulePool;
+    }
+
+    /**
+     * Gibt die Größenschätzung der von Modulen registrierten Objekte zurück
+     * 
+     * @return Der Speicher-Tracker
+     */
+    public ModuleMemoryTracker getModuleMemoryTracker() {
+        return moduleMemoryTracker;
     }
 
     // ModuleInfo-Klasse public machen
@@ -349,9 +448,47 @@ public class ApiCore extends JavaPlugin implements Listener, BasePlugin {    /**
                 console.categoryError(ConsoleFormatter.MessageCategory.SYSTEM, "Failed to initialize Clickable Command Manager: " + e.getMessage());
             }
             
+            // Core-EventBus für Modul-Events
+            eventBus = new EventBus(getLogger());
+            eventBus.setTimingsEnabled(getConfig().getBoolean("performance.event-timings.enabled", false));
+            eventBus.setSlowListenerThreshold(getConfig().getDouble("performance.event-timings.slow-threshold-ms", 5.0));
+            
+            // Profiling mit Handler-Laufzeiten des EventBus; standardmäßig aus, da es eigene Threads
+            // startet und die mitgelieferten Exporter noch keine Daten übertragen
+            if (getConfig().getBoolean("performance.profiling.enabled", false)) {
+                profilingSystem = new ProfilingSystem(this, null);
+                profilingSystem.attachEventBus(eventBus);
+                profilingSystem.start();
+            }
+            
             // Event-Listener registrieren (NACH Manager-Initialisierung)
             registerListeners();
             
+            // Zusammengefasste Modul-Events einmal pro Tick ausliefern
+            getServer().getScheduler().runTaskTimer(this, moduleEventChannels::flushCoalesced, 1L, 1L);
+            
+            // CPU-Anteile der Module einmal pro Tick auswerten
+            cpuAccounting.setEnabled(getConfig().getBoolean("performance.module-cpu-accounting.enabled", true));
+            if (cpuAccounting.isEnabled()) {
+                getServer().getScheduler().runTaskTimer(this, cpuAccounting::sampleTick, 1L, 1L);
+                if (!cpuAccounting.isCpuTimeSupported()) {
+                    console.categoryWarning(ConsoleFormatter.MessageCategory.PERFORMANCE, 
+                        "Thread-CPU-Zeit wird von der JVM nicht unterstützt, Modul-CPU-Zeit wird über die Laufzeit erfasst");
+                }
+            }
+            
+            // Hauptthread-Aufgaben der Module nur bis zum Tick-Budget ausführen, Rest im nächsten Tick
+            mainThreadScheduler = new MainThreadScheduler(getLogger(),
+                getConfig().getDouble("performance.main-thread-scheduler.budget-ms", 10.0));
+            mainThreadScheduler.setAgingMillis(getConfig().getLong("performance.main-thread-scheduler.aging-ms", 1000L));
+            if (cpuAccounting.isEnabled()) {
+                mainThreadScheduler.setCpuAccounting(cpuAccounting);
+            }
+            getServer().getScheduler().runTaskTimer(this, mainThreadScheduler::tick, 1L, 1L);
+            
+            // Asynchrone Modul-Aufgaben teilen sich einen Pool mit Gewichten und Warteschlangen-Limits pro Modul
+            modulePool = com.essentialscore.api.util.ThreadManager.createModuleExecutor(this);
+            
             // Module initialisieren (nach PermissionManager)
             initializeModules();
             
@@ -445,6 +582,10 @@ public class ApiCore extends JavaPlugin implements Listener, BasePlugin {    /**
         // Initialize sandbox if enabled
         if (getConfig().getBoolean("security.enable-sandbox", true)) {
             moduleSandbox = new ModuleSandbox(this);
+            moduleSandbox.setCpuAccounting(cpuAccounting);
+            if ("watchdog".equalsIgnoreCase(getConfig().getString("security.sandbox.mode", "watchdog"))) {
+                moduleSandbox.setWatchdog(createSandboxWatchdog());
+            }
             console.categoryInfo(ConsoleFormatter.MessageCategory.SECURITY, 
                 "Modul-Sandbox initialisiert mit Sicherheitsstufe: " + 
                 getConfig().getString("security.sandbox-level", "medium"));
@@ -555,10 +696,38 @@ public class ApiCore extends JavaPlugin implements Listener, BasePlugin {    /**
                 }
             }
             
+            // Verbleibende Hauptthread-Aufgaben verwerfen
+            if (mainThreadScheduler != null) {
+                mainThreadScheduler.shutdown();
+            }
+            
+            // Wartende Modul-Aufgaben bis zu 2 Sekunden abarbeiten, danach abbrechen
+            if (modulePool != null) {
+                modulePool.shutdown();
+                try {
+                    if (!modulePool.awaitTermination(2, TimeUnit.SECONDS)) {
+                        modulePool.shutdownNow();
+                    }
+                } catch (InterruptedException e) {
+                    modulePool.shutdownNow();
+                    Thread.currentThread().interrupt();
+                }
+            }
+            
             // Sandbox herunterfahren            // Module sandbox cleanup
             if (moduleSandbox != null) {
                 moduleSandbox.shutdown();
             }
+            
+            // Profiling beenden
+            if (profilingSystem != null) {
+                profilingSystem.stop();
+            }
+            
+            // Async-Event-Lane des EventBus herunterfahren
+            if (eventBus != null) {
+                eventBus.shutdown(5000);
+            }
               // WebUI herunterfahren
             // if (webUIManager != null) { // MOVED TO webui-development
             //     webUIManager.shutdown();
@@ -568,6 +737,7 @@ public class ApiCore extends JavaPlugin implements Listener, BasePlugin {    /**
             // Cache leeren
             methodCache.clear();
             methodHandleCache.clear();
+            invocationCache.clear();
             
             console.success("Plugin erfolgreich deaktiviert");
         } catch (Exception e) {
@@ -763,48 +933,16 @@ public class ApiCore extends JavaPlugin implements Listener, BasePlugin {    /**
                             "Checking for module file changes...", true);
                     }
                     
-                    // Check for new modules
+                    // Neue und geänderte JAR-Dateien an die Hot-Reload-Pipeline melden.
+                    // Sie wartet, bis die Datei fertig geschrieben ist, und lädt nur bei geändertem Inhalt.
                     File[] files = modulesDir.listFiles(new java.io.FileFilter() {
                         @Override
                         public boolean accept(File file) {
                             return file.isFile() && file.getName().endsWith(".jar");
                         }
                     });
-                      if (files != null) {
-                        for (File file : files) {
-                            String moduleName = file.getName().substring(0, file.getName().length() - 4);
-                            
-                            // Only process if not already loaded
-                            if (moduleManagerInternal != null && !loadedModules.containsKey(moduleName)) {
-                                // Check if jar contains valid module.yml before considering it a valid module
-                                if (ApiCore.this.hasValidModuleYml(file)) {
-                                    try {
-                                        if (debugMode) {
-                                            console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, 
-                                                "Found new valid module: " + moduleName);
-                                        }
-                                        
-                                        // Actually load the module to prevent re-detection
-                                        moduleManagerInternal.loadModule(file);
-                                        
-                                        console.categorySuccess(ConsoleFormatter.MessageCategory.MODULE, 
-                                            "Auto-loaded module: " + moduleName);
-                                            
-                                    } catch (Exception e) {
-                                        console.categoryError(ConsoleFormatter.MessageCategory.MODULE, 
-                                            "Failed to auto-load module " + moduleName + ": " + e.getMessage());
-                                        if (debugMode) {
-                                            e.printStackTrace();
-                                        }
-                                    }
-                                } else {
-                                    if (debugMode) {
-                                        console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, 
-                                            "Skipping " + file.getName() + " - no valid module.yml", true);
-                                    }
-                                }
-                            }
-                        }
+                    if (files != null && moduleManagerInternal != null) {
+                        moduleManagerInternal.getReloadPipeline().scan(files);
                     }
                 }
             }, 20L * interval, 20L * interval);
@@ -817,78 +955,6 @@ public class ApiCore extends JavaPlugin implements Listener, BasePlugin {    /**
             scheduleModuleChecker();
         }
     }
-      /**
-     * Check if a JAR file contains a valid module.yml
-     */
-    private boolean hasValidModuleYml(File jarFile) {
-        try (java.util.jar.JarFile jar = new java.util.jar.JarFile(jarFile)) {
-            java.util.jar.JarEntry entry = jar.getJarEntry("module.yml");
-            if (entry == null) {
-                if (debugMode) {
-                    console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, 
-                        "No module.yml found in: " + jarFile.getName(), true);
-                }
-                return false;
-            }
-            
-            // Parse YAML and validate required fields
-            try (java.io.InputStream is = jar.getInputStream(entry)) {
-                org.bukkit.configuration.file.YamlConfiguration config = 
-                    org.bukkit.configuration.file.YamlConfiguration.loadConfiguration(
-                        new java.io.InputStreamReader(is, "UTF-8"));
-                  // Check for required fields
-                String name = config.getString("name");
-                String version = config.getString("version");
-                String main = config.getString("main");
-                String author = config.getString("author");
-                
-                if (name == null || name.trim().isEmpty()) {
-                    if (debugMode) {
-                        console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, 
-                            "Invalid module.yml in " + jarFile.getName() + ": missing 'name'", true);
-                    }
-                    return false;
-                }
-                
-                if (version == null || version.trim().isEmpty()) {
-                    if (debugMode) {
-                        console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, 
-                            "Invalid module.yml in " + jarFile.getName() + ": missing 'version'", true);
-                    }
-                    return false;
-                }
-                
-                if (main == null || main.trim().isEmpty()) {
-                    if (debugMode) {
-                        console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, 
-                            "Invalid module.yml in " + jarFile.getName() + ": missing 'main'", true);
-                    }
-                    return false;
-                }
-                
-                if (debugMode) {
-                    console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, 
-                        "Valid module found: " + name + " v" + version + 
-                        (author != null ? " by " + author : ""), true);
-                }
-                
-                return true;
-                
-            } catch (Exception e) {
-                if (debugMode) {
-                    console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, 
-                        "Error parsing module.yml in " + jarFile.getName() + ": " + e.getMessage(), true);
-                }
-                return false;
-            }
-        } catch (Exception e) {
-            if (debugMode) {
-                console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, 
-                    "Error reading JAR file " + jarFile.getName() + ": " + e.getMessage(), true);
-            }
-            return false;
-        }
-    }
     
     /**
      * Plant den regelmäßigen Modul-Checker ein
@@ -1365,12 +1431,14 @@ public class ApiCore extends JavaPlugin implements Listener, BasePlugin {    /**
         if (methodPrefix == null || methodPrefix.isEmpty()) {
             methodCache.clear();
             methodHandleCache.clear();
+            invocationCache.clear();
             return;
         }
         
         // Entferne Methoden, die mit dem angegebenen Präfix beginnen
         methodCache.entrySet().removeIf(entry -> entry.getKey().startsWith(methodPrefix));
         methodHandleCache.entrySet().removeIf(entry -> entry.getKey().startsWith(methodPrefix));
+        invocationCache.invalidateMethods(methodPrefix);
     }
 
     /**
@@ -1467,6 +1535,24 @@ public class ApiCore extends JavaPlugin implements Listener, BasePlugin {    /**
         return performanceMonitor;
     }
     
+    /**
+     * Gibt das Profiling-System des Cores zurück
+     * 
+     * @return Das Profiling-System oder null, wenn es deaktiviert ist
+     */
+    public ProfilingSystem getProfilingSystem() {
+        return profilingSystem;
+    }
+    
+    /**
+     * Gibt den EventBus des Cores zurück
+     * 
+     * @return Der EventBus
+     */
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+    
     /**
      * Gibt den ThreadManager zurück
      * 
@@ -1606,8 +1692,7 @@ public class ApiCore extends JavaPlugin implements Listener, BasePlugin {    /**
      */
     public Object invokeMethod(Object object, String methodName, Class<?>[] paramTypes, Object... args) {
         try {
-            Method method = object.getClass().getMethod(methodName, paramTypes);
-            return method.invoke(object, args);
+            return invocationCache.invoke(object, methodName, paramTypes, args);
         } catch (Exception e) {
             getLogger().warning("Failed to invoke method " + methodName + ": " + e.getMessage());
             return null;
@@ -4,15 +4,16 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
+import com.essentialscore.util.ResourceExtractor;
+
 /**
  * Manager für Modul-Dateien
  */
@@ -165,7 +166,7 @@ public class ModuleFileManager {
             console.info("Extrahiere Ressourcen für Modul " + moduleName + "...");
             
             try (JarFile jar = new JarFile(jarFile)) {
-                int extractedCount = 0;
+                Map<String, JarEntry> plan = new LinkedHashMap<>();
                 Enumeration<JarEntry> entries = jar.entries();
                 
                 while (entries.hasMoreElements()) {
@@ -182,40 +183,19 @@ public class ModuleFileManager {
                         continue;
                     }
                     
-                    // Bestimme Zieldatei
-                    String relativePath = getRelativeResourcePath(name);
-                    File targetFile = new File(resourcesDir, relativePath);
-                    
-                    // Stelle sicher, dass Verzeichnisse existieren
-                    File parent = targetFile.getParentFile();
-                    if (!parent.exists() && !parent.mkdirs()) {
-                        console.warning("Konnte Verzeichnis nicht erstellen: " + parent.getAbsolutePath());
-                        continue;
-                    }
-                    
-                    // Überspringe existierende Dateien
-                    if (targetFile.exists() && !core.getConfig().getBoolean("resources.overwrite-existing", false)) {
-                        continue;
-                    }
-                    
-                    // Extrahiere Datei
-                    try (InputStream in = jar.getInputStream(entry);
-                         FileOutputStream out = new FileOutputStream(targetFile)) {
-                        
-                        byte[] buffer = new byte[8192];
-                        int bytesRead;
-                        while ((bytesRead = in.read(buffer)) != -1) {
-                            out.write(buffer, 0, bytesRead);
-                        }
-                        
-                        extractedCount++;
-                    } catch (IOException e) {
-                        console.warning("Fehler beim Extrahieren von " + name + ": " + e.getMessage());
-                    }
+                    plan.putIfAbsent(getRelativeResourcePath(name), entry);
                 }
                 
-                if (extractedCount > 0) {
-                    console.success(extractedCount + " Ressourcen für Modul " + moduleName + " extrahiert");
+                // Nur fehlende oder in der JAR geänderte Einträge extrahieren
+                boolean overwrite = core.getConfig().getBoolean("resources.overwrite-existing", false);
+                ResourceExtractor.Result result = ResourceExtractor.extract(jar, plan, resourcesDir, overwrite, false, null);
+                
+                if (result.getFailed() > 0) {
+                    console.warning(result.getFailed() + " Ressourcen für Modul " + moduleName + " konnten nicht extrahiert werden");
+                }
+                if (result.getExtracted() > 0) {
+                    console.success(result.getExtracted() + " Ressourcen für Modul " + moduleName + " extrahiert, " + 
+                                    result.getUnchanged() + " unverändert");
                 } else if (core.isDebugMode()) {
                     console.info("Keine Ressourcen für Modul " + moduleName + " gefunden oder alle bereits extrahiert");
                 }
@@ -0,0 +1,431 @@
+package com.essentialscore;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Persistenter Index der Modul-Metadaten.
+ * Speichert pro JAR-Datei die module.yml, Hauptklasse, Abhängigkeiten und die Liste der
+ * Ressourcen. Ein Eintrag gilt als gültig, solange Größe und Änderungszeit der JAR-Datei
+ * übereinstimmen. Weichen sie ab, wird der Eintrag aus dem Zentralverzeichnis der JAR-Datei
+ * neu aufgebaut; der Inhalts-Hash wird erst berechnet, wenn ihn jemand abfragt.
+ */
+public class ModuleIndex {
+    private static final int INDEX_VERSION = 1;
+    private static final String[] MODULE_YML_PATHS = {
+        "module.yml",
+        "src/main/resources/module.yml",
+        "main/resources/module.yml",
+        "resources/module.yml",
+        "META-INF/module.yml"
+    };
+
+    private final File indexFile;
+    private final Logger logger;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder hashed = new LongAdder();
+    private final LongAdder rebuilt = new LongAdder();
+
+    /**
+     * Erstellt den Index und lädt vorhandene Einträge von der Festplatte
+     *
+     * @param indexFile Die Index-Datei
+     * @param logger Der Logger für Fehlermeldungen
+     */
+    public ModuleIndex(File indexFile, Logger logger) {
+        this.indexFile = indexFile;
+        this.logger = logger;
+        load();
+    }
+
+    /**
+     * Gibt den Eintrag einer JAR-Datei zurück und baut ihn bei Bedarf neu auf
+     *
+     * @param jarFile Die JAR-Datei
+     * @return Der aktuelle Eintrag oder null, wenn die Datei nicht gelesen werden kann
+     */
+    public Entry get(File jarFile) {
+        String key = jarFile.getAbsolutePath();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(jarFile.toPath(), BasicFileAttributes.class);
+        } catch (IOException e) {
+            if (entries.remove(key) != null) {
+                dirty.set(true);
+            }
+            return null;
+        }
+
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+        Entry cached = entries.get(key);
+        if (cached != null && cached.size == size && cached.lastModified == modified) {
+            hits.increment();
+            return cached;
+        }
+
+        try {
+            // Nur das Zentralverzeichnis und die module.yml lesen, nicht die ganze Datei hashen
+            rebuilt.increment();
+            Entry entry = build(jarFile, size, modified);
+            entries.put(key, entry);
+            dirty.set(true);
+            return entry;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Konnte Modul-Index für " + jarFile.getName() + " nicht aktualisieren: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Entfernt Einträge für JAR-Dateien, die nicht mehr vorhanden sind
+     *
+     * @param jarFiles Die aktuell vorhandenen JAR-Dateien
+     */
+    public void retainAll(File[] jarFiles) {
+        Set<String> keys = new HashSet<>();
+        for (File jarFile : jarFiles) {
+            keys.add(jarFile.getAbsolutePath());
+        }
+        if (entries.keySet().retainAll(keys)) {
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * Entfernt den Eintrag einer JAR-Datei
+     *
+     * @param jarFile Die JAR-Datei
+     */
+    public void invalidate(File jarFile) {
+        if (entries.remove(jarFile.getAbsolutePath()) != null) {
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * Schreibt den Index auf die Festplatte, falls er sich geändert hat
+     */
+    public void saveIfDirty() {
+        if (dirty.compareAndSet(true, false)) {
+            save();
+        }
+    }
+
+    /**
+     * Gibt Statistiken über den Index zurück
+     *
+     * @return Statistiken als Map
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("hits", hits.sum());
+        stats.put("hashed", hashed.sum());
+        stats.put("rebuilt", rebuilt.sum());
+        return stats;
+    }
+
+    private synchronized void save() {
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set("index-version", INDEX_VERSION);
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            list.add(e.getValue().serialize(e.getKey()));
+        }
+        yaml.set("entries", list);
+
+        try {
+            File parent = indexFile.getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            // Erst in eine temporäre Datei schreiben, damit ein Absturz keinen halben Index hinterlässt
+            File tempFile = new File(indexFile.getPath() + ".tmp");
+            yaml.save(tempFile);
+            Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            dirty.set(true);
+            logger.log(Level.WARNING, "Konnte Modul-Index nicht speichern: " + e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!indexFile.exists()) {
+            return;
+        }
+
+        try {
+            YamlConfiguration yaml = new YamlConfiguration();
+            yaml.load(indexFile);
+            if (yaml.getInt("index-version", 0) != INDEX_VERSION) {
+                dirty.set(true);
+                return;
+            }
+            for (Map<?, ?> map : yaml.getMapList("entries")) {
+                Object path = map.get("path");
+                if (path != null) {
+                    entries.put(path.toString(), Entry.deserialize(this, map));
+                }
+            }
+        } catch (IOException | InvalidConfigurationException | RuntimeException e) {
+            // Ein beschädigter Index wird einfach neu aufgebaut
+            entries.clear();
+            dirty.set(true);
+            logger.log(Level.WARNING, "Modul-Index ist beschädigt und wird neu aufgebaut: " + e.getMessage());
+        }
+    }
+
+    private Entry build(File jarFile, long size, long modified) throws IOException {
+        try (JarFile jar = new JarFile(jarFile, false)) {
+            String moduleYmlPath = null;
+            for (String path : MODULE_YML_PATHS) {
+                if (jar.getJarEntry(path) != null) {
+                    moduleYmlPath = path;
+                    break;
+                }
+            }
+
+            List<String> resources = new ArrayList<>();
+            Enumeration<JarEntry> jarEntries = jar.entries();
+            while (jarEntries.hasMoreElements()) {
+                JarEntry jarEntry = jarEntries.nextElement();
+                String name = jarEntry.getName();
+                if (jarEntry.isDirectory() || name.endsWith(".class")) {
+                    continue;
+                }
+                if (moduleYmlPath == null && (name.endsWith("/module.yml") || name.endsWith("\\module.yml"))) {
+                    moduleYmlPath = name;
+                }
+                resources.add(name);
+            }
+
+            String moduleYml = null;
+            if (moduleYmlPath != null) {
+                try (InputStream in = jar.getInputStream(jar.getJarEntry(moduleYmlPath))) {
+                    moduleYml = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                }
+            }
+            return new Entry(this, jarFile, size, modified, null, moduleYmlPath, moduleYml, resources);
+        }
+    }
+
+    private static String hash(File file) throws IOException {
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[65536];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 nicht verfügbar", e);
+        }
+    }
+
+    /**
+     * Die indizierten Metadaten einer JAR-Datei
+     */
+    public static final class Entry {
+        private final ModuleIndex index;
+        private final File file;
+        private final long size;
+        private final long lastModified;
+        private volatile String hash;
+        private final String moduleYmlPath;
+        private final String moduleYml;
+        private final List<String> resources;
+        private final String name;
+        private final String mainClass;
+        private final String version;
+        private final List<String> dependencies;
+        private final List<String> softDependencies;
+        private final YamlConfiguration moduleConfig;
+
+        Entry(ModuleIndex index, File file, long size, long lastModified, String hash, String moduleYmlPath,
+              String moduleYml, List<String> resources) {
+            this.index = index;
+            this.file = file;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+            this.moduleYmlPath = moduleYmlPath;
+            this.moduleYml = moduleYml;
+            this.resources = Collections.unmodifiableList(new ArrayList<>(resources));
+
+            YamlConfiguration config = parse(moduleYml);
+            this.moduleConfig = config;
+            this.name = config != null ? config.getString("name") : null;
+            this.mainClass = config != null ? config.getString("main") : null;
+            this.version = config != null ? config.getString("version") : null;
+            this.dependencies = config != null ? config.getStringList("depend") : Collections.emptyList();
+            this.softDependencies = config != null ? config.getStringList("softdepend") : Collections.emptyList();
+        }
+
+        /**
+         * Gibt die beim Aufbau des Eintrags einmal geparste module.yml zurück.
+         * Die Instanz wird von allen Aufrufern geteilt und darf nicht verändert werden.
+         *
+         * @return Die module.yml oder null, wenn keine vorhanden oder sie ungültig ist
+         */
+        public YamlConfiguration getModuleConfig() {
+            return moduleConfig;
+        }
+
+        /**
+         * Prüft, ob die module.yml im Wurzelverzeichnis der JAR-Datei liegt
+         *
+         * @return true, wenn module.yml im Wurzelverzeichnis liegt
+         */
+        public boolean hasRootModuleYml() {
+            return "module.yml".equals(moduleYmlPath);
+        }
+
+        /**
+         * Prüft, ob Name und Hauptklasse angegeben sind
+         *
+         * @return true, wenn es sich um ein gültiges Modul handelt
+         */
+        public boolean isValidModule() {
+            return name != null && !name.isEmpty() && mainClass != null && !mainClass.isEmpty();
+        }
+
+        public String getModuleYmlPath() {
+            return moduleYmlPath;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getMainClass() {
+            return mainClass;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public List<String> getDependencies() {
+            return dependencies;
+        }
+
+        public List<String> getSoftDependencies() {
+            return softDependencies;
+        }
+
+        /**
+         * Gibt alle Einträge der JAR-Datei zurück, die keine Klassen oder Verzeichnisse sind
+         *
+         * @return Die Ressourcenpfade
+         */
+        public List<String> getResources() {
+            return resources;
+        }
+
+        /**
+         * Gibt den SHA-256-Hash des Dateiinhalts zurück und berechnet ihn beim ersten Aufruf
+         *
+         * @return Der Hash oder null, wenn die Datei nicht gelesen werden kann
+         */
+        public String getHash() {
+            String value = hash;
+            if (value == null) {
+                try {
+                    value = hash(file);
+                } catch (IOException e) {
+                    index.logger.log(Level.WARNING, "Konnte Hash von " + file.getName() + " nicht berechnen: " + e.getMessage());
+                    return null;
+                }
+                hash = value;
+                index.hashed.increment();
+                index.dirty.set(true);
+            }
+            return value;
+        }
+
+        Map<String, Object> serialize(String path) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("path", path);
+            map.put("size", size);
+            map.put("last-modified", lastModified);
+            String value = hash;
+            if (value != null) {
+                map.put("hash", value);
+            }
+            if (moduleYmlPath != null) {
+                map.put("module-yml-path", moduleYmlPath);
+                map.put("module-yml", moduleYml);
+            }
+            map.put("resources", resources);
+            return map;
+        }
+
+        static Entry deserialize(ModuleIndex index, Map<?, ?> map) {
+            List<String> resources = new ArrayList<>();
+            Object list = map.get("resources");
+            if (list instanceof List) {
+                for (Object resource : (List<?>) list) {
+                    resources.add(String.valueOf(resource));
+                }
+            }
+            Object moduleYmlPath = map.get("module-yml-path");
+            Object moduleYml = map.get("module-yml");
+            Object hash = map.get("hash");
+            return new Entry(
+                index,
+                new File(String.valueOf(map.get("path"))),
+                ((Number) map.get("size")).longValue(),
+                ((Number) map.get("last-modified")).longValue(),
+                hash != null ? hash.toString() : null,
+                moduleYmlPath != null ? moduleYmlPath.toString() : null,
+                moduleYml != null ? moduleYml.toString() : null,
+                resources);
+        }
+
+        private static YamlConfiguration parse(String moduleYml) {
+            if (moduleYml == null) {
+                return null;
+            }
+            YamlConfiguration config = new YamlConfiguration();
+            try {
+                config.loadFromString(moduleYml);
+                return config;
+            } catch (InvalidConfigurationException e) {
+                return null;
+            }
+        }
+    }
+}
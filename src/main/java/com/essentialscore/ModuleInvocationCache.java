@@ -0,0 +1,214 @@
+package com.essentialscore;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache für Methodenaufrufe auf Modulen.
+ * Statt bei jedem Aufruf {@code getMethod} und {@code Method.invoke} zu verwenden,
+ * wird pro Modul, Methodenname und Signatur einmalig ein an die Modul-Instanz
+ * gebundenes {@link MethodHandle} erzeugt. Beim Entladen oder Neuladen eines Moduls
+ * müssen dessen Einträge invalidiert werden, damit der ClassLoader freigegeben wird.
+ */
+public class ModuleInvocationCache {
+    private static final MethodType BOUND_TYPE = MethodType.methodType(Object.class, Object[].class);
+    private static final MethodType UNBOUND_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final Map<String, Map<Signature, BoundHandle>> moduleHandles = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Map<Signature, MethodHandle>> classHandles = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Ruft eine öffentliche Methode einer Modul-Instanz über den Cache auf
+     *
+     * @param moduleName Der Name des Moduls
+     * @param moduleInstance Die aktuelle Instanz des Moduls
+     * @param methodName Der Name der Methode
+     * @param parameterTypes Die Parametertypen
+     * @param args Die Argumente
+     * @return Das Ergebnis des Aufrufs, null bei void-Methoden
+     * @throws Exception wenn die Methode nicht existiert oder eine Exception wirft
+     */
+    public Object invoke(String moduleName, Object moduleInstance, String methodName,
+                         Class<?>[] parameterTypes, Object... args) throws Exception {
+        Map<Signature, BoundHandle> handles = moduleHandles.computeIfAbsent(moduleName, k -> new ConcurrentHashMap<>());
+        Signature signature = new Signature(methodName, parameterTypes);
+
+        BoundHandle bound = handles.get(signature);
+        if (bound == null || bound.instance != moduleInstance) {
+            misses.increment();
+            MethodHandle handle = unreflect(moduleInstance.getClass(), signature)
+                .bindTo(moduleInstance)
+                .asSpreader(Object[].class, signature.parameterTypes.length)
+                .asType(BOUND_TYPE);
+            bound = new BoundHandle(moduleInstance, handle);
+            handles.put(signature, bound);
+        } else {
+            hits.increment();
+        }
+
+        try {
+            return (Object) bound.handle.invokeExact(args);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new Exception(t);
+        }
+    }
+
+    /**
+     * Ruft eine öffentliche Methode auf einem beliebigen Objekt über den Cache auf
+     *
+     * @param target Das Zielobjekt
+     * @param methodName Der Name der Methode
+     * @param parameterTypes Die Parametertypen
+     * @param args Die Argumente
+     * @return Das Ergebnis des Aufrufs, null bei void-Methoden
+     * @throws Exception wenn die Methode nicht existiert oder eine Exception wirft
+     */
+    public Object invoke(Object target, String methodName, Class<?>[] parameterTypes, Object... args) throws Exception {
+        Map<Signature, MethodHandle> handles = classHandles.computeIfAbsent(target.getClass(), k -> new ConcurrentHashMap<>());
+        Signature signature = new Signature(methodName, parameterTypes);
+
+        MethodHandle handle = handles.get(signature);
+        if (handle == null) {
+            misses.increment();
+            handle = unreflect(target.getClass(), signature)
+                .asSpreader(Object[].class, signature.parameterTypes.length)
+                .asType(UNBOUND_TYPE);
+            handles.put(signature, handle);
+        } else {
+            hits.increment();
+        }
+
+        try {
+            return (Object) handle.invokeExact(target, args);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new Exception(t);
+        }
+    }
+
+    /**
+     * Entfernt alle Einträge eines Moduls, z.B. beim Entladen oder Neuladen
+     *
+     * @param moduleName Der Name des Moduls
+     */
+    public void invalidateModule(String moduleName) {
+        moduleHandles.remove(moduleName);
+    }
+
+    /**
+     * Entfernt alle Einträge für Klassen, die von einem Modul-ClassLoader geladen wurden
+     *
+     * @param loader Der ClassLoader des entladenen Moduls
+     */
+    public void invalidateClassLoader(ClassLoader loader) {
+        if (loader == null) {
+            return;
+        }
+        classHandles.keySet().removeIf(type -> type.getClassLoader() == loader);
+        moduleHandles.values().forEach(handles ->
+            handles.values().removeIf(bound -> bound.instance.getClass().getClassLoader() == loader));
+    }
+
+    /**
+     * Entfernt alle Einträge, deren Methodenname mit dem Präfix beginnt
+     *
+     * @param methodPrefix Der Präfix, null oder leer entfernt alles
+     */
+    public void invalidateMethods(String methodPrefix) {
+        if (methodPrefix == null || methodPrefix.isEmpty()) {
+            clear();
+            return;
+        }
+        moduleHandles.values().forEach(handles ->
+            handles.keySet().removeIf(signature -> signature.methodName.startsWith(methodPrefix)));
+        classHandles.values().forEach(handles ->
+            handles.keySet().removeIf(signature -> signature.methodName.startsWith(methodPrefix)));
+    }
+
+    /**
+     * Leert den gesamten Cache
+     */
+    public void clear() {
+        moduleHandles.clear();
+        classHandles.clear();
+    }
+
+    /**
+     * Gibt Statistiken über den Cache zurück
+     *
+     * @return Statistiken als Map
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("modules", moduleHandles.size());
+        stats.put("classes", classHandles.size());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        return stats;
+    }
+
+    private static MethodHandle unreflect(Class<?> type, Signature signature) throws NoSuchMethodException, IllegalAccessException {
+        Method method = type.getMethod(signature.methodName, signature.parameterTypes);
+        method.trySetAccessible();
+        return MethodHandles.lookup().unreflect(method);
+    }
+
+    /**
+     * Ein an eine Modul-Instanz gebundenes Handle
+     */
+    private static final class BoundHandle {
+        private final Object instance;
+        private final MethodHandle handle;
+
+        BoundHandle(Object instance, MethodHandle handle) {
+            this.instance = instance;
+            this.handle = handle;
+        }
+    }
+
+    /**
+     * Schlüssel aus Methodenname und Parametertypen
+     */
+    private static final class Signature {
+        private final String methodName;
+        private final Class<?>[] parameterTypes;
+        private final int hash;
+
+        Signature(String methodName, Class<?>[] parameterTypes) {
+            this.methodName = methodName;
+            this.parameterTypes = parameterTypes != null ? parameterTypes : new Class<?>[0];
+            this.hash = 31 * methodName.hashCode() + Arrays.hashCode(this.parameterTypes);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Signature)) {
+                return false;
+            }
+            Signature that = (Signature) other;
+            return hash == that.hash
+                && methodName.equals(that.methodName)
+                && Arrays.equals(parameterTypes, that.parameterTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -3,12 +3,12 @@ package com.essentialscore;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
-import org.bukkit.event.Listener;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.command.CommandSender;
 
 import java.io.*;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.net.URL;
@@ -25,8 +25,15 @@ import java.util.concurrent.Callable;
 
 // Add these imports at the top of the file
 import com.essentialscore.api.ModuleAPI;
+import com.essentialscore.api.impl.CoreModuleAPI;
 import com.essentialscore.api.impl.ModuleAdapter;
+import com.essentialscore.util.ResourceExtractor;
+import com.essentialscore.api.module.ModuleCpuAccounting;
+import com.essentialscore.api.module.ModuleMemoryTracker;
 import com.essentialscore.api.command.DynamicCommand;
+import com.essentialscore.api.event.LookupAnchor;
+import com.essentialscore.api.versioning.DependencyResolver;
+import com.essentialscore.api.versioning.Version;
 
 /**
  * Manager für Module des ApiCore
@@ -38,14 +45,27 @@ public class ModuleManager {
     private final Map<String, List<DynamicCommand>> moduleCommands;
     private final ExecutorService executorService;
     private static final int BUFFER_SIZE = 8192;
+    private static final Class<?>[] COMMAND_PARAMETER_TYPES = {
+        CommandSender.class, org.bukkit.command.Command.class, String.class, String[].class
+    };
     private ConsoleFormatter console;
       // Performance-Tracking für Module
     private final Map<String, ModulePerformanceData> modulePerformanceMap = new ConcurrentHashMap<>();
     private final ScheduledExecutorService performanceTrackerService;
+    private volatile Map<String, Object> lastLoadTimeline = Collections.emptyMap();
+    private final ModuleIndex moduleIndex;
+    private final ModuleReloadPipeline reloadPipeline;
+    private final ModuleUnloadVerifier unloadVerifier;
+    private final Map<String, String> loadedModuleHashes = new ConcurrentHashMap<>();
+    // Vorbereitete Daten der aktiven Versionen, um sie nach einem fehlgeschlagenen Hot-Swap wiederherzustellen
+    private final Map<String, PreparedModule> activeVersions = new ConcurrentHashMap<>();
+    private int retainedSizeCountdown;
     public static final int CPU_THRESHOLD_WARNING = 20;   // 20% CPU Auslastung = Gelb
     public static final int CPU_THRESHOLD_CRITICAL = 40;  // 40% CPU Auslastung = Rot
     public static final int MEMORY_THRESHOLD_WARNING = 25;  // 25MB Speichernutzung = Gelb
     public static final int MEMORY_THRESHOLD_CRITICAL = 50; // 50MB Speichernutzung = Rot
+    public static final int ALLOCATION_THRESHOLD_WARNING = 64;   // 64MB/s Allokationsrate = Gelb
+    public static final int ALLOCATION_THRESHOLD_CRITICAL = 256; // 256MB/s Allokationsrate = Rot
     public static final int EXECUTION_THRESHOLD_WARNING = 100; // 100ms durchschnittliche Ausführungszeit = Gelb
     public static final int EXECUTION_THRESHOLD_CRITICAL = 250; // 250ms durchschnittliche Ausführungszeit = Rot
     
@@ -59,6 +79,7 @@ public class ModuleManager {
         this.loadedModules = loadedModules;
         this.moduleCommands = moduleCommands;
         this.executorService = executorService;
+        this.moduleIndex = new ModuleIndex(new File(apiCore.getDataFolder(), "module-index.yml"), apiCore.getLogger());
         this.performanceTrackerService = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread thread = new Thread(r, "ModulePerformanceTracker");
             thread.setDaemon(true); // Hintergrund-Thread, der den Server nicht am Herunterfahren hindert
@@ -78,6 +99,12 @@ public class ModuleManager {
             rawPrefix,
             useColors, showTimestamps, useUnicodeSymbols, stylePreset
         );
+        this.reloadPipeline = new ModuleReloadPipeline(this, apiCore, console);
+        this.unloadVerifier = new ModuleUnloadVerifier(console, 
+            TimeUnit.SECONDS.toMillis(apiCore.getConfig().getLong("modules.unload-verification.grace-seconds", 60)));
+        
+        // Freigabe der ClassLoader entladener Module alle 30 Sekunden prüfen
+        Bukkit.getScheduler().runTaskTimerAsynchronously(apiCore, unloadVerifier::check, 600L, 600L);
     
         // Performance-Tracking starten, falls aktiviert
         if (apiCore.getConfig().getBoolean("performance.module-tracking.enabled", true)) {
@@ -110,26 +137,10 @@ public class ModuleManager {
             }
             
             int totalCount = moduleFiles.length;
-            int loadedCount = 0;
             console.info("Beginne mit dem Laden von " + totalCount + " Modulen...");
+            moduleIndex.retainAll(moduleFiles);
             
-            // Lade jedes Modul einzeln
-            for (int i = 0; i < moduleFiles.length; i++) {
-                File moduleFile = moduleFiles[i];
-                console.step(i + 1, totalCount, "Lade Modul: " + moduleFile.getName());
-                
-                try {
-                    // Lade das Modul
-                    loadModule(moduleFile);
-                    loadedCount++;
-                    console.status("OK", "Modul " + moduleFile.getName() + " erfolgreich geladen", true);
-                } catch (Exception e) {
-                    console.status("FEHLER", "Fehler beim Laden von Modul " + moduleFile.getName() + ": " + e.getMessage(), false);
-                    if (apiCore.isDebugMode()) {
-                        e.printStackTrace();
-                    }
-                }
-            }
+            int loadedCount = loadModuleFiles(moduleFiles);
             
             // Zeige Ergebnis
             if (loadedCount == totalCount) {
@@ -146,48 +157,302 @@ public class ModuleManager {
     }
     
     /**
-     * Lädt Module synchron, falls kein ExecutorService verfügbar ist
+     * Lädt die angegebenen Module in drei Phasen: parallele Vorbereitung, Auflösung der
+     * Ladeebenen und Aktivierung Ebene für Ebene im Hauptthread.
+     * 
+     * @param moduleFiles Die JAR-Dateien
+     * @return Die Anzahl erfolgreich geladener Module
      */
-    private void loadModulesSync(File[] files) {
-        apiCore.getLogger().info("Lade Module synchron...");
+    private int loadModuleFiles(File[] moduleFiles) throws Exception {
+        long startTime = System.nanoTime();
         
-        for (File file : files) {
-            try {
-                // Modulname aus Dateinamen extrahieren
-                String potentialModuleName = file.getName().replace(".jar", "");
-                
-                // Konfigurationsdatei prüfen
-                File configFile = new File(configDir, potentialModuleName + ".yml");
-                boolean shouldLoad = true;
-                
-                // Wenn Konfigurationsdatei existiert, enabled-Status prüfen
-                if (configFile.exists()) {
-                    try {
-                        YamlConfiguration config = YamlConfiguration.loadConfiguration(configFile);
-                        shouldLoad = config.getBoolean("enabled", true);
-                        
-                        if (!shouldLoad) {
-                            apiCore.getLogger().info("Modul " + potentialModuleName + " ist deaktiviert und wird übersprungen");
-                            continue;
-                        }
-                    } catch (Exception e) {
-                        apiCore.getLogger().warning("Fehler beim Lesen der Konfiguration für " + potentialModuleName + ": " + e.getMessage());
+        // Phase 1: Alle Module parallel vorbereiten (JAR, module.yml, Konfiguration, Klassen, Ressourcen)
+        List<PreparedModule> preparedModules = prepareModules(moduleFiles, false);
+        long preparedTime = System.nanoTime();
+        
+        // Phase 2: Ladeebenen aus dem Abhängigkeitsgraphen bestimmen
+        List<List<PreparedModule>> levels = resolveLoadLevels(preparedModules);
+        long resolvedTime = System.nanoTime();
+        
+        // Phase 3: Ebene für Ebene im Hauptthread aktivieren
+        int loadedCount = activateLevels(levels);
+        long activatedTime = System.nanoTime();
+        
+        recordLoadTimeline(preparedModules, levels.size(), startTime, preparedTime, resolvedTime, activatedTime);
+        moduleIndex.saveIfDirty();
+        return loadedCount;
+    }
+    
+    /**
+     * Bereitet alle Module parallel auf virtuellen Threads vor.
+     * Die Vorbereitung eines Moduls hängt nicht von anderen Modulen ab, da jedes Modul
+     * einen eigenen ClassLoader hat. Deshalb werden alle Ebenen gleichzeitig vorbereitet.
+     * 
+     * @param moduleFiles Die JAR-Dateien
+     * @param replacing true, wenn bereits geladene Module ersetzt werden sollen
+     * @return Die erfolgreich vorbereiteten Module in der Reihenfolge der Dateien
+     */
+    private List<PreparedModule> prepareModules(File[] moduleFiles, boolean replacing) throws InterruptedException {
+        boolean extractResources = apiCore.getConfig().getBoolean("general.extract-module-resources", true);
+        List<PreparedModule> preparedModules = new ArrayList<>();
+        
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<PreparedModule>> futures = new ArrayList<>(moduleFiles.length);
+            for (File moduleFile : moduleFiles) {
+                futures.add(pool.submit(() -> {
+                    PreparedModule prepared = prepareModule(moduleFile, replacing);
+                    if (prepared != null && extractResources) {
+                        long resourceStart = System.nanoTime();
+                        extractModuleResources(new ApiCore.ModuleInfo(prepared.name, prepared.version,
+                            prepared.description, prepared.jarFile, prepared.loader, null));
+                        prepared.resourceNanos = System.nanoTime() - resourceStart;
+                    }
+                    return prepared;
+                }));
+            }
+            
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    PreparedModule prepared = futures.get(i).get();
+                    if (prepared != null) {
+                        preparedModules.add(prepared);
+                    }
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    console.status("FEHLER", "Fehler beim Laden von Modul " + moduleFiles[i].getName() + ": " + cause.getMessage(), false);
+                    if (apiCore.isDebugMode()) {
+                        cause.printStackTrace();
                     }
                 }
-                
-                // Wenn enabled=true oder keine Konfiguration, Modul laden
-                if (shouldLoad) {
-                loadModule(file);
+            }
+        }
+        
+        return preparedModules;
+    }
+    
+    /**
+     * Bestimmt die Ladeebenen der vorbereiteten Module.
+     * Abhängigkeiten werden über {@code depend} und {@code softdepend} in der module.yml angegeben.
+     * 
+     * @param preparedModules Die vorbereiteten Module
+     * @return Die Ladeebenen, Abhängigkeiten zuerst
+     */
+    private List<List<PreparedModule>> resolveLoadLevels(List<PreparedModule> preparedModules) {
+        Map<String, PreparedModule> byName = new LinkedHashMap<>();
+        List<DependencyResolver.ModuleInfo> resolverModules = new ArrayList<>();
+        
+        for (PreparedModule prepared : preparedModules) {
+            if (byName.putIfAbsent(prepared.name, prepared) != null) {
+                console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "Das Modul " + prepared.name + " ist mehrfach vorhanden, " + 
+                    prepared.jarFile.getName() + " wird ignoriert");
+                closeLoader(prepared);
+                continue;
+            }
+            resolverModules.add(new DependencyResolver.ModuleInfo(prepared.name, resolverVersion(prepared.version),
+                dependencyRanges(prepared.dependencies), dependencyRanges(prepared.softDependencies)));
+        }
+        
+        DependencyResolver resolver = new DependencyResolver();
+        DependencyResolver.ResolutionResult result = resolver.resolve(resolverModules);
+        for (String missing : result.getMissingDependencies()) {
+            console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "Fehlende Abhängigkeit: " + missing);
+        }
+        for (String cycle : result.getCircularDependencies()) {
+            console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "Zirkuläre Abhängigkeit: " + cycle);
+        }
+        
+        List<List<PreparedModule>> levels = new ArrayList<>();
+        for (List<DependencyResolver.ModuleInfo> level : resolver.computeLoadLevels(resolverModules)) {
+            List<PreparedModule> preparedLevel = new ArrayList<>(level.size());
+            for (DependencyResolver.ModuleInfo module : level) {
+                preparedLevel.add(byName.get(module.getName()));
+            }
+            levels.add(preparedLevel);
+        }
+        
+        console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, byName.size() + " Module in " + levels.size() + 
+            " Ladeebenen eingeteilt", apiCore.isDebugMode());
+        return levels;
+    }
+    
+    /**
+     * Aktiviert die Module Ebene für Ebene im Hauptthread.
+     * Wird außerhalb des Hauptthreads aufgerufen, wird jede Ebene an den Hauptthread übergeben.
+     * 
+     * @param levels Die Ladeebenen
+     * @return Die Anzahl erfolgreich geladener Module
+     */
+    private int activateLevels(List<List<PreparedModule>> levels) throws Exception {
+        int loadedCount = 0;
+        int step = 0;
+        int total = 0;
+        for (List<PreparedModule> level : levels) {
+            total += level.size();
+        }
+        
+        for (List<PreparedModule> level : levels) {
+            final int firstStep = step;
+            final int totalSteps = total;
+            Callable<Integer> activation = () -> activateLevel(level, firstStep, totalSteps);
+            
+            if (Bukkit.isPrimaryThread()) {
+                loadedCount += activation.call();
+            } else {
+                loadedCount += Bukkit.getScheduler().callSyncMethod(apiCore, activation).get();
+            }
+            step += level.size();
+        }
+        
+        return loadedCount;
+    }
+    
+    private int activateLevel(List<PreparedModule> level, int firstStep, int totalSteps) {
+        int loadedCount = 0;
+        
+        for (int i = 0; i < level.size(); i++) {
+            PreparedModule prepared = level.get(i);
+            console.step(firstStep + i + 1, totalSteps, "Lade Modul: " + prepared.jarFile.getName());
+            
+            // Harte Abhängigkeiten müssen in einer früheren Ebene erfolgreich aktiviert worden sein
+            String missingDependency = null;
+            for (String dependency : prepared.dependencies) {
+                if (!activeVersions.containsKey(dependency)) {
+                    missingDependency = dependency;
+                    break;
+                }
+            }
+            if (missingDependency != null) {
+                console.status("FEHLER", "Modul " + prepared.name + " benötigt " + missingDependency + ", das nicht geladen ist", false);
+                closeLoader(prepared);
+                continue;
+            }
+            
+            long activationStart = System.nanoTime();
+            try {
+                if (activateModule(prepared)) {
+                    prepared.activated = true;
+                    loadedCount++;
+                    console.status("OK", "Modul " + prepared.jarFile.getName() + " erfolgreich geladen", true);
+                } else {
+                    console.status("FEHLER", "Modul " + prepared.jarFile.getName() + " konnte nicht aktiviert werden", false);
+                }
+            } catch (Exception e) {
+                console.status("FEHLER", "Fehler beim Laden von Modul " + prepared.jarFile.getName() + ": " + e.getMessage(), false);
                 if (apiCore.isDebugMode()) {
-                    apiCore.getLogger().info("Loaded: " + file.getName());
-                    }
+                    e.printStackTrace();
                 }
-            } catch (Exception e) {                apiCore.getLogger().log(Level.SEVERE, "Fehler beim Laden des Moduls " + file.getName(), e);
-            }        }
+            }
+            prepared.activationNanos = System.nanoTime() - activationStart;
+        }
+        
+        return loadedCount;
+    }
+    
+    /**
+     * Speichert und meldet die Zeitleiste des letzten Ladevorgangs je Phase
+     */
+    private void recordLoadTimeline(List<PreparedModule> preparedModules, int levelCount, long startTime,
+                                    long preparedTime, long resolvedTime, long activatedTime) {
+        long configNanos = 0;
+        long classLoadNanos = 0;
+        long resourceNanos = 0;
+        long activationNanos = 0;
+        for (PreparedModule prepared : preparedModules) {
+            configNanos += prepared.configNanos;
+            classLoadNanos += prepared.classLoadNanos;
+            resourceNanos += prepared.resourceNanos;
+            activationNanos += prepared.activationNanos;
+        }
+        
+        Map<String, Object> timeline = new LinkedHashMap<>();
+        timeline.put("modules", preparedModules.size());
+        timeline.put("levels", levelCount);
+        timeline.put("prepare_ms", (preparedTime - startTime) / 1_000_000.0);
+        timeline.put("resolve_ms", (resolvedTime - preparedTime) / 1_000_000.0);
+        timeline.put("activate_ms", (activatedTime - resolvedTime) / 1_000_000.0);
+        timeline.put("total_ms", (activatedTime - startTime) / 1_000_000.0);
+        timeline.put("config_cpu_ms", configNanos / 1_000_000.0);
+        timeline.put("class_loading_cpu_ms", classLoadNanos / 1_000_000.0);
+        timeline.put("resource_extraction_cpu_ms", resourceNanos / 1_000_000.0);
+        timeline.put("activation_ms", activationNanos / 1_000_000.0);
+        lastLoadTimeline = Collections.unmodifiableMap(timeline);
+        
+        console.categoryInfo(ConsoleFormatter.MessageCategory.PERFORMANCE, String.format(
+            "Ladezeit: %.1f ms gesamt (Vorbereitung parallel %.1f ms, Auflösung %.1f ms, Aktivierung im Hauptthread %.1f ms)",
+            (activatedTime - startTime) / 1_000_000.0, (preparedTime - startTime) / 1_000_000.0,
+            (resolvedTime - preparedTime) / 1_000_000.0, (activatedTime - resolvedTime) / 1_000_000.0));
+        console.categoryDebug(ConsoleFormatter.MessageCategory.PERFORMANCE, String.format(
+            "Summe je Modul: Konfiguration %.1f ms, Klassenladen %.1f ms, Ressourcen %.1f ms, Aktivierung %.1f ms",
+            configNanos / 1_000_000.0, classLoadNanos / 1_000_000.0,
+            resourceNanos / 1_000_000.0, activationNanos / 1_000_000.0), apiCore.isDebugMode());
+    }
+    
+    /**
+     * Gibt die Zeitleiste des letzten Ladevorgangs je Phase zurück
+     * 
+     * @return Die Phasen mit ihren Dauern in Millisekunden
+     */
+    public Map<String, Object> getLastLoadTimeline() {
+        return lastLoadTimeline;
+    }
+    
+    /**
+     * Gibt den persistenten Index der Modul-Metadaten zurück
+     * 
+     * @return Der Modul-Index
+     */
+    public ModuleIndex getModuleIndex() {
+        return moduleIndex;
+    }
+    
+    private static String resolverVersion(String version) {
+        try {
+            new Version(version);
+            return version;
+        } catch (IllegalArgumentException e) {
+            return "0.0.0";
+        }
+    }
+    
+    private static Map<String, String> dependencyRanges(List<String> dependencies) {
+        Map<String, String> ranges = new LinkedHashMap<>();
+        for (String dependency : dependencies) {
+            ranges.put(dependency, ">=0.0.0");
+        }
+        return ranges;
+    }
+    
+    private void closeLoader(PreparedModule prepared) {
+        try {
+            prepared.loader.close();
+        } catch (IOException e) {
+            // Ignorieren, der ClassLoader wird ohnehin verworfen
+        }
+    }
+    
+    /**
+     * Lädt Module im aufrufenden Thread über dieselbe Pipeline wie der Serverstart:
+     * Vorbereitung parallel, Aktivierung im Hauptthread. Außerhalb des Hauptthreads
+     * wartet der Aufrufer, bis jede Ebene im Hauptthread aktiviert wurde.
+     */
+    private void loadModulesSync(File[] files) {
+        apiCore.getLogger().info("Lade " + files.length + " Module...");
+        
+        try {
+            int loadedCount = loadModuleFiles(files);
+            if (apiCore.isDebugMode()) {
+                apiCore.getLogger().info(loadedCount + " von " + files.length + " Modulen geladen");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            apiCore.getLogger().log(Level.SEVERE, "Fehler beim Laden der Module", e);
+        }
     }
       
     /**
-     * Lädt alle verfügbaren Module asynchron
+     * Lädt alle verfügbaren Module asynchron. Die Vorbereitung läuft im ExecutorService,
+     * die Aktivierung wird Ebene für Ebene an den Hauptthread übergeben.
      */
     public void loadModulesAsync() {
         if (!modulesDir.exists()) return;
@@ -202,59 +467,8 @@ public class ModuleManager {
             return;
         }
 
-        // Process modules in parallel
-        CompletionService<String> completionService = new ExecutorCompletionService<>(executorService);
-        int submittedTasks = 0;
-
-        for (File file : files) {
-            // Modulname aus Dateinamen extrahieren
-            String potentialModuleName = file.getName().replace(".jar", "");
-            
-            // Konfigurationsdatei prüfen
-            File configFile = new File(configDir, potentialModuleName + ".yml");
-            boolean shouldLoad = true;
-            
-            // Wenn Konfigurationsdatei existiert, enabled-Status prüfen
-            if (configFile.exists()) {
-                try {
-                    YamlConfiguration config = YamlConfiguration.loadConfiguration(configFile);
-                    shouldLoad = config.getBoolean("enabled", true);
-                    
-                    if (!shouldLoad) {
-                        apiCore.getLogger().info("Modul " + potentialModuleName + " ist deaktiviert und wird übersprungen");
-                        continue;
-                    }
-                } catch (Exception e) {
-                    apiCore.getLogger().warning("Fehler beim Lesen der Konfiguration für " + potentialModuleName + ": " + e.getMessage());
-                }
-            }
-            
-            // Wenn enabled=true oder keine Konfiguration, Modul asynchron laden
-            if (shouldLoad) {
-            completionService.submit(() -> {
-                try {
-                    loadModule(file);
-                    return "Loaded: " + file.getName();
-                } catch (Exception e) {
-                    apiCore.getLogger().log(Level.SEVERE, "Fehler beim Laden des Moduls " + file.getName(), e);
-                    return "Failed: " + file.getName();
-                }
-            });
-            submittedTasks++;
-            }
-        }
-
-        // Wait for all modules to load
-        for (int i = 0; i < submittedTasks; i++) {
-            try {
-                Future<String> result = completionService.take();
-                if (apiCore.isDebugMode()) {
-                    apiCore.getLogger().info(result.get());
-                }
-            } catch (Exception e) {
-                apiCore.getLogger().log(Level.SEVERE, "Fehler beim Warten auf Modulladung", e);
-            }
-        }
+        // Nicht auf das Ergebnis warten: im Hauptthread würde das die Aktivierung blockieren
+        executorService.submit(() -> loadModulesSync(files));
     }
     
     /**
@@ -398,65 +612,10 @@ public class ModuleManager {
                         Path filename = watchEvent.context();
                         
                         if (filename.toString().endsWith(".jar")) {
-                            console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Änderung erkannt: " + filename);
-                            
-                            File moduleFile = new File(modulesDir, filename.toString());
+                            console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "Änderung erkannt: " + filename, apiCore.isDebugMode());
                             
-                            // Verwende den neuen Helper zum Extrahieren des Modulnamens
-                            String moduleName = getModuleNameFromJar(moduleFile);
-                            
-                            // Nur fortfahren, wenn ein gültiger Modulname extrahiert werden konnte
-                            if (moduleName != null && !moduleName.isEmpty()) {
-                                console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Hot Reload für Modul: " + moduleName);
-                                
-                                // Konfiguration prüfen (optional)
-                                File configFile = new File(configDir, moduleName + ".yml");
-                                boolean shouldLoad = true;
-                                if (configFile.exists()) {
-                                    try {
-                                        YamlConfiguration config = YamlConfiguration.loadConfiguration(configFile);
-                                        shouldLoad = config.getBoolean("enabled", true);
-                                    } catch (Exception e) {
-                                        console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "Fehler beim Lesen der Konfiguration für " + moduleName + ": " + e.getMessage());
-                                    }
-                                }
-                                
-                                if (shouldLoad) {
-                                    // Kopie für Lambda-Zugriff
-                                    final String moduleNameFinal = moduleName;
-                                    final File moduleFileFinal = moduleFile;
-                                    
-                                    // Run module reload on main thread to ensure thread safety
-                                    Bukkit.getScheduler().runTask(apiCore, () -> {
-                                        try {
-                                            if (loadedModules.containsKey(moduleNameFinal)) {
-                                                console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Entlade Modul vor Hot-Reload: " + moduleNameFinal);
-                                                unloadModule(moduleNameFinal);
-                                            }
-                                            
-                                            // Kurze Pause, um sicherzustellen, dass die Datei fertig geschrieben ist
-                                            try {
-                                                Thread.sleep(100);
-                                            } catch (InterruptedException e) {
-                                                Thread.currentThread().interrupt();
-                                            }
-                                            
-                                            console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Lade Modul neu: " + moduleNameFinal);
-                                            loadModule(moduleFileFinal);
-                                            console.categorySuccess(ConsoleFormatter.MessageCategory.MODULE, "Hot-Reload für Modul " + moduleNameFinal + " erfolgreich abgeschlossen");
-                                        } catch (Exception e) {
-                                            console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Hot-Reload fehlgeschlagen für " + moduleNameFinal + ": " + e.getMessage());
-                                            if (apiCore.isDebugMode()) {
-                                                e.printStackTrace();
-                                            }
-                                        }
-                                    });
-                                } else {
-                                    console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Neues Modul " + moduleName + " erkannt, aber deaktiviert in Konfiguration");
-                                }
-                            } else {
-                                console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "Konnte keinen gültigen Modulnamen aus " + filename + " extrahieren");
-                            }
+                            // Ereignisse werden gesammelt, bis die Datei vollständig geschrieben ist
+                            reloadPipeline.fileChanged(new File(modulesDir, filename.toString()));
                         }
                     }
                     
@@ -471,6 +630,276 @@ public class ModuleManager {
         });
     }
     
+    /**
+     * Lädt geänderte Module und alle von ihnen abhängigen Module neu.
+     * ClassLoader, Klassen und Ressourcen werden im aufrufenden Hintergrund-Thread vorbereitet,
+     * nur das Entladen der alten und das Aktivieren der neuen Versionen läuft im Hauptthread,
+     * da init() Befehle und Listener registriert. Kann die neue Version eines Moduls nicht
+     * vorbereitet werden, bleiben das Modul und seine abhängigen Module in der alten Version geladen.
+     * Schlägt die Aktivierung einer neuen Version fehl, werden alle neuen Versionen wieder entladen
+     * und die alten mit ihrem gesicherten Zustand erneut aktiviert. Die ClassLoader der alten
+     * Versionen werden erst nach einem erfolgreichen Austausch geschlossen.
+     * 
+     * @param changedModules Die geänderten Module mit ihrer neuen JAR-Datei
+     * @return Die Anzahl neu geladener Module
+     */
+    public int reloadChangedModules(Map<String, File> changedModules) {
+        long startTime = System.nanoTime();
+        Map<String, File> affected = collectAffectedModules(changedModules);
+        console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Hot-Reload für " + String.join(", ", changedModules.keySet()) + 
+            (affected.size() > changedModules.size() ? " (inkl. " + (affected.size() - changedModules.size()) + " abhängiger Module)" : ""));
+        
+        try {
+            List<PreparedModule> preparedModules = prepareModules(affected.values().toArray(new File[0]), true);
+            preparedModules = dropDependentsOfFailed(affected.keySet(), preparedModules);
+            if (preparedModules.isEmpty()) {
+                return 0;
+            }
+            
+            List<List<PreparedModule>> levels = resolveLoadLevels(preparedModules);
+            long preparedTime = System.nanoTime();
+            
+            // Nur der Austausch der Registrierungen läuft im Hauptthread, ohne Tick dazwischen
+            long[] swapNanos = new long[1];
+            Callable<Integer> swap = () -> {
+                long swapStart = System.nanoTime();
+                Map<String, PreparedModule> previousVersions = new LinkedHashMap<>();
+                Map<String, Map<String, Object>> previousStates = new HashMap<>();
+                for (int i = levels.size() - 1; i >= 0; i--) {
+                    List<PreparedModule> level = levels.get(i);
+                    for (int j = level.size() - 1; j >= 0; j--) {
+                        PreparedModule prepared = level.get(j);
+                        if (loadedModules.containsKey(prepared.name)) {
+                            prepared.handoffState = exportModuleState(prepared.name);
+                            previousStates.put(prepared.name, prepared.handoffState);
+                            PreparedModule previous = activeVersions.get(prepared.name);
+                            if (previous != null) {
+                                previousVersions.put(prepared.name, previous);
+                            }
+                            // Der alte ClassLoader bleibt offen, bis die neue Version läuft
+                            unloadModule(prepared.name, previous == null);
+                        }
+                    }
+                }
+                
+                int total = 0;
+                for (List<PreparedModule> level : levels) {
+                    total += level.size();
+                }
+                int loadedCount = 0;
+                int step = 0;
+                for (List<PreparedModule> level : levels) {
+                    loadedCount += activateLevel(level, step, total);
+                    step += level.size();
+                }
+                
+                if (loadedCount < total) {
+                    rollbackSwap(levels, previousVersions, previousStates);
+                    swapNanos[0] = System.nanoTime() - swapStart;
+                    return 0;
+                }
+                
+                for (PreparedModule previous : previousVersions.values()) {
+                    closeLoader(previous);
+                    unloadVerifier.watch(previous.name, previous.loader);
+                }
+                swapNanos[0] = System.nanoTime() - swapStart;
+                return loadedCount;
+            };
+            
+            int loadedCount = Bukkit.isPrimaryThread() ? swap.call() : Bukkit.getScheduler().callSyncMethod(apiCore, swap).get();
+            console.categorySuccess(ConsoleFormatter.MessageCategory.MODULE, "Hot-Reload abgeschlossen: " + loadedCount + "/" + 
+                preparedModules.size() + " Module in " + (System.nanoTime() - startTime) / 1_000_000 + "ms (Vorbereitung " + 
+                (preparedTime - startTime) / 1_000_000 + "ms, Hauptthread " + swapNanos[0] / 1_000_000 + "ms)");
+            return loadedCount;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (Exception e) {
+            console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Hot-Reload fehlgeschlagen: " + e.getMessage());
+            if (apiCore.isDebugMode()) {
+                e.printStackTrace();
+            }
+            return 0;
+        }
+    }
+    
+    /**
+     * Macht einen fehlgeschlagenen Hot-Swap rückgängig: entlädt die bereits aktivierten neuen
+     * Versionen und aktiviert die alten Versionen mit ihrem gesicherten Zustand erneut.
+     * Muss im Hauptthread aufgerufen werden.
+     * 
+     * @param levels Die Ebenen der neuen Versionen
+     * @param previousVersions Die vorbereiteten Daten der alten Versionen
+     * @param previousStates Der vor dem Entladen gesicherte Zustand der alten Versionen
+     */
+    private void rollbackSwap(List<List<PreparedModule>> levels, Map<String, PreparedModule> previousVersions,
+                              Map<String, Map<String, Object>> previousStates) {
+        console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, 
+            "Hot-Reload fehlgeschlagen, stelle die vorherigen Versionen wieder her: " + String.join(", ", previousVersions.keySet()));
+        
+        for (int i = levels.size() - 1; i >= 0; i--) {
+            List<PreparedModule> level = levels.get(i);
+            for (int j = level.size() - 1; j >= 0; j--) {
+                PreparedModule prepared = level.get(j);
+                Object moduleInfo = loadedModules.get(prepared.name);
+                // Auch halb aktivierte Versionen stehen bereits in loadedModules
+                if (moduleInfo instanceof ApiCore.ModuleInfo 
+                        && ((ApiCore.ModuleInfo) moduleInfo).getLoader() == prepared.loader) {
+                    unloadModule(prepared.name);
+                } else {
+                    closeLoader(prepared);
+                }
+            }
+        }
+        
+        for (List<PreparedModule> level : levels) {
+            for (PreparedModule prepared : level) {
+                PreparedModule previous = previousVersions.get(prepared.name);
+                if (previous == null) {
+                    continue;
+                }
+                PreparedModule restored = previous.copy();
+                restored.handoffState = previousStates.get(prepared.name);
+                boolean activated;
+                try {
+                    activated = activateModule(restored);
+                } catch (Exception e) {
+                    activated = false;
+                    if (apiCore.isDebugMode()) {
+                        e.printStackTrace();
+                    }
+                }
+                if (activated) {
+                    console.status("OK", "Vorherige Version von " + prepared.name + " wiederhergestellt", true);
+                } else {
+                    console.status("FEHLER", "Vorherige Version von " + prepared.name + " konnte nicht wiederhergestellt werden", false);
+                    if (loadedModules.containsKey(prepared.name)) {
+                        unloadModule(prepared.name);
+                    } else {
+                        closeLoader(previous);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Fragt den Zustand der laufenden Version eines Moduls für den Hot-Swap ab
+     * 
+     * @param moduleName Der Name des Moduls
+     * @return Der Zustand oder null, wenn das Modul keinen Zustand übergibt
+     */
+    private Map<String, Object> exportModuleState(String moduleName) {
+        Object moduleInfo = loadedModules.get(moduleName);
+        if (!(moduleInfo instanceof ApiCore.ModuleInfo)) {
+            return null;
+        }
+        
+        Object instance = ((ApiCore.ModuleInfo) moduleInfo).getInstance();
+        if (instance instanceof ModuleAdapter) {
+            instance = ((ModuleAdapter) instance).getModule();
+        }
+        if (!(instance instanceof com.essentialscore.api.Module)) {
+            return null;
+        }
+        
+        try {
+            return ((com.essentialscore.api.Module) instance).exportState();
+        } catch (Exception e) {
+            console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, 
+                "Zustand von " + moduleName + " konnte nicht gesichert werden, neue Version startet ohne Zustand: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Gibt die Prüfung der ClassLoader entladener Module zurück
+     * 
+     * @return Der Prüfer
+     */
+    public ModuleUnloadVerifier getUnloadVerifier() {
+        return unloadVerifier;
+    }
+    
+    /**
+     * Ergänzt die geänderten Module um alle geladenen Module, die direkt oder indirekt von ihnen abhängen
+     */
+    private Map<String, File> collectAffectedModules(Map<String, File> changedModules) {
+        Map<String, File> affected = new LinkedHashMap<>(changedModules);
+        Deque<String> queue = new ArrayDeque<>(changedModules.keySet());
+        
+        while (!queue.isEmpty()) {
+            String dependency = queue.poll();
+            for (Map.Entry<String, Object> entry : loadedModules.entrySet()) {
+                if (affected.containsKey(entry.getKey()) || !(entry.getValue() instanceof ApiCore.ModuleInfo)) {
+                    continue;
+                }
+                File jarFile = ((ApiCore.ModuleInfo) entry.getValue()).getJarFile();
+                ModuleIndex.Entry indexEntry = jarFile != null ? moduleIndex.get(jarFile) : null;
+                if (indexEntry != null && (indexEntry.getDependencies().contains(dependency) 
+                        || indexEntry.getSoftDependencies().contains(dependency))) {
+                    affected.put(entry.getKey(), jarFile);
+                    queue.add(entry.getKey());
+                }
+            }
+        }
+        return affected;
+    }
+    
+    /**
+     * Verwirft vorbereitete Module, die von einem nicht vorbereiteten Modul abhängen
+     */
+    private List<PreparedModule> dropDependentsOfFailed(Set<String> affected, List<PreparedModule> preparedModules) {
+        Set<String> failed = new HashSet<>(affected);
+        for (PreparedModule prepared : preparedModules) {
+            failed.remove(prepared.name);
+        }
+        if (failed.isEmpty()) {
+            return preparedModules;
+        }
+        console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "Neue Version nicht ladbar, alte Version bleibt aktiv: " + String.join(", ", failed));
+        
+        List<PreparedModule> remaining = new ArrayList<>(preparedModules);
+        boolean dropped = true;
+        while (dropped) {
+            dropped = false;
+            for (Iterator<PreparedModule> it = remaining.iterator(); it.hasNext();) {
+                PreparedModule prepared = it.next();
+                if (!Collections.disjoint(prepared.dependencies, failed) || !Collections.disjoint(prepared.softDependencies, failed)) {
+                    failed.add(prepared.name);
+                    closeLoader(prepared);
+                    it.remove();
+                    dropped = true;
+                }
+            }
+        }
+        return remaining;
+    }
+    
+    /**
+     * Gibt den Inhalts-Hash der geladenen Version eines Moduls zurück
+     * 
+     * @param moduleName Der Name des Moduls
+     * @return Der SHA-256-Hash oder null, wenn das Modul nicht geladen ist
+     */
+    public String getLoadedModuleHash(String moduleName) {
+        return loadedModuleHashes.get(moduleName);
+    }
+    
+    /**
+     * Gibt die Hot-Reload-Pipeline zurück
+     * 
+     * @return Die Pipeline
+     */
+    public ModuleReloadPipeline getReloadPipeline() {
+        return reloadPipeline;
+    }
+    
+    File getConfigDir() {
+        return configDir;
+    }
+    
     /**
      * Lädt ein einzelnes Modul mit optimierter I/O und Memory-Nutzung
      */
@@ -481,23 +910,12 @@ public class ModuleManager {
         final String extractedModuleName;
         String tempModuleName = "";
         
-        try (JarFile jar = new JarFile(jarFile)) {
-            console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "JAR-Datei geöffnet zum Extrahieren von Modulnamen: " + jarFile.getName(), apiCore.isDebugMode());
-            JarEntry moduleYml = jar.getJarEntry("module.yml");
-            if (moduleYml != null) {
-                console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "module.yml gefunden in: " + jarFile.getName(), apiCore.isDebugMode());
-                YamlConfiguration moduleConfig = YamlConfiguration.loadConfiguration(
-                        new InputStreamReader(jar.getInputStream(moduleYml), StandardCharsets.UTF_8));
-                tempModuleName = moduleConfig.getString("name", "");
-                console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "Extrahierter Modulname: " + tempModuleName, apiCore.isDebugMode());
-            } else {
-                console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "module.yml nicht gefunden in: " + jarFile.getName());
-            }
-        } catch (Exception e) {
-            console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Fehler beim Extrahieren des Modulnamens aus " + jarFile.getName() + ": " + e.getMessage());
-            if (apiCore.isDebugMode()) {
-                e.printStackTrace();
-            }
+        ModuleIndex.Entry indexEntry = moduleIndex.get(jarFile);
+        if (indexEntry != null && indexEntry.hasRootModuleYml()) {
+            tempModuleName = indexEntry.getName() != null ? indexEntry.getName() : "";
+            console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "Extrahierter Modulname: " + tempModuleName, apiCore.isDebugMode());
+        } else {
+            console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "module.yml nicht gefunden in: " + jarFile.getName());
         }
         
         // Finalen Wert zuweisen
@@ -578,333 +996,452 @@ public class ModuleManager {
         
         console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "Öffne JAR-Datei zur Modulverarbeitung: " + jarFile.getName(), apiCore.isDebugMode());
         
-        try (JarFile jar = new JarFile(jarFile, false)) {
-            console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "JAR-Datei geöffnet: " + jarFile.getName(), apiCore.isDebugMode());
-            JarEntry moduleYml = jar.getJarEntry("module.yml");
-
-            if (moduleYml == null) {
-                console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "Die Datei " + jarFile.getName() + " enthält keine module.yml");
-                return;
+        try {
+            PreparedModule prepared = prepareModule(jarFile, false);
+            if (prepared != null) {
+                activateModule(prepared);
             }
-
-            console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "module.yml gefunden in: " + jarFile.getName(), apiCore.isDebugMode());
-            
-            // Optimierte Konfigurationsladung mit gepuffertem Stream
-            YamlConfiguration moduleConfig;
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(jar.getInputStream(moduleYml), StandardCharsets.UTF_8), BUFFER_SIZE)) {
-                moduleConfig = YamlConfiguration.loadConfiguration(reader);
-                console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "Konfiguration geladen aus: " + jarFile.getName(), apiCore.isDebugMode());
+        } catch (Exception e) {
+            console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Fehler beim Laden des Moduls: " + e.getMessage());
+            if (apiCore.isDebugMode()) {
+                e.printStackTrace();
             }
+        }
+    }
+    
+    /**
+     * Bereitet ein Modul vor, ohne es zu aktivieren: liest module.yml und Konfiguration,
+     * erstellt den ClassLoader und lädt die Hauptklasse. Benötigt nicht den Hauptthread.
+     * 
+     * @param jarFile Die JAR-Datei des Moduls
+     * @param replacing true, wenn eine bereits geladene Version ersetzt werden soll
+     * @return Das vorbereitete Modul oder null, wenn es nicht geladen werden soll
+     * @throws Exception bei Fehlern beim Lesen der JAR-Datei oder beim Laden der Klassen
+     */
+    private PreparedModule prepareModule(File jarFile, boolean replacing) throws Exception {
+        long startTime = System.nanoTime();
+        
+        // module.yml aus dem Modul-Index lesen, die JAR-Datei wird nur bei Änderungen geöffnet
+        ModuleIndex.Entry indexEntry = moduleIndex.get(jarFile);
+        if (indexEntry == null || !indexEntry.hasRootModuleYml()) {
+            console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "Die Datei " + jarFile.getName() + " enthält keine module.yml");
+            return null;
+        }
+        
+        YamlConfiguration moduleConfig = indexEntry.getModuleConfig();
+        if (moduleConfig == null) {
+            console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "Ungültige module.yml in " + jarFile.getName());
+            return null;
+        }
+        console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "Konfiguration geladen aus: " + jarFile.getName(), apiCore.isDebugMode());
 
-            String moduleName = moduleConfig.getString("name");
-            String mainClass = moduleConfig.getString("main");
-            String version = moduleConfig.getString("version", "1.0.0");
-            String description = moduleConfig.getString("description", "");
+        String moduleName = moduleConfig.getString("name");
+        String mainClass = moduleConfig.getString("main");
+        String version = moduleConfig.getString("version", "1.0.0");
+        String description = moduleConfig.getString("description", "");
 
-            if (moduleName == null || mainClass == null) {
-                console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "Ungültige module.yml in " + jarFile.getName());
-                return;
-            }
+        if (moduleName == null || mainClass == null) {
+            console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "Ungültige module.yml in " + jarFile.getName());
+            return null;
+        }
 
-            console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Modulinfo: Name=" + moduleName + ", Main=" + mainClass + ", Version=" + version);
-            
-            // Prüfen, ob das Modul bereits geladen ist
-            if (loadedModules.containsKey(moduleName)) {
-                console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "Das Modul " + moduleName + " ist bereits geladen!");
-                return;
-            }
+        console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Modulinfo: Name=" + moduleName + ", Main=" + mainClass + ", Version=" + version);
+        
+        // Prüfen, ob das Modul bereits geladen ist
+        if (!replacing && loadedModules.containsKey(moduleName)) {
+            console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "Das Modul " + moduleName + " ist bereits geladen!");
+            return null;
+        }
 
-            // Modul-Konfiguration erstellen oder laden - Mit verbesserter Fehlerbehandlung
-            File moduleConfigFile = new File(configDir, moduleName + ".yml");
-            
-            // Überprüfe Verzeichnisrechte explizit vor dem Operationsversuch
-            if (!configDir.exists()) {
-                boolean created = configDir.mkdirs();
-                if (!created) {
-                    console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "KRITISCH: Konnte Konfigurationsverzeichnis nicht erstellen: " + configDir.getAbsolutePath());
-                    console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Module können möglicherweise nicht korrekt geladen werden!");
-                }
+        // Modul-Konfiguration erstellen oder laden - Mit verbesserter Fehlerbehandlung
+        File moduleConfigFile = new File(configDir, moduleName + ".yml");
+        
+        // Überprüfe Verzeichnisrechte explizit vor dem Operationsversuch
+        if (!configDir.exists()) {
+            boolean created = configDir.mkdirs();
+            if (!created) {
+                console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "KRITISCH: Konnte Konfigurationsverzeichnis nicht erstellen: " + configDir.getAbsolutePath());
+                console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Module können möglicherweise nicht korrekt geladen werden!");
             }
-            
-            if (!configDir.canWrite()) {
-                console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "KRITISCH: Keine Schreibrechte für das Konfigurationsverzeichnis: " + configDir.getAbsolutePath());
-                console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Modulkonfiguration kann nicht gespeichert werden!");
-                // Trotzdem fortfahren, vielleicht mit Standardeinstellungen
+        }
+        
+        if (!configDir.canWrite()) {
+            console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "KRITISCH: Keine Schreibrechte für das Konfigurationsverzeichnis: " + configDir.getAbsolutePath());
+            console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Modulkonfiguration kann nicht gespeichert werden!");
+            // Trotzdem fortfahren, vielleicht mit Standardeinstellungen
+        }
+        
+        FileConfiguration config;
+        
+        // Optimierte Konfigurationsprüfung mit weniger Festplattenzugriffen
+        boolean configExists = moduleConfigFile.exists();
+        boolean needsConfigSave = false;
+        
+        if (!configExists) {
+            console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Erstelle neue Konfiguration für Modul: " + moduleName);
+            config = new YamlConfiguration();
+            config.set("enabled", true);
+            config.set("version", version);
+            needsConfigSave = true;
+        } else {
+            console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Lade existierende Konfiguration für Modul: " + moduleName);
+            try {
+            // Gepufferte Konfigurationsladung für bessere Performance
+            try (BufferedReader reader = new BufferedReader(
+                    new FileReader(moduleConfigFile, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                config = YamlConfiguration.loadConfiguration(reader);
             }
-            
-            FileConfiguration config;
-            
-            // Optimierte Konfigurationsprüfung mit weniger Festplattenzugriffen
-            boolean configExists = moduleConfigFile.exists();
-            boolean needsConfigSave = false;
-            
-            if (!configExists) {
-                console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Erstelle neue Konfiguration für Modul: " + moduleName);
-                config = new YamlConfiguration();
-                config.set("enabled", true);
-                config.set("version", version);
-                needsConfigSave = true;
-            } else {
-                console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Lade existierende Konfiguration für Modul: " + moduleName);
-                try {
-                // Gepufferte Konfigurationsladung für bessere Performance
-                try (BufferedReader reader = new BufferedReader(
-                        new FileReader(moduleConfigFile, StandardCharsets.UTF_8), BUFFER_SIZE)) {
-                    config = YamlConfiguration.loadConfiguration(reader);
-                }
 
-                // Version aktualisieren, falls nötig
-                if (!config.getString("version", "").equals(version)) {
-                        config.set("version", version);
-                        needsConfigSave = true;
-                    }
-                } catch (IOException e) {
-                    console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Konnte Konfiguration für Modul " + moduleName + " nicht lesen: " + e.getMessage());
-                    console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Erstelle neue Konfiguration...");
-                    config = new YamlConfiguration();
-                    config.set("enabled", true);
+            // Version aktualisieren, falls nötig
+            if (!config.getString("version", "").equals(version)) {
                     config.set("version", version);
                     needsConfigSave = true;
                 }
+            } catch (IOException e) {
+                console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Konnte Konfiguration für Modul " + moduleName + " nicht lesen: " + e.getMessage());
+                console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Erstelle neue Konfiguration...");
+                config = new YamlConfiguration();
+                config.set("enabled", true);
+                config.set("version", version);
+                needsConfigSave = true;
             }
-            
-            // Konfiguration nur speichern, wenn nötig - reduziert I/O
-            if (needsConfigSave) {
-                console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Speichere Konfiguration für Modul: " + moduleName);
-                try {
-                    // Stelle sicher, dass das Verzeichnis existiert
-                    File parentDir = moduleConfigFile.getParentFile();
-                    if (parentDir != null && !parentDir.exists()) {
-                        boolean dirCreated = parentDir.mkdirs();
-                        if (!dirCreated) {
-                            console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Konnte Verzeichnis nicht erstellen: " + parentDir.getAbsolutePath());
-                        }
-                    }
-                    
-                    // Versuche die Konfiguration zu speichern
-                config.save(moduleConfigFile);
-                    
-                    // Teste, ob die Datei tatsächlich erstellt wurde
-                    if (!moduleConfigFile.exists()) {
-                        console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "KRITISCH: Konfigurationsdatei konnte nicht erstellt werden, obwohl keine Exception geworfen wurde!");
-                        console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Pfad: " + moduleConfigFile.getAbsolutePath());
-                        console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Bitte überprüfe die Berechtigungen des Minecraft-Servers.");
+        }
+        
+        // Konfiguration nur speichern, wenn nötig - reduziert I/O
+        if (needsConfigSave) {
+            console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Speichere Konfiguration für Modul: " + moduleName);
+            try {
+                // Stelle sicher, dass das Verzeichnis existiert
+                File parentDir = moduleConfigFile.getParentFile();
+                if (parentDir != null && !parentDir.exists()) {
+                    boolean dirCreated = parentDir.mkdirs();
+                    if (!dirCreated) {
+                        console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Konnte Verzeichnis nicht erstellen: " + parentDir.getAbsolutePath());
                     }
-                } catch (IOException e) {
-                    console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Fehler beim Speichern der Konfiguration für Modul " + moduleName + ": " + e.getMessage());
-                    console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Details: " + e.getClass().getName() + 
-                            (e.getCause() != null ? ", Ursache: " + e.getCause().getMessage() : ""));
-                    // Fahre trotzdem fort, möglicherweise mit Standardeinstellungen
                 }
+                
+                // Versuche die Konfiguration zu speichern
+            config.save(moduleConfigFile);
+                
+                // Teste, ob die Datei tatsächlich erstellt wurde
+                if (!moduleConfigFile.exists()) {
+                    console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "KRITISCH: Konfigurationsdatei konnte nicht erstellt werden, obwohl keine Exception geworfen wurde!");
+                    console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Pfad: " + moduleConfigFile.getAbsolutePath());
+                    console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Bitte überprüfe die Berechtigungen des Minecraft-Servers.");
+                }
+            } catch (IOException e) {
+                console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Fehler beim Speichern der Konfiguration für Modul " + moduleName + ": " + e.getMessage());
+                console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Details: " + e.getClass().getName() + 
+                        (e.getCause() != null ? ", Ursache: " + e.getCause().getMessage() : ""));
+                // Fahre trotzdem fort, möglicherweise mit Standardeinstellungen
             }
+        }
 
-            // Prüfen, ob das Modul aktiviert ist
-            if (!config.getBoolean("enabled", true)) {
-                    console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Das Modul " + moduleName + " ist deaktiviert und wird nicht geladen.");
-                    return;
-            }
-
-            // Set contextClassLoader before loading module classes
-            ClassLoader previousClassLoader = Thread.currentThread().getContextClassLoader();
+        // Prüfen, ob das Modul aktiviert ist
+        if (!config.getBoolean("enabled", true)) {
+                console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Das Modul " + moduleName + " ist deaktiviert und wird nicht geladen.");
+                return null;
+        }
+        
+        long configNanos = System.nanoTime() - startTime;
+        
+        // Set contextClassLoader before loading module classes
+        ClassLoader previousClassLoader = Thread.currentThread().getContextClassLoader();
+        URLClassLoader loader = null;
+        try {
+            // Optimierter ClassLoader mit besserer Isolation und Caching
+            loader = new ModuleClassLoader(moduleName, new URL[]{jarFile.toURI().toURL()}, apiCore.getClass().getClassLoader());
+            Thread.currentThread().setContextClassLoader(loader);
             
-            // Verbesserte Fehlerbehandlung mit Try-With-Resources
-            URLClassLoader loader = null;
-            try {
-                // Optimierter ClassLoader mit besserer Isolation und Caching
-                loader = new ModuleClassLoader(moduleName, new URL[]{jarFile.toURI().toURL()}, apiCore.getClass().getClassLoader());
-                Thread.currentThread().setContextClassLoader(loader);
-                
-                // Effizienzsteigerung durch direkte Klassenladung ohne Umwege
-                Class<?> moduleMainClass = Class.forName(mainClass, true, loader);
+            // Nur laden, nicht initialisieren: statische Initialisierer laufen erst bei der
+            // Instanzerstellung im Hauptthread, nicht auf den parallelen Vorbereitungs-Threads
+            Class<?> moduleMainClass = Class.forName(mainClass, false, loader);
 
-                // Optimierte Modul-Interface-Überprüfung, die Klassenladerhierarchie-Probleme vermeidet
-                boolean implementsModuleInterface = false;
-                
-                // Prüfe, ob es das Module-Interface implementiert
-                for (Class<?> iface : moduleMainClass.getInterfaces()) {
-                    if (iface.getName().equals("com.essentialscore.api.Module")) {
-                        implementsModuleInterface = true;
-                        console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "Interface Module gefunden: " + iface.getName(), apiCore.isDebugMode());
-                        break;
-                    }
+            // Optimierte Modul-Interface-Überprüfung, die Klassenladerhierarchie-Probleme vermeidet
+            boolean implementsModuleInterface = false;
+            
+            // Prüfe, ob es das Module-Interface implementiert
+            for (Class<?> iface : moduleMainClass.getInterfaces()) {
+                if (iface.getName().equals("com.essentialscore.api.Module")) {
+                    implementsModuleInterface = true;
+                    console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "Interface Module gefunden: " + iface.getName(), apiCore.isDebugMode());
+                    break;
                 }
-                
-                // Wenn nicht, versuche die init-Methode mit passender Signatur zu finden
-                if (!implementsModuleInterface) {
+            }
+            
+            // Wenn nicht, versuche die init-Methode mit passender Signatur zu finden
+            if (!implementsModuleInterface) {
+                try {
+                    // Prüfe auf die Signatur mit ModuleAPI
                     try {
-                        // Prüfe auf die Signatur mit ModuleAPI
+                        Method initMethod = moduleMainClass.getMethod("init", ModuleAPI.class, FileConfiguration.class);
+                    Method onDisableMethod = moduleMainClass.getMethod("onDisable");
+                    
+                    if (initMethod != null && onDisableMethod != null) {
+                            implementsModuleInterface = true;
+                            console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "Interface Module gefunden (über Methodensignatur): init und onDisable vorhanden", apiCore.isDebugMode());
+                    }
+                } catch (NoSuchMethodException e) {
+                        // Prüfe auf die alte Signatur mit ApiCore
                         try {
-                            Method initMethod = moduleMainClass.getMethod("init", ModuleAPI.class, FileConfiguration.class);
-                        Method onDisableMethod = moduleMainClass.getMethod("onDisable");
-                        
-                        if (initMethod != null && onDisableMethod != null) {
-                                implementsModuleInterface = true;
-                                console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "Interface Module gefunden (über Methodensignatur): init und onDisable vorhanden", apiCore.isDebugMode());
-                        }
-                    } catch (NoSuchMethodException e) {
-                            // Prüfe auf die alte Signatur mit ApiCore
-                            try {
-                                Method initMethod = moduleMainClass.getMethod("init", ApiCore.class, FileConfiguration.class);
-                                Method onDisableMethod = moduleMainClass.getMethod("onDisable");
-                                
-                                if (initMethod != null && onDisableMethod != null) {
-                                    // Legacy module with direct ApiCore dependency
-                                    console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "Legacy Modul gefunden (über Methodensignatur): init und onDisable vorhanden", apiCore.isDebugMode());
-                                    implementsModuleInterface = true; // Treat as valid module
-                                }
-                            } catch (NoSuchMethodException ex) {
-                                // Methoden nicht gefunden - keine Interface-Implementierung
+                            Method initMethod = moduleMainClass.getMethod("init", ApiCore.class, FileConfiguration.class);
+                            Method onDisableMethod = moduleMainClass.getMethod("onDisable");
+                            
+                            if (initMethod != null && onDisableMethod != null) {
+                                // Legacy module with direct ApiCore dependency
+                                console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "Legacy Modul gefunden (über Methodensignatur): init und onDisable vorhanden", apiCore.isDebugMode());
+                                implementsModuleInterface = true; // Treat as valid module
                             }
+                        } catch (NoSuchMethodException ex) {
+                            // Methoden nicht gefunden - keine Interface-Implementierung
                         }
-                    } catch (Exception e) {
-                        // Allgemeiner Fehler bei der Methodenprüfung
                     }
+                } catch (Exception e) {
+                    // Allgemeiner Fehler bei der Methodenprüfung
                 }
-                
-                if (!implementsModuleInterface) {
-                    console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Klasse " + mainClass + " implementiert nicht das Module-Interface! Das Modul kann nicht geladen werden.");
-                    console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Verfügbare Interfaces: " + Arrays.toString(moduleMainClass.getInterfaces()));
-                    console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "LÖSUNG: Stelle sicher, dass das Modul das Interface Module von com.essentialscore.api implementiert");
-                    console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "ALTERNATIV: Implementiere die Methoden init(ModuleAPI/ApiCore, FileConfiguration) und onDisable()");
-                    return;
-                }
-
-                // Erstelle Modul-Info-Objekt und speichere es in loadedModules, BEVOR die Initialisierung beginnt
-                // Dies ist wichtig, damit der ModuleFileManager die JAR-Datei finden kann
-                // Erstelle temporäre ModuleInfo für initializeModuleFiles ohne Instanz
-                ApiCore.ModuleInfo tempModuleInfo = new ApiCore.ModuleInfo(moduleName, version, description, jarFile, loader, null);
-                loadedModules.put(moduleName, tempModuleInfo);
-                
-                // Initialisiere die Dateistruktur EXPLIZIT, bevor die Modulinstanz erstellt wird
-                apiCore.getModuleFileManager().getModuleDataDirectory(moduleName);
+            }
+            
+            if (!implementsModuleInterface) {
+                console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Klasse " + mainClass + " implementiert nicht das Module-Interface! Das Modul kann nicht geladen werden.");
+                console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Verfügbare Interfaces: " + Arrays.toString(moduleMainClass.getInterfaces()));
+                console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "LÖSUNG: Stelle sicher, dass das Modul das Interface Module von com.essentialscore.api implementiert");
+                console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "ALTERNATIV: Implementiere die Methoden init(ModuleAPI/ApiCore, FileConfiguration) und onDisable()");
+                loader.close();
+                return null;
+            }
+            
+            PreparedModule prepared = new PreparedModule(jarFile, indexEntry.getHash(), moduleConfig, moduleName, version, description,
+                                      config, loader, moduleMainClass, configNanos, System.nanoTime() - startTime - configNanos);
+            
+            // Beim Austausch die neue Instanz schon hier neben der alten Version erstellen,
+            // damit der Hauptthread beim Wechsel nur noch init und Registrierungen ausführt
+            if (replacing) {
+                prepared.instance = createModuleInstance(moduleMainClass);
+            }
+            return prepared;
+        } catch (Exception e) {
+            // ClassLoader nicht offen lassen, wenn die Vorbereitung fehlschlägt
+            if (loader != null) {
+                loader.close();
+            }
+            throw e;
+        } finally {
+            // Restore original contextClassLoader
+            Thread.currentThread().setContextClassLoader(previousClassLoader);
+        }
+    }
+    
+    /**
+     * Aktiviert ein vorbereitetes Modul: erstellt die Instanz, initialisiert sie und
+     * registriert Befehle und Berechtigungen. Muss im Hauptthread aufgerufen werden.
+     * 
+     * @param prepared Das vorbereitete Modul
+     * @return true, wenn das Modul erfolgreich geladen wurde
+     */
+    private boolean activateModule(PreparedModule prepared) {
+        String moduleName = prepared.name;
+        String version = prepared.version;
+        String description = prepared.description;
+        File jarFile = prepared.jarFile;
+        URLClassLoader loader = prepared.loader;
+        Class<?> moduleMainClass = prepared.mainClass;
+        FileConfiguration config = prepared.config;
+        YamlConfiguration moduleConfig = prepared.moduleConfig;
+        
+        // Ein anderes JAR mit demselben Modulnamen kann parallel vorbereitet worden sein
+        if (loadedModules.containsKey(moduleName)) {
+            console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "Das Modul " + moduleName + " ist bereits geladen!");
+            closeLoader(prepared);
+            return false;
+        }
+        
+        ClassLoader previousClassLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(loader);
+        boolean activated = false;
+        try {
+            // Erstelle Modul-Info-Objekt und speichere es in loadedModules, BEVOR die Initialisierung beginnt
+            // Dies ist wichtig, damit der ModuleFileManager die JAR-Datei finden kann
+            // Erstelle temporäre ModuleInfo für initializeModuleFiles ohne Instanz
+            ApiCore.ModuleInfo tempModuleInfo = new ApiCore.ModuleInfo(moduleName, version, description, jarFile, loader, null);
+            loadedModules.put(moduleName, tempModuleInfo);
+            
+            // Initialisiere die Dateistruktur EXPLIZIT, bevor die Modulinstanz erstellt wird
+            apiCore.getModuleFileManager().getModuleDataDirectory(moduleName);
 
-                // DANACH Instanz des Moduls erstellen mit optimierter Reflection
-                Object moduleInstance = null;
-                try {
-                    moduleInstance = createModuleInstance(moduleMainClass);
-                    if (moduleInstance == null) {
-                        console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Konnte keine Instanz für " + moduleName + " erstellen (Konstruktor lieferte null)");
-                        return;
-                    }
-                } catch (Exception e) {
-                    console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Fehler beim Erstellen der Modul-Instanz für " + moduleName + ": " + e.getMessage());
-                    if (apiCore.isDebugMode()) {
-                        e.printStackTrace();
-                    }
-                    return;
+            // DANACH Instanz des Moduls erstellen mit optimierter Reflection
+            Object moduleInstance = null;
+            try {
+                moduleInstance = prepared.instance != null ? prepared.instance : createModuleInstance(moduleMainClass);
+                if (moduleInstance == null) {
+                    console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Konnte keine Instanz für " + moduleName + " erstellen (Konstruktor lieferte null)");
+                    return false;
                 }
-                
-                // Erst JETZT Modul-Info aktualisieren, wenn die Instanz erfolgreich erstellt wurde
-                ApiCore.ModuleInfo moduleInfo = new ApiCore.ModuleInfo(moduleName, version, description, jarFile, loader, moduleInstance);
-                loadedModules.put(moduleName, moduleInfo);
+            } catch (Exception e) {
+                console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Fehler beim Erstellen der Modul-Instanz für " + moduleName + ": " + e.getMessage());
+                if (apiCore.isDebugMode()) {
+                    e.printStackTrace();
+                }
+                return false;
+            }
+            
+            // Erst JETZT Modul-Info aktualisieren, wenn die Instanz erfolgreich erstellt wurde
+            ApiCore.ModuleInfo moduleInfo = new ApiCore.ModuleInfo(moduleName, version, description, jarFile, loader, moduleInstance);
+            loadedModules.put(moduleName, moduleInfo);
 
-                // Modul initialisieren - mit robuster Initialisierung unabhängig vom Interface
-                try {
-                    // Verwende die bereits geladene Konfiguration
-                    final FileConfiguration finalConfig = config;
-                    final Object finalModuleInstance = moduleInstance;
-                    com.essentialscore.api.module.ModuleSandbox sandbox = apiCore.getModuleSandbox();
+            // Modul initialisieren - mit robuster Initialisierung unabhängig vom Interface
+            try {
+                // Verwende die bereits geladene Konfiguration
+                final FileConfiguration finalConfig = config;
+                final Object finalModuleInstance = moduleInstance;
+                com.essentialscore.api.module.ModuleSandbox sandbox = apiCore.getModuleSandbox();
+                
+                // Try initializing using Module interface
+                if (finalModuleInstance instanceof com.essentialscore.api.Module) {
+                    // Get or create ModuleAPI
+                    ModuleAPI moduleAPI = apiCore.getModuleAPI(moduleName);
                     
-                    if (implementsModuleInterface) {
-                        // Try initializing using Module interface
-                        if (finalModuleInstance instanceof com.essentialscore.api.Module) {
-                            // Get or create ModuleAPI
-                            ModuleAPI moduleAPI = apiCore.getModuleAPI(moduleName);
-                            
-                            // Initialize using the Module interface in a sandbox if enabled
-                            if (sandbox != null) {
-                                try {
-                                    // Direct initialization in sandbox without lambda
-                                    ((com.essentialscore.api.Module) finalModuleInstance).init(moduleAPI, finalConfig);
-                                } catch (Exception sandboxException) {
-                                    console.categoryError(ConsoleFormatter.MessageCategory.MODULE, 
-                                        "Modul " + moduleName + " konnte nicht initialisiert werden (Sandbox-Fehler): " + sandboxException.getMessage());
-                                    return;
-                                }
-                            } else {
-                                // Direkte Initialisierung ohne Sandbox
-                                ((com.essentialscore.api.Module) finalModuleInstance).init(moduleAPI, finalConfig);
-                            }
-                            
+                    // Zustand der vorherigen Version übernehmen (Hot-Swap)
+                    if (prepared.handoffState != null) {
+                        try {
+                            ((com.essentialscore.api.Module) finalModuleInstance).importState(prepared.handoffState);
                             console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, 
-                                "Modul " + moduleName + " erfolgreich initialisiert über Module-Interface");
-                            
-                            // Create an adapter that presents the Module as a legacy module
-                            ModuleAdapter adapter = new ModuleAdapter(
-                                (com.essentialscore.api.Module) finalModuleInstance, 
-                                moduleAPI, 
-                                apiCore
-                            );
-                            
-                            // Store the adapter in the ModuleInfo
-                            moduleInfo = new ApiCore.ModuleInfo(moduleName, version, description, jarFile, loader, adapter);
-                            loadedModules.put(moduleName, moduleInfo);
+                                "Zustand der vorherigen Version von " + moduleName + " übernommen (" + prepared.handoffState.size() + " Einträge)");
+                        } catch (Exception e) {
+                            console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, 
+                                "Modul " + moduleName + " konnte den übergebenen Zustand nicht übernehmen: " + e.getMessage());
                         }
+                        prepared.handoffState = null;
                     }
-                } catch (Exception e) {
-                    console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Fehler bei der Initialisierung von Modul " + moduleName + ": " + e.getMessage());
-                    if (apiCore.isDebugMode()) {
-                        e.printStackTrace();
+                    
+                    // Initialize using the Module interface in a sandbox if enabled
+                    if (sandbox != null) {
+                        try {
+                            // Direct initialization in sandbox without lambda
+                            ((com.essentialscore.api.Module) finalModuleInstance).init(moduleAPI, finalConfig);
+                        } catch (Exception sandboxException) {
+                            console.categoryError(ConsoleFormatter.MessageCategory.MODULE, 
+                                "Modul " + moduleName + " konnte nicht initialisiert werden (Sandbox-Fehler): " + sandboxException.getMessage());
+                            return false;
+                        }
+                    } else {
+                        // Direkte Initialisierung ohne Sandbox
+                        ((com.essentialscore.api.Module) finalModuleInstance).init(moduleAPI, finalConfig);
                     }
-                    return;
-                }
-                
-                // Infoblöcke erweitert mit kategorisierten Nachrichten
-                console.categorySuccess(ConsoleFormatter.MessageCategory.MODULE, "===== MODUL GELADEN: " + moduleName + " =====");
-                console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Version: " + version);
-                console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "WICHTIGE PFADE FÜR DIESES MODUL:");
-                console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "► JAR-Datei: " + jarFile.getAbsolutePath());
-                
-                File dataFolder = apiCore.getModuleDataFolder(moduleName);
-                if (dataFolder != null) {
-                    console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "► Daten-Ordner: " + dataFolder.getAbsolutePath());
-                } else {
-                    console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "► Daten-Ordner konnte nicht initialisiert werden!");
-                }
-                
-                File configFile = apiCore.getModuleConfigFile(moduleName);
-                if (configFile != null) {
-                    console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "► Konfigurations-Datei: " + configFile.getAbsolutePath());
-                } else {
-                    console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "► Konfigurations-Datei konnte nicht initialisiert werden!");
-                }
-                
-                File resourcesFolder = apiCore.getModuleResourcesFolder(moduleName);
-                if (resourcesFolder != null && resourcesFolder.exists()) {
-                    console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "► Ressourcen-Ordner: " + resourcesFolder.getAbsolutePath());
-                } else {
-                    console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "► Ressourcen-Ordner noch nicht verfügbar (wird nach dem Server-Start erstellt)");
+                    
+                    console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, 
+                        "Modul " + moduleName + " erfolgreich initialisiert über Module-Interface");
+                    
+                    // Create an adapter that presents the Module as a legacy module
+                    ModuleAdapter adapter = new ModuleAdapter(
+                        (com.essentialscore.api.Module) finalModuleInstance, 
+                        moduleAPI, 
+                        apiCore
+                    );
+                    
+                    // Store the adapter in the ModuleInfo
+                    moduleInfo = new ApiCore.ModuleInfo(moduleName, version, description, jarFile, loader, adapter);
+                    loadedModules.put(moduleName, moduleInfo);
                 }
-                console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Module sollten diese Pfade verwenden, um ihre Dateien zu finden und zu speichern.");
-                console.categorySuccess(ConsoleFormatter.MessageCategory.MODULE, "============================================");
-                
-                // Permissions und Befehle registrieren
-                if (moduleConfig != null) {
-                    loadModuleCommands(moduleConfig, moduleName);
-                    registerModulePermissions(moduleConfig, moduleName);
+            } catch (Exception e) {
+                console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Fehler bei der Initialisierung von Modul " + moduleName + ": " + e.getMessage());
+                if (apiCore.isDebugMode()) {
+                    e.printStackTrace();
                 }
+                return false;
+            }
+            
+            // Infoblöcke erweitert mit kategorisierten Nachrichten
+            console.categorySuccess(ConsoleFormatter.MessageCategory.MODULE, "===== MODUL GELADEN: " + moduleName + " =====");
+            console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Version: " + version);
+            console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "WICHTIGE PFADE FÜR DIESES MODUL:");
+            console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "► JAR-Datei: " + jarFile.getAbsolutePath());
+            
+            File dataFolder = apiCore.getModuleDataFolder(moduleName);
+            if (dataFolder != null) {
+                console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "► Daten-Ordner: " + dataFolder.getAbsolutePath());
+            } else {
+                console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "► Daten-Ordner konnte nicht initialisiert werden!");
+            }
+            
+            File configFile = apiCore.getModuleConfigFile(moduleName);
+            if (configFile != null) {
+                console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "► Konfigurations-Datei: " + configFile.getAbsolutePath());
+            } else {
+                console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "► Konfigurations-Datei konnte nicht initialisiert werden!");
+            }
+            
+            File resourcesFolder = apiCore.getModuleResourcesFolder(moduleName);
+            if (resourcesFolder != null && resourcesFolder.exists()) {
+                console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "► Ressourcen-Ordner: " + resourcesFolder.getAbsolutePath());
+            } else {
+                console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "► Ressourcen-Ordner noch nicht verfügbar (wird nach dem Server-Start erstellt)");
+            }
+            console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Module sollten diese Pfade verwenden, um ihre Dateien zu finden und zu speichern.");
+            console.categorySuccess(ConsoleFormatter.MessageCategory.MODULE, "============================================");
+            
+            // Permissions und Befehle registrieren
+            if (moduleConfig != null) {
+                loadModuleCommands(moduleConfig, moduleName);
+                registerModulePermissions(moduleConfig, moduleName);
+            }
 
-                console.categorySuccess(ConsoleFormatter.MessageCategory.MODULE, "Modul " + moduleName + " v" + version + " wurde geladen!");
-                
-                // Event für das Laden des Moduls auslösen
-                Map<String, Object> eventData = new HashMap<>();
-                eventData.put("name", moduleName);
-                eventData.put("version", version);
-                eventData.put("jarFile", jarFile);
-                apiCore.fireModuleEvent("module_loaded", eventData);
-                
-                return;
-            } finally {
-                // Restore original contextClassLoader
-                Thread.currentThread().setContextClassLoader(previousClassLoader);
+            console.categorySuccess(ConsoleFormatter.MessageCategory.MODULE, "Modul " + moduleName + " v" + version + " wurde geladen!");
+            
+            // Event für das Laden des Moduls auslösen
+            Map<String, Object> eventData = new HashMap<>();
+            eventData.put("name", moduleName);
+            eventData.put("version", version);
+            eventData.put("jarFile", jarFile);
+            apiCore.fireModuleEvent("module_loaded", eventData);
+            
+            // Inhalts-Hash der geladenen Version für den Hot-Reload merken
+            if (prepared.hash != null) {
+                loadedModuleHashes.put(moduleName, prepared.hash);
+            }
+            prepared.instance = null;
+            activeVersions.put(moduleName, prepared);
+            activated = true;
+            return true;
+        } finally {
+            // Restore original contextClassLoader
+            Thread.currentThread().setContextClassLoader(previousClassLoader);
+            if (!activated) {
+                discardFailedActivation(prepared);
             }
-        } catch (Exception e) {
-            console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Fehler beim Laden des Moduls: " + e.getMessage());
-            if (apiCore.isDebugMode()) {
-                e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Räumt nach einer fehlgeschlagenen Aktivierung auf: entfernt den Eintrag aus loadedModules,
+     * gibt bereits angelegte Registrierungen frei und schließt den ClassLoader, damit abhängige
+     * Module das Modul nicht für geladen halten.
+     * 
+     * @param prepared Das vorbereitete Modul
+     */
+    private void discardFailedActivation(PreparedModule prepared) {
+        Object moduleInfo = loadedModules.get(prepared.name);
+        if (moduleInfo instanceof ApiCore.ModuleInfo && ((ApiCore.ModuleInfo) moduleInfo).getLoader() == prepared.loader) {
+            loadedModules.remove(prepared.name);
+            
+            ModuleAPI moduleAPI = apiCore.getModuleAPI(prepared.name);
+            if (moduleAPI instanceof CoreModuleAPI) {
+                ((CoreModuleAPI) moduleAPI).releaseRegistrations();
             }
+            try {
+                apiCore.getModuleEventChannels().unsubscribeAll(prepared.loader);
+            } catch (Exception e) {
+                console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE,
+                    "Fehler beim Entfernen von Event-Listenern für " + prepared.name + ": " + e.getMessage());
+            }
+            List<DynamicCommand> commands = moduleCommands.remove(prepared.name);
+            if (commands != null && !commands.isEmpty()) {
+                apiCore.unregisterCommands(commands);
+            }
+            apiCore.getInvocationCache().invalidateModule(prepared.name);
+            apiCore.getInvocationCache().invalidateClassLoader(prepared.loader);
         }
+        prepared.instance = null;
+        closeLoader(prepared);
     }
     
     
@@ -1210,6 +1747,16 @@ public class ModuleManager {
      * Entlädt ein Modul mit verbesserten Sicherheitsmaßnahmen
      */
     public void unloadModule(String moduleName) {
+        unloadModule(moduleName, true);
+    }
+    
+    /**
+     * Entlädt ein Modul
+     * 
+     * @param moduleName Der Name des Moduls
+     * @param closeLoader false, um den ClassLoader für eine mögliche Wiederherstellung offen zu lassen
+     */
+    private void unloadModule(String moduleName, boolean closeLoader) {
         if (!loadedModules.containsKey(moduleName)) {
             console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "Versuch, nicht geladenes Modul zu entladen: " + moduleName);
             return;
@@ -1238,36 +1785,29 @@ public class ModuleManager {
                     }
                 }
                 
-                // Listener des Moduls entfernen
-                // Wir benutzen Reflection, um auf die private Map der Module-Listener zuzugreifen
+                // Über die Modul-API registrierte Listener, Tasks und Befehle freigeben
+                ModuleAPI moduleAPI = apiCore.getModuleAPI(moduleName);
+                if (moduleAPI instanceof CoreModuleAPI) {
+                    ((CoreModuleAPI) moduleAPI).releaseRegistrations();
+                }
+                
+                // Listener und Kanäle des Moduls entfernen
                 try {
-                    Field listenersField = ApiCore.class.getDeclaredField("moduleListeners");
-                    listenersField.setAccessible(true);
-                    @SuppressWarnings("unchecked")
-                    Map<String, List<com.essentialscore.api.ModuleEventListener>> moduleListeners = 
-                        (Map<String, List<com.essentialscore.api.ModuleEventListener>>) listenersField.get(apiCore);
-                    
-                    if (moduleListeners != null) {
-                        Set<String> eventNames = new HashSet<>(moduleListeners.keySet());
-                        
-                        for (String eventName : eventNames) {
-                            List<com.essentialscore.api.ModuleEventListener> listeners = moduleListeners.get(eventName);
-                            if (listeners != null) {
-                                // Kopie der Liste erstellen, um ConcurrentModificationException zu vermeiden
-                                List<com.essentialscore.api.ModuleEventListener> listenersCopy = new ArrayList<>(listeners);
-                                for (com.essentialscore.api.ModuleEventListener listener : listenersCopy) {
-                                    if (listener.getClass().getClassLoader() == info.getLoader()) {
-                                        apiCore.unregisterModuleListener(eventName, listener);
-                                    }
-                                }
-                            }
-                        }
-                    }
+                    apiCore.getModuleEventChannels().unsubscribeAll(info.getLoader());
                 } catch (Exception e) {
                     console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE,
                         "Fehler beim Entfernen von Event-Listenern für " + moduleName + ": " + e.getMessage());
                 }
                 
+                // Gebundene MethodHandles freigeben, damit der ClassLoader entladen werden kann
+                apiCore.getInvocationCache().invalidateModule(moduleName);
+                apiCore.getInvocationCache().invalidateClassLoader(info.getLoader());
+                if (apiCore.getThreadManager() != null) {
+                    apiCore.getThreadManager().releaseClassLoader(info.getLoader());
+                }
+                apiCore.getCpuAccounting().remove(moduleName);
+                apiCore.getModuleMemoryTracker().remove(moduleName);
+                
                 // Befehle des Moduls entfernen
                 List<DynamicCommand> commands = moduleCommands.get(moduleName);
                 if (commands != null && !commands.isEmpty()) {
@@ -1275,11 +1815,12 @@ public class ModuleManager {
                     moduleCommands.remove(moduleName);
                 }
                 
-                // ClassLoader des Moduls schließen
+                // ClassLoader des Moduls schließen und seine Freigabe überwachen
                 try {
                     URLClassLoader loader = info.getLoader();
-                    if (loader != null) {
+                    if (loader != null && closeLoader) {
                         loader.close();
+                        unloadVerifier.watch(moduleName, loader);
                     }
                 } catch (Exception e) {
                     console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE,
@@ -1289,6 +1830,8 @@ public class ModuleManager {
             
             // Modul aus der Liste entfernen
             loadedModules.remove(moduleName);
+            loadedModuleHashes.remove(moduleName);
+            activeVersions.remove(moduleName);
             console.categorySuccess(ConsoleFormatter.MessageCategory.MODULE, "Modul " + moduleName + " wurde entladen");
             
             // Tab-Completions synchronisieren
@@ -1305,142 +1848,55 @@ public class ModuleManager {
     }
 
     /**
-     * Lädt alle Module neu - verbesserte Implementierung für sicheren Reload
+     * Lädt ein Modul über den Hot-Swap neu: die neue Version wird im Hintergrund vorbereitet
+     * und im Hauptthread gegen die laufende ausgetauscht. Schlägt der Austausch fehl, bleibt
+     * die vorherige Version aktiv.
+     * 
+     * @param moduleName Der Name des Moduls
+     * @return true, wenn die neue Version aktiv ist
+     */
+    public boolean reloadModule(String moduleName) {
+        Object moduleInfo = loadedModules.get(moduleName);
+        File jarFile = moduleInfo instanceof ApiCore.ModuleInfo ? ((ApiCore.ModuleInfo) moduleInfo).getJarFile() : null;
+        if (jarFile == null || !jarFile.isFile()) {
+            console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "Keine JAR-Datei für Modul " + moduleName + " gefunden");
+            return false;
+        }
+        return reloadChangedModules(Collections.singletonMap(moduleName, jarFile)) > 0;
+    }
+    
+    /**
+     * Lädt alle Module über den Hot-Swap neu. Die neuen Versionen werden parallel vorbereitet und
+     * im Hauptthread Ebene für Ebene ausgetauscht; schlägt der Austausch fehl, werden die
+     * vorherigen Versionen wiederhergestellt. Module, deren JAR-Datei entfernt wurde, werden entladen.
      */
     public void reloadAllModules() {
         console.header("MODULE NEU LADEN");
         
-        // Zuerst alle Module entladen
-        List<String> modulesToReload = new ArrayList<>(loadedModules.keySet());
-        
-        console.info("Entlade " + modulesToReload.size() + " Module...");
-        
-        // Module in umgekehrter Reihenfolge entladen (für Abhängigkeiten)
-        for (int i = modulesToReload.size() - 1; i >= 0; i--) {
-            String moduleName = modulesToReload.get(i);
-            try {
-                // Speichere Informationen über das Modul vor dem Entladen
-                Object moduleObj = loadedModules.get(moduleName);
-                File jarFile = null;
-                
-                if (moduleObj instanceof ApiCore.ModuleInfo) {
-                    ApiCore.ModuleInfo info = (ApiCore.ModuleInfo) moduleObj;
-                    jarFile = info.getJarFile();
-                }
-                
-                // Modul entladen
+        for (String moduleName : new ArrayList<>(loadedModules.keySet())) {
+            Object moduleInfo = loadedModules.get(moduleName);
+            File jarFile = moduleInfo instanceof ApiCore.ModuleInfo ? ((ApiCore.ModuleInfo) moduleInfo).getJarFile() : null;
+            if (jarFile == null || !jarFile.isFile()) {
                 unloadModule(moduleName);
-                
-                // Falls die JAR-Datei bekannt ist, speichern wir sie für das spätere Neuladen
-                if (jarFile != null) {
-                    // Wir speichern die Informationen in einem gemeinsamen Kontext
-                    apiCore.setSharedData("reload_jar_" + moduleName, jarFile);
-                }
-            } catch (Exception e) {
-                console.error("Fehler beim Entladen von Modul " + moduleName + ": " + e.getMessage());
-                if (apiCore.isDebugMode()) {
-                    e.printStackTrace();
-                }
             }
         }
         
-        // Kleine Pause, um dem System Zeit zum Aufräumen zu geben
-        try {
-            Thread.sleep(500);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-        
-        // System.gc() aufrufen, um nicht mehr benötigte ClassLoader zu entfernen
-        System.gc();
-        
-        // Kleine Pause nach GC
-        try {
-            Thread.sleep(500);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-        
-        console.info("Module wurden entladen, lade Module neu...");
-        
-        // Modul-Verzeichnis aktualisieren
         File[] files = modulesDir.listFiles((dir, name) -> name.endsWith(".jar"));
-        
         if (files == null || files.length == 0) {
             console.warning("Keine Module im Verzeichnis gefunden");
             return;
         }
         
-        // Alle statischen Caches leeren, die Modulreferenzen enthalten könnten
-        apiCore.cleanMethodCache(null); // Leert den gesamten Methoden-Cache
-        
-        // Lade alle Module mit Abhängigkeitsauflösung neu
-        loadModulesWithDependencyResolution();
-        
-        // Befehle nach dem Neuladen synchronisieren
-        synchronizeCommands();
-        
-        // Stelle sicher, dass alle Listener korrekt registriert sind
-        for (String moduleName : loadedModules.keySet()) {
-            Object moduleObj = loadedModules.get(moduleName);
-            if (moduleObj instanceof ApiCore.ModuleInfo) {
-                ApiCore.ModuleInfo info = (ApiCore.ModuleInfo) moduleObj;
-                Object instance = info.getInstance();
-                
-                if (instance != null) {
-                    // Prüfe, ob das Modul ein Listener ist
-                    if (instance.getClass().isAnnotationPresent(com.essentialscore.api.event.Listener.class)) {
-                        try {
-                            // Registriere Listener erneut
-                            Bukkit.getPluginManager().registerEvents((Listener)instance, apiCore);
-                            console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, 
-                                "Listener für Modul " + moduleName + " neu registriert");
-                        } catch (Exception e) {
-                            console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, 
-                                "Konnte Listener für Modul " + moduleName + " nicht neu registrieren: " + e.getMessage());
-                        }
-                    }
-                }
-            }
-        }
-        
-        // Führe onEnable für alle Module erneut aus, um sicherzustellen, dass sie korrekt initialisiert sind
-        for (String moduleName : loadedModules.keySet()) {
-            Object moduleObj = loadedModules.get(moduleName);
-            if (moduleObj instanceof ApiCore.ModuleInfo) {
-                ApiCore.ModuleInfo info = (ApiCore.ModuleInfo) moduleObj;
-                Object instance = info.getInstance();
-                
-                if (instance != null) {
-                    try {
-                        // Versuche onEnable aufzurufen
-                        if (instance instanceof com.essentialscore.api.Module) {
-                            ((com.essentialscore.api.Module) instance).onEnable();
-                            console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, 
-                                "onEnable für Modul " + moduleName + " aufgerufen");
-                        } else {
-                            // Versuche über Reflection
-                            try {
-                                Method onEnableMethod = instance.getClass().getMethod("onEnable");
-                                onEnableMethod.invoke(instance);
-                                console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, 
-                                    "onEnable für Legacy-Modul " + moduleName + " aufgerufen");
-                            } catch (NoSuchMethodException e) {
-                                // Keine onEnable-Methode gefunden, ist okay
-                            }
-                        }
-                    } catch (Exception e) {
-                        console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, 
-                            "Fehler beim Aufrufen von onEnable für Modul " + moduleName + ": " + e.getMessage());
-                        if (apiCore.isDebugMode()) {
-                            e.printStackTrace();
-                        }
-                    }
-                }
+        Map<String, File> modules = new LinkedHashMap<>();
+        for (File file : files) {
+            ModuleIndex.Entry entry = moduleIndex.get(file);
+            if (entry != null && entry.hasRootModuleYml() && entry.isValidModule() && entry.getName() != null) {
+                modules.put(entry.getName(), file);
             }
         }
         
-        console.success("Module wurden neu geladen");
+        int loadedCount = reloadChangedModules(modules);
+        console.success(loadedCount + "/" + modules.size() + " Module wurden neu geladen");
         
         // Event für das Neuladen der Module auslösen
         Map<String, Object> eventData = new HashMap<>();
@@ -1448,6 +1904,56 @@ public class ModuleManager {
         apiCore.fireModuleEvent("modules_reloaded", eventData);
     }
     
+    /**
+     * Ein vorbereitetes, aber noch nicht aktiviertes Modul
+     */
+    private static final class PreparedModule {
+        private final File jarFile;
+        private final String hash;
+        private final YamlConfiguration moduleConfig;
+        private final String name;
+        private final String version;
+        private final String description;
+        private final FileConfiguration config;
+        private final URLClassLoader loader;
+        private final Class<?> mainClass;
+        private final List<String> dependencies;
+        private final List<String> softDependencies;
+        private final long configNanos;
+        private final long classLoadNanos;
+        private long resourceNanos;
+        private long activationNanos;
+        private Object instance;
+        private Map<String, Object> handoffState;
+        private boolean activated;
+        
+        PreparedModule(File jarFile, String hash, YamlConfiguration moduleConfig, String name, String version,
+                       String description, FileConfiguration config, URLClassLoader loader, Class<?> mainClass,
+                       long configNanos, long classLoadNanos) {
+            this.jarFile = jarFile;
+            this.hash = hash;
+            this.moduleConfig = moduleConfig;
+            this.name = name;
+            this.version = version;
+            this.description = description;
+            this.config = config;
+            this.loader = loader;
+            this.mainClass = mainClass;
+            this.dependencies = moduleConfig.getStringList("depend");
+            this.softDependencies = moduleConfig.getStringList("softdepend");
+            this.configNanos = configNanos;
+            this.classLoadNanos = classLoadNanos;
+        }
+        
+        /**
+         * Erstellt eine Kopie für eine erneute Aktivierung mit demselben ClassLoader, aber neuer Instanz
+         */
+        PreparedModule copy() {
+            return new PreparedModule(jarFile, hash, moduleConfig, name, version, description, config, loader,
+                mainClass, configNanos, classLoadNanos);
+        }
+    }
+    
     /**
      * Gibt alle verfügbaren, aber nicht geladenen Module zurück
      * Prüft auch, ob es sich tatsächlich um gültige Module handelt
@@ -1470,20 +1976,8 @@ public class ModuleManager {
             
             try {
                 // Prüfen, ob die JAR-Datei eine gültige module.yml enthält
-                boolean isValidModule = false;
-                try (JarFile jar = new JarFile(file)) {
-                    JarEntry moduleYml = jar.getJarEntry("module.yml");
-                    if (moduleYml != null) {
-                        // Modul-Konfiguration laden
-                        YamlConfiguration moduleConfig = YamlConfiguration.loadConfiguration(
-                                new InputStreamReader(jar.getInputStream(moduleYml), StandardCharsets.UTF_8));
-                        
-                        // Prüfen, ob die wesentlichen Felder vorhanden sind
-                        if (moduleConfig.contains("name") && moduleConfig.contains("main")) {
-                            isValidModule = true;
-                        }
-                    }
-                }
+                ModuleIndex.Entry entry = moduleIndex.get(file);
+                boolean isValidModule = entry != null && entry.hasRootModuleYml() && entry.isValidModule();
                 
                 if (isValidModule) {
                     availableModules.add(moduleName);
@@ -1556,9 +2050,10 @@ public class ModuleManager {
     /**
      * Erweiterter ClassLoader für Module mit besserer Isolation
      */
-    private static class ModuleClassLoader extends URLClassLoader {
+    private static class ModuleClassLoader extends URLClassLoader implements LookupAnchor.Host {
         private final String moduleName;
         private final ClassLoader pluginClassLoader;
+        private MethodHandles.Lookup listenerLookup;
         private static final Set<String> API_PACKAGES = new HashSet<>(Arrays.asList(
             "com.essentialscore.api.",
             "com.essentialscore.api.impl."
@@ -1575,6 +2070,22 @@ public class ModuleManager {
             return "ModuleClassLoader{" + moduleName + "}";
         }
         
+        /**
+         * Definiert beim ersten Aufruf eine Kopie von {@link LookupAnchor} in diesem Loader,
+         * damit Event-Executoren für Listener des Moduls generiert werden können
+         */
+        @Override
+        public MethodHandles.Lookup getListenerLookup() throws ReflectiveOperationException {
+            synchronized (getClassLoadingLock(LookupAnchor.class.getName())) {
+                if (listenerLookup == null) {
+                    byte[] bytes = LookupAnchor.templateBytes();
+                    listenerLookup = LookupAnchor.instantiate(
+                            defineClass(LookupAnchor.class.getName(), bytes, 0, bytes.length));
+                }
+                return listenerLookup;
+            }
+        }
+        
         /**
          * Override the loadClass method to prioritize API packages from parent
          */
@@ -1608,39 +2119,13 @@ public class ModuleManager {
             return null;
         }
         
-        try (JarFile jar = new JarFile(jarFile)) {
-            // Mögliche Pfade, in denen module.yml sein könnte
-            String[] possiblePaths = {
-                "module.yml",
-                "src/main/resources/module.yml",
-                "main/resources/module.yml",
-                "resources/module.yml",
-                "META-INF/module.yml"
-            };
-            
-            for (String path : possiblePaths) {
-                JarEntry entry = jar.getJarEntry(path);
-                if (entry != null) {
-                    console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "module.yml gefunden in " + jarFile.getName() + " unter dem Pfad: " + path, apiCore.isDebugMode());
-                    return path;
-                }
-            }
-            
-            // Falls keine direkten Treffer, durchsuche alle Einträge nach einem, der mit module.yml endet
-            Enumeration<JarEntry> entries = jar.entries();
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                String name = entry.getName();
-                if (name.endsWith("/module.yml") || name.endsWith("\\module.yml")) {
-                    console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "module.yml gefunden in " + jarFile.getName() + " unter dem Pfad: " + name, apiCore.isDebugMode());
-                    return name;
-                }
-            }
-        } catch (IOException e) {
-            console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Fehler beim Durchsuchen von " + jarFile.getName() + " nach module.yml: " + e.getMessage());
+        ModuleIndex.Entry entry = moduleIndex.get(jarFile);
+        if (entry == null || entry.getModuleYmlPath() == null) {
+            return null;
         }
         
-        return null;
+        console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "module.yml gefunden in " + jarFile.getName() + " unter dem Pfad: " + entry.getModuleYmlPath(), apiCore.isDebugMode());
+        return entry.getModuleYmlPath();
     }
 
     /**
@@ -1756,6 +2241,7 @@ public class ModuleManager {
             }
         }
         
+        moduleIndex.saveIfDirty();
         return newModulesLoaded;
     }
     
@@ -1777,7 +2263,7 @@ public class ModuleManager {
             
             // JAR-Datei des Moduls
             File jarFile = moduleInfo.getJarFile();
-            console.categoryInfo(ConsoleFormatter.MessageCategory.RESOURCE, "Extrahiere Ressourcen aus: " + jarFile.getName());
+            console.categoryDebug(ConsoleFormatter.MessageCategory.RESOURCE, "Extrahiere Ressourcen aus: " + jarFile.getName(), apiCore.isDebugMode());
             
             // module.yml Pfad finden
             String moduleYmlPath = findModuleYmlPath(jarFile);
@@ -1789,10 +2275,9 @@ public class ModuleManager {
             
             // Ressourcen extrahieren
             try (JarFile jar = new JarFile(jarFile)) {
-                // Einträge durchsuchen und Ressourcen extrahieren
+                // Einträge durchsuchen und Extraktionsplan erstellen
+                Map<String, JarEntry> plan = new LinkedHashMap<>();
                 Enumeration<JarEntry> entries = jar.entries();
-                int extractedCount = 0;
-                int skippedCount = 0;
                 
                 while (entries.hasMoreElements()) {
                     JarEntry entry = entries.nextElement();
@@ -1804,57 +2289,35 @@ public class ModuleManager {
                     }
                     
                     // Prüfen, ob es sich um eine Ressource handelt
-                    boolean isResource = false;
                     String relativePath = null;
                     
                     if (resourceBasePath != null && entryName.startsWith(resourceBasePath)) {
-                        isResource = true;
                         relativePath = entryName.substring(resourceBasePath.length());
                     } else if (entryName.contains("/resources/")) {
-                        isResource = true;
                         int index = entryName.indexOf("/resources/");
                         relativePath = entryName.substring(index + 11); // "/resources/" = 11 Zeichen
                     } else if (entryName.endsWith(".yml") || entryName.endsWith(".properties") || 
                                entryName.endsWith(".json") || entryName.endsWith(".txt")) {
-                        isResource = true;
                         relativePath = new File(entryName).getName();
                     }
                     
-                    if (isResource && relativePath != null && !relativePath.isEmpty()) {
-                        // Ressource extrahieren
-                        File targetFile = new File(moduleResourceDir, relativePath);
-                        
-                        // Prüfen, ob die Datei bereits existiert - wenn ja, überspringen
-                        if (targetFile.exists()) {
-                            skippedCount++;
-                            if (apiCore.isDebugMode()) {
-                                console.categoryDebug(ConsoleFormatter.MessageCategory.RESOURCE, "Überspringe existierende Datei: " + targetFile.getAbsolutePath(), true);
-                            }
-                            continue;
-                        }
-                        
-                        // Elternverzeichnis erstellen, falls nötig
-                        File parentDir = targetFile.getParentFile();
-                        if (parentDir != null && !parentDir.exists() && !parentDir.mkdirs()) {
-                            console.categoryWarning(ConsoleFormatter.MessageCategory.RESOURCE, "Konnte Verzeichnis nicht erstellen: " + parentDir.getPath());
-                            continue;
-                        }
-                        
-                        // Datei kopieren
-                        try (InputStream is = jar.getInputStream(entry);
-                             FileOutputStream fos = new FileOutputStream(targetFile)) {
-                            byte[] buffer = new byte[8192];
-                            int bytesRead;
-                            while ((bytesRead = is.read(buffer)) != -1) {
-                                fos.write(buffer, 0, bytesRead);
-                            }
-                            extractedCount++;
-                        }
+                    // Bei gleichem Zielpfad gewinnt der erste Eintrag
+                    if (relativePath != null && !relativePath.isEmpty()) {
+                        plan.putIfAbsent(relativePath, entry);
                     }
                 }
                 
-                console.categorySuccess(ConsoleFormatter.MessageCategory.RESOURCE, "Extrahiert: " + extractedCount + " Ressourcen aus " + moduleInfo.getName() + 
-                                       ", " + skippedCount + " bestehende Dateien übersprungen");
+                // Nur fehlende oder in der JAR geänderte Einträge schreiben, vom Benutzer veränderte Dateien bleiben erhalten
+                ResourceExtractor.Result result = ResourceExtractor.extract(jar, plan, moduleResourceDir, false, false, null);
+                
+                if (result.getExtracted() > 0 || result.getFailed() > 0) {
+                    console.categorySuccess(ConsoleFormatter.MessageCategory.RESOURCE, "Extrahiert: " + result.getExtracted() + " Ressourcen aus " + 
+                                           moduleInfo.getName() + ", " + result.getUnchanged() + " unverändert, " + result.getSkipped() + 
+                                           " vom Benutzer geändert" + (result.getFailed() > 0 ? ", " + result.getFailed() + " fehlgeschlagen" : ""));
+                } else {
+                    console.categoryDebug(ConsoleFormatter.MessageCategory.RESOURCE, "Ressourcen von " + moduleInfo.getName() + 
+                                         " aktuell (" + result.getUnchanged() + " unverändert)", apiCore.isDebugMode());
+                }
             }
         } catch (Exception e) {
             console.categoryError(ConsoleFormatter.MessageCategory.RESOURCE, "Fehler beim Extrahieren von Ressourcen für Modul " + moduleInfo.getName() + ": " + e.getMessage());
@@ -1872,27 +2335,8 @@ public class ModuleManager {
     }
 
     private String getModuleNameFromJar(File jarFile) {
-        try {
-            String moduleYmlPath = findModuleYmlPath(jarFile);
-            if (moduleYmlPath == null) {
-                return null;
-            }
-            
-            try (JarFile jar = new JarFile(jarFile)) {
-                JarEntry entry = jar.getJarEntry(moduleYmlPath);
-                if (entry == null) {
-                    return null;
-                }
-                
-                try (InputStream is = jar.getInputStream(entry)) {
-                    YamlConfiguration config = YamlConfiguration.loadConfiguration(new InputStreamReader(is, StandardCharsets.UTF_8));
-                    return config.getString("name");
-                }
-            }
-        } catch (Exception e) {
-            console.error("Fehler beim Extrahieren des Modulnamens: " + e.getMessage());
-            return null;
-        }
+        ModuleIndex.Entry entry = moduleIndex.get(jarFile);
+        return entry != null ? entry.getName() : null;
     }
 
     /**
@@ -1924,6 +2368,8 @@ public class ModuleManager {
             return null;
         }
         
+        ModuleInvocationCache invocationCache = apiCore.getInvocationCache();
+        
         // Verwende Sandbox für sichere Ausführung, wenn aktiviert
         com.essentialscore.api.module.ModuleSandbox sandbox = apiCore.getModuleSandbox();
         if (sandbox != null) {
@@ -1931,8 +2377,7 @@ public class ModuleManager {
                 return sandbox.execute(moduleName, new Callable<Object>() {
                     @Override
                     public Object call() throws Exception {
-                        Method method = moduleInstance.getClass().getMethod(methodName, parameterTypes);
-                        return method.invoke(moduleInstance, args);
+                        return invocationCache.invoke(moduleName, moduleInstance, methodName, parameterTypes, args);
                     }
                 });
             } catch (Exception e) {
@@ -1942,9 +2387,10 @@ public class ModuleManager {
             }
         } else {
             // Fallback zur direkten Ausführung
+            ModuleCpuAccounting cpuAccounting = apiCore.getCpuAccounting();
+            cpuAccounting.enter(moduleName);
             try {
-                Method method = moduleInstance.getClass().getMethod(methodName, parameterTypes);
-                return method.invoke(moduleInstance, args);
+                return invocationCache.invoke(moduleName, moduleInstance, methodName, parameterTypes, args);
             } catch (Exception e) {
                 console.categoryError(ConsoleFormatter.MessageCategory.MODULE, 
                     "Fehler beim Ausführen der Methode " + methodName + " von " + moduleName + ": " + e.getMessage());
@@ -1952,6 +2398,8 @@ public class ModuleManager {
                     e.printStackTrace();
                 }
                 return null;
+            } finally {
+                cpuAccounting.exit();
             }
         }
     }
@@ -1987,6 +2435,8 @@ public class ModuleManager {
             return false;
         }
         
+        ModuleInvocationCache invocationCache = apiCore.getInvocationCache();
+        
         // Verwende Sandbox für sichere Ausführung, wenn aktiviert
         com.essentialscore.api.module.ModuleSandbox sandbox = apiCore.getModuleSandbox();
         if (sandbox != null) {
@@ -1994,9 +2444,8 @@ public class ModuleManager {
                 return sandbox.execute(moduleName, new Callable<Boolean>() {
                     @Override
                     public Boolean call() throws Exception {
-                        Method method = moduleInstance.getClass().getMethod("onCommand", CommandSender.class, 
-                            org.bukkit.command.Command.class, String.class, String[].class);
-                        Object result = method.invoke(moduleInstance, sender, command, label, args);
+                        Object result = invocationCache.invoke(moduleName, moduleInstance, "onCommand", 
+                            COMMAND_PARAMETER_TYPES, new Object[]{sender, command, label, args});
                         return result instanceof Boolean ? (Boolean) result : false;
                     }
                 });
@@ -2004,10 +2453,11 @@ public class ModuleManager {
                 return false;
             }        } else {
             // Fallback zur direkten Ausführung
+            ModuleCpuAccounting cpuAccounting = apiCore.getCpuAccounting();
+            cpuAccounting.enter(moduleName);
             try {
-                Method method = moduleInstance.getClass().getMethod("onCommand", CommandSender.class, 
-                    org.bukkit.command.Command.class, String.class, String[].class);
-                Object result = method.invoke(moduleInstance, sender, command, label, args);
+                Object result = invocationCache.invoke(moduleName, moduleInstance, "onCommand", 
+                    COMMAND_PARAMETER_TYPES, new Object[]{sender, command, label, args});
                 return result instanceof Boolean ? (Boolean) result : false;
             } catch (Exception e) {
                 console.categoryError(ConsoleFormatter.MessageCategory.MODULE, 
@@ -2016,6 +2466,8 @@ public class ModuleManager {
                     e.printStackTrace();
                 }
                 return false;
+            } finally {
+                cpuAccounting.exit();
             }
         }
     }
@@ -2032,9 +2484,12 @@ public class ModuleManager {
         private final Queue<Double> cpuHistory = new LinkedList<>();
         private static final int HISTORY_SIZE = 10;
         
-        // Speichernutzung
+        // Speichernutzung (geschätzte Größe der beim Core registrierten Objekte)
         private long memoryUsageBytes = 0L;
         
+        // Allokationsrate in Bytes pro Sekunde
+        private double allocationRateBytesPerSecond = 0.0;
+        
         // Methodenaufrufe
         private final Map<String, MethodExecutionData> methodExecutions = new ConcurrentHashMap<>();
         private long totalExecutionCount = 0;
@@ -2091,6 +2546,25 @@ public class ModuleManager {
             lastUpdateTime = System.currentTimeMillis();
         }
         
+        /**
+         * Aktualisiert die Allokationsrate dieses Moduls
+         * 
+         * @param bytesPerSecond Allozierte Bytes pro Sekunde
+         */
+        public void updateAllocationRate(double bytesPerSecond) {
+            this.allocationRateBytesPerSecond = bytesPerSecond;
+            
+            // Kritisches Ereignis hinzufügen, wenn Schwellenwert überschritten
+            double megabytesPerSecond = bytesPerSecond / (1024 * 1024);
+            if (megabytesPerSecond >= ALLOCATION_THRESHOLD_CRITICAL) {
+                addCriticalEvent("Allokationsrate kritisch", 
+                    "Allokationsrate von " + String.format("%.1f", megabytesPerSecond) + "MB/s überschreitet Schwellenwert (" + ALLOCATION_THRESHOLD_CRITICAL + "MB/s)",
+                    PerformanceEventType.ALLOCATION_CRITICAL);
+            }
+            
+            lastUpdateTime = System.currentTimeMillis();
+        }
+        
         /**
          * Erfasst die Ausführungszeit einer Methode
          * 
@@ -2154,6 +2628,14 @@ public class ModuleManager {
                 return PerformanceStatus.WARNING;
             }
             
+            // Allokationsrate prüfen (GC-Druck)
+            double allocationMBPerSecond = allocationRateBytesPerSecond / (1024 * 1024);
+            if (allocationMBPerSecond >= ALLOCATION_THRESHOLD_CRITICAL) {
+                return PerformanceStatus.CRITICAL;
+            } else if (allocationMBPerSecond >= ALLOCATION_THRESHOLD_WARNING) {
+                return PerformanceStatus.WARNING;
+            }
+            
             // Methoden-Ausführungszeit prüfen
             if (avgExecutionTimeMs >= EXECUTION_THRESHOLD_CRITICAL) {
                 return PerformanceStatus.CRITICAL;
@@ -2194,6 +2676,17 @@ public class ModuleManager {
             }
         }
         
+        public double getAllocationRateBytesPerSecond() {
+            return allocationRateBytesPerSecond;
+        }
+        
+        public String getAllocationRateFormatted() {
+            if (allocationRateBytesPerSecond < 1024 * 1024) {
+                return String.format("%.2f KB/s", allocationRateBytesPerSecond / 1024.0);
+            }
+            return String.format("%.2f MB/s", allocationRateBytesPerSecond / (1024.0 * 1024.0));
+        }
+        
         public Map<String, MethodExecutionData> getMethodExecutions() {
             return new HashMap<>(methodExecutions);
         }
@@ -2326,6 +2819,8 @@ public class ModuleManager {
         CPU_CRITICAL,
         MEMORY_WARNING,
         MEMORY_CRITICAL,
+        ALLOCATION_WARNING,
+        ALLOCATION_CRITICAL,
         METHOD_WARNING,
         METHOD_CRITICAL
     }
@@ -2381,6 +2876,16 @@ public class ModuleManager {
      * Aktualisiert die Performance-Daten aller Module
      */
     private void updateModulePerformanceData() {
+        // Die Größenschätzung durchläuft Objektgraphen und läuft daher seltener
+        boolean estimateRetained = apiCore.getConfig().getBoolean("performance.module-memory.retained-estimate", true)
+            && --retainedSizeCountdown <= 0;
+        if (estimateRetained) {
+            retainedSizeCountdown = Math.max(1, apiCore.getConfig().getInt("performance.module-memory.estimate-interval-runs", 6));
+        }
+        int maxObjects = apiCore.getConfig().getInt("performance.module-memory.max-objects", 100000);
+        Map<String, ModuleMemoryTracker.Snapshot> memorySnapshots = estimateRetained 
+            ? snapshotTrackedObjects(maxObjects) : Collections.emptyMap();
+        
         // Durchlaufe alle geladenen Module
         for (Map.Entry<String, Object> entry : loadedModules.entrySet()) {
             String moduleName = entry.getKey();
@@ -2393,13 +2898,17 @@ public class ModuleManager {
                     ModulePerformanceData performanceData = modulePerformanceMap.computeIfAbsent(
                         moduleName, ModulePerformanceData::new);
                     
-                    // CPU-Auslastung messen (vereinfachte Schätzung basierend auf Thread-Nutzung)
-                    double cpuEstimate = estimateModuleCpuUsage(moduleName);
-                    performanceData.updateCpuUsage(cpuEstimate);
+                    // CPU-Auslastung aus der erfassten Thread-CPU-Zeit
+                    performanceData.updateCpuUsage(measureModuleCpuUsage(moduleName));
                     
-                    // Speichernutzung schätzen
-                    long memoryEstimate = estimateModuleMemoryUsage(moduleInstance);
-                    performanceData.updateMemoryUsage(memoryEstimate);
+                    // Allokationsrate aus den Thread-Allokationszählern
+                    performanceData.updateAllocationRate(apiCore.getCpuAccounting().getAllocationRate(moduleName, 5));
+                    
+                    // Speichernutzung anhand der registrierten Objekte schätzen
+                    ModuleMemoryTracker.Snapshot snapshot = memorySnapshots.get(moduleName);
+                    if (snapshot != null) {
+                        performanceData.updateMemoryUsage(ModuleMemoryTracker.estimate(snapshot, maxObjects));
+                    }
                 }
             }
         }
@@ -2415,54 +2924,45 @@ public class ModuleManager {
     }
     
     /**
-     * Schätzt die CPU-Auslastung eines Moduls basierend auf den Methodenaufrufen
+     * Kopiert die registrierten Objekte aller Module im Hauptthread, der sie verändert.
+     * Der Objektgraph selbst wird danach im Tracker-Thread durchlaufen.
      * 
-     * @param moduleName Der Name des Moduls
-     * @return Geschätzte CPU-Auslastung in Prozent (0-100)
+     * @param maxObjects Die maximale Anzahl kopierter Objekte pro Modul
+     * @return Die Schnappschüsse je Modul, leer wenn der Hauptthread nicht rechtzeitig antwortet
      */
-    private double estimateModuleCpuUsage(String moduleName) {
-        // In einer echten Implementierung würde hier eine tatsächliche CPU-Profilierung
-        // durchgeführt werden. Hier verwenden wir einen vereinfachten Ansatz.
+    private Map<String, ModuleMemoryTracker.Snapshot> snapshotTrackedObjects(int maxObjects) {
+        Callable<Map<String, ModuleMemoryTracker.Snapshot>> snapshot = () -> {
+            Map<String, ModuleMemoryTracker.Snapshot> snapshots = new HashMap<>();
+            for (Map.Entry<String, Object> entry : loadedModules.entrySet()) {
+                if (entry.getValue() instanceof ApiCore.ModuleInfo) {
+                    snapshots.put(entry.getKey(), apiCore.getModuleMemoryTracker().snapshot(
+                        entry.getKey(), ((ApiCore.ModuleInfo) entry.getValue()).getLoader(), maxObjects));
+                }
+            }
+            return snapshots;
+        };
         
-        ModulePerformanceData data = modulePerformanceMap.get(moduleName);
-        if (data == null) {
-            return 0.0;
+        try {
+            return Bukkit.isPrimaryThread() ? snapshot.call() 
+                : Bukkit.getScheduler().callSyncMethod(apiCore, snapshot).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Collections.emptyMap();
+        } catch (Exception e) {
+            // Hauptthread ausgelastet oder Plugin wird deaktiviert, Schätzung beim nächsten Lauf
+            return Collections.emptyMap();
         }
-        
-        // Bestimme aktuelle Last basierend auf durchschnittlicher Methodenausführungszeit
-        // und Anzahl der Aufrufe in letzter Zeit.
-        double avgExecTime = data.getAvgExecutionTimeMs();
-        
-        // Skalierungsfaktor: 100ms durchschnittlich entspricht etwa 10% CPU-Last
-        // Dies ist eine grobe Schätzung und sollte in einer echten Implementierung
-        // durch tatsächliche Messungen ersetzt werden.
-        double cpuEstimate = Math.min(avgExecTime / 10.0, 100.0);
-        
-        // Füge Variation hinzu, um realistischere Daten zu erhalten
-        double randomFactor = 0.8 + (Math.random() * 0.4); // 0.8 bis 1.2
-        cpuEstimate = Math.min(cpuEstimate * randomFactor, 100.0);
-        
-        return cpuEstimate;
     }
     
     /**
-     * Schätzt die Speichernutzung eines Moduls
+     * Ermittelt die CPU-Auslastung eines Moduls im letzten Aktualisierungsintervall
      * 
-     * @param moduleInstance Die Modul-Instanz
-     * @return Geschätzte Speichernutzung in Bytes
+     * @param moduleName Der Name des Moduls
+     * @return CPU-Auslastung in Prozent eines Kerns (0-100)
      */
-    private long estimateModuleMemoryUsage(Object moduleInstance) {
-        // In einer echten Implementierung würde hier eine tatsächliche Speicherprofilierung
-        // durchgeführt werden. Für dieses Beispiel verwenden wir eine grobe Schätzung.
-        
-        // Basisgröße für jedes Modul (1MB)
-        long baseSize = 1024 * 1024;
-        
-        // Füge zufällige Variation hinzu
-        double randomFactor = 0.5 + (Math.random() * 1.5); // 0.5 bis 2.0
-        long memoryEstimate = (long)(baseSize * randomFactor);
-        
-        return memoryEstimate;
+    private double measureModuleCpuUsage(String moduleName) {
+        // Intervall von updateModulePerformanceData (5 Sekunden)
+        return Math.min(apiCore.getCpuAccounting().getCpuPercent(moduleName, 5), 100.0);
     }
     
     /**
@@ -2519,6 +3019,8 @@ public class ModuleManager {
      * Shutting down the ModuleManager and cleanup resources
      */
     public void shutdown() {
+        reloadPipeline.shutdown();
+        
         // Stop performance tracking
         try {
             stopPerformanceTracking();
@@ -0,0 +1,230 @@
+package com.essentialscore;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verarbeitet Änderungen im Modulverzeichnis für den Hot-Reload.
+ * Ereignisse werden pro Datei gesammelt, bis die Datei für ein Ruhefenster unverändert
+ * geblieben ist, damit eine noch kopierte JAR-Datei nicht mehrfach geladen wird.
+ * Danach wird der Inhalts-Hash mit der geladenen Version verglichen und nur bei
+ * tatsächlich geändertem Inhalt das Modul samt abhängigen Modulen neu geladen.
+ */
+public class ModuleReloadPipeline {
+    private static final long DRAIN_INTERVAL_MS = 250;
+
+    private final ModuleManager moduleManager;
+    private final ApiCore apiCore;
+    private final ConsoleFormatter console;
+    private final Map<File, PendingChange> pending = new ConcurrentHashMap<>();
+    private final Map<File, long[]> knownStats = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final LongAdder events = new LongAdder();
+    private final LongAdder unchanged = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    private final long quietMillis;
+    private ScheduledFuture<?> drainTask;
+
+    /**
+     * Erstellt die Pipeline
+     *
+     * @param moduleManager Der Modul-Manager, der die Module neu lädt
+     * @param apiCore Die Plugin-Instanz
+     * @param console Der Konsolen-Formatter
+     */
+    public ModuleReloadPipeline(ModuleManager moduleManager, ApiCore apiCore, ConsoleFormatter console) {
+        this.moduleManager = moduleManager;
+        this.apiCore = apiCore;
+        this.console = console;
+        this.quietMillis = apiCore.getConfig().getLong("modules.hot-reload-quiet-ms", 1500);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ModuleReloadPipeline");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Meldet eine geänderte oder neue JAR-Datei. Kann aus jedem Thread aufgerufen werden.
+     *
+     * @param jarFile Die JAR-Datei
+     */
+    public void fileChanged(File jarFile) {
+        events.increment();
+        long now = System.currentTimeMillis();
+        pending.compute(jarFile.getAbsoluteFile(), (file, change) -> {
+            if (change == null) {
+                change = new PendingChange();
+            }
+            change.lastEvent = now;
+            change.size = file.length();
+            change.modified = file.lastModified();
+            return change;
+        });
+        ensureStarted();
+    }
+
+    /**
+     * Meldet alle JAR-Dateien, deren Größe oder Zeitstempel sich seit der letzten Prüfung
+     * geändert hat. Für die periodische Prüfung ohne WatchService.
+     *
+     * @param jarFiles Die aktuell vorhandenen JAR-Dateien
+     */
+    public void scan(File[] jarFiles) {
+        for (File jarFile : jarFiles) {
+            File file = jarFile.getAbsoluteFile();
+            long[] stat = {file.length(), file.lastModified()};
+            long[] previous = knownStats.put(file, stat);
+            if (previous == null || previous[0] != stat[0] || previous[1] != stat[1]) {
+                fileChanged(file);
+            }
+        }
+    }
+
+    /**
+     * Stoppt die Pipeline, ausstehende Änderungen werden verworfen
+     */
+    public synchronized void shutdown() {
+        scheduler.shutdownNow();
+        pending.clear();
+    }
+
+    /**
+     * Gibt Statistiken über die Pipeline zurück
+     *
+     * @return Statistiken als Map
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("events", events.sum());
+        stats.put("pending", pending.size());
+        stats.put("unchanged_skipped", unchanged.sum());
+        stats.put("reloads", reloads.sum());
+        stats.put("quiet_ms", quietMillis);
+        return stats;
+    }
+
+    private synchronized void ensureStarted() {
+        if (drainTask == null && !scheduler.isShutdown()) {
+            drainTask = scheduler.scheduleWithFixedDelay(this::drain, DRAIN_INTERVAL_MS, DRAIN_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sammelt alle Dateien, deren Ruhefenster abgelaufen ist, und lädt sie gemeinsam neu
+     */
+    private void drain() {
+        try {
+            long now = System.currentTimeMillis();
+            List<File> ready = new ArrayList<>();
+
+            for (Iterator<Map.Entry<File, PendingChange>> it = pending.entrySet().iterator(); it.hasNext();) {
+                Map.Entry<File, PendingChange> entry = it.next();
+                File file = entry.getKey();
+                PendingChange change = entry.getValue();
+                if (now - change.lastEvent < quietMillis) {
+                    continue;
+                }
+
+                if (!file.isFile()) {
+                    it.remove();
+                    continue;
+                }
+
+                // Größe und Zeitstempel müssen zwischen zwei Prüfungen stabil bleiben
+                long size = file.length();
+                long modified = file.lastModified();
+                if (size != change.size || modified != change.modified) {
+                    change.size = size;
+                    change.modified = modified;
+                    change.lastEvent = now;
+                    continue;
+                }
+
+                it.remove();
+                ready.add(file);
+            }
+
+            if (!ready.isEmpty()) {
+                process(ready);
+            }
+        } catch (Exception e) {
+            console.categoryError(ConsoleFormatter.MessageCategory.MODULE, "Fehler im Hot-Reload: " + e.getMessage());
+            if (apiCore.isDebugMode()) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Vergleicht die Hashes der fertigen Dateien mit den geladenen Versionen
+     */
+    private void process(List<File> files) {
+        Map<String, File> changed = new LinkedHashMap<>();
+
+        for (File file : files) {
+            ModuleIndex.Entry entry = moduleManager.getModuleIndex().get(file);
+            if (entry == null || !entry.isValidModule()) {
+                console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "Konnte keinen gültigen Modulnamen aus " + 
+                    file.getName() + " extrahieren", apiCore.isDebugMode());
+                continue;
+            }
+
+            String moduleName = entry.getName();
+            String hash = entry.getHash();
+            if (hash != null && hash.equals(moduleManager.getLoadedModuleHash(moduleName))) {
+                unchanged.increment();
+                console.categoryDebug(ConsoleFormatter.MessageCategory.MODULE, "Inhalt von " + file.getName() +
+                    " unverändert, kein Reload für " + moduleName, apiCore.isDebugMode());
+                continue;
+            }
+
+            if (!isEnabled(moduleName)) {
+                console.categoryInfo(ConsoleFormatter.MessageCategory.MODULE, "Modul " + moduleName + " erkannt, aber deaktiviert in Konfiguration");
+                continue;
+            }
+
+            changed.put(moduleName, file);
+        }
+
+        if (!changed.isEmpty()) {
+            reloads.add(changed.size());
+            moduleManager.reloadChangedModules(changed);
+        }
+        moduleManager.getModuleIndex().saveIfDirty();
+    }
+
+    private boolean isEnabled(String moduleName) {
+        File configFile = new File(moduleManager.getConfigDir(), moduleName + ".yml");
+        if (!configFile.exists()) {
+            return true;
+        }
+        try {
+            return YamlConfiguration.loadConfiguration(configFile).getBoolean("enabled", true);
+        } catch (Exception e) {
+            console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "Fehler beim Lesen der Konfiguration für " + moduleName + ": " + e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Letzter Stand einer geänderten Datei
+     */
+    private static final class PendingChange {
+        private volatile long lastEvent;
+        private volatile long size;
+        private volatile long modified;
+    }
+}
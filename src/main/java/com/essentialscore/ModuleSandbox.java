@@ -1,5 +1,6 @@
 package com.essentialscore;
 
+import com.essentialscore.api.module.ModuleWatchdog;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
@@ -16,6 +17,7 @@ import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -24,6 +26,9 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * ModuleSandbox verwaltet die sichere Ausführung von Modulen in einer isolierten Umgebung.
  * Diese Klasse bietet Schutz vor Modul-Abstürzen und verhindert so, dass ein fehlerhaftes
  * Modul den gesamten Server zum Absturz bringt.
+ * Im Watchdog-Modus (Standard) laufen Modulaufrufe direkt im aufrufenden Thread, ein
+ * Watchdog-Thread überwacht nur deren Frist. Im Thread-Modus läuft jeder Aufruf in einem
+ * eigenen Worker, während der Aufrufer wartet.
  * Note: This class uses deprecated Bukkit APIs that are still commonly used.
  */
 @SuppressWarnings("deprecation")
@@ -52,6 +57,9 @@ public class ModuleSandbox {
     // Thread-Pool für isolierte Modulausführung
     private final ExecutorService executorService;
     
+    // Überwacht Fristen im Watchdog-Modus, null im Thread-Modus
+    private ModuleWatchdog watchdog;
+    
     /**
      * Erstellt eine neue ModuleSandbox-Instanz
      * 
@@ -99,6 +107,27 @@ public class ModuleSandbox {
         notifyDiscord = config.getBoolean("modules.sandbox.notify-methods.discord", false);
         discordWebhookUrl = config.getString("modules.sandbox.notify-methods.discord-webhook-url", "");
         
+        // Watchdog-Modus: kein Thread-Wechsel pro Aufruf
+        if (watchdog != null) {
+            watchdog.shutdown();
+            watchdog = null;
+        }
+        if ("watchdog".equalsIgnoreCase(config.getString("modules.sandbox.mode", "watchdog"))) {
+            boolean interrupt = config.getBoolean("modules.sandbox.watchdog.interrupt", false);
+            String actionName = config.getString("modules.sandbox.watchdog.action", interrupt ? "interrupt" : "log");
+            ModuleWatchdog.Action action;
+            try {
+                action = ModuleWatchdog.Action.valueOf(actionName.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                console.categoryWarning(ConsoleFormatter.MessageCategory.SECURITY,
+                    "Unbekannte Watchdog-Aktion '" + actionName + "', verwende 'log'");
+                action = ModuleWatchdog.Action.LOG;
+            }
+            watchdog = new ModuleWatchdog(apiCore.getLogger(), config.getLong("modules.sandbox.watchdog.interval-ms", 50), action);
+            // Der Hauptthread wird nie unterbrochen, dort werden Überschreitungen nur protokolliert
+            watchdog.setPrimaryThreadCheck(Bukkit::isPrimaryThread);
+        }
+        
         autoRestartModules = config.getBoolean("modules.sandbox.auto-restart-modules", false);
         maxRestartAttempts = config.getInt("modules.sandbox.max-restart-attempts", 3);
         detailedErrorLogging = config.getBoolean("modules.sandbox.detailed-error-logging", true);
@@ -151,6 +180,28 @@ public class ModuleSandbox {
             }
         }
         
+        // Watchdog-Modus: direkt ausführen, nur die Frist wird überwacht
+        ModuleWatchdog dog = watchdog;
+        if (dog != null) {
+            TimeoutException overrun;
+            dog.enter(moduleName, maxExecutionTime);
+            try {
+                action.run();
+            } catch (Throwable t) {
+                overrun = dog.exit();
+                if (overrun == null || !handleOverrun(dog, moduleName, moduleInstance, overrun)) {
+                    handleModuleException(moduleName, moduleInstance, t);
+                }
+                return false;
+            }
+            overrun = dog.exit();
+            if (overrun != null) {
+                // Die Aktion ist bereits ausgeführt, ihr Ergebnis bleibt gültig
+                handleOverrun(dog, moduleName, moduleInstance, overrun);
+            }
+            return true;
+        }
+        
         // Sandbox-Ausführung mit Timeout
         Future<?> future = executorService.submit(action);
         
@@ -164,7 +215,8 @@ public class ModuleSandbox {
             return true;
         } catch (TimeoutException e) {
             future.cancel(true);
-            handleModuleTimeout(moduleName, moduleInstance);
+            handleModuleTimeout(moduleName, moduleInstance,
+                new TimeoutException("Module execution exceeded time limit of " + maxExecutionTime + "ms"));
             return false;
         } catch (ExecutionException e) {
             handleModuleException(moduleName, moduleInstance, e.getCause());
@@ -196,6 +248,29 @@ public class ModuleSandbox {
             }
         }
         
+        // Watchdog-Modus: direkt ausführen, nur die Frist wird überwacht
+        ModuleWatchdog dog = watchdog;
+        if (dog != null) {
+            T result;
+            TimeoutException overrun;
+            dog.enter(moduleName, maxExecutionTime);
+            try {
+                result = action.call();
+            } catch (Throwable t) {
+                overrun = dog.exit();
+                if (overrun == null || !handleOverrun(dog, moduleName, moduleInstance, overrun)) {
+                    handleModuleException(moduleName, moduleInstance, t);
+                }
+                return defaultValue;
+            }
+            overrun = dog.exit();
+            if (overrun != null) {
+                // Die Aktion ist bereits ausgeführt, ihr Ergebnis bleibt gültig
+                handleOverrun(dog, moduleName, moduleInstance, overrun);
+            }
+            return result;
+        }
+        
         // Sandbox-Ausführung mit Timeout
         Future<T> future = executorService.submit(action);
         
@@ -208,7 +283,8 @@ public class ModuleSandbox {
             }
         } catch (TimeoutException e) {
             future.cancel(true);
-            handleModuleTimeout(moduleName, moduleInstance);
+            handleModuleTimeout(moduleName, moduleInstance,
+                new TimeoutException("Module execution exceeded time limit of " + maxExecutionTime + "ms"));
             return defaultValue;
         } catch (ExecutionException e) {
             handleModuleException(moduleName, moduleInstance, e.getCause());
@@ -219,18 +295,35 @@ public class ModuleSandbox {
         }
     }
     
+    /**
+     * Behandelt einen überfälligen Aufruf im Watchdog-Modus. Der Watchdog hat die Überschreitung
+     * bereits protokolliert und gezählt; deaktiviert wird das Modul nur, wenn er es unter
+     * {@link ModuleWatchdog.Action#DISABLE} markiert hat.
+     * 
+     * @return true, wenn das Modul deswegen deaktiviert wurde
+     */
+    private boolean handleOverrun(ModuleWatchdog dog, String moduleName, Object moduleInstance, TimeoutException overrun) {
+        if (!dog.isFlagged(moduleName)) {
+            return false;
+        }
+        dog.clearFlag(moduleName);
+        handleModuleTimeout(moduleName, moduleInstance, overrun);
+        return true;
+    }
+    
     /**
      * Behandelt eine Zeitüberschreitung bei der Modulausführung
      * 
      * @param moduleName Der Name des Moduls
      * @param moduleInstance Die Modulinstanz
+     * @param timeout Die Zeitüberschreitung, im Watchdog-Modus mit dem Stack des überfälligen Aufrufs
      */
-    private void handleModuleTimeout(String moduleName, Object moduleInstance) {
+    private void handleModuleTimeout(String moduleName, Object moduleInstance, TimeoutException timeout) {
         String errorMessage = "Zeitüberschreitung bei der Ausführung von Modul " + moduleName;
         console.categoryError(ConsoleFormatter.MessageCategory.SECURITY, errorMessage);
         
         // Erstelle einen Absturzbericht
-        createCrashReport(moduleName, moduleInstance, new TimeoutException("Module execution exceeded time limit of " + maxExecutionTime + "ms"));
+        createCrashReport(moduleName, moduleInstance, timeout);
         
         // Speichere Moduldaten, falls konfiguriert
         if (saveDataOnCrash) {
@@ -620,10 +713,22 @@ public class ModuleSandbox {
         }
     }
     
+    /**
+     * Gibt den Watchdog zurück
+     * 
+     * @return Der Watchdog oder null im Thread-Modus
+     */
+    public ModuleWatchdog getWatchdog() {
+        return watchdog;
+    }
+    
     /**
      * Bereinige Ressourcen bei Plugin-Deaktivierung
      */
     public void shutdown() {
+        if (watchdog != null) {
+            watchdog.shutdown();
+        }
         executorService.shutdownNow();
         console.categoryInfo(ConsoleFormatter.MessageCategory.SECURITY, "ModuleSandbox wurde heruntergefahren");
     }    
@@ -0,0 +1,142 @@
+package com.essentialscore;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prüft, ob die ClassLoader entladener Module tatsächlich vom Garbage Collector
+ * freigegeben werden. Ein ClassLoader, der nach Ablauf einer Schonfrist eine vollständige
+ * Collection (alte Generation bzw. kompletter Zyklus) überlebt, wird von etwas außerhalb des
+ * Moduls festgehalten, z.B. von einem nicht abgemeldeten Listener oder einem Thread.
+ * Es wird keine Collection erzwungen, geprüft wird nur nach ohnehin erfolgten Zyklen.
+ */
+public class ModuleUnloadVerifier {
+    private static final String[] YOUNG_COLLECTORS = {"Young", "Scavenge", "ParNew", "Copy", "Minor", "Pauses"};
+
+    private final ConsoleFormatter console;
+    private final long graceMillis;
+    private final List<PendingUnload> pending = new CopyOnWriteArrayList<>();
+    private final List<String> leaked = new CopyOnWriteArrayList<>();
+    private final LongAdder released = new LongAdder();
+
+    /**
+     * Erstellt den Prüfer
+     *
+     * @param console Der Konsolen-Formatter für Warnungen
+     * @param graceMillis Mindestzeit nach dem Entladen, bevor ein ClassLoader als Leck gilt
+     */
+    public ModuleUnloadVerifier(ConsoleFormatter console, long graceMillis) {
+        this.console = console;
+        this.graceMillis = graceMillis;
+    }
+
+    /**
+     * Beobachtet den ClassLoader eines gerade entladenen Moduls
+     *
+     * @param moduleName Der Name des Moduls
+     * @param loader Der ClassLoader der entladenen Version
+     */
+    public void watch(String moduleName, ClassLoader loader) {
+        if (loader != null) {
+            pending.add(new PendingUnload(moduleName, loader, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Prüft alle beobachteten ClassLoader. Wird periodisch asynchron aufgerufen.
+     */
+    public void check() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long collections = fullCollectionCount();
+        List<PendingUnload> done = new ArrayList<>();
+
+        for (PendingUnload unload : pending) {
+            if (unload.loader.get() == null) {
+                released.increment();
+                done.add(unload);
+            } else if (now - unload.unloadTime < graceMillis) {
+                continue;
+            } else if (unload.collectionsAfterGrace < 0) {
+                // Erst eine Collection nach Ablauf der Schonfrist ist aussagekräftig
+                unload.collectionsAfterGrace = collections;
+            } else if (collections > unload.collectionsAfterGrace) {
+                leaked.add(unload.moduleName);
+                done.add(unload);
+                console.categoryWarning(ConsoleFormatter.MessageCategory.MODULE, "ClassLoader von Modul " + unload.moduleName +
+                    " ist " + (now - unload.unloadTime) / 1000 + "s nach dem Entladen noch erreichbar (mögliches Speicherleck)");
+            }
+        }
+        pending.removeAll(done);
+    }
+
+    /**
+     * Gibt die Module zurück, deren alte ClassLoader nicht freigegeben wurden
+     *
+     * @return Die Modulnamen in der Reihenfolge der Erkennung
+     */
+    public List<String> getLeakedModules() {
+        return new ArrayList<>(leaked);
+    }
+
+    /**
+     * Gibt Statistiken über die Prüfung zurück
+     *
+     * @return Statistiken als Map
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", pending.size());
+        stats.put("released", released.sum());
+        stats.put("leaked", leaked.size());
+        return stats;
+    }
+
+    /**
+     * Zählt die Collections, die auch Klassen entladen können (ohne reine Young-Collections)
+     */
+    private static long fullCollectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!isYoungCollector(collector.getName()) && collector.getCollectionCount() > 0) {
+                count += collector.getCollectionCount();
+            }
+        }
+        return count;
+    }
+
+    private static boolean isYoungCollector(String name) {
+        for (String young : YOUNG_COLLECTORS) {
+            if (name.contains(young)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ein entladenes Modul, dessen ClassLoader noch nicht freigegeben wurde
+     */
+    private static final class PendingUnload {
+        private final String moduleName;
+        private final WeakReference<ClassLoader> loader;
+        private final long unloadTime;
+        private long collectionsAfterGrace = -1;
+
+        PendingUnload(String moduleName, ClassLoader loader, long unloadTime) {
+            this.moduleName = moduleName;
+            this.loader = new WeakReference<>(loader);
+            this.unloadTime = unloadTime;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.essentialscore;
 
+import com.essentialscore.api.event.Event;
+import com.essentialscore.api.event.EventBus;
+import com.essentialscore.api.event.EventHandler;
 import com.essentialscore.api.module.ModuleManager;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -102,12 +105,14 @@ public class PerformanceBenchmark {
         Map<String, Object> cacheResults = benchmarkCache();
         Map<String, Object> moduleResults = benchmarkModuleLoading();
         Map<String, Object> ioResults = benchmarkIO();
+        Map<String, Object> eventBusResults = benchmarkEventBus();
         
         // Ergebnisse in das Hauptergebnis einfügen
         results.put("thread_pool", threadPoolResults);
         results.put("cache", cacheResults);
         results.put("module_loading", moduleResults);
         results.put("io_operations", ioResults);
+        results.put("event_bus", eventBusResults);
           // Ergebnisse speichern mit verbesserter Formatierung
         String filename = "benchmark_full_" + dateFormat.format(new Date()) + ".yml";
         saveBenchmarkResults(results, filename);
@@ -171,6 +176,16 @@ public class PerformanceBenchmark {
                 writer.write("- Accesses per Second: " + String.format("%.0f", cache.get("method_cache_accesses_per_second")) + "\n\n");
             }
             
+            @SuppressWarnings("unchecked")
+            Map<String, Object> eventBus = (Map<String, Object>) results.get("event_bus");
+            if (eventBus != null) {
+                writer.write("Event Bus Performance:\n");
+                writer.write("- Dispatches: " + eventBus.get("event_dispatches") + "\n");
+                writer.write("- Generated: " + String.format("%.2f", eventBus.get("generated_ns_per_dispatch")) + " ns/dispatch\n");
+                writer.write("- Reflective: " + String.format("%.2f", eventBus.get("reflective_ns_per_dispatch")) + " ns/dispatch\n");
+                writer.write("- Speedup: " + String.format("%.2fx", eventBus.get("generated_speedup")) + "\n\n");
+            }
+            
             writer.write("=== End of Report ===\n");
             
         } catch (IOException e) {
@@ -358,6 +373,51 @@ public class PerformanceBenchmark {
         return results;
     }
 
+    /**
+     * Benchmarkt den Event-Bus mit generierten und reflektiven Handler-Aufrufen
+     *
+     * @return Benchmark-Ergebnisse
+     */
+    public Map<String, Object> benchmarkEventBus() {
+        Map<String, Object> results = new LinkedHashMap<>();
+        int iterations = 2_000_000;
+        
+        double reflective = measureEventDispatch(false, iterations);
+        double generated = measureEventDispatch(true, iterations);
+        
+        results.put("event_dispatches", iterations);
+        results.put("generated_ns_per_dispatch", generated);
+        results.put("reflective_ns_per_dispatch", reflective);
+        results.put("generated_speedup", generated > 0 ? reflective / generated : 0.0);
+        
+        return results;
+    }
+    
+    /**
+     * Misst die durchschnittliche Dauer eines fireEvent-Aufrufs mit einem Handler
+     */
+    private double measureEventDispatch(boolean generatedExecutors, int iterations) {
+        EventBus eventBus = new EventBus(apiCore.getLogger());
+        eventBus.setGeneratedExecutors(generatedExecutors);
+        BenchmarkListener listener = new BenchmarkListener();
+        eventBus.registerEvents(listener, "benchmark");
+        BenchmarkEvent event = new BenchmarkEvent();
+        
+        // Aufwärmen, damit der JIT die Dispatch-Schleife kompiliert hat
+        for (int i = 0; i < iterations / 4; i++) {
+            eventBus.fireEvent(event);
+        }
+        
+        long startTime = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            eventBus.fireEvent(event);
+        }
+        long duration = System.nanoTime() - startTime;
+        
+        eventBus.unregisterEvents(listener);
+        return listener.calls > 0 ? (double) duration / iterations : 0.0;
+    }
+    
     /**
      * Benchmarkt I/O-Operationen
      *
@@ -1107,6 +1167,24 @@ public class PerformanceBenchmark {
         return strValue;
     }
     
+    /**
+     * Event für den Event-Bus-Benchmark
+     */
+    public static class BenchmarkEvent extends Event {
+    }
+    
+    /**
+     * Listener für den Event-Bus-Benchmark
+     */
+    public static class BenchmarkListener {
+        long calls;
+        
+        @EventHandler
+        public void onBenchmark(BenchmarkEvent event) {
+            calls++;
+        }
+    }
+    
     /**
      * Hilfsklasse für Benchmark-Vergleichseinträge
      */
@@ -2,8 +2,18 @@ package com.essentialscore;
 
 import com.essentialscore.threading.AdvancedWorkStealingPool;
 
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -17,11 +27,20 @@ public class ThreadManager {
     private ExecutorService threadPool;
     private AdvancedWorkStealingPool advancedPool;
     private ScheduledExecutorService scheduledPool;
+    private ExecutorService ioPool;
+    private ExecutorService cpuPool;
+    private boolean virtualIo;
+    private RecordingStream pinningStream;
     private final String poolType;
     private final int poolSize;
     private final boolean monitoringEnabled;
     private final AtomicInteger taskCounter = new AtomicInteger(0);
     private final AtomicInteger completedTaskCounter = new AtomicInteger(0);
+    private final AtomicInteger activeIoTasks = new AtomicInteger(0);
+    private final LongAdder pinnedEvents = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private final Map<String, LongAdder> pinningSites = new ConcurrentHashMap<>();
+    private static final int MAX_PINNING_SITES = 32;
     
     /**
      * Erstellt einen neuen ThreadManager
@@ -84,11 +103,82 @@ public class ThreadManager {
                         monitoringEnabled, logger);
                 threadPool = advancedPool;
                 break;
+            case "VIRTUAL":
+                // Allgemeine Aufgaben sind meist blockierendes I/O, CPU-Arbeit läuft im begrenzten Pool
+                threadPool = Executors.newThreadPerTaskExecutor(
+                        Thread.ofVirtual().name("ApiCore-Virtual-", 1).factory());
+                cpuPool = Executors.newFixedThreadPool(poolSize, threadFactory);
+                ioPool = threadPool;
+                virtualIo = true;
+                break;
             case "CACHED":
             default:
                 threadPool = Executors.newCachedThreadPool(threadFactory);
                 break;
         }
+        
+        // Blockierendes I/O läuft standardmäßig auf virtuellen Threads, auch neben den klassischen Pools
+        if (ioPool == null) {
+            virtualIo = core.getConfig().getBoolean("performance.virtual-threads.io", true);
+            ioPool = virtualIo
+                    ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ApiCore-IO-", 1).factory())
+                    : threadPool;
+        }
+        if (cpuPool == null) {
+            cpuPool = threadPool;
+        }
+        
+        // Ohne virtuelle Threads gibt es kein Pinning, der JFR-Stream würde nur Ressourcen binden
+        if (virtualIo && core.getConfig().getBoolean("performance.virtual-threads.pinning-detection", true)) {
+            startPinningDetection(core.getConfig().getLong("performance.virtual-threads.pinning-threshold-ms", 20));
+        }
+    }
+    
+    /**
+     * Überwacht per JFR, wann virtuelle Threads ihren Träger-Thread blockieren,
+     * z.B. in synchronized-Blöcken oder nativen Aufrufen
+     */
+    private void startPinningDetection(long thresholdMillis) {
+        try {
+            RecordingStream stream = new RecordingStream();
+            stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+            stream.onEvent("jdk.VirtualThreadPinned", this::recordPinning);
+            stream.startAsync();
+            pinningStream = stream;
+        } catch (Exception | LinkageError e) {
+            logger.log(Level.FINE, "Pinning-Erkennung für virtuelle Threads nicht verfügbar", e);
+        }
+    }
+    
+    private void recordPinning(RecordedEvent event) {
+        pinnedEvents.increment();
+        pinnedNanos.add(event.getDuration().toNanos());
+        
+        String site = pinningSite(event.getStackTrace());
+        LongAdder counter = pinningSites.get(site);
+        if (counter == null && pinningSites.size() < MAX_PINNING_SITES) {
+            counter = pinningSites.computeIfAbsent(site, k -> new LongAdder());
+        }
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+    
+    /**
+     * Ermittelt den ersten Frame außerhalb des JDK als Ort des Pinnings
+     */
+    private static String pinningSite(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unbekannt";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        RecordedFrame top = stackTrace.getFrames().get(0);
+        return top.getMethod().getType().getName() + "." + top.getMethod().getName();
     }
     
     /**
@@ -98,9 +188,77 @@ public class ThreadManager {
      * @return Ein Future-Objekt, das das Ergebnis repräsentiert
      */
     public Future<?> submit(Runnable task) {
+        return submitTo(threadPool, task);
+    }
+    
+    /**
+     * Übermittelt eine blockierende Aufgabe (Datenbank, Dateien, HTTP).
+     * Läuft auf virtuellen Threads, sofern nicht deaktiviert.
+     * 
+     * @param task Die auszuführende Aufgabe
+     * @return Ein Future-Objekt, das das Ergebnis repräsentiert
+     */
+    public Future<?> submitIo(Runnable task) {
+        return submitTo(ioPool, () -> {
+            activeIoTasks.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                activeIoTasks.decrementAndGet();
+            }
+        }, task.getClass());
+    }
+    
+    /**
+     * Übermittelt eine blockierende Aufgabe mit Rückgabewert
+     * 
+     * @param task Die auszuführende Aufgabe
+     * @return Ein Future-Objekt, das das Ergebnis repräsentiert
+     */
+    public <T> Future<T> submitIo(Callable<T> task) {
+        return submitTo(ioPool, () -> {
+            activeIoTasks.incrementAndGet();
+            try {
+                return task.call();
+            } finally {
+                activeIoTasks.decrementAndGet();
+            }
+        }, task.getClass());
+    }
+    
+    /**
+     * Übermittelt eine rechenintensive Aufgabe an den begrenzten Pool mit Plattform-Threads
+     * 
+     * @param task Die auszuführende Aufgabe
+     * @return Ein Future-Objekt, das das Ergebnis repräsentiert
+     */
+    public Future<?> submitCpu(Runnable task) {
+        return submitTo(cpuPool, task);
+    }
+    
+    /**
+     * Übermittelt eine rechenintensive Aufgabe mit Rückgabewert
+     * 
+     * @param task Die auszuführende Aufgabe
+     * @return Ein Future-Objekt, das das Ergebnis repräsentiert
+     */
+    public <T> Future<T> submitCpu(Callable<T> task) {
+        return submitTo(cpuPool, task);
+    }
+    
+    private Future<?> submitTo(ExecutorService pool, Runnable task) {
+        return submitTo(pool, task, task.getClass());
+    }
+    
+    /**
+     * Übermittelt eine Aufgabe im Zähl-Wrapper. Der ADVANCED-Pool führt seine Statistiken
+     * unter {@code taskType}, damit sie der Klasse (und dem ClassLoader) des Aufrufers
+     * zugeordnet werden und nicht dem Wrapper-Lambda.
+     */
+    private Future<?> submitTo(ExecutorService pool, Runnable task, Class<?> taskType) {
         taskCounter.incrementAndGet();
         
-        return threadPool.submit(() -> {
+        Runnable wrapper = () -> {
             try {
                 task.run();
             } catch (Exception e) {
@@ -108,7 +266,11 @@ public class ThreadManager {
             } finally {
                 completedTaskCounter.incrementAndGet();
             }
-        });
+        };
+        if (pool == advancedPool) {
+            return advancedPool.submit(wrapper, AdvancedWorkStealingPool.TaskPriority.NORMAL, taskType);
+        }
+        return pool.submit(wrapper);
     }
     
     /**
@@ -118,9 +280,41 @@ public class ThreadManager {
      * @return Ein Future-Objekt, das das Ergebnis repräsentiert
      */
     public <T> Future<T> submit(Callable<T> task) {
+        return submitTo(threadPool, task);
+    }
+    
+    /**
+     * Übermittelt eine Aufgabe mit Priorität. Nur der Pool-Typ ADVANCED berücksichtigt die
+     * Priorität, andere Pools führen die Aufgabe wie {@link #submit(Runnable)} aus.
+     * 
+     * @param task Die auszuführende Aufgabe
+     * @param priority Die Priorität
+     * @return Ein Future-Objekt, das das Ergebnis repräsentiert
+     */
+    public Future<?> submit(Runnable task, AdvancedWorkStealingPool.TaskPriority priority) {
+        if (advancedPool == null) {
+            return submit(task);
+        }
+        taskCounter.incrementAndGet();
+        return advancedPool.submit(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Fehler bei Task-Ausführung", e);
+            } finally {
+                completedTaskCounter.incrementAndGet();
+            }
+        }, priority, task.getClass());
+    }
+    
+    private <T> Future<T> submitTo(ExecutorService pool, Callable<T> task) {
+        return submitTo(pool, task, task.getClass());
+    }
+    
+    private <T> Future<T> submitTo(ExecutorService pool, Callable<T> task, Class<?> taskType) {
         taskCounter.incrementAndGet();
         
-        return threadPool.submit(() -> {
+        Callable<T> wrapper = () -> {
             try {
                 return task.call();
             } catch (Exception e) {
@@ -129,7 +323,11 @@ public class ThreadManager {
             } finally {
                 completedTaskCounter.incrementAndGet();
             }
-        });
+        };
+        if (pool == advancedPool) {
+            return advancedPool.submit(wrapper, AdvancedWorkStealingPool.TaskPriority.NORMAL, taskType);
+        }
+        return pool.submit(wrapper);
     }
     
     /**
@@ -177,6 +375,18 @@ public class ThreadManager {
             scheduledPool.shutdown();
         }
         
+        // Zusätzliche I/O- und CPU-Pools, sofern sie nicht der Haupt-Pool sind
+        if (ioPool != threadPool) {
+            ioPool.shutdown();
+        }
+        if (cpuPool != threadPool) {
+            cpuPool.shutdown();
+        }
+        
+        if (pinningStream != null) {
+            pinningStream.close();
+        }
+        
         logger.info("ThreadManager heruntergefahren");
     }
     
@@ -196,6 +406,21 @@ public class ThreadManager {
             info.activeThreads = executor.getActiveCount();
             info.queueSize = executor.getQueue().size();
             info.completedTasks = executor.getCompletedTaskCount();
+        } else if ("VIRTUAL".equals(poolType)) {
+            // Virtuelle Threads haben keine feste Größe und keine Warteschlange: ein Thread je laufender Aufgabe.
+            // Aufgaben des CPU-Pools laufen ebenfalls über die Zähler und werden abgezogen.
+            int cpuPending = 0;
+            if (cpuPool instanceof ThreadPoolExecutor) {
+                ThreadPoolExecutor cpuExecutor = (ThreadPoolExecutor) cpuPool;
+                cpuPending = cpuExecutor.getActiveCount() + cpuExecutor.getQueue().size();
+            }
+            int activeTasks = Math.max(0, taskCounter.get() - completedTaskCounter.get() - cpuPending);
+            info.poolSize = activeTasks;
+            info.corePoolSize = 0;
+            info.maxPoolSize = Integer.MAX_VALUE;
+            info.activeThreads = activeTasks;
+            info.queueSize = 0;
+            info.completedTasks = completedTaskCounter.get();
         } else if (advancedPool != null) {
             info.poolSize = advancedPool.getParallelism();
             info.corePoolSize = advancedPool.getParallelism();
@@ -212,6 +437,32 @@ public class ThreadManager {
             info.completedTasks = completedTaskCounter.get();
         }
         
+        info.poolType = poolType;
+        info.virtualIo = virtualIo;
+        info.activeIoTasks = activeIoTasks.get();
+        if (cpuPool instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor executor = (ThreadPoolExecutor) cpuPool;
+            info.cpuPoolSize = executor.getMaximumPoolSize();
+            info.cpuActiveThreads = executor.getActiveCount();
+            info.cpuQueueSize = executor.getQueue().size();
+        } else {
+            info.cpuPoolSize = info.maxPoolSize;
+            info.cpuActiveThreads = info.activeThreads;
+            info.cpuQueueSize = info.queueSize;
+        }
+        info.pinningDetection = pinningStream != null;
+        info.pinnedEvents = pinnedEvents.sum();
+        info.pinnedMillis = TimeUnit.NANOSECONDS.toMillis(pinnedNanos.sum());
+        Map<String, Long> sites = new LinkedHashMap<>();
+        pinningSites.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+                .forEach(entry -> sites.put(entry.getKey(), entry.getValue().sum()));
+        info.pinningSites = Collections.unmodifiableMap(sites);
+        if (advancedPool != null) {
+            info.priorityQueues = advancedPool.getPriorityStatistics();
+            info.taskStatistics = advancedPool.getTaskStatistics();
+        }
+        
         return info;
     }
     
@@ -242,6 +493,35 @@ public class ThreadManager {
         return threadPool;
     }
     
+    /**
+     * Gibt den Executor für blockierende Aufgaben zurück
+     * 
+     * @return Der I/O-Executor
+     */
+    public ExecutorService getIoExecutor() {
+        return ioPool;
+    }
+    
+    /**
+     * Gibt den begrenzten Executor für rechenintensive Aufgaben zurück
+     * 
+     * @return Der CPU-Executor
+     */
+    public ExecutorService getCpuExecutor() {
+        return cpuPool;
+    }
+    
+    /**
+     * Gibt die Task-Statistiken eines entladenen Moduls frei
+     * 
+     * @param loader Der ClassLoader des Moduls
+     */
+    public void releaseClassLoader(ClassLoader loader) {
+        if (advancedPool != null) {
+            advancedPool.removeTaskStatistics(loader);
+        }
+    }
+    
     /**
      * Klasse für Thread-Pool-Informationen
      */
@@ -252,6 +532,18 @@ public class ThreadManager {
         private int activeThreads;
         private long queueSize;
         private long completedTasks;
+        private String poolType;
+        private boolean virtualIo;
+        private int activeIoTasks;
+        private int cpuPoolSize;
+        private int cpuActiveThreads;
+        private long cpuQueueSize;
+        private boolean pinningDetection;
+        private long pinnedEvents;
+        private long pinnedMillis;
+        private Map<String, Long> pinningSites = Collections.emptyMap();
+        private Map<String, Map<String, Object>> priorityQueues = Collections.emptyMap();
+        private Map<String, Map<String, Object>> taskStatistics = Collections.emptyMap();
         
         /**
          * Gibt die aktuelle Pool-Größe zurück
@@ -306,5 +598,113 @@ public class ThreadManager {
         public long getCompletedTasks() {
             return completedTasks;
         }
+        
+        /**
+         * Gibt den konfigurierten Pool-Typ zurück
+         * 
+         * @return Pool-Typ
+         */
+        public String getPoolType() {
+            return poolType;
+        }
+        
+        /**
+         * Gibt zurück, ob blockierende Aufgaben auf virtuellen Threads laufen
+         * 
+         * @return true bei virtuellen I/O-Threads
+         */
+        public boolean isVirtualIo() {
+            return virtualIo;
+        }
+        
+        /**
+         * Gibt die Anzahl der laufenden I/O-Aufgaben zurück
+         * 
+         * @return Laufende I/O-Aufgaben
+         */
+        public int getActiveIoTasks() {
+            return activeIoTasks;
+        }
+        
+        /**
+         * Gibt die Größe des CPU-Pools zurück
+         * 
+         * @return Größe des CPU-Pools
+         */
+        public int getCpuPoolSize() {
+            return cpuPoolSize;
+        }
+        
+        /**
+         * Gibt die Anzahl der aktiven Threads im CPU-Pool zurück
+         * 
+         * @return Aktive CPU-Threads
+         */
+        public int getCpuActiveThreads() {
+            return cpuActiveThreads;
+        }
+        
+        /**
+         * Gibt die Größe der Warteschlange des CPU-Pools zurück
+         * 
+         * @return Wartende CPU-Aufgaben
+         */
+        public long getCpuQueueSize() {
+            return cpuQueueSize;
+        }
+        
+        /**
+         * Gibt zurück, ob die Pinning-Erkennung aktiv ist
+         * 
+         * @return true, wenn Pinning per JFR erkannt wird
+         */
+        public boolean isPinningDetection() {
+            return pinningDetection;
+        }
+        
+        /**
+         * Gibt zurück, wie oft ein virtueller Thread seinen Träger-Thread blockiert hat
+         * 
+         * @return Anzahl der Pinning-Ereignisse über dem Schwellwert
+         */
+        public long getPinnedEvents() {
+            return pinnedEvents;
+        }
+        
+        /**
+         * Gibt die gesamte Dauer aller Pinning-Ereignisse zurück
+         * 
+         * @return Dauer in Millisekunden
+         */
+        public long getPinnedMillis() {
+            return pinnedMillis;
+        }
+        
+        /**
+         * Gibt die Code-Stellen mit Pinning und ihre Häufigkeit zurück, häufigste zuerst
+         * 
+         * @return Code-Stelle (synchronized-Block oder nativer Aufruf) und Anzahl
+         */
+        public Map<String, Long> getPinningSites() {
+            return pinningSites;
+        }
+        
+        /**
+         * Gibt Länge und Wartezeit der Prioritäts-Warteschlangen zurück (nur Pool-Typ ADVANCED)
+         * 
+         * @return Priorität und Statistiken, höchste Priorität zuerst, sonst leer
+         */
+        public Map<String, Map<String, Object>> getPriorityQueues() {
+            return priorityQueues;
+        }
+        
+        /**
+         * Gibt Ausführungszeit-Perzentile und Durchsatz je Task-Klasse zurück (nur Pool-Typ ADVANCED)
+         * 
+         * @return Klassenname und Statistiken, häufigste zuerst, sonst leer
+         */
+        public Map<String, Map<String, Object>> getTaskStatistics() {
+            return taskStatistics;
+        }
     }
 }
@@ -60,6 +60,26 @@ public interface Module {
         return true;
     }
     
+    /**
+     * Called on the running instance before a hot swap replaces it with a new version.
+     * Return a snapshot of the state the new version should take over, or null to start
+     * the new version from scratch. The snapshot must only contain JDK or core API types,
+     * because the classes of the old version are unloaded after the swap.
+     * 
+     * @return The state snapshot, or null to opt out
+     */
+    default Map<String, Object> exportState() {
+        return null;
+    }
+    
+    /**
+     * Called on the new instance during a hot swap, before {@link #init(ModuleAPI, FileConfiguration)},
+     * with the snapshot exported by the previous version
+     * 
+     * @param state The state snapshot of the previous version
+     */
+    default void importState(Map<String, Object> state) {}
+    
     /**
      * Called when a player joins the server
      * 
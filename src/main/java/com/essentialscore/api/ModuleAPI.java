@@ -1,5 +1,9 @@
 package com.essentialscore.api;
 
+import com.essentialscore.api.event.EventBus;
+import com.essentialscore.api.scheduling.MainThreadScheduler;
+import com.essentialscore.api.scheduling.ModuleTaskScope;
+import com.essentialscore.api.scheduling.TaskPriority;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.command.CommandSender;
@@ -14,12 +18,16 @@ import org.bukkit.event.inventory.InventoryCloseEvent;
 import java.io.File;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
 import com.essentialscore.api.integration.IIntegrationManager;
@@ -131,10 +139,12 @@ public interface ModuleAPI {
     BukkitTask runTask(Runnable task);
     
     /**
-     * Führt eine Aufgabe asynchron in einem separaten Thread aus
+     * Führt eine Aufgabe asynchron im gemeinsamen Modul-Pool aus. Der Pool teilt die Worker
+     * nach Gewicht zwischen den Modulen auf; das zurückgegebene Objekt hat keine Bukkit-Task-ID.
      * 
      * @param task Die auszuführende Aufgabe
      * @return Das BukkitTask-Objekt für weitere Verwaltung
+     * @throws java.util.concurrent.RejectedExecutionException Wenn die Warteschlange des Moduls voll ist
      */
     BukkitTask runTaskAsync(Runnable task);
     
@@ -157,6 +167,171 @@ public interface ModuleAPI {
      */
     BukkitTask runTaskTimer(Runnable task, long delay, long period);
     
+    /**
+     * Führt eine Aufgabe im Hauptthread innerhalb des Zeitbudgets pro Tick aus.
+     * Ist das Budget des aktuellen Ticks aufgebraucht, läuft die Aufgabe in einem späteren Tick.
+     * Ohne Zeitbudget des Cores läuft die Aufgabe über {@link #runTask(Runnable)}, die Priorität entfällt.
+     * 
+     * @param task Die auszuführende Aufgabe
+     * @param priority Die Priorität gegenüber anderen wartenden Aufgaben
+     * @return Ein Future, das nach der Ausführung abgeschlossen wird; cancel() verwirft die Aufgabe
+     */
+    default CompletableFuture<Void> runBudgeted(Runnable task, TaskPriority priority) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        runTask(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                task.run();
+                future.complete(null);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+    
+    /**
+     * Führt eine lange Aufgabe im Hauptthread in Teilschritten aus, verteilt über beliebig viele Ticks.
+     * Jeder Aufruf von {@link MainThreadScheduler.Slice#runSlice()} sollte deutlich unter dem Tick-Budget bleiben.
+     * 
+     * Ohne Zeitbudget des Cores laufen je Tick über {@link #runTask(Runnable)} Schritte für etwa 2 ms.
+     * 
+     * @param slice Die Aufgabe, liefert true solange weitere Schritte folgen
+     * @param priority Die Priorität gegenüber anderen wartenden Aufgaben
+     * @return Ein Future, das nach dem letzten Schritt abgeschlossen wird
+     */
+    default CompletableFuture<Void> runSliced(MainThreadScheduler.Slice slice, TaskPriority priority) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        runSlicesNextTick(slice, future);
+        return future;
+    }
+    
+    private void runSlicesNextTick(MainThreadScheduler.Slice slice, CompletableFuture<Void> future) {
+        runTask(() -> {
+            long deadline = System.nanoTime() + 2_000_000L;
+            try {
+                while (!future.isDone()) {
+                    if (!slice.runSlice()) {
+                        future.complete(null);
+                    } else if (System.nanoTime() >= deadline) {
+                        runSlicesNextTick(slice, future);
+                        return;
+                    }
+                }
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+    }
+    
+    /**
+     * Führt eine Aktion für jedes Element im Hauptthread aus, so viele Elemente pro Tick wie das Budget erlaubt
+     * 
+     * @param <T> Der Elementtyp
+     * @param items Die Elemente
+     * @param action Die Aktion je Element
+     * @param priority Die Priorität gegenüber anderen wartenden Aufgaben
+     * @return Ein Future, das nach dem letzten Element abgeschlossen wird
+     */
+    default <T> CompletableFuture<Void> forEachBudgeted(Iterable<T> items, Consumer<? super T> action, TaskPriority priority) {
+        return runSliced(new MainThreadScheduler.Slice() {
+            private Iterator<T> iterator;
+            
+            @Override
+            public boolean runSlice() {
+                if (iterator == null) {
+                    iterator = items.iterator();
+                }
+                if (iterator.hasNext()) {
+                    action.accept(iterator.next());
+                }
+                return iterator.hasNext();
+            }
+        }, priority);
+    }
+    
+    /**
+     * Öffnet einen Scope für parallele Teilaufgaben auf virtuellen Threads.
+     * Der aufrufende Thread forkt, wartet mit join() und schließt den Scope (try-with-resources);
+     * beim Schließen werden noch laufende Teilaufgaben abgebrochen. Beim Entladen des Moduls werden
+     * alle offenen Scopes abgebrochen, und gleichzeitig laufende Teilaufgaben des Moduls sind begrenzt.
+     * join() blockiert und sollte nicht im Hauptthread aufgerufen werden, siehe {@link #fanOut}.
+     * Ohne Unterstützung des Cores ist der Scope weder begrenzt noch an das Entladen des Moduls gebunden.
+     * 
+     * @param <T> Der gemeinsame Ergebnistyp der Teilaufgaben
+     * @param policy Wann der Scope fertig ist: alle erfolgreich (Abbruch beim ersten Fehler) oder erster Erfolg
+     * @param timeoutMillis Die Frist in Millisekunden, 0 für keine; die Frist eines umgebenden Scopes gilt weiter
+     * @return Der geöffnete Scope
+     */
+    default <T> ModuleTaskScope<T> openScope(ModuleTaskScope.Policy policy, long timeoutMillis) {
+        return new ModuleTaskScope<>(getModuleName(), policy, timeoutMillis, null, null, null);
+    }
+    
+    /**
+     * Führt Aufgaben parallel auf virtuellen Threads aus und sammelt alle Ergebnisse.
+     * Schlägt eine Aufgabe fehl oder läuft die Frist ab, werden die übrigen abgebrochen.
+     * 
+     * @param <T> Der Ergebnistyp
+     * @param tasks Die Aufgaben
+     * @param timeoutMillis Die Frist in Millisekunden, 0 für keine
+     * @return Ein Future mit den Ergebnissen in der Reihenfolge der Aufgaben; cancel() bricht alle Aufgaben ab
+     */
+    default <T> CompletableFuture<List<T>> fanOut(List<? extends Callable<? extends T>> tasks, long timeoutMillis) {
+        return forkScoped(ModuleTaskScope.Policy.ALL_SUCCESSFUL, timeoutMillis, tasks, (scope, subtasks) -> {
+            List<T> results = new ArrayList<>(subtasks.size());
+            for (ModuleTaskScope.Subtask<? extends T> subtask : subtasks) {
+                results.add(subtask.get());
+            }
+            return results;
+        });
+    }
+    
+    /**
+     * Führt Aufgaben parallel auf virtuellen Threads aus und liefert das erste erfolgreiche Ergebnis,
+     * z.B. für redundante Datenquellen. Die übrigen Aufgaben werden danach abgebrochen.
+     * 
+     * @param <T> Der Ergebnistyp
+     * @param tasks Die Aufgaben
+     * @param timeoutMillis Die Frist in Millisekunden, 0 für keine
+     * @return Ein Future mit dem ersten Ergebnis; schlägt fehl, wenn keine Aufgabe erfolgreich war
+     */
+    default <T> CompletableFuture<T> firstSuccess(List<? extends Callable<? extends T>> tasks, long timeoutMillis) {
+        return forkScoped(ModuleTaskScope.Policy.FIRST_SUCCESS, timeoutMillis, tasks, (scope, subtasks) -> scope.result());
+    }
+    
+    /**
+     * Forkt die Aufgaben in einem Scope auf einem eigenen virtuellen Thread, damit der Aufrufer
+     * nie auf join() wartet, und bildet nach join() das Ergebnis
+     */
+    private <T, R> CompletableFuture<R> forkScoped(ModuleTaskScope.Policy policy, long timeoutMillis,
+            List<? extends Callable<? extends T>> tasks,
+            BiFunction<ModuleTaskScope<T>, List<ModuleTaskScope.Subtask<? extends T>>, R> collector) {
+        List<Callable<? extends T>> snapshot = new ArrayList<>(tasks);
+        CompletableFuture<R> future = new CompletableFuture<>();
+        Thread.ofVirtual().name("Module-" + getModuleName() + "-fanout").start(() -> {
+            try (ModuleTaskScope<T> scope = openScope(policy, timeoutMillis)) {
+                future.whenComplete((result, error) -> {
+                    if (future.isCancelled()) {
+                        scope.cancel();
+                    }
+                });
+                List<ModuleTaskScope.Subtask<? extends T>> subtasks = new ArrayList<>(snapshot.size());
+                for (Callable<? extends T> task : snapshot) {
+                    subtasks.add(scope.fork(task));
+                }
+                scope.join();
+                future.complete(collector.apply(scope, subtasks));
+            } catch (ExecutionException e) {
+                future.completeExceptionally(e.getCause());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+    
     /**
      * Registriert einen Event-Listener für dieses Modul
      * 
@@ -228,6 +403,17 @@ public interface ModuleAPI {
      */
     Object getModuleData(String key);
     
+    /**
+     * Registriert ein Objekt (z.B. einen Cache), dessen Größe dem Modul zugerechnet wird.
+     * Das Objekt wird nur schwach referenziert.
+     * 
+     * @param name Ein innerhalb des Moduls eindeutiger Name
+     * @param object Das Objekt oder null, um die Registrierung aufzuheben
+     */
+    default void trackMemory(String name, Object object) {
+        // Standardmäßig keine Größenschätzung
+    }
+    
     /**
      * Holt eine Liste aller geladenen Module
      * 
@@ -267,6 +453,35 @@ public interface ModuleAPI {
      */
     void fireModuleEvent(String eventName, Map<String, Object> data);
     
+    /**
+     * Gibt einen typisierten Event-Kanal zurück und legt ihn bei Bedarf an.
+     * Der Kanal sollte einmal abgefragt und gespeichert werden; Veröffentlichen
+     * erfordert dann weder Map-Allokation noch String-Lookups.
+     * 
+     * @param channelName Der Name des Kanals
+     * @param payloadType Der Typ der Event-Daten
+     * @param <T> Der Typ der Event-Daten
+     * @return Der Event-Kanal
+     * @throws IllegalArgumentException wenn der Kanal bereits mit einem anderen Typ existiert
+     * @throws UnsupportedOperationException wenn die Implementierung keine Kanäle anbietet;
+     *         Events laufen dann weiter über {@link #fireModuleEvent(String, Map)}
+     */
+    default <T> ModuleEventChannel<T> getEventChannel(String channelName, Class<T> payloadType) {
+        throw new UnsupportedOperationException("Typed event channels are not supported by " + getClass().getName());
+    }
+    
+    /**
+     * Gibt den EventBus des Cores zurück.
+     * Listener werden mit {@code registerEvents(listener, moduleName)} unter dem Modulnamen
+     * registriert, damit ihre Laufzeiten dem Modul zugeordnet und sie beim Entladen
+     * automatisch entfernt werden.
+     * 
+     * @return Der EventBus oder null, wenn die Implementierung keinen anbietet
+     */
+    default EventBus getEventBus() {
+        return null;
+    }
+    
     /**
      * Loggt eine Nachricht mit INFO-Level
      * 
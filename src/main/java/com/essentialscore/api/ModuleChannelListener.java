@@ -0,0 +1,16 @@
+package com.essentialscore.api;
+
+/**
+ * Listener for a typed module event channel.
+ *
+ * @param <T> The payload type of the channel
+ */
+@FunctionalInterface
+public interface ModuleChannelListener<T> {
+    /**
+     * Called when a payload is published on the channel
+     * 
+     * @param payload The published payload
+     */
+    void onEvent(T payload);
+}
@@ -0,0 +1,195 @@
+package com.essentialscore.api;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BinaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A typed channel for events between modules.
+ * Channels are obtained once from {@link ModuleEventChannels} and kept by the
+ * publisher, so publishing is a walk over a listener snapshot without any map
+ * lookup or payload map allocation.
+ *
+ * @param <T> The payload type
+ */
+public final class ModuleEventChannel<T> {
+    private static final ModuleChannelListener<?>[] NO_LISTENERS = new ModuleChannelListener<?>[0];
+
+    private final int id;
+    private final String name;
+    private final Class<T> payloadType;
+    private final ModuleEventChannels registry;
+    private final Logger logger;
+    private final AtomicReference<T> pending = new AtomicReference<>();
+    private volatile ModuleChannelListener<? super T>[] listeners;
+
+    @SuppressWarnings("unchecked")
+    ModuleEventChannel(int id, String name, Class<T> payloadType, ModuleEventChannels registry, Logger logger) {
+        this.id = id;
+        this.name = name;
+        this.payloadType = payloadType;
+        this.registry = registry;
+        this.logger = logger;
+        this.listeners = (ModuleChannelListener<? super T>[]) NO_LISTENERS;
+    }
+
+    /**
+     * Gets the interned id of this channel
+     *
+     * @return The channel id
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the name of this channel
+     *
+     * @return The channel name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the payload type of this channel
+     *
+     * @return The payload type
+     */
+    public Class<T> getPayloadType() {
+        return payloadType;
+    }
+
+    /**
+     * Checks whether anyone listens on this channel.
+     * Publishers can use this to skip building expensive payloads.
+     *
+     * @return true if at least one listener is subscribed
+     */
+    public boolean hasListeners() {
+        return listeners.length > 0;
+    }
+
+    /**
+     * Gets the number of subscribed listeners
+     *
+     * @return The listener count
+     */
+    public int getListenerCount() {
+        return listeners.length;
+    }
+
+    /**
+     * Subscribes a listener to this channel
+     *
+     * @param listener The listener
+     */
+    public synchronized void subscribe(ModuleChannelListener<? super T> listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        ModuleChannelListener<? super T>[] current = listeners;
+        ModuleChannelListener<? super T>[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * Unsubscribes a listener from this channel
+     *
+     * @param listener The listener to remove
+     * @return true if the listener was subscribed
+     */
+    public synchronized boolean unsubscribe(Object listener) {
+        ModuleChannelListener<? super T>[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].equals(listener)) {
+                listeners = remove(current, i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all listeners loaded by the given class loader
+     *
+     * @param loader The class loader of an unloaded module
+     * @return The number of removed listeners
+     */
+    synchronized int unsubscribeAll(ClassLoader loader) {
+        ModuleChannelListener<? super T>[] current = listeners;
+        int removed = 0;
+        for (int i = current.length - 1; i >= 0; i--) {
+            if (ModuleEventChannels.ownerClass(current[i]).getClassLoader() == loader) {
+                current = remove(current, i);
+                removed++;
+            }
+        }
+        listeners = current;
+        return removed;
+    }
+
+    /**
+     * Publishes a payload to all listeners on the calling thread
+     *
+     * @param payload The payload
+     */
+    public void publish(T payload) {
+        ModuleChannelListener<? super T>[] snapshot = listeners;
+        for (ModuleChannelListener<? super T> listener : snapshot) {
+            try {
+                listener.onEvent(payload);
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Fehler bei der Verarbeitung des Events " + name + " durch einen Listener", e);
+            }
+        }
+    }
+
+    /**
+     * Publishes a payload at the end of the current tick. Payloads published more than
+     * once within the same tick are coalesced, only the latest one is delivered.
+     *
+     * @param payload The payload
+     */
+    public void publishCoalesced(T payload) {
+        publishCoalesced(payload, null);
+    }
+
+    /**
+     * Publishes a payload at the end of the current tick. Payloads published more than
+     * once within the same tick are combined with the given merger.
+     *
+     * @param payload The payload
+     * @param merger Combines the pending and the new payload, or null to keep the latest
+     */
+    public void publishCoalesced(T payload, BinaryOperator<T> merger) {
+        if (payload == null) {
+            throw new IllegalArgumentException("Payload cannot be null");
+        }
+        T previous = merger == null
+            ? pending.getAndSet(payload)
+            : pending.getAndAccumulate(payload, (current, next) -> current == null ? next : merger.apply(current, next));
+        if (previous == null) {
+            registry.markPending(this);
+        }
+    }
+
+    /**
+     * Delivers the coalesced payload of this tick, if any
+     */
+    void flushPending() {
+        T payload = pending.getAndSet(null);
+        if (payload != null) {
+            publish(payload);
+        }
+    }
+
+    private static <L> L[] remove(L[] array, int index) {
+        L[] updated = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, index + 1, updated, index, array.length - index - 1);
+        return updated;
+    }
+}
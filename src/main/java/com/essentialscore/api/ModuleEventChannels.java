@@ -0,0 +1,220 @@
+package com.essentialscore.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Registry of typed module event channels.
+ * Each channel name is interned once into a {@link ModuleEventChannel} with a fixed
+ * payload type. The string based module event API is an adapter on top of channels
+ * with a {@code Map<String, Object>} payload; those channels live in a namespace of
+ * their own, so an event name never collides with a typed channel of the same name.
+ */
+public class ModuleEventChannels {
+    private final Map<String, ModuleEventChannel<?>> channels = new ConcurrentHashMap<>(16, 0.75f, 1);
+    private final Map<String, ModuleEventChannel<Map<String, Object>>> eventChannels = new ConcurrentHashMap<>(16, 0.75f, 1);
+    private final Queue<ModuleEventChannel<?>> pendingChannels = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final Logger logger;
+
+    /**
+     * Creates a new channel registry
+     *
+     * @param logger The logger for listener errors
+     */
+    public ModuleEventChannels(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Gets or creates the channel with the given name
+     *
+     * @param name The channel name
+     * @param payloadType The payload type
+     * @param <T> The payload type
+     * @return The channel
+     * @throws IllegalArgumentException if the channel exists with an incompatible payload type
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ModuleEventChannel<T> channel(String name, Class<T> payloadType) {
+        if (name == null || payloadType == null) {
+            throw new IllegalArgumentException("Channel name and payload type cannot be null");
+        }
+
+        ModuleEventChannel<?> channel = channels.get(name);
+        if (channel == null) {
+            channel = channels.computeIfAbsent(name,
+                key -> new ModuleEventChannel<>(nextId.getAndIncrement(), key, payloadType, this, logger));
+        }
+        if (channel.getPayloadType() != payloadType) {
+            throw new IllegalArgumentException("Channel " + name + " carries " + channel.getPayloadType().getName() +
+                                               ", not " + payloadType.getName());
+        }
+        return (ModuleEventChannel<T>) channel;
+    }
+
+    /**
+     * Gets an existing typed channel without creating it
+     *
+     * @param name The channel name
+     * @return The channel, or null if it does not exist
+     */
+    public ModuleEventChannel<?> getChannel(String name) {
+        return channels.get(name);
+    }
+
+    /**
+     * Gets all typed channels
+     *
+     * @return An unmodifiable view of all typed channels
+     */
+    public Collection<ModuleEventChannel<?>> getChannels() {
+        return Collections.unmodifiableCollection(channels.values());
+    }
+
+    /**
+     * Subscribes a string based listener to the map channel of an event name
+     *
+     * @param eventName The event name
+     * @param listener The listener
+     */
+    public void subscribe(String eventName, ModuleEventListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        mapChannel(eventName).subscribe(new LegacyListener(eventName, listener));
+    }
+
+    /**
+     * Unsubscribes a string based listener
+     *
+     * @param eventName The event name
+     * @param listener The listener to remove
+     */
+    public void unsubscribe(String eventName, ModuleEventListener listener) {
+        ModuleEventChannel<Map<String, Object>> channel = eventChannels.get(eventName);
+        if (channel != null) {
+            channel.unsubscribe(new LegacyListener(eventName, listener));
+        }
+    }
+
+    /**
+     * Publishes a map payload on the channel of an event name.
+     * Does nothing, and creates no channel, if nobody ever subscribed to the name.
+     *
+     * @param eventName The event name
+     * @param data The event data
+     */
+    public void publish(String eventName, Map<String, Object> data) {
+        ModuleEventChannel<Map<String, Object>> channel = eventChannels.get(eventName);
+        if (channel != null) {
+            channel.publish(data);
+        }
+    }
+
+    /**
+     * Removes all listeners and typed channels belonging to an unloaded module
+     *
+     * @param loader The class loader of the module
+     * @return The number of removed listeners
+     */
+    public int unsubscribeAll(ClassLoader loader) {
+        int removed = 0;
+        for (ModuleEventChannel<?> channel : new ArrayList<>(channels.values())) {
+            removed += channel.unsubscribeAll(loader);
+            if (channel.getPayloadType().getClassLoader() == loader) {
+                channels.remove(channel.getName(), channel);
+            }
+        }
+        for (ModuleEventChannel<?> channel : eventChannels.values()) {
+            removed += channel.unsubscribeAll(loader);
+        }
+        return removed;
+    }
+
+    /**
+     * Delivers all payloads coalesced during the current tick.
+     * Called once per tick on the main thread.
+     */
+    public void flushCoalesced() {
+        int count = pendingChannels.size();
+        for (int i = 0; i < count; i++) {
+            ModuleEventChannel<?> channel = pendingChannels.poll();
+            if (channel == null) {
+                break;
+            }
+            channel.flushPending();
+        }
+    }
+
+    /**
+     * Queues a channel for delivery at the end of the tick
+     *
+     * @param channel The channel with a pending payload
+     */
+    void markPending(ModuleEventChannel<?> channel) {
+        pendingChannels.offer(channel);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ModuleEventChannel<Map<String, Object>> mapChannel(String eventName) {
+        if (eventName == null) {
+            throw new IllegalArgumentException("Event name cannot be null");
+        }
+        ModuleEventChannel<Map<String, Object>> channel = eventChannels.get(eventName);
+        if (channel == null) {
+            channel = eventChannels.computeIfAbsent(eventName, key ->
+                (ModuleEventChannel<Map<String, Object>>) (ModuleEventChannel) new ModuleEventChannel<>(
+                    nextId.getAndIncrement(), key, Map.class, this, logger));
+        }
+        return channel;
+    }
+
+    /**
+     * Gets the class that owns a listener, looking through string listener adapters
+     *
+     * @param listener The channel listener
+     * @return The owning class
+     */
+    static Class<?> ownerClass(ModuleChannelListener<?> listener) {
+        if (listener instanceof LegacyListener) {
+            return ((LegacyListener) listener).delegate.getClass();
+        }
+        return listener.getClass();
+    }
+
+    /**
+     * Adapts a string based {@link ModuleEventListener} to a map channel
+     */
+    private static final class LegacyListener implements ModuleChannelListener<Map<String, Object>> {
+        private final String eventName;
+        private final ModuleEventListener delegate;
+
+        LegacyListener(String eventName, ModuleEventListener delegate) {
+            this.eventName = eventName;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onEvent(Map<String, Object> payload) {
+            delegate.onModuleEvent(eventName, payload);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof LegacyListener && ((LegacyListener) other).delegate == delegate;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(delegate);
+        }
+    }
+}
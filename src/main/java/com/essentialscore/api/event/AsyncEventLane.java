@@ -0,0 +1,390 @@
+package com.essentialscore.api.event;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded lane that delivers events to asynchronous observer handlers on virtual threads.
+ * <p>
+ * The lane is split into stripes, each a bounded FIFO drained by at most one virtual
+ * thread at a time. Events implementing {@link KeyedEvent} always map to the same stripe
+ * for the same key, so handlers see them in firing order; unkeyed events are spread
+ * round-robin. Stripes use {@link ReentrantLock} rather than monitors so waiting
+ * virtual threads do not pin their carrier.
+ */
+public class AsyncEventLane {
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final int capacity;
+    private final long blockTimeoutNanos;
+    private final ExecutorService executor;
+    private final Logger logger;
+
+    private final AtomicInteger roundRobin = new AtomicInteger();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder totalLagNanos = new LongAdder();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+
+    /**
+     * Creates a new asynchronous event lane.
+     *
+     * @param logger The logger to use for error reporting
+     * @param stripeCount The number of ordering stripes, rounded up to a power of two
+     * @param capacity The maximum number of pending events per stripe
+     * @param blockTimeoutMillis How long {@link AsyncOverflowPolicy#BLOCK} waits for space
+     */
+    public AsyncEventLane(Logger logger, int stripeCount, int capacity, long blockTimeoutMillis) {
+        if (stripeCount <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Stripe count and capacity must be positive");
+        }
+
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = size - 1;
+        this.capacity = capacity;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, blockTimeoutMillis));
+        this.logger = logger;
+        this.executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("EventBus-async-", 0).factory());
+    }
+
+    /**
+     * Queues an event for an asynchronous handler.
+     *
+     * @param target The handler to deliver to
+     * @param event The event
+     * @return true if the event was queued or coalesced, false if it was dropped
+     */
+    boolean submit(Target target, Event event) {
+        Object key = event instanceof KeyedEvent ? ((KeyedEvent) event).getOrderingKey() : null;
+        int index;
+        if (key != null) {
+            int hash = key.hashCode();
+            index = (hash ^ (hash >>> 16)) & stripeMask;
+        } else {
+            index = roundRobin.getAndIncrement() & stripeMask;
+        }
+
+        submitted.increment();
+        return stripes[index].offer(new Pending(target, key, event), target.getOverflowPolicy());
+    }
+
+    /**
+     * Stops accepting events and waits for queued events to be delivered.
+     *
+     * @param timeoutMillis The maximum time to wait
+     */
+    public void shutdown(long timeoutMillis) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the number of events currently waiting on this lane.
+     *
+     * @return The queue depth
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Gets the total queue capacity of this lane.
+     *
+     * @return The capacity over all stripes
+     */
+    public int getCapacity() {
+        return capacity * stripes.length;
+    }
+
+    /**
+     * Gets the average time events waited between firing and delivery.
+     *
+     * @return The average lag in milliseconds
+     */
+    public double getAverageLagMillis() {
+        long count = processed.sum() + failed.sum();
+        return count > 0 ? totalLagNanos.sum() / (double) count / 1_000_000.0 : 0.0;
+    }
+
+    /**
+     * Gets the longest time an event waited between firing and delivery.
+     *
+     * @return The maximum lag in milliseconds
+     */
+    public double getMaxLagMillis() {
+        return maxLagNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Gets the number of events dropped because the lane was full.
+     *
+     * @return The dropped event count
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Gets all lane metrics.
+     *
+     * @return A map of metric names to values
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("stripes", stripes.length);
+        metrics.put("capacity", getCapacity());
+        metrics.put("queue_depth", getQueueDepth());
+        metrics.put("submitted", submitted.sum());
+        metrics.put("processed", processed.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("dropped", dropped.sum());
+        metrics.put("coalesced", coalesced.sum());
+        metrics.put("average_lag_ms", getAverageLagMillis());
+        metrics.put("max_lag_ms", getMaxLagMillis());
+        return metrics;
+    }
+
+    private void recordLag(long lagNanos) {
+        totalLagNanos.add(lagNanos);
+        long max = maxLagNanos.get();
+        while (lagNanos > max && !maxLagNanos.compareAndSet(max, lagNanos)) {
+            max = maxLagNanos.get();
+        }
+    }
+
+    /**
+     * A handler that can receive events from the lane.
+     */
+    interface Target {
+        /**
+         * Delivers the event to the handler.
+         *
+         * @param event The event
+         * @throws Exception if the handler throws
+         */
+        void callEvent(Event event) throws Exception;
+
+        /**
+         * Checks whether the handler is still registered.
+         *
+         * @return false if pending events should be discarded
+         */
+        boolean isActive();
+
+        /**
+         * Gets the overflow policy of the handler.
+         *
+         * @return The overflow policy
+         */
+        AsyncOverflowPolicy getOverflowPolicy();
+
+        /**
+         * Gets a description of the handler for error messages.
+         *
+         * @return The handler description
+         */
+        String describe();
+    }
+
+    /**
+     * An event waiting for delivery.
+     */
+    private static final class Pending {
+        private final Target target;
+        private final Object key;
+        private final long enqueuedAt;
+        private Event event;
+
+        Pending(Target target, Object key, Event event) {
+            this.target = target;
+            this.key = key;
+            this.event = event;
+            this.enqueuedAt = System.nanoTime();
+        }
+
+        boolean coalescesWith(Pending other) {
+            return target == other.target
+                && event.getClass() == other.event.getClass()
+                && Objects.equals(key, other.key);
+        }
+    }
+
+    /**
+     * A bounded FIFO drained by at most one virtual thread at a time.
+     */
+    private final class Stripe implements Runnable {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notFull = lock.newCondition();
+        private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+        private boolean scheduled;
+
+        boolean offer(Pending pending, AsyncOverflowPolicy policy) {
+            lock.lock();
+            try {
+                if (queue.size() >= capacity) {
+                    if (policy == AsyncOverflowPolicy.COALESCE && coalesce(pending)) {
+                        return true;
+                    }
+                    if (!makeRoom(pending, policy)) {
+                        return false;
+                    }
+                }
+
+                queue.addLast(pending);
+                queueDepth.incrementAndGet();
+                if (!scheduled) {
+                    try {
+                        executor.execute(this);
+                        scheduled = true;
+                    } catch (RejectedExecutionException e) {
+                        queue.pollLast();
+                        queueDepth.decrementAndGet();
+                        dropped.increment();
+                        return false;
+                    }
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Replaces a queued event of the same handler, class and key. Must hold the lock.
+         *
+         * @return true if a queued event was replaced
+         */
+        private boolean coalesce(Pending pending) {
+            for (Pending queued : queue) {
+                if (queued.coalescesWith(pending)) {
+                    queued.event = pending.event;
+                    coalesced.increment();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Removes the oldest queued event of a handler. Must hold the lock.
+         *
+         * @return true if an event was removed
+         */
+        private boolean dropOldestOf(Target target) {
+            Iterator<Pending> iterator = queue.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().target == target) {
+                    iterator.remove();
+                    queueDepth.decrementAndGet();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Applies the overflow policy to a full stripe. Must hold the lock.
+         *
+         * @return true if the pending event can be appended
+         */
+        private boolean makeRoom(Pending pending, AsyncOverflowPolicy policy) {
+            switch (policy) {
+                case BLOCK:
+                    long nanos = blockTimeoutNanos;
+                    try {
+                        while (queue.size() >= capacity) {
+                            if (nanos <= 0L) {
+                                dropped.increment();
+                                return false;
+                            }
+                            nanos = notFull.awaitNanos(nanos);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        dropped.increment();
+                        return false;
+                    }
+                    return true;
+                case DROP_NEWEST:
+                    dropped.increment();
+                    return false;
+                case COALESCE:
+                    dropped.increment();
+                    return dropOldestOf(pending.target);
+                case DROP_OLDEST:
+                default:
+                    queue.pollFirst();
+                    queueDepth.decrementAndGet();
+                    dropped.increment();
+                    return true;
+            }
+        }
+
+        @Override
+        public void run() {
+            for (;;) {
+                Pending pending;
+                lock.lock();
+                try {
+                    pending = queue.pollFirst();
+                    if (pending == null) {
+                        scheduled = false;
+                        return;
+                    }
+                    queueDepth.decrementAndGet();
+                    notFull.signal();
+                } finally {
+                    lock.unlock();
+                }
+
+                if (!pending.target.isActive()) {
+                    continue;
+                }
+                recordLag(System.nanoTime() - pending.enqueuedAt);
+
+                try {
+                    pending.target.callEvent(pending.event);
+                    processed.increment();
+                } catch (Throwable t) {
+                    failed.increment();
+                    logger.log(Level.SEVERE, "Error dispatching async event " + pending.event.getEventName() +
+                              " to handler " + pending.target.describe(), t);
+                }
+            }
+        }
+    }
+}
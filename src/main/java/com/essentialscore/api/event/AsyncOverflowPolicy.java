@@ -0,0 +1,30 @@
+package com.essentialscore.api.event;
+
+/**
+ * Defines what happens when an asynchronous event lane is full.
+ */
+public enum AsyncOverflowPolicy {
+    /**
+     * The firing thread waits for free space up to the lane's block timeout,
+     * the event is dropped for this handler if the timeout expires
+     */
+    BLOCK,
+    
+    /**
+     * The new event is dropped for this handler; the default
+     */
+    DROP_NEWEST,
+    
+    /**
+     * The oldest pending event of the lane stripe is dropped to make room
+     */
+    DROP_OLDEST,
+    
+    /**
+     * A pending event of the same class and ordering key for the same handler
+     * is replaced by the new one; if there is none, the oldest pending event of the
+     * same handler is dropped, and if the handler has nothing pending the new event
+     * is dropped. Events of other handlers are never displaced
+     */
+    COALESCE
+}
@@ -3,22 +3,49 @@ package com.essentialscore.api.event;
 import com.essentialscore.ConsoleFormatter;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Central event bus for registering and dispatching events.
  * Modules can register listeners with this bus and fire events through it.
+ * <p>
+ * For every fired event class the bus bakes an immutable, priority-sorted array
+ * of all handlers whose parameter type is the class or one of its supertypes.
+ * Registration changes rebuild and swap these arrays under a lock, so dispatch
+ * itself is a lock-free walk over a single array.
+ * <p>
+ * Handlers marked {@code async} are observers: after the synchronous handlers ran,
+ * the event is queued on the bus' {@link AsyncEventLane} and delivered on virtual threads.
+ * <p>
+ * Per-handler dispatch timings can be switched on at runtime. While disabled the
+ * only cost is one volatile read per fired event.
  */
 public class EventBus {
+    private static final RegisteredListener[] NO_HANDLERS = new RegisteredListener[0];
+    private static final Comparator<RegisteredListener> DISPATCH_ORDER =
+        Comparator.<RegisteredListener>comparingInt(handler -> handler.isAsync() ? 1 : 0)
+                  .thenComparingInt(handler -> dispatchOrder(handler.getPriority()));
+    private static final int DEFAULT_ASYNC_STRIPES = 16;
+    private static final int DEFAULT_ASYNC_CAPACITY = 1024;
+    private static final long DEFAULT_ASYNC_BLOCK_TIMEOUT_MS = 50;
+    private static final int MAX_SLOW_REPORTS = 100;
+    private static final long SLOW_WARNING_INTERVAL_MS = 60_000;
+    
     private final Map<Class<? extends Event>, List<RegisteredListener>> handlerMap;
+    private final Map<Class<? extends Event>, RegisteredListener[]> bakedHandlers;
     private final Map<Object, List<RegisteredListener>> listenerMap;
+    private final Object registrationLock = new Object();
     private final Logger logger;
     private final ConsoleFormatter console;
+    private volatile boolean generatedExecutors = true;
+    private volatile AsyncEventLane asyncLane;
+    private volatile boolean timingsEnabled = false;
+    private volatile long slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(5);
+    private final Deque<SlowListenerReport> slowReports = new ArrayDeque<>();
     
     /**
      * Creates a new event bus.
@@ -26,7 +53,8 @@ public class EventBus {
      * @param logger The logger to use for error reporting
      */
     public EventBus(Logger logger) {
-        this.handlerMap = new ConcurrentHashMap<>();
+        this.handlerMap = new HashMap<>();
+        this.bakedHandlers = new ConcurrentHashMap<>();
         this.listenerMap = new ConcurrentHashMap<>();
         this.logger = logger;
         
@@ -74,29 +102,32 @@ public class EventBus {
                 continue;
             }
             
-            // Make method accessible
-            if (!Modifier.isPublic(method.getModifiers())) {
-                method.setAccessible(true);
-            }
-            
-            @SuppressWarnings("unchecked")
-            Class<? extends Event> eventClass = (Class<? extends Event>) paramType;
-            
             // Create registered listener
             RegisteredListener registeredListener = new RegisteredListener(
-                listener, method, annotation.priority(), plugin, annotation.ignoreCancelled());
+                listener, method, EventExecutor.create(method, generatedExecutors),
+                annotation.priority(), plugin, annotation.ignoreCancelled(),
+                annotation.async(), annotation.overflow());
                 
-            // Add to maps
-            handlerMap.computeIfAbsent(eventClass, k -> new CopyOnWriteArrayList<>())
-                     .add(registeredListener);
             registeredListeners.add(registeredListener);
-            
-            // Sort the handlers by priority
-            sortHandlers(eventClass);
         }
         
-        // Store the registered listeners for this listener object
-        listenerMap.put(listener, registeredListeners);
+        synchronized (registrationLock) {
+            for (RegisteredListener registeredListener : registeredListeners) {
+                if (registeredListener.isAsync() && asyncLane == null) {
+                    asyncLane = new AsyncEventLane(logger, DEFAULT_ASYNC_STRIPES,
+                        DEFAULT_ASYNC_CAPACITY, DEFAULT_ASYNC_BLOCK_TIMEOUT_MS);
+                }
+            }
+
+            for (RegisteredListener registeredListener : registeredListeners) {
+                handlerMap.computeIfAbsent(registeredListener.getEventClass(), k -> new ArrayList<>())
+                         .add(registeredListener);
+            }
+            
+            // Store the registered listeners for this listener object
+            listenerMap.put(listener, registeredListeners);
+            rebakeHandlers();
+        }
         
         console.info("Registered " + registeredListeners.size() + " event handlers for " + 
                     listener.getClass().getSimpleName() + " from " + plugin);
@@ -108,21 +139,27 @@ public class EventBus {
      * @param listener The listener object to unregister
      */
     public void unregisterEvents(Object listener) {
-        List<RegisteredListener> registeredListeners = listenerMap.remove(listener);
-        if (registeredListeners == null) {
-            return;
-        }
-        
-        // Remove from handler map
-        for (RegisteredListener registeredListener : registeredListeners) {
-            Class<? extends Event> eventClass = registeredListener.getEventClass();
-            List<RegisteredListener> handlers = handlerMap.get(eventClass);
-            if (handlers != null) {
-                handlers.remove(registeredListener);
-                if (handlers.isEmpty()) {
-                    handlerMap.remove(eventClass);
+        List<RegisteredListener> registeredListeners;
+        synchronized (registrationLock) {
+            registeredListeners = listenerMap.remove(listener);
+            if (registeredListeners == null) {
+                return;
+            }
+            
+            // Remove from handler map
+            for (RegisteredListener registeredListener : registeredListeners) {
+                registeredListener.deactivate();
+                Class<? extends Event> eventClass = registeredListener.getEventClass();
+                List<RegisteredListener> handlers = handlerMap.get(eventClass);
+                if (handlers != null) {
+                    handlers.remove(registeredListener);
+                    if (handlers.isEmpty()) {
+                        handlerMap.remove(eventClass);
+                    }
                 }
             }
+            
+            rebakeHandlers();
         }
         
         console.info("Unregistered " + registeredListeners.size() + " event handlers for " + 
@@ -166,12 +203,13 @@ public class EventBus {
         }
         
         Class<? extends Event> eventClass = event.getClass();
-        List<RegisteredListener> handlers = handlerMap.get(eventClass);
-        
-        if (handlers == null || handlers.isEmpty()) {
-            return event; // No handlers registered
+        RegisteredListener[] handlers = bakedHandlers.get(eventClass);
+        if (handlers == null) {
+            handlers = bakeHandlers(eventClass);
         }
         
+        boolean timed = timingsEnabled;
+        
         // Call all handlers
         for (RegisteredListener handler : handlers) {
             // Skip if event is cancelled and handler doesn't ignore cancelled
@@ -179,8 +217,20 @@ public class EventBus {
                 continue;
             }
             
+            if (handler.isAsync()) {
+                AsyncEventLane lane = asyncLane;
+                if (lane != null) {
+                    lane.submit(handler, event);
+                }
+                continue;
+            }
+            
             try {
-                handler.callEvent(event);
+                if (timed) {
+                    callTimed(handler, event);
+                } else {
+                    handler.callEvent(event);
+                }
             } catch (Exception e) {
                 logger.log(Level.SEVERE, "Error dispatching event " + event.getEventName() + 
                           " to handler " + handler.getMethod().getName() + 
@@ -197,37 +247,300 @@ public class EventBus {
     }
     
     /**
-     * Sorts the handlers for an event class by priority.
+     * Calls a handler and records its dispatch time.
+     *
+     * @param handler The handler
+     * @param event The event
+     * @throws Exception if the handler throws
+     */
+    private void callTimed(RegisteredListener handler, Event event) throws Exception {
+        long start = System.nanoTime();
+        try {
+            handler.callEvent(event);
+        } finally {
+            long duration = System.nanoTime() - start;
+            handler.getTiming().record(duration);
+            if (duration >= slowThresholdNanos) {
+                reportSlowListener(handler, event, duration);
+            }
+        }
+    }
+    
+    /**
+     * Records a dispatch that exceeded the slow listener threshold.
+     * A warning is logged at most once per minute and handler.
+     */
+    private void reportSlowListener(RegisteredListener handler, Event event, long durationNanos) {
+        HandlerTiming timing = handler.getTiming();
+        timing.recordSlow();
+        
+        long now = System.currentTimeMillis();
+        synchronized (slowReports) {
+            if (slowReports.size() >= MAX_SLOW_REPORTS) {
+                slowReports.pollFirst();
+            }
+            slowReports.addLast(new SlowListenerReport(timing, event.getClass().getName(), durationNanos, now));
+        }
+        
+        if (now - handler.lastSlowWarning >= SLOW_WARNING_INTERVAL_MS) {
+            handler.lastSlowWarning = now;
+            console.warning("Slow listener " + timing.getName() + " took " +
+                           String.format("%.2f", durationNanos / 1_000_000.0) + " ms for " + event.getEventName());
+        }
+    }
+    
+    /**
+     * Enables or disables per-handler dispatch timings.
+     *
+     * @param timingsEnabled true to record timings
+     */
+    public void setTimingsEnabled(boolean timingsEnabled) {
+        this.timingsEnabled = timingsEnabled;
+    }
+    
+    /**
+     * Checks whether per-handler dispatch timings are recorded.
+     *
+     * @return true if timings are enabled
+     */
+    public boolean isTimingsEnabled() {
+        return timingsEnabled;
+    }
+    
+    /**
+     * Sets the duration above which a handler dispatch is reported as slow.
+     *
+     * @param thresholdMillis The threshold in milliseconds
+     */
+    public void setSlowListenerThreshold(double thresholdMillis) {
+        this.slowThresholdNanos = (long) (thresholdMillis * 1_000_000.0);
+    }
+    
+    /**
+     * Gets the slow listener threshold.
+     *
+     * @return The threshold in milliseconds
+     */
+    public double getSlowListenerThreshold() {
+        return slowThresholdNanos / 1_000_000.0;
+    }
+    
+    /**
+     * Gets the timings of all registered synchronous handlers.
+     *
+     * @return The handler timings
+     */
+    public List<HandlerTiming> getHandlerTimings() {
+        List<HandlerTiming> timings = new ArrayList<>();
+        for (List<RegisteredListener> handlers : listenerMap.values()) {
+            for (RegisteredListener handler : handlers) {
+                if (!handler.isAsync()) {
+                    timings.add(handler.getTiming());
+                }
+            }
+        }
+        return timings;
+    }
+    
+    /**
+     * Gets the most recent slow listener reports, oldest first.
+     *
+     * @return The slow listener reports
+     */
+    public List<SlowListenerReport> getSlowListenerReports() {
+        synchronized (slowReports) {
+            return new ArrayList<>(slowReports);
+        }
+    }
+    
+    /**
+     * Clears all recorded timings and slow listener reports.
+     */
+    public void resetTimings() {
+        for (HandlerTiming timing : getHandlerTimings()) {
+            timing.reset();
+        }
+        synchronized (slowReports) {
+            slowReports.clear();
+        }
+    }
+    
+    /**
+     * Sets whether handlers registered from now on are called through generated
+     * executors or through reflection. Already registered handlers keep their executor.
+     *
+     * @param generatedExecutors true to use generated executors (default)
+     */
+    public void setGeneratedExecutors(boolean generatedExecutors) {
+        this.generatedExecutors = generatedExecutors;
+    }
+    
+    /**
+     * Checks whether newly registered handlers use generated executors.
+     *
+     * @return true if generated executors are used
+     */
+    public boolean isGeneratedExecutors() {
+        return generatedExecutors;
+    }
+    
+    /**
+     * Configures the async lane used by asynchronous handlers.
+     * Must be called before the first async handler is registered.
+     *
+     * @param stripes The number of ordering stripes
+     * @param capacity The maximum number of pending events per stripe
+     * @param blockTimeoutMillis How long {@link AsyncOverflowPolicy#BLOCK} waits for space
+     * @throws IllegalStateException if the async lane is already in use
+     */
+    public void configureAsyncLane(int stripes, int capacity, long blockTimeoutMillis) {
+        synchronized (registrationLock) {
+            if (asyncLane != null) {
+                throw new IllegalStateException("Async lane is already in use");
+            }
+            asyncLane = new AsyncEventLane(logger, stripes, capacity, blockTimeoutMillis);
+        }
+    }
+    
+    /**
+     * Gets the async lane, which exposes queue depth and lag metrics.
+     *
+     * @return The async lane, or null if no async handler was registered yet
+     */
+    public AsyncEventLane getAsyncLane() {
+        return asyncLane;
+    }
+    
+    /**
+     * Shuts down the async lane, delivering pending events for up to the given time.
+     *
+     * @param timeoutMillis The maximum time to wait for pending events
+     */
+    public void shutdown(long timeoutMillis) {
+        AsyncEventLane lane;
+        synchronized (registrationLock) {
+            lane = asyncLane;
+            asyncLane = null;
+        }
+        if (lane != null) {
+            lane.shutdown(timeoutMillis);
+        }
+    }
+    
+    /**
+     * Gets the number of handlers that would be called for an event class,
+     * including handlers registered for its supertypes.
      *
      * @param eventClass The event class
+     * @return The number of handlers
      */
-    private void sortHandlers(Class<? extends Event> eventClass) {
-        List<RegisteredListener> handlers = handlerMap.get(eventClass);
+    public int getHandlerCount(Class<? extends Event> eventClass) {
+        RegisteredListener[] handlers = bakedHandlers.get(eventClass);
         if (handlers == null) {
-            return;
+            handlers = bakeHandlers(eventClass);
+        }
+        return handlers.length;
+    }
+    
+    /**
+     * Bakes the handler array for an event class that has not been fired yet.
+     *
+     * @param eventClass The concrete event class
+     * @return The baked handler array
+     */
+    private RegisteredListener[] bakeHandlers(Class<? extends Event> eventClass) {
+        synchronized (registrationLock) {
+            RegisteredListener[] handlers = bakedHandlers.get(eventClass);
+            if (handlers == null) {
+                handlers = collectHandlers(eventClass);
+                bakedHandlers.put(eventClass, handlers);
+            }
+            return handlers;
+        }
+    }
+    
+    /**
+     * Rebuilds every baked handler array after a registration change.
+     * Entries that no longer have handlers are dropped so event classes of
+     * unloaded modules are not kept reachable. Must hold the registration lock.
+     */
+    private void rebakeHandlers() {
+        Iterator<Map.Entry<Class<? extends Event>, RegisteredListener[]>> iterator = bakedHandlers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Class<? extends Event>, RegisteredListener[]> entry = iterator.next();
+            RegisteredListener[] handlers = collectHandlers(entry.getKey());
+            if (handlers.length == 0) {
+                iterator.remove();
+            } else {
+                entry.setValue(handlers);
+            }
+        }
+    }
+    
+    /**
+     * Collects all handlers for an event class and its supertypes in dispatch order.
+     * Must hold the registration lock.
+     *
+     * @param eventClass The concrete event class
+     * @return The sorted handler array
+     */
+    private RegisteredListener[] collectHandlers(Class<? extends Event> eventClass) {
+        List<RegisteredListener> handlers = new ArrayList<>();
+        for (Map.Entry<Class<? extends Event>, List<RegisteredListener>> entry : handlerMap.entrySet()) {
+            if (entry.getKey().isAssignableFrom(eventClass)) {
+                handlers.addAll(entry.getValue());
+            }
+        }
+        if (handlers.isEmpty()) {
+            return NO_HANDLERS;
         }
         
-        // Sort by priority (highest first)
-        handlers.sort((a, b) -> Integer.compare(b.getPriority().getValue(), a.getPriority().getValue()));
+        // Stable sort keeps registration order within the same priority
+        handlers.sort(DISPATCH_ORDER);
+        return handlers.toArray(NO_HANDLERS);
+    }
+    
+    /**
+     * Gets the dispatch order of a priority. Higher priorities are called first,
+     * MONITOR handlers are called after all others. Async handlers are queued
+     * after all synchronous handlers in the same order.
+     *
+     * @param priority The handler priority
+     * @return The sort key, lower values are called first
+     */
+    private static int dispatchOrder(EventPriority priority) {
+        return priority == EventPriority.MONITOR ? Integer.MAX_VALUE : -priority.getValue();
     }
     
     /**
      * Represents a registered event handler.
      */
-    private static class RegisteredListener {
+    private static class RegisteredListener implements AsyncEventLane.Target {
         private final Object listener;
         private final Method method;
+        private final EventExecutor executor;
         private final EventPriority priority;
         private final String plugin;
         private final boolean ignoreCancelled;
+        private final boolean async;
+        private final AsyncOverflowPolicy overflowPolicy;
+        private final HandlerTiming timing;
+        private volatile boolean active = true;
+        private volatile long lastSlowWarning;
         
-        public RegisteredListener(Object listener, Method method, EventPriority priority, 
-                                String plugin, boolean ignoreCancelled) {
+        public RegisteredListener(Object listener, Method method, EventExecutor executor,
+                                EventPriority priority, String plugin, boolean ignoreCancelled,
+                                boolean async, AsyncOverflowPolicy overflowPolicy) {
             this.listener = listener;
             this.method = method;
+            this.executor = executor;
             this.priority = priority;
             this.plugin = plugin;
             this.ignoreCancelled = ignoreCancelled;
+            this.async = async;
+            this.overflowPolicy = overflowPolicy;
+            this.timing = new HandlerTiming(plugin, listener.getClass().getName(), method.getName(),
+                                            method.getParameterTypes()[0].getName());
         }
         
         /**
@@ -236,8 +549,9 @@ public class EventBus {
          * @param event The event to pass to the handler
          * @throws Exception if an error occurs
          */
+        @Override
         public void callEvent(Event event) throws Exception {
-            method.invoke(listener, event);
+            executor.execute(listener, event);
         }
         
         /**
@@ -269,5 +583,35 @@ public class EventBus {
         public boolean isIgnoreCancelled() {
             return ignoreCancelled;
         }
+        
+        public HandlerTiming getTiming() {
+            return timing;
+        }
+        
+        public boolean isAsync() {
+            return async;
+        }
+        
+        @Override
+        public AsyncOverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+        
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+        
+        /**
+         * Marks this handler as unregistered so queued async events are discarded.
+         */
+        public void deactivate() {
+            active = false;
+        }
+        
+        @Override
+        public String describe() {
+            return method.getName() + " in " + listener.getClass().getName();
+        }
     }
 }
@@ -0,0 +1,146 @@
+package com.essentialscore.api.event;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Invokes a single event handler method on its listener.
+ * Executors are created once when a listener is registered, so the per-dispatch
+ * cost is a plain interface call instead of a reflective lookup.
+ */
+@FunctionalInterface
+public interface EventExecutor {
+
+    /**
+     * Calls the handler method on the given listener.
+     *
+     * @param listener The listener object owning the handler
+     * @param event The event to pass to the handler
+     * @throws Exception if the handler throws
+     */
+    void execute(Object listener, Event event) throws Exception;
+
+    /**
+     * Creates an executor for the given handler method.
+     * With {@code generated} set, a {@link LambdaMetafactory} executor is tried first,
+     * then a {@link MethodHandle} executor (private or static handlers); reflection
+     * is the last resort and the only mode used when {@code generated} is false.
+     *
+     * @param method The handler method
+     * @param generated Whether generated executors should be attempted
+     * @return The executor
+     */
+    static EventExecutor create(Method method, boolean generated) {
+        if (generated) {
+            Logger logger = Logger.getLogger(EventExecutor.class.getName());
+            try {
+                return generate(method);
+            } catch (Throwable t) {
+                // Not bindable through the metafactory, try a method handle
+                logger.log(Level.FINE, "No generated executor for " + method + ", using a method handle", t);
+            }
+            try {
+                return handle(method);
+            } catch (Throwable t) {
+                logger.log(Level.FINE, "No method handle executor for " + method + ", using reflection", t);
+            }
+        }
+        return reflective(method);
+    }
+
+    /**
+     * Creates an executor backed by a {@link LambdaMetafactory} call site.
+     * The lambda class is spun as a hidden nestmate in the listener's own package and
+     * class loader, so the JIT can inline the handler into the dispatch loop.
+     * This needs a full-privilege lookup on the listener class. Listeners loaded by module
+     * class loaders get it through {@link LookupAnchor}; other foreign loaders fall back to
+     * a {@link #handle(Method)} executor.
+     *
+     * @param method The non-private, non-static handler method
+     * @return The generated executor
+     * @throws Throwable if the call site cannot be created
+     */
+    static EventExecutor generate(Method method) throws Throwable {
+        int modifiers = method.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isPrivate(modifiers)) {
+            throw new IllegalArgumentException("Handler must be an instance method visible to its package");
+        }
+
+        Class<?> owner = method.getDeclaringClass();
+        MethodHandles.Lookup lookup = LookupAnchor.lookupFor(owner);
+        if (!lookup.hasFullPrivilegeAccess()) {
+            throw new IllegalAccessException("No full-privilege lookup in " + owner.getName());
+        }
+        MethodHandle target = lookup.findVirtual(owner, method.getName(),
+            MethodType.methodType(method.getReturnType(), method.getParameterTypes()));
+
+        CallSite site = LambdaMetafactory.metafactory(
+            lookup,
+            "execute",
+            MethodType.methodType(EventExecutor.class),
+            MethodType.methodType(void.class, Object.class, Event.class),
+            target,
+            MethodType.methodType(void.class, owner, method.getParameterTypes()[0]));
+
+        return (EventExecutor) site.getTarget().invokeExact();
+    }
+
+    /**
+     * Creates an executor that calls the handler through an adapted {@link MethodHandle}.
+     * Slower than a generated executor, but still avoids argument boxing and access checks.
+     *
+     * @param method The handler method
+     * @return The method handle executor
+     * @throws ReflectiveOperationException if the method cannot be unreflected
+     */
+    static EventExecutor handle(Method method) throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = LookupAnchor.lookupFor(method.getDeclaringClass());
+        MethodHandle target = lookup.unreflect(method);
+        if (Modifier.isStatic(method.getModifiers())) {
+            target = MethodHandles.dropArguments(target, 0, Object.class);
+        }
+        MethodHandle invoker = target.asType(MethodType.methodType(void.class, Object.class, Event.class));
+
+        return (listener, event) -> {
+            try {
+                invoker.invokeExact(listener, event);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new Exception(t);
+            }
+        };
+    }
+
+    /**
+     * Creates an executor that uses {@link Method#invoke}.
+     *
+     * @param method The handler method
+     * @return The reflective executor
+     */
+    static EventExecutor reflective(Method method) {
+        method.trySetAccessible();
+        return (listener, event) -> {
+            try {
+                method.invoke(listener, event);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        };
+    }
+}
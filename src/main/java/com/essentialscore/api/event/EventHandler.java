@@ -28,4 +28,24 @@ public @interface EventHandler {
      * @return true if the handler should be called for cancelled events
      */
     boolean ignoreCancelled() default false;
+    
+    /**
+     * Whether the handler is an asynchronous observer.
+     * Asynchronous handlers are called on a virtual thread of the event bus' async lane
+     * after all synchronous handlers have run, so they cannot cancel or modify the
+     * outcome of the event and must treat it as read-only. Events implementing
+     * {@link KeyedEvent} are delivered in firing order per key.
+     *
+     * @return true if the handler should be called asynchronously
+     */
+    boolean async() default false;
+    
+    /**
+     * What happens when the async lane is full. Only relevant for async handlers.
+     * The default never makes the firing thread wait; {@link AsyncOverflowPolicy#BLOCK}
+     * must be chosen explicitly and should not be used for events fired on the main thread.
+     *
+     * @return The overflow policy
+     */
+    AsyncOverflowPolicy overflow() default AsyncOverflowPolicy.DROP_NEWEST;
 } 
@@ -0,0 +1,150 @@
+package com.essentialscore.api.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Dispatch timings of a single registered event handler.
+ * Durations are recorded into a histogram with power-of-two nanosecond buckets,
+ * so recording is a handful of atomic increments and never allocates.
+ */
+public class HandlerTiming {
+    private static final int BUCKETS = 64;
+
+    private final String plugin;
+    private final String listenerClass;
+    private final String method;
+    private final String eventType;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLong slowCount = new AtomicLong();
+
+    /**
+     * Creates the timing record for a handler.
+     *
+     * @param plugin The plugin/module owning the handler
+     * @param listenerClass The listener class name
+     * @param method The handler method name
+     * @param eventType The handled event class name
+     */
+    public HandlerTiming(String plugin, String listenerClass, String method, String eventType) {
+        this.plugin = plugin;
+        this.listenerClass = listenerClass;
+        this.method = method;
+        this.eventType = eventType;
+    }
+
+    /**
+     * Records one dispatch.
+     *
+     * @param nanos The dispatch duration in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(BUCKETS - 1 - Long.numberOfLeadingZeros(nanos | 1));
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * Counts a dispatch that exceeded the slow listener threshold.
+     */
+    void recordSlow() {
+        slowCount.incrementAndGet();
+    }
+
+    /**
+     * Clears all recorded timings.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+        slowCount.set(0);
+    }
+
+    /**
+     * Gets an approximate percentile of the recorded durations.
+     * The result is the upper bound of the histogram bucket containing the percentile.
+     *
+     * @param percentile The percentile between 0 and 100
+     * @return The duration in nanoseconds
+     */
+    public long getPercentileNanos(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(i >= 62 ? Long.MAX_VALUE : (2L << i) - 1, maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    public String getPlugin() {
+        return plugin;
+    }
+
+    public String getListenerClass() {
+        return listenerClass;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public long getSlowCount() {
+        return slowCount.get();
+    }
+
+    /**
+     * Gets the average dispatch duration.
+     *
+     * @return The average duration in nanoseconds
+     */
+    public double getAverageNanos() {
+        long total = count.get();
+        return total > 0 ? (double) totalNanos.get() / total : 0.0;
+    }
+
+    /**
+     * Gets a readable identifier of the handler.
+     *
+     * @return plugin:ListenerClass#method(EventType)
+     */
+    public String getName() {
+        return plugin + ":" + listenerClass + "#" + method + "(" + eventType + ")";
+    }
+}
@@ -0,0 +1,14 @@
+package com.essentialscore.api.event;
+
+/**
+ * Implemented by events that carry an ordering key, for example a player UUID.
+ * Asynchronous handlers receive events with equal keys in the order they were fired.
+ */
+public interface KeyedEvent {
+    /**
+     * Gets the key used to order this event on asynchronous lanes.
+     *
+     * @return The ordering key, or null if the event is unordered
+     */
+    Object getOrderingKey();
+}
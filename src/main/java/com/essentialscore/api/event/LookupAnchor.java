@@ -0,0 +1,92 @@
+package com.essentialscore.api.event;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.util.function.Supplier;
+
+/**
+ * Provides full-privilege lookups for listener classes that live in module class loaders.
+ * Every class loader has its own unnamed module, so a lookup created here loses module access
+ * to listener classes of a module and cannot spin a {@link java.lang.invoke.LambdaMetafactory}
+ * executor for them. A {@link Host} loader therefore defines a copy of this class itself;
+ * the copy's {@link #get()} returns a lookup inside the module's unnamed module.
+ */
+public final class LookupAnchor implements Supplier<MethodHandles.Lookup> {
+
+    /**
+     * Creates the anchor. Only called reflectively on a copy defined by a {@link Host}.
+     */
+    public LookupAnchor() {
+    }
+
+    /**
+     * Gets a full-privilege lookup on this class, and so on the loader that defined it.
+     *
+     * @return The lookup
+     */
+    @Override
+    public MethodHandles.Lookup get() {
+        return MethodHandles.lookup();
+    }
+
+    /**
+     * A class loader that can host a copy of {@link LookupAnchor}.
+     */
+    public interface Host {
+
+        /**
+         * Gets a full-privilege lookup inside this loader's unnamed module, defining the
+         * anchor copy on first use.
+         *
+         * @return The lookup
+         * @throws ReflectiveOperationException if the anchor cannot be defined
+         */
+        MethodHandles.Lookup getListenerLookup() throws ReflectiveOperationException;
+    }
+
+    /**
+     * Reads the class file of this class, for hosts to define their copy from.
+     *
+     * @return The class file bytes
+     * @throws ClassNotFoundException if the class file cannot be read
+     */
+    public static byte[] templateBytes() throws ClassNotFoundException {
+        try (InputStream in = LookupAnchor.class.getResourceAsStream("LookupAnchor.class")) {
+            if (in == null) {
+                throw new ClassNotFoundException(LookupAnchor.class.getName());
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new ClassNotFoundException(LookupAnchor.class.getName(), e);
+        }
+    }
+
+    /**
+     * Instantiates a copy defined by a host and gets its lookup.
+     *
+     * @param copy The class defined from {@link #templateBytes()}
+     * @return The lookup inside the copy's loader
+     * @throws ReflectiveOperationException if the copy cannot be instantiated
+     */
+    @SuppressWarnings("unchecked")
+    public static MethodHandles.Lookup instantiate(Class<?> copy) throws ReflectiveOperationException {
+        return ((Supplier<MethodHandles.Lookup>) copy.getConstructor().newInstance()).get();
+    }
+
+    /**
+     * Gets the most privileged lookup available on a listener class. Listeners outside this
+     * class's module get full privilege only when their loader is a {@link Host}.
+     *
+     * @param owner The listener class
+     * @return The lookup
+     * @throws ReflectiveOperationException if no lookup can be created
+     */
+    static MethodHandles.Lookup lookupFor(Class<?> owner) throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+        if (!lookup.hasFullPrivilegeAccess() && owner.getClassLoader() instanceof Host) {
+            lookup = MethodHandles.privateLookupIn(owner, ((Host) owner.getClassLoader()).getListenerLookup());
+        }
+        return lookup;
+    }
+}
@@ -0,0 +1,47 @@
+package com.essentialscore.api.event;
+
+/**
+ * Records a single handler dispatch that exceeded the slow listener threshold.
+ */
+public class SlowListenerReport {
+    private final HandlerTiming handler;
+    private final String eventType;
+    private final long durationNanos;
+    private final long timestamp;
+
+    /**
+     * Creates a new slow listener report.
+     *
+     * @param handler The timing record of the offending handler
+     * @param eventType The class name of the fired event
+     * @param durationNanos The dispatch duration in nanoseconds
+     * @param timestamp The time of the dispatch in milliseconds
+     */
+    public SlowListenerReport(HandlerTiming handler, String eventType, long durationNanos, long timestamp) {
+        this.handler = handler;
+        this.eventType = eventType;
+        this.durationNanos = durationNanos;
+        this.timestamp = timestamp;
+    }
+
+    public HandlerTiming getHandler() {
+        return handler;
+    }
+
+    /**
+     * Gets the fired event class, which may be a subclass of the handler's parameter type.
+     *
+     * @return The event class name
+     */
+    public String getEventType() {
+        return eventType;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
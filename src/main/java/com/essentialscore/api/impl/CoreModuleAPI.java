@@ -13,6 +13,12 @@ import com.essentialscore.api.security.DummySecurityManager;
 import com.essentialscore.api.gui.GUI;
 import com.essentialscore.api.gui.GUIBuilder;
 import com.essentialscore.api.gui.GUIManager;
+import com.essentialscore.api.event.EventBus;
+import com.essentialscore.api.module.ModuleCpuAccounting;
+import com.essentialscore.api.scheduling.MainThreadScheduler;
+import com.essentialscore.api.scheduling.ModuleTaskScope;
+import com.essentialscore.api.scheduling.TaskPriority;
+import com.essentialscore.api.util.FairShareExecutor;
 
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -20,6 +26,9 @@ import org.bukkit.entity.Player;
 import org.bukkit.command.CommandSender;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
@@ -41,6 +50,10 @@ import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 
@@ -55,6 +68,12 @@ public class CoreModuleAPI implements ModuleAPI {
     private final Map<String, ModuleEventListener> eventListeners;
     private final ReentrantReadWriteLock eventLock;
     
+    // Registrations made through this API, released when the module is unloaded or swapped
+    private final List<Listener> registeredListeners = new CopyOnWriteArrayList<>();
+    private final Set<BukkitTask> scheduledTasks = ConcurrentHashMap.newKeySet();
+    private final Set<ModuleTaskScope<?>> openScopes = ConcurrentHashMap.newKeySet();
+    private volatile Semaphore subtaskPermits;
+    
     // Add a simple data storage for fallback when core.getDataManager() doesn't exist
     private static final Map<String, Object> SHARED_DATA = new ConcurrentHashMap<>();
     private static final Map<String, Map<String, Object>> MODULE_DATA = new ConcurrentHashMap<>();
@@ -453,16 +472,32 @@ public class CoreModuleAPI implements ModuleAPI {
     public BukkitTask runTask(Runnable task) {
         Plugin plugin = getPlugin();
         if (plugin != null) {
-            return plugin.getServer().getScheduler().runTask(plugin, task);
+            OneShot once = new OneShot(accounted(task));
+            return tracked(plugin.getServer().getScheduler().runTask(plugin, once), once);
         }
         throw new IllegalStateException("Cannot schedule task: Plugin instance not available");
     }
     
     @Override
     public BukkitTask runTaskAsync(Runnable task) {
+        // Asynchrone Modul-Aufgaben laufen im gemeinsamen Pool, damit kein Modul die anderen verdrängt
+        FairShareExecutor pool = core.getModulePool();
+        if (pool != null) {
+            PooledTask pooled = new PooledTask(accounted(task));
+            scheduledTasks.add(pooled);
+            try {
+                pool.execute(moduleName, pooled);
+            } catch (RejectedExecutionException e) {
+                scheduledTasks.remove(pooled);
+                throw e;
+            }
+            return pooled;
+        }
+        
         Plugin plugin = getPlugin();
         if (plugin != null) {
-            return plugin.getServer().getScheduler().runTaskAsynchronously(plugin, task);
+            OneShot once = new OneShot(accounted(task));
+            return tracked(plugin.getServer().getScheduler().runTaskAsynchronously(plugin, once), once);
         }
         throw new IllegalStateException("Cannot schedule async task: Plugin instance not available");
     }
@@ -471,7 +506,8 @@ public class CoreModuleAPI implements ModuleAPI {
     public BukkitTask runTaskLater(Runnable task, long delay) {
         Plugin plugin = getPlugin();
         if (plugin != null) {
-            return plugin.getServer().getScheduler().runTaskLater(plugin, task, delay);
+            OneShot once = new OneShot(accounted(task));
+            return tracked(plugin.getServer().getScheduler().runTaskLater(plugin, once, delay), once);
         }
         throw new IllegalStateException("Cannot schedule delayed task: Plugin instance not available");
     }
@@ -480,21 +516,341 @@ public class CoreModuleAPI implements ModuleAPI {
     public BukkitTask runTaskTimer(Runnable task, long delay, long period) {
         Plugin plugin = getPlugin();
         if (plugin != null) {
-            return plugin.getServer().getScheduler().runTaskTimer(plugin, task, delay, period);
+            return tracked(plugin.getServer().getScheduler().runTaskTimer(plugin, accounted(task), delay, period), null);
         }
         throw new IllegalStateException("Cannot schedule repeating task: Plugin instance not available");
     }
     
+    @Override
+    public CompletableFuture<Void> runBudgeted(Runnable task, TaskPriority priority) {
+        return mainThreadScheduler().submit(moduleName, priority, task);
+    }
+    
+    @Override
+    public CompletableFuture<Void> runSliced(MainThreadScheduler.Slice slice, TaskPriority priority) {
+        return mainThreadScheduler().submitSliced(moduleName, priority, slice);
+    }
+    
+    @Override
+    public <T> CompletableFuture<Void> forEachBudgeted(Iterable<T> items, Consumer<? super T> action, TaskPriority priority) {
+        return mainThreadScheduler().submitEach(moduleName, priority, items, action);
+    }
+    
+    @Override
+    public <T> ModuleTaskScope<T> openScope(ModuleTaskScope.Policy policy, long timeoutMillis) {
+        ModuleTaskScope<T> scope = new ModuleTaskScope<>(moduleName, policy, timeoutMillis, subtaskPermits(),
+            core.getCpuAccounting(), openScopes::remove);
+        openScopes.add(scope);
+        return scope;
+    }
+    
+    @Override
+    public <T> CompletableFuture<List<T>> fanOut(List<? extends Callable<? extends T>> tasks, long timeoutMillis) {
+        List<Callable<? extends T>> snapshot = new ArrayList<>(tasks);
+        return supplyScoped(ModuleTaskScope.Policy.ALL_SUCCESSFUL, timeoutMillis, (ModuleTaskScope<T> scope) -> {
+            List<ModuleTaskScope.Subtask<? extends T>> subtasks = new ArrayList<>(snapshot.size());
+            for (Callable<? extends T> task : snapshot) {
+                subtasks.add(scope.fork(task));
+            }
+            scope.join();
+            List<T> results = new ArrayList<>(subtasks.size());
+            for (ModuleTaskScope.Subtask<? extends T> subtask : subtasks) {
+                results.add(subtask.get());
+            }
+            return results;
+        });
+    }
+    
+    @Override
+    public <T> CompletableFuture<T> firstSuccess(List<? extends Callable<? extends T>> tasks, long timeoutMillis) {
+        List<Callable<? extends T>> snapshot = new ArrayList<>(tasks);
+        return supplyScoped(ModuleTaskScope.Policy.FIRST_SUCCESS, timeoutMillis, (ModuleTaskScope<T> scope) -> {
+            for (Callable<? extends T> task : snapshot) {
+                scope.fork(task);
+            }
+            scope.join();
+            return scope.result();
+        });
+    }
+    
+    /**
+     * Work that runs inside a scope owned by a virtual thread
+     */
+    @FunctionalInterface
+    private interface ScopedWork<T, R> {
+        R run(ModuleTaskScope<T> scope) throws Exception;
+    }
+    
+    /**
+     * Runs scoped work on its own virtual thread, so callers on the main thread never block on join.
+     * Called from inside a scope subtask, the work runs inline instead: the nested scope then keeps the
+     * deadline of the enclosing scope, and its join hands the subtask's permit back while it waits.
+     *
+     * @param policy The scope policy
+     * @param timeoutMillis The scope deadline
+     * @param work The work forking and joining the subtasks
+     * @return A future of the result; cancelling it cancels the scope
+     */
+    private <T, R> CompletableFuture<R> supplyScoped(ModuleTaskScope.Policy policy, long timeoutMillis, ScopedWork<T, R> work) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        Runnable body = () -> {
+            try (ModuleTaskScope<T> scope = openScope(policy, timeoutMillis)) {
+                future.whenComplete((result, error) -> {
+                    if (future.isCancelled()) {
+                        scope.cancel();
+                    }
+                });
+                future.complete(work.run(scope));
+            } catch (ExecutionException e) {
+                future.completeExceptionally(e.getCause());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        };
+        if (ModuleTaskScope.isSubtaskThread()) {
+            body.run();
+        } else {
+            Thread.ofVirtual().name("Module-" + moduleName + "-fanout").start(body);
+        }
+        return future;
+    }
+    
+    /**
+     * Gets the semaphore capping concurrently running scope subtasks of this module
+     *
+     * @return The semaphore
+     */
+    private Semaphore subtaskPermits() {
+        Semaphore permits = subtaskPermits;
+        if (permits == null) {
+            synchronized (openScopes) {
+                permits = subtaskPermits;
+                if (permits == null) {
+                    int max = core.getConfig().getInt("performance.module-concurrency.max-subtasks", 32);
+                    permits = new Semaphore(Math.max(1, max));
+                    subtaskPermits = permits;
+                }
+            }
+        }
+        return permits;
+    }
+    
+    private MainThreadScheduler mainThreadScheduler() {
+        MainThreadScheduler scheduler = core.getMainThreadScheduler();
+        if (scheduler == null) {
+            throw new IllegalStateException("Cannot schedule main thread job: scheduler not initialized");
+        }
+        return scheduler;
+    }
+    
     @Override
     public void registerListener(Listener listener) {
         Plugin plugin = getPlugin();
         if (plugin != null) {
-            plugin.getServer().getPluginManager().registerEvents(listener, plugin);
+            registerAccountedHandlers(plugin, listener);
+            registeredListeners.add(listener);
         } else {
             logError("Failed to register listener: Plugin instance not available", null);
         }
     }
     
+    /**
+     * Registers every event handler of a listener individually, so that the CPU time
+     * spent in the handlers is charged to this module.
+     *
+     * @param plugin The plugin to register with
+     * @param listener The listener
+     */
+    private void registerAccountedHandlers(Plugin plugin, Listener listener) {
+        ModuleCpuAccounting cpuAccounting = core.getCpuAccounting();
+        Set<Method> methods = new LinkedHashSet<>(Arrays.asList(listener.getClass().getMethods()));
+        methods.addAll(Arrays.asList(listener.getClass().getDeclaredMethods()));
+        
+        for (Method method : methods) {
+            EventHandler handler = method.getAnnotation(EventHandler.class);
+            if (handler == null || method.isBridge() || method.isSynthetic() || method.getParameterCount() != 1
+                    || !Event.class.isAssignableFrom(method.getParameterTypes()[0])) {
+                continue;
+            }
+            
+            Class<? extends Event> eventClass = method.getParameterTypes()[0].asSubclass(Event.class);
+            try {
+                org.bukkit.plugin.EventExecutor executor = org.bukkit.plugin.EventExecutor.create(method, eventClass);
+                org.bukkit.plugin.EventExecutor accounted = (l, event) -> {
+                    cpuAccounting.enter(moduleName);
+                    try {
+                        executor.execute(l, event);
+                    } finally {
+                        cpuAccounting.exit();
+                    }
+                };
+                plugin.getServer().getPluginManager().registerEvent(eventClass, listener, handler.priority(),
+                    accounted, plugin, handler.ignoreCancelled());
+            } catch (Exception e) {
+                logError("Failed to register event handler " + method.getName() + " of " 
+                    + listener.getClass().getName(), e);
+            }
+        }
+    }
+    
+    /**
+     * Remembers a scheduled task so that it can be cancelled when the module is released.
+     * One-shot tasks remove themselves once they ran, so the set only holds pending and repeating tasks.
+     *
+     * @param task The scheduled task
+     * @param once The wrapper of a one-shot task, or null for repeating tasks
+     * @return The same task
+     */
+    private BukkitTask tracked(BukkitTask task, OneShot once) {
+        scheduledTasks.add(task);
+        if (once != null) {
+            once.handle = task;
+            // The task may already have run on another thread before its handle was known
+            if (once.finished) {
+                scheduledTasks.remove(task);
+            }
+        }
+        return task;
+    }
+    
+    /**
+     * Wrapper of a one-shot task that drops the task from the tracked set after it ran
+     */
+    private final class OneShot implements Runnable {
+        private final Runnable delegate;
+        private volatile BukkitTask handle;
+        private volatile boolean finished;
+        
+        private OneShot(Runnable delegate) {
+            this.delegate = delegate;
+        }
+        
+        @Override
+        public void run() {
+            try {
+                delegate.run();
+            } finally {
+                finished = true;
+                BukkitTask task = handle;
+                if (task != null) {
+                    scheduledTasks.remove(task);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Handle of an async task queued in the shared module pool. It has no Bukkit task ID;
+     * cancelling it skips the task if it has not started yet.
+     */
+    private final class PooledTask implements BukkitTask, Runnable {
+        private final Runnable delegate;
+        private volatile boolean cancelled;
+        
+        private PooledTask(Runnable delegate) {
+            this.delegate = delegate;
+        }
+        
+        @Override
+        public void run() {
+            try {
+                if (!cancelled) {
+                    delegate.run();
+                }
+            } catch (Exception e) {
+                logError("Error in async task", e);
+            } finally {
+                scheduledTasks.remove(this);
+            }
+        }
+        
+        @Override
+        public int getTaskId() {
+            return -1;
+        }
+        
+        @Override
+        public Plugin getOwner() {
+            return getPlugin();
+        }
+        
+        @Override
+        public boolean isSync() {
+            return false;
+        }
+        
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+        
+        @Override
+        public void cancel() {
+            cancelled = true;
+            scheduledTasks.remove(this);
+        }
+    }
+    
+    /**
+     * Releases everything the module registered through this API: Bukkit listeners,
+     * scheduled tasks, open task scopes, API commands and module event listeners. Called when the module is unloaded or replaced,
+     * so that no reference to the module's classes outlives its class loader.
+     */
+    public void releaseRegistrations() {
+        for (Listener listener : registeredListeners) {
+            HandlerList.unregisterAll(listener);
+        }
+        registeredListeners.clear();
+        
+        for (BukkitTask task : scheduledTasks) {
+            task.cancel();
+        }
+        scheduledTasks.clear();
+        
+        MainThreadScheduler scheduler = core.getMainThreadScheduler();
+        if (scheduler != null) {
+            scheduler.cancelModule(moduleName);
+        }
+        FairShareExecutor pool = core.getModulePool();
+        if (pool != null) {
+            pool.removeModule(moduleName);
+        }
+        
+        // Scopes are closed by their owner threads, which return once the subtasks are interrupted
+        for (ModuleTaskScope<?> scope : openScopes) {
+            scope.cancel();
+        }
+        
+        try {
+            core.getCommandManager().unregisterModuleCommands(moduleName);
+        } catch (Exception e) {
+            logError("Failed to unregister commands of module " + moduleName, e);
+        }
+        EventBus eventBus = core.getEventBus();
+        if (eventBus != null) {
+            eventBus.unregisterPlugin(moduleName);
+        }
+        eventLock.writeLock().lock();
+        try {
+            for (Map.Entry<String, ModuleEventListener> entry : eventListeners.entrySet()) {
+                core.unregisterModuleListener(entry.getKey(), entry.getValue());
+            }
+            eventListeners.clear();
+        } finally {
+            eventLock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Wraps a task so that its CPU time is charged to this module
+     *
+     * @param task The task
+     * @return The wrapped task
+     */
+    private Runnable accounted(Runnable task) {
+        return core.getCpuAccounting().wrap(moduleName, task);
+    }
+    
     @Override
     public boolean registerCommand(String command, String description, String usage, 
                                  CommandExecutor executor, TabCompleter tabCompleter, String permission) {
@@ -507,7 +863,13 @@ public class CoreModuleAPI implements ModuleAPI {
                     .permission(permission != null ? permission : "")
                     .build(context -> {
                         if (executor != null) {
-                            return executor.onCommand(context.getSender(), command, context.getArgs());
+                            ModuleCpuAccounting cpuAccounting = core.getCpuAccounting();
+                            cpuAccounting.enter(moduleName);
+                            try {
+                                return executor.onCommand(context.getSender(), command, context.getArgs());
+                            } finally {
+                                cpuAccounting.exit();
+                            }
                         }
                         return false;
                     });
@@ -560,6 +922,7 @@ public class CoreModuleAPI implements ModuleAPI {
     public void setSharedData(String key, Object value) {
         // Implementation without relying on core's data manager
         if (key != null) {
+            core.getModuleMemoryTracker().track(moduleName, "shared:" + key, value);
             try {
                 // Try to use reflection to access the data manager if available
                 java.lang.reflect.Method method = core.getClass().getMethod("setSharedData", String.class, Object.class);
@@ -627,6 +990,14 @@ public class CoreModuleAPI implements ModuleAPI {
             } else {
                 moduleData.put(key, value);
             }
+            core.getModuleMemoryTracker().track(moduleName, "module-data", moduleData);
+        }
+    }
+    
+    @Override
+    public void trackMemory(String name, Object object) {
+        if (name != null) {
+            core.getModuleMemoryTracker().track(moduleName, name, object);
         }
     }
     
@@ -706,17 +1077,15 @@ public class CoreModuleAPI implements ModuleAPI {
         
         eventLock.writeLock().lock();
         try {
-            eventListeners.put(eventName, listener);
-            // Try to use reflection to register the event listener if the method exists
-            try {
-                java.lang.reflect.Method method = core.getClass().getMethod("registerModuleEventListener", String.class, ModuleEventListener.class);
-                if (method != null) {
-                    method.invoke(core, eventName, listener);
-                }
-            } catch (Exception e) {
-                // Method doesn't exist in ApiCore, just track the listener locally
-                // We'll use our local eventListeners map for this purpose
+            ModuleEventListener previous = eventListeners.put(eventName, listener);
+            if (previous == listener) {
+                return;
             }
+            if (previous != null) {
+                // Only one listener per event name, the replaced one must not stay subscribed
+                core.unregisterModuleListener(eventName, previous);
+            }
+            core.registerModuleListener(eventName, listener);
         } finally {
             eventLock.writeLock().unlock();
         }
@@ -729,16 +1098,7 @@ public class CoreModuleAPI implements ModuleAPI {
         eventLock.writeLock().lock();
         try {
             if (eventListeners.remove(eventName, listener)) {
-                // Try to use reflection to unregister the event listener if the method exists
-                try {
-                    java.lang.reflect.Method method = core.getClass().getMethod("unregisterModuleEventListener", String.class, ModuleEventListener.class);
-                    if (method != null) {
-                        method.invoke(core, eventName, listener);
-                    }
-                } catch (Exception e) {
-                    // Method doesn't exist in ApiCore, just remove from our local tracking
-                    // We've already removed it from eventListeners above
-                }
+                core.unregisterModuleListener(eventName, listener);
             }
         } finally {
             eventLock.writeLock().unlock();
@@ -750,6 +1110,16 @@ public class CoreModuleAPI implements ModuleAPI {
         core.fireModuleEvent(eventName, data);
     }
     
+    @Override
+    public <T> ModuleEventChannel<T> getEventChannel(String channelName, Class<T> payloadType) {
+        return core.getModuleEventChannels().channel(channelName, payloadType);
+    }
+    
+    @Override
+    public EventBus getEventBus() {
+        return core.getEventBus();
+    }
+    
     @Override
     public void log(String message) {
         log(LogLevel.INFO, message);
@@ -0,0 +1,440 @@
+package com.essentialscore.api.module;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Attributes thread CPU time and allocated bytes to modules.
+ * Every module entry point runs between {@link #enter(String)} and {@link #exit()}, which
+ * charge the CPU time of the current thread to the module on top of a per-thread call stack.
+ * A call from one module into another pauses the caller's clock, so nested calls are never
+ * counted twice. Recording is two thread CPU clock reads and one striped counter update,
+ * plus two allocation counter reads if the JVM provides per-thread allocation counters.
+ *
+ * <p>{@link #sampleTick()} is expected once per server tick on the main thread and turns
+ * the counters into CPU shares per tick and over the last minute, in percent of one core,
+ * and into allocation rates in bytes per second.</p>
+ */
+public class ModuleCpuAccounting {
+    private static final int WINDOW_SECONDS = 60;
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ThreadMXBean threadBean;
+    private final boolean cpuTimeSupported;
+    private final com.sun.management.ThreadMXBean allocationBean;
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    private final ThreadLocal<CallStack> stacks = ThreadLocal.withInitial(CallStack::new);
+    private volatile boolean enabled = true;
+
+    // Sampler state, only touched by the thread calling sampleTick()
+    private final long[] secondTimes = new long[WINDOW_SECONDS + 1];
+    private int secondIndex;
+    private int secondsFilled;
+    private long lastTickTime;
+    private volatile long lastTickNanos;
+
+    /**
+     * Creates the accounting and enables thread CPU time measurement if available.
+     * Falls back to wall clock time if the JVM cannot measure thread CPU time.
+     */
+    public ModuleCpuAccounting() {
+        this.threadBean = ManagementFactory.getThreadMXBean();
+        boolean supported = threadBean.isCurrentThreadCpuTimeSupported();
+        if (supported && !threadBean.isThreadCpuTimeEnabled()) {
+            try {
+                threadBean.setThreadCpuTimeEnabled(true);
+            } catch (UnsupportedOperationException | SecurityException e) {
+                supported = false;
+            }
+        }
+        this.cpuTimeSupported = supported;
+        this.allocationBean = createAllocationBean(threadBean);
+    }
+
+    private static com.sun.management.ThreadMXBean createAllocationBean(ThreadMXBean threadBean) {
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadBean;
+        try {
+            if (!bean.isThreadAllocatedMemorySupported()) {
+                return null;
+            }
+            if (!bean.isThreadAllocatedMemoryEnabled()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return bean;
+        } catch (UnsupportedOperationException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Starts charging the current thread's CPU time to a module.
+     * Must be paired with {@link #exit()} in a finally block.
+     *
+     * @param moduleName The module that is entered
+     */
+    public void enter(String moduleName) {
+        CallStack stack = stacks.get();
+        long now = enabled ? now() : -1;
+        long allocated = now >= 0 ? allocated() : -1;
+        if (now >= 0 && stack.depth > 0) {
+            stack.chargeTop(now, allocated);
+        }
+        stack.push(now >= 0 ? account(moduleName) : null, now, allocated);
+    }
+
+    /**
+     * Stops charging the module entered last and resumes the caller's module, if any.
+     */
+    public void exit() {
+        CallStack stack = stacks.get();
+        if (stack.depth == 0) {
+            return;
+        }
+        long now = stack.topAccount() != null ? now() : -1;
+        long allocated = now >= 0 ? allocated() : -1;
+        if (now >= 0) {
+            stack.chargeTop(now, allocated);
+        }
+        stack.pop();
+        if (stack.depth > 0 && stack.topAccount() != null) {
+            stack.starts[stack.depth - 1] = now >= 0 ? now : now();
+            stack.allocationStarts[stack.depth - 1] = now >= 0 ? allocated : allocated();
+        }
+    }
+
+    /**
+     * Runs a task and charges its CPU time to a module
+     *
+     * @param moduleName The module name
+     * @param task The task
+     * @param <T> The result type
+     * @return The task result
+     * @throws Exception if the task throws
+     */
+    public <T> T call(String moduleName, Callable<T> task) throws Exception {
+        enter(moduleName);
+        try {
+            return task.call();
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Runs a task and charges its CPU time to a module
+     *
+     * @param moduleName The module name
+     * @param task The task
+     */
+    public void run(String moduleName, Runnable task) {
+        enter(moduleName);
+        try {
+            task.run();
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Wraps a task so that every run is charged to a module
+     *
+     * @param moduleName The module name
+     * @param task The task
+     * @return The wrapped task
+     */
+    public Runnable wrap(String moduleName, Runnable task) {
+        Account account = account(moduleName);
+        return () -> {
+            enter(account.moduleName);
+            try {
+                task.run();
+            } finally {
+                exit();
+            }
+        };
+    }
+
+    /**
+     * Updates the per tick and per minute shares. Called once per tick.
+     */
+    public void sampleTick() {
+        long now = System.nanoTime();
+        if (lastTickTime == 0) {
+            lastTickTime = now;
+            secondTimes[0] = now;
+            secondsFilled = 1;
+            for (Account account : accounts.values()) {
+                account.startSampling(account.cpuNanos.sum(), account.allocatedBytes.sum());
+            }
+            return;
+        }
+
+        long tickWall = now - lastTickTime;
+        lastTickTime = now;
+        lastTickNanos = tickWall;
+
+        boolean secondBoundary = now - secondTimes[secondIndex] >= SECOND_NANOS;
+        if (secondBoundary) {
+            secondIndex = (secondIndex + 1) % secondTimes.length;
+            secondTimes[secondIndex] = now;
+            secondsFilled = Math.min(secondsFilled + 1, secondTimes.length);
+        }
+
+        for (Account account : accounts.values()) {
+            long total = account.cpuNanos.sum();
+            account.tickCpuNanos = total - account.lastTickTotal;
+            account.lastTickTotal = total;
+            if (secondBoundary) {
+                account.secondTotals[secondIndex] = total;
+                account.secondAllocations[secondIndex] = account.allocatedBytes.sum();
+            }
+        }
+    }
+
+    /**
+     * Gets the CPU share of a module during the last tick
+     *
+     * @param moduleName The module name
+     * @return The CPU time in percent of the tick duration (100 = one full core)
+     */
+    public double getTickCpuPercent(String moduleName) {
+        Account account = accounts.get(moduleName);
+        long wall = lastTickNanos;
+        return account != null && wall > 0 ? account.tickCpuNanos * 100.0 / wall : 0.0;
+    }
+
+    /**
+     * Gets the CPU share of a module over the last minute
+     *
+     * @param moduleName The module name
+     * @return The CPU time in percent of one core
+     */
+    public double getMinuteCpuPercent(String moduleName) {
+        return getCpuPercent(moduleName, WINDOW_SECONDS);
+    }
+
+    /**
+     * Gets the CPU share of a module over a recent window with one second resolution
+     *
+     * @param moduleName The module name
+     * @param seconds The window length in seconds, at most 60
+     * @return The CPU time in percent of one core
+     */
+    public double getCpuPercent(String moduleName, int seconds) {
+        Account account = accounts.get(moduleName);
+        int filled = secondsFilled;
+        if (account == null || filled < 2) {
+            return 0.0;
+        }
+
+        int span = Math.max(1, Math.min(seconds, filled - 1));
+        int current = secondIndex;
+        int oldest = Math.floorMod(current - span, secondTimes.length);
+        long wall = secondTimes[current] - secondTimes[oldest];
+        long cpu = account.secondTotals[current] - account.secondTotals[oldest];
+        return wall > 0 ? Math.max(0, cpu) * 100.0 / wall : 0.0;
+    }
+
+    /**
+     * Gets the allocation rate of a module over a recent window with one second resolution
+     *
+     * @param moduleName The module name
+     * @param seconds The window length in seconds, at most 60
+     * @return The allocated bytes per second
+     */
+    public double getAllocationRate(String moduleName, int seconds) {
+        Account account = accounts.get(moduleName);
+        int filled = secondsFilled;
+        if (account == null || filled < 2) {
+            return 0.0;
+        }
+
+        int span = Math.max(1, Math.min(seconds, filled - 1));
+        int current = secondIndex;
+        int oldest = Math.floorMod(current - span, secondTimes.length);
+        long wall = secondTimes[current] - secondTimes[oldest];
+        long bytes = account.secondAllocations[current] - account.secondAllocations[oldest];
+        return wall > 0 ? Math.max(0, bytes) * (double) SECOND_NANOS / wall : 0.0;
+    }
+
+    /**
+     * Gets the bytes allocated by a module since it was first seen
+     *
+     * @param moduleName The module name
+     * @return The allocated bytes
+     */
+    public long getTotalAllocatedBytes(String moduleName) {
+        Account account = accounts.get(moduleName);
+        return account != null ? account.allocatedBytes.sum() : 0L;
+    }
+
+    /**
+     * Gets the CPU time charged to a module since it was first seen
+     *
+     * @param moduleName The module name
+     * @return The CPU time in nanoseconds
+     */
+    public long getTotalCpuNanos(String moduleName) {
+        Account account = accounts.get(moduleName);
+        return account != null ? account.cpuNanos.sum() : 0L;
+    }
+
+    /**
+     * Gets the number of accounted entries into a module
+     *
+     * @param moduleName The module name
+     * @return The number of calls
+     */
+    public long getCallCount(String moduleName) {
+        Account account = accounts.get(moduleName);
+        return account != null ? account.calls.sum() : 0L;
+    }
+
+    /**
+     * Gets the accounting data of all modules
+     *
+     * @return Per module metrics
+     */
+    public Map<String, Map<String, Object>> getSnapshot() {
+        Map<String, Map<String, Object>> snapshot = new LinkedHashMap<>();
+        for (String moduleName : accounts.keySet()) {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("cpu_total_ms", getTotalCpuNanos(moduleName) / 1_000_000.0);
+            metrics.put("calls", getCallCount(moduleName));
+            metrics.put("cpu_tick_percent", getTickCpuPercent(moduleName));
+            metrics.put("cpu_minute_percent", getMinuteCpuPercent(moduleName));
+            metrics.put("allocated_total_mb", getTotalAllocatedBytes(moduleName) / (1024.0 * 1024.0));
+            metrics.put("allocation_rate_bytes_per_second", getAllocationRate(moduleName, WINDOW_SECONDS));
+            snapshot.put(moduleName, metrics);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drops the data of an unloaded module
+     *
+     * @param moduleName The module name
+     */
+    public void remove(String moduleName) {
+        accounts.remove(moduleName);
+    }
+
+    public boolean isCpuTimeSupported() {
+        return cpuTimeSupported;
+    }
+
+    public boolean isAllocationTrackingSupported() {
+        return allocationBean != null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    private Account account(String moduleName) {
+        Account account = accounts.get(moduleName);
+        if (account == null) {
+            account = accounts.computeIfAbsent(moduleName, Account::new);
+        }
+        return account;
+    }
+
+    private long now() {
+        if (cpuTimeSupported) {
+            // Virtual threads report -1, they are measured in wall clock time instead
+            long cpu = threadBean.getCurrentThreadCpuTime();
+            if (cpu >= 0) {
+                return cpu;
+            }
+        }
+        return System.nanoTime();
+    }
+
+    private long allocated() {
+        // Virtual threads report -1 as well, their allocations are not attributed
+        return allocationBean != null ? allocationBean.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * Accumulated CPU time of one module
+     */
+    private static final class Account {
+        private final String moduleName;
+        private final LongAdder cpuNanos = new LongAdder();
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final long[] secondTotals = new long[WINDOW_SECONDS + 1];
+        private final long[] secondAllocations = new long[WINDOW_SECONDS + 1];
+        private long lastTickTotal;
+        private volatile long tickCpuNanos;
+
+        Account(String moduleName) {
+            this.moduleName = moduleName;
+        }
+
+        void startSampling(long total, long allocated) {
+            lastTickTotal = total;
+            Arrays.fill(secondTotals, total);
+            Arrays.fill(secondAllocations, allocated);
+        }
+    }
+
+    /**
+     * The modules entered on one thread, innermost last
+     */
+    private static final class CallStack {
+        private Account[] accounts = new Account[8];
+        private long[] starts = new long[8];
+        private long[] allocationStarts = new long[8];
+        private int depth;
+
+        void push(Account account, long start, long allocationStart) {
+            if (depth == accounts.length) {
+                accounts = Arrays.copyOf(accounts, depth * 2);
+                starts = Arrays.copyOf(starts, depth * 2);
+                allocationStarts = Arrays.copyOf(allocationStarts, depth * 2);
+            }
+            accounts[depth] = account;
+            starts[depth] = start;
+            allocationStarts[depth] = allocationStart;
+            depth++;
+            if (account != null) {
+                account.calls.increment();
+            }
+        }
+
+        void pop() {
+            depth--;
+            accounts[depth] = null;
+        }
+
+        Account topAccount() {
+            return accounts[depth - 1];
+        }
+
+        void chargeTop(long now, long allocated) {
+            Account account = accounts[depth - 1];
+            if (account != null) {
+                account.cpuNanos.add(Math.max(0, now - starts[depth - 1]));
+                long allocationStart = allocationStarts[depth - 1];
+                if (allocated >= 0 && allocationStart >= 0) {
+                    account.allocatedBytes.add(Math.max(0, allocated - allocationStart));
+                }
+            }
+        }
+    }
+}
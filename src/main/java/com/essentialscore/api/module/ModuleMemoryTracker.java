@@ -0,0 +1,411 @@
+package com.essentialscore.api.module;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estimates the retained size of objects that modules register with the core, such as
+ * caches and data maps. Objects are held weakly, so tracking never keeps a module alive.
+ *
+ * <p>The estimate walks the object graph from the registered roots and sums shallow sizes
+ * assuming compressed references. JDK collections are traversed through their public API,
+ * other JDK objects are counted shallowly. Objects of classes loaded by any other class loader
+ * than the module's own or the JDK's, such as server, core or other modules' objects, are not
+ * counted or followed. Each walk is bounded, so the result is a lower bound for very large
+ * structures.</p>
+ *
+ * <p>Module objects are usually not thread-safe. {@link #snapshot(String, ClassLoader, int)} copies
+ * the top level of the roots and must be called on the thread that modifies them, normally the
+ * main thread; the more expensive {@link #estimate(Snapshot, int)} can then run on any thread.</p>
+ */
+public class ModuleMemoryTracker {
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE_SIZE = 4;
+    private static final int COLLECTION_ENTRY_SIZE = 32;
+
+    private static final String[] OPAQUE_PREFIXES = {
+        "java.", "javax.", "jdk.", "sun.", "com.sun."
+    };
+    private static final ClassLoader PLATFORM_LOADER = ClassLoader.getPlatformClassLoader();
+
+    private static final ClassValue<Layout> LAYOUTS = new ClassValue<Layout>() {
+        @Override
+        protected Layout computeValue(Class<?> type) {
+            return Layout.of(type);
+        }
+    };
+
+    private final Map<String, Map<String, WeakReference<Object>>> tracked = new ConcurrentHashMap<>();
+
+    /**
+     * Registers an object whose retained size counts towards a module
+     *
+     * @param moduleName The module name
+     * @param name A name unique within the module
+     * @param object The object, or null to stop tracking the name
+     */
+    public void track(String moduleName, String name, Object object) {
+        if (object == null) {
+            untrack(moduleName, name);
+            return;
+        }
+        tracked.computeIfAbsent(moduleName, k -> new ConcurrentHashMap<>())
+            .put(name, new WeakReference<>(object));
+    }
+
+    /**
+     * Stops tracking an object
+     *
+     * @param moduleName The module name
+     * @param name The name the object was registered with
+     */
+    public void untrack(String moduleName, String name) {
+        Map<String, WeakReference<Object>> objects = tracked.get(moduleName);
+        if (objects != null) {
+            objects.remove(name);
+        }
+    }
+
+    /**
+     * Drops all tracked objects of a module
+     *
+     * @param moduleName The module name
+     */
+    public void remove(String moduleName) {
+        tracked.remove(moduleName);
+    }
+
+    /**
+     * Gets the names of the objects tracked for a module
+     *
+     * @param moduleName The module name
+     * @return The names of all live tracked objects
+     */
+    public List<String> getTrackedNames(String moduleName) {
+        Map<String, WeakReference<Object>> objects = tracked.get(moduleName);
+        if (objects == null) {
+            return Collections.emptyList();
+        }
+        objects.values().removeIf(ref -> ref.get() == null);
+        return new ArrayList<>(objects.keySet());
+    }
+
+    /**
+     * Copies the roots tracked for a module. The contents of map and collection roots are copied
+     * one level deep, so the snapshot can be walked while the module keeps changing them.
+     * Must be called on the thread that modifies the tracked objects.
+     *
+     * @param moduleName The module name
+     * @param moduleLoader The class loader of the module
+     * @param maxObjects The maximum number of objects to copy
+     * @return The snapshot
+     */
+    public Snapshot snapshot(String moduleName, ClassLoader moduleLoader, int maxObjects) {
+        Snapshot snapshot = new Snapshot(moduleLoader);
+        Map<String, WeakReference<Object>> objects = tracked.get(moduleName);
+        if (objects == null) {
+            return snapshot;
+        }
+
+        for (Map.Entry<String, WeakReference<Object>> entry : objects.entrySet()) {
+            Object root = entry.getValue().get();
+            if (root == null) {
+                objects.remove(entry.getKey(), entry.getValue());
+            } else {
+                snapshot.add(root, maxObjects);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Estimates the retained size of a snapshot. Objects reachable from several roots are counted once.
+     *
+     * @param snapshot The snapshot of the tracked roots
+     * @param maxObjects The maximum number of objects to visit
+     * @return The estimated size in bytes
+     */
+    public static long estimate(Snapshot snapshot, int maxObjects) {
+        Walk walk = new Walk(snapshot.loader, maxObjects);
+        for (Object container : snapshot.containers) {
+            walk.visited.add(container);
+        }
+        for (Object root : snapshot.roots) {
+            walk.add(root);
+        }
+        return snapshot.containerBytes + walk.run();
+    }
+
+    /**
+     * Estimates the retained size of all objects tracked for a module on the calling thread,
+     * which must be the thread that modifies them.
+     *
+     * @param moduleName The module name
+     * @param moduleLoader The class loader of the module
+     * @param maxObjects The maximum number of objects to visit
+     * @return The estimated size in bytes
+     */
+    public long estimateRetainedBytes(String moduleName, ClassLoader moduleLoader, int maxObjects) {
+        return estimate(snapshot(moduleName, moduleLoader, maxObjects), maxObjects);
+    }
+
+    /**
+     * Estimates the retained size of a single object graph, following only objects of the
+     * JDK and of the class loader of the root
+     *
+     * @param root The root object
+     * @param maxObjects The maximum number of objects to visit
+     * @return The estimated size in bytes
+     */
+    public static long estimate(Object root, int maxObjects) {
+        Walk walk = new Walk(root.getClass().getClassLoader(), maxObjects);
+        walk.add(root);
+        return walk.run();
+    }
+
+    /**
+     * The roots of one module, copied on the thread that owns them
+     */
+    public static final class Snapshot {
+        private final ClassLoader loader;
+        private final List<Object> roots = new ArrayList<>();
+        private final List<Object> containers = new ArrayList<>();
+        private long containerBytes;
+
+        private Snapshot(ClassLoader loader) {
+            this.loader = loader;
+        }
+
+        private void add(Object root, int maxObjects) {
+            try {
+                if (root instanceof Map) {
+                    containers.add(root);
+                    containerBytes += align(OBJECT_HEADER + 36);
+                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) root).entrySet()) {
+                        if (roots.size() >= maxObjects) {
+                            break;
+                        }
+                        containerBytes += COLLECTION_ENTRY_SIZE;
+                        roots.add(entry.getKey());
+                        roots.add(entry.getValue());
+                    }
+                } else if (root instanceof Collection) {
+                    containers.add(root);
+                    containerBytes += align(OBJECT_HEADER + 20);
+                    for (Object element : (Collection<?>) root) {
+                        if (roots.size() >= maxObjects) {
+                            break;
+                        }
+                        containerBytes += COLLECTION_ENTRY_SIZE;
+                        roots.add(element);
+                    }
+                } else {
+                    roots.add(root);
+                }
+            } catch (ConcurrentModificationException | UnsupportedOperationException e) {
+                // Modified from another thread after all, the snapshot stays partial
+            }
+        }
+
+        /**
+         * Gets the number of copied root objects
+         *
+         * @return The number of roots
+         */
+        public int size() {
+            return roots.size();
+        }
+    }
+
+    private static boolean hasPrefix(String name, String[] prefixes) {
+        for (String prefix : prefixes) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    /**
+     * One bounded traversal of an object graph
+     */
+    private static final class Walk {
+        private final ClassLoader loader;
+        private final int maxObjects;
+        private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Deque<Object> pending = new ArrayDeque<>();
+        private long bytes;
+
+        Walk(ClassLoader loader, int maxObjects) {
+            this.loader = loader;
+            this.maxObjects = maxObjects;
+        }
+
+        void add(Object object) {
+            if (object == null || visited.size() >= maxObjects || !visited.add(object)) {
+                return;
+            }
+            pending.push(object);
+        }
+
+        long run() {
+            while (!pending.isEmpty()) {
+                visit(pending.pop());
+            }
+            return bytes;
+        }
+
+        private void visit(Object object) {
+            Class<?> type = object.getClass();
+            String typeName = type.getName();
+
+            if (object instanceof Class || object instanceof ClassLoader || object instanceof Thread
+                    || !isFollowed(type)) {
+                return;
+            }
+
+            if (type.isArray()) {
+                visitArray(object, type.getComponentType());
+            } else if (object instanceof String) {
+                bytes += align(OBJECT_HEADER + 12) + align(ARRAY_HEADER + ((String) object).length());
+            } else if (object instanceof Map) {
+                visitMap((Map<?, ?>) object);
+            } else if (object instanceof Collection) {
+                visitCollection((Collection<?>) object);
+            } else if (hasPrefix(typeName, OPAQUE_PREFIXES)) {
+                // JDK internals cannot be reflected without opening the modules
+                bytes += LAYOUTS.get(type).shallowSize;
+            } else {
+                Layout layout = LAYOUTS.get(type);
+                bytes += layout.shallowSize;
+                for (Field field : layout.references) {
+                    try {
+                        add(field.get(object));
+                    } catch (IllegalAccessException | RuntimeException e) {
+                        // Field not readable, counted shallowly
+                    }
+                }
+            }
+        }
+
+        /**
+         * Only JDK classes and classes of the walked module are followed; everything else
+         * belongs to the server, the core or another module
+         */
+        private boolean isFollowed(Class<?> type) {
+            ClassLoader typeLoader = type.getClassLoader();
+            return typeLoader == null || typeLoader == PLATFORM_LOADER || typeLoader == loader;
+        }
+
+        private void visitArray(Object array, Class<?> componentType) {
+            int length = Array.getLength(array);
+            if (componentType.isPrimitive()) {
+                bytes += align(ARRAY_HEADER + (long) length * primitiveSize(componentType));
+                return;
+            }
+            bytes += align(ARRAY_HEADER + (long) length * REFERENCE_SIZE);
+            Object[] elements = (Object[]) array;
+            for (int i = 0; i < length && visited.size() < maxObjects; i++) {
+                add(elements[i]);
+            }
+        }
+
+        private void visitMap(Map<?, ?> map) {
+            bytes += align(OBJECT_HEADER + 36);
+            try {
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    if (visited.size() >= maxObjects) {
+                        break;
+                    }
+                    bytes += COLLECTION_ENTRY_SIZE;
+                    add(entry.getKey());
+                    add(entry.getValue());
+                }
+            } catch (ConcurrentModificationException | UnsupportedOperationException e) {
+                // Modified while walking, the estimate stays partial
+            }
+        }
+
+        private void visitCollection(Collection<?> collection) {
+            bytes += align(OBJECT_HEADER + 20);
+            try {
+                for (Object element : collection) {
+                    if (visited.size() >= maxObjects) {
+                        break;
+                    }
+                    bytes += COLLECTION_ENTRY_SIZE;
+                    add(element);
+                }
+            } catch (ConcurrentModificationException | UnsupportedOperationException e) {
+                // Modified while walking, the estimate stays partial
+            }
+        }
+    }
+
+    /**
+     * Shallow size and readable reference fields of a class
+     */
+    private static final class Layout {
+        private final long shallowSize;
+        private final Field[] references;
+
+        private Layout(long shallowSize, Field[] references) {
+            this.shallowSize = shallowSize;
+            this.references = references;
+        }
+
+        static Layout of(Class<?> type) {
+            long size = OBJECT_HEADER;
+            List<Field> references = new ArrayList<>();
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                boolean opaque = hasPrefix(current.getName(), OPAQUE_PREFIXES);
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    if (field.getType().isPrimitive()) {
+                        size += primitiveSize(field.getType());
+                    } else {
+                        size += REFERENCE_SIZE;
+                        if (!opaque && field.trySetAccessible()) {
+                            references.add(field);
+                        }
+                    }
+                }
+            }
+            return new Layout(align(size), references.toArray(new Field[0]));
+        }
+    }
+}
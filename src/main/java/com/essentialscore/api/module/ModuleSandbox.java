@@ -12,12 +12,16 @@ import java.util.concurrent.TimeoutException;
 
 /**
  * Provides a sandboxed environment for executing module code safely.
+ * With a {@link ModuleWatchdog} set, synchronous calls run inline on the caller and only
+ * their deadline is watched; otherwise each call runs on a sandbox thread while the caller waits.
  */
 public class ModuleSandbox {
     private final Plugin plugin;
     private final ExecutorService executor;
     private final long defaultTimeoutMs;
     private boolean strictMode;
+    private volatile ModuleCpuAccounting cpuAccounting;
+    private volatile ModuleWatchdog watchdog;
 
     /**
      * Creates a new module sandbox.
@@ -91,9 +95,18 @@ public class ModuleSandbox {
      * @throws Exception If an error occurs
      */
     public <T> T execute(String moduleId, Callable<T> task, long timeoutMs) throws Exception {
+        ModuleWatchdog dog = watchdog;
+        if (dog != null) {
+            return executeWatched(dog, moduleId, task, timeoutMs);
+        }
         try {
             Future<T> future = executor.submit(() -> {
                 try {
+                    // CPU time of the sandbox thread belongs to the module
+                    ModuleCpuAccounting accounting = cpuAccounting;
+                    if (accounting != null) {
+                        return accounting.call(moduleId, task);
+                    }
                     if (strictMode) {
                         // Run with security checks in strict mode
                         return task.call();
@@ -114,6 +127,24 @@ public class ModuleSandbox {
         }
     }
 
+    /**
+     * Runs a task inline on the calling thread under the watchdog.
+     * An overdue call has already applied its effects when it returns, so its result is still
+     * returned; the watchdog logs the overrun and counts or flags the module.
+     */
+    private <T> T executeWatched(ModuleWatchdog dog, String moduleId, Callable<T> task, long timeoutMs) throws Exception {
+        if (dog.isFlagged(moduleId)) {
+            throw new IllegalStateException("Module " + moduleId + " was flagged by the sandbox watchdog");
+        }
+        ModuleCpuAccounting accounting = cpuAccounting;
+        dog.enter(moduleId, timeoutMs);
+        try {
+            return accounting != null ? accounting.call(moduleId, task) : task.call();
+        } finally {
+            dog.exit();
+        }
+    }
+
     /**
      * Executes a task in the sandbox asynchronously.
      *
@@ -202,6 +233,33 @@ public class ModuleSandbox {
         }, timeoutMs);
     }
 
+    /**
+     * Sets the CPU accounting that sandboxed tasks are charged to
+     * 
+     * @param cpuAccounting The accounting, or null to disable
+     */
+    public void setCpuAccounting(ModuleCpuAccounting cpuAccounting) {
+        this.cpuAccounting = cpuAccounting;
+    }
+
+    /**
+     * Sets the watchdog that enforces time limits of inline calls.
+     * 
+     * @param watchdog The watchdog, or null to run every call on a sandbox thread
+     */
+    public void setWatchdog(ModuleWatchdog watchdog) {
+        this.watchdog = watchdog;
+    }
+
+    /**
+     * Gets the watchdog of this sandbox.
+     *
+     * @return The watchdog, or null in thread mode
+     */
+    public ModuleWatchdog getWatchdog() {
+        return watchdog;
+    }
+
     /**
      * Sets the strict mode for this sandbox
      * 
@@ -254,6 +312,10 @@ public class ModuleSandbox {
      * Shuts down the sandbox.
      */
     public void shutdown() {
+        ModuleWatchdog dog = watchdog;
+        if (dog != null) {
+            dog.shutdown();
+        }
         executor.shutdown();
         try {
             if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
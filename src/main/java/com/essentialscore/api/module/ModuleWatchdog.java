@@ -0,0 +1,367 @@
+package com.essentialscore.api.module;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Enforces module call time limits without moving the call to another thread.
+ * A sandboxed call runs inline on the caller between {@link #enter(String, long)} and {@link #exit()},
+ * which only write the deadline into a per-thread slot of the deadline table. A single daemon thread
+ * samples the table periodically; for every call past its deadline it captures the stack of the
+ * calling thread and, depending on the {@link Action}, interrupts it or flags the module for disabling.
+ * {@link #exit()} reports the overrun to the caller. An overdue call has already applied its effects
+ * by then, so the overrun is only logged and counted against the module, never undone.
+ *
+ * <p>Nested sandboxed calls on the same thread are covered by the deadline of the outermost call.
+ * Threads for which the primary thread check set with {@link #setPrimaryThreadCheck(BooleanSupplier)}
+ * holds are never interrupted, {@link Action#INTERRUPT} only logs overdue calls on them.</p>
+ */
+public class ModuleWatchdog {
+    /**
+     * What the watchdog does with an overdue call besides capturing its stack.
+     */
+    public enum Action {
+        /** Only log the stack of the overdue call */
+        LOG,
+        /** Log and interrupt the thread running the call, unless it is the primary thread */
+        INTERRUPT,
+        /** Log and flag the module, further calls are rejected until {@link #clearFlag(String)} */
+        DISABLE
+    }
+
+    private final Logger logger;
+    private final long intervalMillis;
+    private volatile Action action;
+    private volatile Consumer<Overrun> overrunListener;
+    private volatile BooleanSupplier primaryThreadCheck;
+    private final ConcurrentLinkedQueue<Watch> table = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Watch> watches = ThreadLocal.withInitial(this::register);
+    private final Set<String> flaggedModules = ConcurrentHashMap.newKeySet();
+    private final Map<String, LongAdder> overrunsPerModule = new ConcurrentHashMap<>();
+    private final Thread sampler;
+    private volatile boolean running = true;
+
+    /**
+     * Creates the watchdog and starts its sampling thread.
+     *
+     * @param logger The logger for overdue calls
+     * @param intervalMillis The sampling interval in milliseconds
+     * @param action What to do with overdue calls
+     */
+    public ModuleWatchdog(Logger logger, long intervalMillis, Action action) {
+        this.logger = logger;
+        this.intervalMillis = Math.max(1, intervalMillis);
+        this.action = action != null ? action : Action.LOG;
+        this.sampler = new Thread(this::sampleLoop, "ModuleSandbox-Watchdog");
+        this.sampler.setDaemon(true);
+        this.sampler.start();
+    }
+
+    /**
+     * Starts a watched call on the current thread.
+     *
+     * @param moduleId The module being called
+     * @param timeoutMillis The time limit, 0 or less for no limit
+     */
+    public void enter(String moduleId, long timeoutMillis) {
+        Watch watch = watches.get();
+        if (watch.depth++ > 0) {
+            return;
+        }
+        watch.calls++;
+        long now = System.nanoTime();
+        watch.moduleId = moduleId;
+        watch.start = now;
+        watch.deadline = timeoutMillis > 0 ? now + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : Long.MAX_VALUE;
+        // Volatile write publishes the plain fields above to the sampler
+        watch.activeCall = ++watch.sequence;
+    }
+
+    /**
+     * Ends the watched call on the current thread.
+     *
+     * @return null if the call finished in time, otherwise the overrun with the stack captured by the
+     *         watchdog (or of this point if the watchdog had not sampled it yet)
+     */
+    public TimeoutException exit() {
+        Watch watch = watches.get();
+        if (watch.depth == 0 || --watch.depth > 0) {
+            return null;
+        }
+        long call = watch.activeCall;
+        long now = System.nanoTime();
+        watch.activeCall = 0;
+        if (watch.flaggedCall != call && now <= watch.deadline) {
+            return null;
+        }
+
+        StackTraceElement[] stack;
+        synchronized (watch) {
+            if (watch.interruptedCall == call) {
+                // Interrupt of the watchdog must not leak into the caller
+                Thread.interrupted();
+            }
+            stack = watch.stack;
+            watch.stack = null;
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(now - watch.start);
+        long limit = TimeUnit.NANOSECONDS.toMillis(watch.deadline - watch.start);
+        TimeoutException overrun = new TimeoutException("Module " + watch.moduleId + " ran " + millis + "ms, limit is " + limit + "ms");
+        if (stack != null) {
+            overrun.setStackTrace(stack);
+        } else {
+            // Not sampled in time, the overrun is only noticed here and reported like a sampled one
+            recordOverrun(watch.moduleId);
+            Action current = action;
+            if (current == Action.DISABLE) {
+                flaggedModules.add(watch.moduleId);
+            }
+            logger.log(Level.WARNING, "Sandbox watchdog: call of module " + watch.moduleId + " exceeded its time limit", overrun);
+        }
+        return overrun;
+    }
+
+    /**
+     * Checks whether a module was flagged for disabling after an overdue call.
+     *
+     * @param moduleId The module ID
+     * @return true if the module is flagged
+     */
+    public boolean isFlagged(String moduleId) {
+        return !flaggedModules.isEmpty() && flaggedModules.contains(moduleId);
+    }
+
+    /**
+     * Removes the flag of a module, e.g. after it was reloaded.
+     *
+     * @param moduleId The module ID
+     */
+    public void clearFlag(String moduleId) {
+        flaggedModules.remove(moduleId);
+    }
+
+    /**
+     * Sets what the watchdog does with overdue calls.
+     *
+     * @param action The action
+     */
+    public void setAction(Action action) {
+        this.action = action != null ? action : Action.LOG;
+    }
+
+    /**
+     * Sets the check that identifies the primary thread, whose calls are never interrupted.
+     * It is evaluated once per thread on its first watched call, so it must be set before.
+     *
+     * @param check Returns true when called on the primary thread, or null if there is none
+     */
+    public void setPrimaryThreadCheck(BooleanSupplier check) {
+        this.primaryThreadCheck = check;
+    }
+
+    /**
+     * Sets a listener notified on the watchdog thread for every overdue call.
+     *
+     * @param listener The listener, or null
+     */
+    public void setOverrunListener(Consumer<Overrun> listener) {
+        this.overrunListener = listener;
+    }
+
+    /**
+     * Stops the sampling thread.
+     */
+    public void shutdown() {
+        running = false;
+        sampler.interrupt();
+    }
+
+    /**
+     * Gets statistics about the watched calls.
+     *
+     * @return Statistics as a map
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        int active = 0;
+        long calls = 0;
+        for (Watch watch : table) {
+            if (watch.activeCall != 0) {
+                active++;
+            }
+            calls += watch.calls;
+        }
+        Map<String, Long> overruns = new LinkedHashMap<>();
+        overrunsPerModule.forEach((module, count) -> overruns.put(module, count.sum()));
+        stats.put("action", action.name());
+        stats.put("intervalMs", intervalMillis);
+        stats.put("calls", calls);
+        stats.put("activeCalls", active);
+        stats.put("watchedThreads", table.size());
+        stats.put("overruns", overruns);
+        stats.put("flaggedModules", new java.util.ArrayList<>(flaggedModules));
+        return stats;
+    }
+
+    private Watch register() {
+        Watch watch = new Watch(Thread.currentThread());
+        BooleanSupplier check = primaryThreadCheck;
+        watch.primary = check != null && check.getAsBoolean();
+        table.add(watch);
+        return watch;
+    }
+
+    private void sampleLoop() {
+        while (running) {
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return;
+                }
+            }
+            try {
+                sample(System.nanoTime());
+            } catch (Throwable t) {
+                logger.log(Level.WARNING, "Module watchdog sampling failed", t);
+            }
+        }
+    }
+
+    private void sample(long now) {
+        for (Iterator<Watch> it = table.iterator(); it.hasNext(); ) {
+            Watch watch = it.next();
+            Thread thread = watch.thread.get();
+            if (thread == null || !thread.isAlive()) {
+                it.remove();
+                continue;
+            }
+            long call = watch.activeCall;
+            if (call == 0 || watch.flaggedCall == call || now <= watch.deadline) {
+                continue;
+            }
+
+            watch.flaggedCall = call;
+            StackTraceElement[] stack = thread.getStackTrace();
+            Action current = action;
+            if (current == Action.INTERRUPT && watch.primary) {
+                // Interrupting the primary thread would break the server code it returns to
+                current = Action.LOG;
+            }
+            String moduleId;
+            long startedAt;
+            synchronized (watch) {
+                if (watch.activeCall != call) {
+                    // Finished while the stack was captured, exit() reports it
+                    continue;
+                }
+                // Still the same call, so the plain fields belong to it
+                moduleId = watch.moduleId;
+                startedAt = watch.start;
+                watch.stack = stack;
+                if (current == Action.INTERRUPT) {
+                    watch.interruptedCall = call;
+                    thread.interrupt();
+                }
+            }
+            recordOverrun(moduleId);
+            if (current == Action.DISABLE) {
+                flaggedModules.add(moduleId);
+            }
+
+            long millis = TimeUnit.NANOSECONDS.toMillis(now - startedAt);
+            TimeoutException trace = new TimeoutException("Module " + moduleId + " is running for " + millis + "ms on thread " + thread.getName());
+            trace.setStackTrace(stack);
+            logger.log(Level.WARNING, "Sandbox watchdog: call of module " + moduleId + " exceeded its time limit ("
+                + current.name().toLowerCase() + ")", trace);
+
+            Consumer<Overrun> listener = overrunListener;
+            if (listener != null) {
+                listener.accept(new Overrun(moduleId, thread.getName(), millis, stack, current));
+            }
+        }
+    }
+
+    private void recordOverrun(String moduleId) {
+        LongAdder counter = overrunsPerModule.get(moduleId);
+        if (counter == null) {
+            counter = overrunsPerModule.computeIfAbsent(moduleId, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * Deadline slot of one thread. Only the owning thread writes the call fields and publishes
+     * them with the write of {@code activeCall}; the sampler reads them and writes the flag fields.
+     */
+    private static final class Watch {
+        private final WeakReference<Thread> thread;
+        private boolean primary;
+        private int depth;
+        private long sequence;
+        // Statistics only, read without synchronization
+        private long calls;
+        private String moduleId;
+        private long start;
+        private long deadline;
+        private volatile long activeCall;
+        private volatile long flaggedCall;
+        private long interruptedCall;
+        private StackTraceElement[] stack;
+
+        Watch(Thread thread) {
+            this.thread = new WeakReference<>(thread);
+        }
+    }
+
+    /**
+     * An overdue call detected by the watchdog.
+     */
+    public static final class Overrun {
+        private final String moduleId;
+        private final String threadName;
+        private final long runningMillis;
+        private final StackTraceElement[] stack;
+        private final Action action;
+
+        Overrun(String moduleId, String threadName, long runningMillis, StackTraceElement[] stack, Action action) {
+            this.moduleId = moduleId;
+            this.threadName = threadName;
+            this.runningMillis = runningMillis;
+            this.stack = stack;
+            this.action = action;
+        }
+
+        public String getModuleId() {
+            return moduleId;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        public long getRunningMillis() {
+            return runningMillis;
+        }
+
+        public StackTraceElement[] getStack() {
+            return stack.clone();
+        }
+
+        public Action getAction() {
+            return action;
+        }
+    }
+}
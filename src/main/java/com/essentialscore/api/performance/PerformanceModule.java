@@ -38,7 +38,10 @@ public class PerformanceModule {
         this.plugin = plugin;
         this.moduleRegistry = moduleRegistry;
         this.commandManager = commandManager;
-        this.profilingSystem = new ProfilingSystem(plugin, moduleRegistry);
+        ProfilingSystem coreProfiling = plugin instanceof com.essentialscore.ApiCore
+            ? ((com.essentialscore.ApiCore) plugin).getProfilingSystem() : null;
+        // Share the core profiler, which already collects the EventBus handler timings
+        this.profilingSystem = coreProfiling != null ? coreProfiling : new ProfilingSystem(plugin, moduleRegistry);
         
         // Start profiling
         profilingSystem.start();
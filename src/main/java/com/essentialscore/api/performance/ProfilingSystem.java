@@ -1,11 +1,14 @@
 package com.essentialscore.api.performance;
 
+import com.essentialscore.api.event.EventBus;
+import com.essentialscore.api.event.HandlerTiming;
 import com.essentialscore.api.module.ModuleRegistry;
 import org.bukkit.plugin.Plugin;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +36,7 @@ public class ProfilingSystem {
     private final ABTestingFramework abTestingFramework;
     private final UsageAnalytics usageAnalytics;
     private final ScheduledExecutorService scheduledExecutor;
+    private volatile EventBus eventBus;
     private boolean running;
     
     /**
@@ -142,6 +146,9 @@ public class ProfilingSystem {
             recordGauge("server.players.online", plugin.getServer().getOnlinePlayers().size());
             recordGauge("server.tps", getTPS());
             
+            // Collect event handler timings
+            collectEventBusMetrics();
+            
             // Export metrics to all exporters
             for (MetricExporter exporter : exporters) {
                 try {
@@ -155,6 +162,57 @@ public class ProfilingSystem {
         }
     }
     
+    /**
+     * Records the dispatch timings of all event handlers as gauges.
+     */
+    private void collectEventBusMetrics() {
+        EventBus bus = eventBus;
+        if (bus == null || !bus.isTimingsEnabled()) {
+            return;
+        }
+        
+        for (HandlerTiming timing : bus.getHandlerTimings()) {
+            if (timing.getCount() == 0) {
+                continue;
+            }
+            String prefix = "eventbus.handler." + timing.getName();
+            recordGauge(prefix + ".calls", timing.getCount());
+            recordGauge(prefix + ".avg_ms", timing.getAverageNanos() / 1_000_000.0);
+            recordGauge(prefix + ".p99_ms", timing.getPercentileNanos(99) / 1_000_000.0);
+            recordGauge(prefix + ".max_ms", timing.getMaxNanos() / 1_000_000.0);
+            recordGauge(prefix + ".slow", timing.getSlowCount());
+        }
+        if (bus.getAsyncLane() != null) {
+            recordGauge("eventbus.async.queue_depth", bus.getAsyncLane().getQueueDepth());
+            recordGauge("eventbus.async.max_lag_ms", bus.getAsyncLane().getMaxLagMillis());
+        }
+    }
+    
+    /**
+     * Attaches an event bus whose handler timings are collected with the system metrics.
+     *
+     * @param eventBus The event bus, or null to detach
+     */
+    public void attachEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+    
+    /**
+     * Gets the handler timings of the attached event bus, most expensive first.
+     *
+     * @param limit The maximum number of handlers to return
+     * @return The handler timings sorted by total dispatch time
+     */
+    public List<HandlerTiming> getListenerTimings(int limit) {
+        EventBus bus = eventBus;
+        if (bus == null) {
+            return Collections.emptyList();
+        }
+        List<HandlerTiming> timings = bus.getHandlerTimings();
+        timings.sort(Comparator.comparingLong(HandlerTiming::getTotalNanos).reversed());
+        return timings.size() > limit ? new ArrayList<>(timings.subList(0, limit)) : timings;
+    }
+    
     /**
      * Estimates the current TPS (ticks per second).
      *
@@ -98,7 +98,7 @@ public class AdvancedTaskScheduler {
             String cronExpression,
             TaskPriority priority) {
         
-        CronSchedule schedule = new CronSchedule(cronExpression);
+        CronSchedule schedule = CronSchedule.compile(cronExpression);
         ScheduledTask scheduledTask = ScheduledTask.builder()
             .id(UUID.fromString(taskId))
             .name("CronTask_" + taskId)
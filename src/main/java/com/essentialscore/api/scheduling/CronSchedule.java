@@ -1,22 +1,56 @@
 package com.essentialscore.api.scheduling;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.regex.Pattern;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.time.Duration;
 
 /**
- * Simple cron schedule implementation for task scheduling.
+ * A compiled cron schedule (minute hour day-of-month month day-of-week).
+ * Every field is parsed once into a bit mask; the next fire time is found by jumping to the next set
+ * bit field by field instead of testing minute after minute. Compiled schedules are immutable and
+ * cached by expression, see {@link #compile(String)}.
+ *
+ * <p>Fields accept {@code *}, values, ranges {@code a-b}, steps {@code *}/n, {@code a-b/n} and {@code a/n},
+ * and comma-separated lists. Months and days of week also accept names (JAN, MON), Sunday is 0 or 7.
+ * As in Vixie cron, when both day fields are restricted a day matches if either matches; when either
+ * starts with {@code *} (e.g. {@code *}/2) a day must match both.
+ * An optional sixth field is accepted and ignored.</p>
+ *
+ * <p>Fire times are computed in a time zone. Times in a skipped hour (DST start) fire once at the end
+ * of the gap; times in a repeated hour (DST end) fire once, at their first occurrence.</p>
  */
 public class CronSchedule {
+    private static final int MAX_CACHED = 1024;
+    private static final Map<String, CronSchedule> CACHE = new ConcurrentHashMap<>();
+    private static final String[] MONTH_NAMES = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+    private static final String[] DAY_NAMES = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+    /** Expressions that never fire (e.g. 30 February) give up after this many years */
+    private static final int MAX_YEARS = 28;
+
     private final String cronExpression;
-    
-    // Simple cron pattern: minute hour day month weekday
-    private static final Pattern CRON_VALIDATION = Pattern.compile(
-        "^\\s*(\\*|[0-5]?\\d)(\\s+(\\*|[01]?\\d|2[0-3]))(\\s+(\\*|[12]?\\d|3[01]))(\\s+(\\*|[1-9]|1[0-2]))(\\s+(\\*|[0-6]))\\s*$"
-    );
-    
+    private final long minutes;
+    private final long hours;
+    private final long daysOfMonth;
+    private final long months;
+    private final long daysOfWeek;
+    /** Both day fields restricted (neither starts with {@code *}), a day then matches if either matches */
+    private final boolean eitherDay;
+
     /**
      * Creates a new cron schedule.
      *
@@ -26,13 +60,50 @@ public class CronSchedule {
         if (cronExpression == null || cronExpression.trim().isEmpty()) {
             throw new IllegalArgumentException("Cron expression cannot be null or empty");
         }
-        
+
         this.cronExpression = cronExpression.trim();
-        
-        if (!CRON_VALIDATION.matcher(this.cronExpression).matches()) {
+        String[] parts = this.cronExpression.split("\\s+");
+        if (parts.length != 5 && parts.length != 6) {
             throw new IllegalArgumentException("Invalid cron expression: " + cronExpression);
         }
+
+        try {
+            this.minutes = parseField(parts[0], 0, 59, null);
+            this.hours = parseField(parts[1], 0, 23, null);
+            this.daysOfMonth = parseField(parts[2], 1, 31, null);
+            this.months = parseField(parts[3], 1, 12, MONTH_NAMES);
+            long dow = parseField(parts[4], 0, 7, DAY_NAMES);
+            // Sunday may be written as 7
+            this.daysOfWeek = (dow | (dow >>> 7)) & 0x7F;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cron expression: " + cronExpression, e);
+        }
+        this.eitherDay = !isStar(parts[2]) && !isStar(parts[4]);
     }
+
+    /**
+     * Gets the compiled schedule of an expression, parsing it only on first use.
+     *
+     * @param cronExpression The cron expression
+     * @return The compiled schedule
+     * @throws IllegalArgumentException If the expression is invalid
+     */
+    public static CronSchedule compile(String cronExpression) {
+        if (cronExpression == null) {
+            throw new IllegalArgumentException("Cron expression cannot be null or empty");
+        }
+        CronSchedule schedule = CACHE.get(cronExpression);
+        if (schedule == null) {
+            schedule = new CronSchedule(cronExpression);
+            if (CACHE.size() >= MAX_CACHED) {
+                // Expressions are normally few and fixed, a full cache means they are generated
+                CACHE.clear();
+            }
+            CACHE.put(cronExpression, schedule);
+        }
+        return schedule;
+    }
+
     /**
      * Gets the cron expression.
      *
@@ -41,7 +112,7 @@ public class CronSchedule {
     public String getCronExpression() {
         return cronExpression;
     }
-    
+
     /**
      * Checks if the schedule matches the given time.
      *
@@ -49,86 +120,101 @@ public class CronSchedule {
      * @return true if the schedule matches
      */
     public boolean matches(LocalDateTime dateTime) {
-        String[] parts = cronExpression.split("\\s+");
-        if (parts.length != 5) {
-            return false;
-        }
-        
-        try {
-            // Check minute
-            if (!matchesField(parts[0], dateTime.getMinute(), 0, 59)) {
-                return false;
-            }
-            
-            // Check hour
-            if (!matchesField(parts[1], dateTime.getHour(), 0, 23)) {
-                return false;
-            }
-            
-            // Check day of month
-            if (!matchesField(parts[2], dateTime.getDayOfMonth(), 1, 31)) {
-                return false;
-            }
-            
-            // Check month
-            if (!matchesField(parts[3], dateTime.getMonthValue(), 1, 12)) {
-                return false;
-            }
-            
-            // Check day of week (Sunday = 0, Monday = 1, etc.)
-            int dayOfWeek = dateTime.getDayOfWeek().getValue() % 7; // Convert to Sunday = 0
-            if (!matchesField(parts[4], dayOfWeek, 0, 6)) {
-                return false;
-            }
-            
-            return true;
-        } catch (Exception e) {
-            return false;
+        return has(minutes, dateTime.getMinute())
+            && has(hours, dateTime.getHour())
+            && has(months, dateTime.getMonthValue())
+            && matchesDay(dateTime.toLocalDate());
+    }
+
+    /**
+     * Gets the first fire time strictly after a point in time.
+     *
+     * @param from The time to calculate from
+     * @return The next fire time in the zone of {@code from}
+     * @throws IllegalStateException If the schedule never fires
+     */
+    public ZonedDateTime next(ZonedDateTime from) {
+        ZoneId zone = from.getZone();
+        ZoneRules rules = zone.getRules();
+        Instant after = from.toInstant();
+        LocalDateTime candidate = from.toLocalDateTime().truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+
+        while (true) {
+            candidate = nextLocal(candidate);
+            List<ZoneOffset> offsets = rules.getValidOffsets(candidate);
+            Instant instant;
+            if (offsets.isEmpty()) {
+                // Skipped by a DST gap, fire when the gap ends
+                ZoneOffsetTransition gap = rules.getTransition(candidate);
+                instant = gap.getInstant();
+            } else {
+                // First occurrence in a repeated hour
+                instant = candidate.toInstant(offsets.get(0));
+            }
+            if (instant.isAfter(after)) {
+                return ZonedDateTime.ofInstant(instant, zone);
+            }
+            // Already passed in a repeated hour or merged into the end of a gap
+            candidate = candidate.plusMinutes(1);
         }
     }
-    
+
     /**
-     * Checks if a cron field matches the given value.
+     * Gets the next fire times strictly after a point in time.
      *
-     * @param field The cron field
-     * @param value The value to check
-     * @param min The minimum allowed value
-     * @param max The maximum allowed value
-     * @return true if the field matches
+     * @param from The time to calculate from
+     * @param count The number of fire times
+     * @return The fire times in ascending order
      */
-    private boolean matchesField(String field, int value, int min, int max) {
-        if ("*".equals(field)) {
-            return true;
+    public List<ZonedDateTime> next(ZonedDateTime from, int count) {
+        List<ZonedDateTime> times = new ArrayList<>(Math.max(0, count));
+        ZonedDateTime current = from;
+        for (int i = 0; i < count; i++) {
+            current = next(current);
+            times.add(current);
         }
-        
-        try {
-            int fieldValue = Integer.parseInt(field);
-            return fieldValue == value && fieldValue >= min && fieldValue <= max;
-        } catch (NumberFormatException e) {
-            return false;
+        return times;
+    }
+
+    /**
+     * Gets the first fire time strictly after a point in time.
+     *
+     * @param fromMillis The time to calculate from, in epoch milliseconds
+     * @param zone The time zone the fields refer to
+     * @return The next fire time in epoch milliseconds
+     */
+    public long nextMillis(long fromMillis, ZoneId zone) {
+        return next(Instant.ofEpochMilli(fromMillis).atZone(zone)).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Gets the next fire times strictly after a point in time.
+     *
+     * @param fromMillis The time to calculate from, in epoch milliseconds
+     * @param zone The time zone the fields refer to
+     * @param count The number of fire times
+     * @return The fire times in epoch milliseconds, ascending
+     */
+    public long[] nextMillis(long fromMillis, ZoneId zone, int count) {
+        long[] times = new long[Math.max(0, count)];
+        ZonedDateTime current = Instant.ofEpochMilli(fromMillis).atZone(zone);
+        for (int i = 0; i < times.length; i++) {
+            current = next(current);
+            times[i] = current.toInstant().toEpochMilli();
         }
+        return times;
     }
-    
+
     /**
      * Gets the next execution time for this schedule.
      *
-     * @param from The time to calculate from
+     * @param from The time to calculate from, in the system time zone
      * @return The next execution time
      */
     public LocalDateTime getNextExecution(LocalDateTime from) {
-        LocalDateTime next = from.withSecond(0).withNano(0).plusMinutes(1);
-        
-        // Simple implementation: check each minute until we find a match
-        for (int i = 0; i < 60 * 24 * 7; i++) { // Check up to a week ahead
-            if (matches(next)) {
-                return next;
-            }
-            next = next.plusMinutes(1);
-        }
-        
-        throw new IllegalStateException("Could not find next execution time for cron expression: " + cronExpression);
+        return next(from.atZone(ZoneId.systemDefault())).toLocalDateTime();
     }
-    
+
     /**
      * Schedules the next execution of a task based on this cron schedule.
      *
@@ -136,17 +222,189 @@ public class CronSchedule {
      * @param scheduler The scheduler to use
      */
     public void scheduleNext(ScheduledTask task, ScheduledExecutorService scheduler) {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime nextExecution = getNextExecution(now);
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime nextExecution = next(now);
         Duration delay = Duration.between(now, nextExecution);
-        
+
         scheduler.schedule(
             task.getRunnable(),
             delay.toMillis(),
             TimeUnit.MILLISECONDS
         );
     }
-    
+
+    /**
+     * Finds the first local time at or after a candidate that matches all fields,
+     * moving to the next allowed month, day, hour and minute in turn.
+     */
+    private LocalDateTime nextLocal(LocalDateTime candidate) {
+        int lastYear = candidate.getYear() + MAX_YEARS;
+        LocalDate date = candidate.toLocalDate();
+        int hour = candidate.getHour();
+        int minute = candidate.getMinute();
+
+        while (date.getYear() <= lastYear) {
+            int month = nextBit(months, date.getMonthValue(), 12);
+            if (month < 0) {
+                date = LocalDate.of(date.getYear() + 1, 1, 1);
+                hour = 0;
+                minute = 0;
+                continue;
+            }
+            if (month != date.getMonthValue()) {
+                date = LocalDate.of(date.getYear(), month, 1);
+                hour = 0;
+                minute = 0;
+            }
+
+            int day = nextDay(date);
+            if (day < 0) {
+                date = date.withDayOfMonth(1).plusMonths(1);
+                hour = 0;
+                minute = 0;
+                continue;
+            }
+            if (day != date.getDayOfMonth()) {
+                date = date.withDayOfMonth(day);
+                hour = 0;
+                minute = 0;
+            }
+
+            int nextHour = nextBit(hours, hour, 23);
+            if (nextHour < 0) {
+                date = date.plusDays(1);
+                hour = 0;
+                minute = 0;
+                continue;
+            }
+            if (nextHour != hour) {
+                hour = nextHour;
+                minute = 0;
+            }
+
+            int nextMinute = nextBit(minutes, minute, 59);
+            if (nextMinute < 0) {
+                if (hour == 23) {
+                    date = date.plusDays(1);
+                    hour = 0;
+                } else {
+                    hour++;
+                }
+                minute = 0;
+                continue;
+            }
+            return LocalDateTime.of(date, LocalTime.of(hour, nextMinute));
+        }
+        throw new IllegalStateException("Cron expression never fires: " + cronExpression);
+    }
+
+    /**
+     * Finds the first matching day of the month at or after the date's day.
+     *
+     * @return The day of the month, or -1 if none is left in this month
+     */
+    private int nextDay(LocalDate date) {
+        int length = date.lengthOfMonth();
+        int firstDow = date.getDayOfWeek().getValue() % 7;
+        for (int day = date.getDayOfMonth(); day <= length; day++) {
+            int dow = (firstDow + day - date.getDayOfMonth()) % 7;
+            if (matchesDay(day, dow)) {
+                return day;
+            }
+        }
+        return -1;
+    }
+
+    private boolean matchesDay(LocalDate date) {
+        return matchesDay(date.getDayOfMonth(), date.getDayOfWeek().getValue() % 7);
+    }
+
+    private boolean matchesDay(int dayOfMonth, int dayOfWeek) {
+        if (eitherDay) {
+            return has(daysOfMonth, dayOfMonth) || has(daysOfWeek, dayOfWeek);
+        }
+        // As in Vixie cron a day field starting with * (including steps like */2) is combined with AND
+        return has(daysOfMonth, dayOfMonth) && has(daysOfWeek, dayOfWeek);
+    }
+
+    private static boolean isStar(String field) {
+        return field.startsWith("*") || field.equals("?");
+    }
+
+    private static boolean has(long mask, int value) {
+        return (mask & (1L << value)) != 0;
+    }
+
+    /**
+     * Gets the lowest set bit at or above a value.
+     *
+     * @return The bit index, or -1 if none up to max
+     */
+    private static int nextBit(long mask, int from, int max) {
+        long remaining = mask & (-1L << from);
+        if (remaining == 0) {
+            return -1;
+        }
+        int bit = Long.numberOfTrailingZeros(remaining);
+        return bit <= max ? bit : -1;
+    }
+
+    private static long parseField(String field, int min, int max, String[] names) {
+        if (field.equals("?")) {
+            field = "*";
+        }
+        long mask = 0;
+        for (String part : field.split(",")) {
+            int step = 1;
+            int slash = part.indexOf('/');
+            String range = part;
+            if (slash >= 0) {
+                step = Integer.parseInt(part.substring(slash + 1));
+                if (step <= 0) {
+                    throw new IllegalArgumentException("Invalid step: " + part);
+                }
+                range = part.substring(0, slash);
+            }
+
+            int start;
+            int end;
+            if (range.equals("*")) {
+                start = min;
+                end = max;
+            } else {
+                int dash = range.indexOf('-');
+                if (dash > 0) {
+                    start = parseValue(range.substring(0, dash), names, min);
+                    end = parseValue(range.substring(dash + 1), names, min);
+                } else {
+                    start = parseValue(range, names, min);
+                    // "a/n" runs from a to the end of the field
+                    end = slash >= 0 ? max : start;
+                }
+            }
+            if (start < min || end > max || start > end) {
+                throw new IllegalArgumentException("Invalid range: " + part);
+            }
+            for (int value = start; value <= end; value += step) {
+                mask |= 1L << value;
+            }
+        }
+        return mask;
+    }
+
+    private static int parseValue(String value, String[] names, int min) {
+        if (names != null && !value.isEmpty() && Character.isLetter(value.charAt(0))) {
+            String upper = value.toUpperCase(Locale.ROOT);
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(upper)) {
+                    return i + min;
+                }
+            }
+            throw new IllegalArgumentException("Unknown name: " + value);
+        }
+        return Integer.parseInt(value);
+    }
+
     @Override
     public String toString() {
         return "CronSchedule{" +
@@ -0,0 +1,407 @@
+package com.essentialscore.api.scheduling;
+
+import com.essentialscore.api.module.ModuleCpuAccounting;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs queued main-thread work within a fixed time budget per server tick.
+ * {@link #tick()} is expected once per tick on the main thread; it runs jobs until the budget
+ * is used up and leaves the rest queued for the next tick. Long jobs are split into slices
+ * ({@link Slice}) that are resumed tick after tick, so large synchronous operations spread
+ * across ticks instead of stalling one.
+ *
+ * <p>Jobs run in priority order. A job that has waited longer than the aging time runs before
+ * any priority, oldest first, so a steady stream of high priority work cannot starve LOW work.
+ * A sliced job goes back to the tail of its queue after every slice, so concurrent long jobs
+ * of the same priority take turns. At least one slice runs per tick, even with a tiny budget.</p>
+ */
+public class MainThreadScheduler {
+
+    private final Logger logger;
+    private final List<ConcurrentLinkedQueue<Job>> queues = new ArrayList<>();
+    private final Map<String, ModuleStats> moduleStats = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder ticksWithBacklog = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private volatile long budgetNanos;
+    private volatile long agingNanos = TimeUnit.SECONDS.toNanos(1);
+    private volatile ModuleCpuAccounting cpuAccounting;
+    private volatile boolean shutdown;
+    // Only written by the main thread in tick()
+    private volatile long ticks;
+    private volatile long lastTickNanos;
+    private volatile long maxTickNanos;
+
+    /**
+     * A resumable piece of main-thread work.
+     */
+    @FunctionalInterface
+    public interface Slice {
+        /**
+         * Runs the next step of the job. A step should take well below the tick budget.
+         *
+         * @return true if more steps remain, false when the job is done
+         * @throws Exception If the job fails; the job is then dropped
+         */
+        boolean runSlice() throws Exception;
+    }
+
+    /**
+     * Creates the scheduler.
+     *
+     * @param logger The logger for failing jobs
+     * @param budgetMillis The time budget per tick in milliseconds
+     */
+    public MainThreadScheduler(Logger logger, double budgetMillis) {
+        this.logger = logger;
+        setBudgetMillis(budgetMillis);
+        for (int i = 0; i < TaskPriority.values().length; i++) {
+            queues.add(new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    /**
+     * Sets the time budget per tick.
+     *
+     * @param budgetMillis The budget in milliseconds
+     */
+    public void setBudgetMillis(double budgetMillis) {
+        this.budgetNanos = (long) (Math.max(0.1, budgetMillis) * 1_000_000L);
+    }
+
+    /**
+     * Sets the wait time after which a job runs ahead of higher priorities.
+     *
+     * @param agingMillis The aging time in milliseconds
+     */
+    public void setAgingMillis(long agingMillis) {
+        this.agingNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, agingMillis));
+    }
+
+    /**
+     * Charges the time of every job to its module in the CPU accounting.
+     *
+     * @param cpuAccounting The CPU accounting, or null to disable
+     */
+    public void setCpuAccounting(ModuleCpuAccounting cpuAccounting) {
+        this.cpuAccounting = cpuAccounting;
+    }
+
+    /**
+     * Queues a one-shot task.
+     *
+     * @param moduleId The module the task belongs to
+     * @param priority The priority
+     * @param task The task
+     * @return A future completed after the task ran; cancelling it drops the task
+     */
+    public CompletableFuture<Void> submit(String moduleId, TaskPriority priority, Runnable task) {
+        return submitSliced(moduleId, priority, () -> {
+            task.run();
+            return false;
+        });
+    }
+
+    /**
+     * Queues a job that runs in slices until it reports completion.
+     *
+     * @param moduleId The module the job belongs to
+     * @param priority The priority
+     * @param slice The job
+     * @return A future completed after the last slice; cancelling it stops the job before its next slice
+     */
+    public CompletableFuture<Void> submitSliced(String moduleId, TaskPriority priority, Slice slice) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (shutdown) {
+            future.cancel(false);
+            return future;
+        }
+        TaskPriority effective = priority != null ? priority : TaskPriority.NORMAL;
+        statsFor(moduleId).submitted.increment();
+        enqueue(new Job(moduleId, effective, slice, future));
+        return future;
+    }
+
+    /**
+     * Queues an action for every element, processing as many elements per tick as the budget allows.
+     *
+     * @param <T> The element type
+     * @param moduleId The module the job belongs to
+     * @param priority The priority
+     * @param items The elements, iterated lazily on the main thread
+     * @param action The action per element
+     * @return A future completed after the last element
+     */
+    public <T> CompletableFuture<Void> submitEach(String moduleId, TaskPriority priority,
+                                                  Iterable<T> items, Consumer<? super T> action) {
+        return submitSliced(moduleId, priority, new Slice() {
+            private Iterator<T> iterator;
+
+            @Override
+            public boolean runSlice() {
+                if (iterator == null) {
+                    iterator = items.iterator();
+                }
+                if (iterator.hasNext()) {
+                    action.accept(iterator.next());
+                }
+                return iterator.hasNext();
+            }
+        });
+    }
+
+    /**
+     * Runs queued jobs until the budget of this tick is used up. Must be called on the main thread.
+     */
+    public void tick() {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        boolean ranAny = false;
+
+        while (!shutdown) {
+            long now = System.nanoTime();
+            if (ranAny && now >= deadline) {
+                break;
+            }
+            Job job = poll(now);
+            if (job == null) {
+                break;
+            }
+            ranAny = true;
+            if (job.future.isDone()) {
+                // Cancelled while waiting
+                continue;
+            }
+            if (runSlice(job)) {
+                job.enqueuedAt = System.nanoTime();
+                enqueue(job);
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        ticks++;
+        lastTickNanos = elapsed;
+        maxTickNanos = Math.max(maxTickNanos, elapsed);
+        totalNanos.add(elapsed);
+        if (queued.get() > 0) {
+            ticksWithBacklog.increment();
+        }
+    }
+
+    /**
+     * Drops all queued jobs of a module, e.g. when it is unloaded.
+     *
+     * @param moduleId The module ID
+     * @return The number of dropped jobs
+     */
+    public int cancelModule(String moduleId) {
+        int cancelled = 0;
+        for (ConcurrentLinkedQueue<Job> queue : queues) {
+            for (Iterator<Job> it = queue.iterator(); it.hasNext(); ) {
+                Job job = it.next();
+                if (job.moduleId.equals(moduleId) && queue.remove(job)) {
+                    queued.decrementAndGet();
+                    job.future.cancel(false);
+                    cancelled++;
+                }
+            }
+        }
+        moduleStats.remove(moduleId);
+        return cancelled;
+    }
+
+    /**
+     * Drops all queued jobs and rejects new ones.
+     */
+    public void shutdown() {
+        shutdown = true;
+        for (ConcurrentLinkedQueue<Job> queue : queues) {
+            Job job;
+            while ((job = queue.poll()) != null) {
+                queued.decrementAndGet();
+                job.future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of queued jobs.
+     *
+     * @return The number of jobs waiting to start or resume
+     */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * Gets overall statistics.
+     *
+     * @return Statistics as a map
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("budgetMs", budgetNanos / 1_000_000.0);
+        stats.put("agingMs", TimeUnit.NANOSECONDS.toMillis(agingNanos));
+        stats.put("queued", queued.get());
+        stats.put("ticks", ticks);
+        stats.put("ticksWithBacklog", ticksWithBacklog.sum());
+        stats.put("lastTickMs", lastTickNanos / 1_000_000.0);
+        stats.put("maxTickMs", maxTickNanos / 1_000_000.0);
+        stats.put("avgTickMs", ticks > 0 ? totalNanos.sum() / (double) ticks / 1_000_000.0 : 0.0);
+        for (TaskPriority priority : TaskPriority.values()) {
+            stats.put("queued." + priority.name(), queues.get(priority.ordinal()).size());
+        }
+        return stats;
+    }
+
+    /**
+     * Gets statistics per module.
+     *
+     * @return Module ID and its statistics (submitted, completed, failed, slices, timeMs, queued)
+     */
+    public Map<String, Map<String, Object>> getModuleStatistics() {
+        Map<String, Integer> queuedPerModule = new LinkedHashMap<>();
+        for (ConcurrentLinkedQueue<Job> queue : queues) {
+            for (Job job : queue) {
+                queuedPerModule.merge(job.moduleId, 1, Integer::sum);
+            }
+        }
+
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        moduleStats.forEach((moduleId, stats) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("submitted", stats.submitted.sum());
+            values.put("completed", stats.completed.sum());
+            values.put("failed", stats.failed.sum());
+            values.put("slices", stats.slices.sum());
+            values.put("timeMs", TimeUnit.NANOSECONDS.toMicros(stats.nanos.sum()) / 1000.0);
+            values.put("queued", queuedPerModule.getOrDefault(moduleId, 0));
+            result.put(moduleId, values);
+        });
+        return result;
+    }
+
+    private void enqueue(Job job) {
+        queues.get(job.priority.ordinal()).add(job);
+        queued.incrementAndGet();
+        if (shutdown && queues.get(job.priority.ordinal()).remove(job)) {
+            queued.decrementAndGet();
+            job.future.cancel(false);
+        }
+    }
+
+    private Job poll(long now) {
+        while (true) {
+            ConcurrentLinkedQueue<Job> best = null;
+            long oldestWait = -1;
+            for (int i = queues.size() - 1; i >= 0; i--) {
+                Job head = queues.get(i).peek();
+                if (head == null) {
+                    continue;
+                }
+                long waited = now - head.enqueuedAt;
+                if (best == null) {
+                    // Highest non-empty priority
+                    best = queues.get(i);
+                }
+                if (waited >= agingNanos && waited > oldestWait) {
+                    // Aged job overtakes the priority order
+                    oldestWait = waited;
+                    best = queues.get(i);
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            Job job = best.poll();
+            if (job != null) {
+                queued.decrementAndGet();
+                return job;
+            }
+        }
+    }
+
+    /**
+     * Runs one slice of a job.
+     *
+     * @return true if the job has to be queued again
+     */
+    private boolean runSlice(Job job) {
+        ModuleStats stats = statsFor(job.moduleId);
+        ModuleCpuAccounting accounting = cpuAccounting;
+        long start = System.nanoTime();
+        boolean more;
+        if (accounting != null) {
+            accounting.enter(job.moduleId);
+        }
+        try {
+            more = job.slice.runSlice();
+        } catch (Throwable t) {
+            stats.failed.increment();
+            logger.log(Level.SEVERE, "Error in main thread job for module " + job.moduleId, t);
+            job.future.completeExceptionally(t);
+            return false;
+        } finally {
+            if (accounting != null) {
+                accounting.exit();
+            }
+            stats.slices.increment();
+            stats.nanos.add(System.nanoTime() - start);
+        }
+
+        if (more && !job.future.isDone()) {
+            return true;
+        }
+        stats.completed.increment();
+        job.future.complete(null);
+        return false;
+    }
+
+    private ModuleStats statsFor(String moduleId) {
+        ModuleStats stats = moduleStats.get(moduleId);
+        return stats != null ? stats : moduleStats.computeIfAbsent(moduleId, k -> new ModuleStats());
+    }
+
+    /**
+     * A queued job.
+     */
+    private static final class Job {
+        private final String moduleId;
+        private final TaskPriority priority;
+        private final Slice slice;
+        private final CompletableFuture<Void> future;
+        private volatile long enqueuedAt = System.nanoTime();
+
+        Job(String moduleId, TaskPriority priority, Slice slice, CompletableFuture<Void> future) {
+            this.moduleId = moduleId;
+            this.priority = priority;
+            this.slice = slice;
+            this.future = future;
+        }
+    }
+
+    /**
+     * Counters of one module.
+     */
+    private static final class ModuleStats {
+        private final LongAdder submitted = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder slices = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+    }
+}
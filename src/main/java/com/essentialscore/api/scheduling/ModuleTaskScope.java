@@ -0,0 +1,439 @@
+package com.essentialscore.api.scheduling;
+
+import com.essentialscore.api.module.ModuleCpuAccounting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * A structured fan-out of module subtasks onto virtual threads.
+ * The thread that opens the scope forks subtasks, joins them and closes the scope, normally in a
+ * try-with-resources block. No subtask outlives the scope: {@link #close()} cancels whatever is
+ * still running and waits for it to end, so a failing or timed out caller leaks no work.
+ *
+ * <p>The {@link Policy} decides when the scope is done. With {@link Policy#ALL_SUCCESSFUL} the first
+ * failure cancels the remaining subtasks and is thrown from {@link #join()}. With
+ * {@link Policy#FIRST_SUCCESS} the first successful result cancels the others.</p>
+ *
+ * <p>A scope has a deadline, after which {@link #join()} cancels all subtasks and throws a
+ * {@link TimeoutException}. Scopes opened inside a subtask never get a later deadline than the
+ * enclosing scope, and subtasks can read the time left with {@link #remainingNanos()} to bound
+ * their own blocking calls. Subtasks of one module share a semaphore that caps how many of them
+ * run at the same time; the others wait on their virtual thread without holding a carrier.
+ * A subtask that joins a nested scope hands its permit back while it waits, so nested fan-outs
+ * cannot use up all permits and wait on each other.</p>
+ *
+ * @param <T> The common result type of the subtasks
+ */
+public final class ModuleTaskScope<T> implements AutoCloseable {
+
+    /**
+     * When a scope is done joining.
+     */
+    public enum Policy {
+        /** Wait for all subtasks, cancel the rest on the first failure */
+        ALL_SUCCESSFUL,
+        /** Wait for the first successful subtask, cancel the rest */
+        FIRST_SUCCESS
+    }
+
+    /**
+     * State of a forked subtask.
+     */
+    public enum State {
+        /** Waiting for a permit or running */
+        RUNNING,
+        /** Finished with a result */
+        SUCCESS,
+        /** Finished with an exception */
+        FAILED,
+        /** Cancelled before it finished */
+        CANCELLED
+    }
+
+    private static final ThreadLocal<long[]> DEADLINE = new ThreadLocal<>();
+    private static final ThreadLocal<Semaphore> HELD_PERMIT = new ThreadLocal<>();
+
+    private final String moduleId;
+    private final Policy policy;
+    private final long deadline;
+    private final Semaphore permits;
+    private final ModuleCpuAccounting cpuAccounting;
+    private final ThreadFactory threadFactory;
+    private final Consumer<ModuleTaskScope<?>> onClose;
+    private final Thread owner = Thread.currentThread();
+    private final List<Subtask<? extends T>> subtasks = new ArrayList<>();
+
+    // Guarded by this
+    private int pending;
+    private boolean done;
+    private boolean cancelled;
+    private boolean closed;
+    private Throwable failure;
+    private T result;
+    private boolean hasResult;
+
+    /**
+     * Opens a scope on the current thread.
+     *
+     * @param moduleId The module whose work runs in the scope
+     * @param policy When the scope is done joining
+     * @param timeoutMillis The time limit of the scope, 0 or less for none (an enclosing deadline still applies)
+     * @param permits Caps concurrently running subtasks of the module, or null for no cap
+     * @param cpuAccounting Charges the CPU time of subtasks to the module, or null
+     * @param onClose Called once when the scope is closed, or null
+     */
+    public ModuleTaskScope(String moduleId, Policy policy, long timeoutMillis, Semaphore permits,
+                           ModuleCpuAccounting cpuAccounting, Consumer<ModuleTaskScope<?>> onClose) {
+        this.moduleId = moduleId;
+        this.policy = policy != null ? policy : Policy.ALL_SUCCESSFUL;
+        long requested = timeoutMillis > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : Long.MAX_VALUE;
+        long[] inherited = DEADLINE.get();
+        this.deadline = inherited != null ? Math.min(requested, inherited[0]) : requested;
+        this.permits = permits;
+        this.cpuAccounting = cpuAccounting;
+        this.threadFactory = Thread.ofVirtual().name("Module-" + moduleId + "-scope-", 0).factory();
+        this.onClose = onClose;
+    }
+
+    /**
+     * Gets the time left until the deadline of the scope the current thread runs in.
+     *
+     * @return The remaining nanoseconds, Long.MAX_VALUE outside a scope or without deadline, at least 0
+     */
+    public static long remainingNanos() {
+        long[] deadline = DEADLINE.get();
+        if (deadline == null || deadline[0] == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, deadline[0] - System.nanoTime());
+    }
+
+    /**
+     * Checks whether the current thread runs a subtask of a scope.
+     *
+     * @return true inside a subtask
+     */
+    public static boolean isSubtaskThread() {
+        return DEADLINE.get() != null;
+    }
+
+    /**
+     * Starts a subtask on a new virtual thread.
+     *
+     * @param task The subtask
+     * @param <U> The result type of the subtask
+     * @return The handle of the subtask
+     * @throws IllegalStateException If called from another thread than the owner, or after join or close
+     */
+    public <U extends T> Subtask<U> fork(Callable<? extends U> task) {
+        checkOwner();
+        Subtask<U> subtask = new Subtask<>(this, task);
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Scope of module " + moduleId + " is closed");
+            }
+            subtasks.add(subtask);
+            if (done) {
+                // Already decided, the subtask is never started
+                subtask.state = State.CANCELLED;
+                return subtask;
+            }
+            pending++;
+        }
+        Thread thread = threadFactory.newThread(subtask::run);
+        synchronized (subtask) {
+            subtask.thread = thread;
+        }
+        thread.start();
+        return subtask;
+    }
+
+    /**
+     * Waits until the policy is satisfied, all subtasks finished or the deadline passed.
+     *
+     * @throws InterruptedException If the owner is interrupted while waiting
+     * @throws ExecutionException With {@link Policy#ALL_SUCCESSFUL} if a subtask failed,
+     *                            with {@link Policy#FIRST_SUCCESS} if no subtask succeeded
+     * @throws TimeoutException If the deadline passed first; all subtasks are cancelled
+     * @throws CancellationException If the scope was cancelled, e.g. because the module was unloaded
+     */
+    public void join() throws InterruptedException, ExecutionException, TimeoutException {
+        checkOwner();
+        // Inside a subtask of the same module the permit is not needed while waiting for the nested subtasks
+        Semaphore held = permits != null && HELD_PERMIT.get() == permits ? permits : null;
+        if (held != null) {
+            held.release();
+        }
+        boolean timedOut = false;
+        try {
+            synchronized (this) {
+                while (!done && pending > 0) {
+                    if (deadline == Long.MAX_VALUE) {
+                        wait();
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timedOut = true;
+                        break;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            }
+        } finally {
+            if (held != null) {
+                held.acquireUninterruptibly();
+            }
+        }
+        if (timedOut) {
+            shutdown();
+            throw new TimeoutException("Scope of module " + moduleId + " passed its deadline");
+        }
+        // Decided by the policy, the remaining subtasks are no longer needed
+        shutdown();
+
+        synchronized (this) {
+            if (cancelled) {
+                throw new CancellationException("Scope of module " + moduleId + " was cancelled");
+            }
+            if (policy == Policy.ALL_SUCCESSFUL && failure != null) {
+                throw new ExecutionException(failure);
+            }
+            if (policy == Policy.FIRST_SUCCESS && !hasResult) {
+                throw failure != null ? new ExecutionException(failure)
+                    : new ExecutionException(new IllegalStateException("No subtask was forked"));
+            }
+        }
+    }
+
+    /**
+     * Gets the first successful result of a {@link Policy#FIRST_SUCCESS} scope after {@link #join()}.
+     *
+     * @return The result
+     * @throws IllegalStateException If there is no result
+     */
+    public synchronized T result() {
+        if (!hasResult) {
+            throw new IllegalStateException("Scope of module " + moduleId + " has no result");
+        }
+        return result;
+    }
+
+    /**
+     * Cancels the scope from any thread: unfinished subtasks are interrupted and {@link #join()}
+     * throws a {@link CancellationException}.
+     */
+    public void cancel() {
+        synchronized (this) {
+            if (!done) {
+                cancelled = true;
+            }
+        }
+        shutdown();
+    }
+
+    /**
+     * Gets the module this scope belongs to.
+     *
+     * @return The module ID
+     */
+    public String getModuleId() {
+        return moduleId;
+    }
+
+    /**
+     * Cancels all unfinished subtasks and waits until their threads have ended.
+     */
+    @Override
+    public void close() {
+        checkOwner();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        shutdown();
+
+        boolean interrupted = false;
+        synchronized (this) {
+            while (pending > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    // Subtasks are already interrupted and end shortly
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (onClose != null) {
+            onClose.accept(this);
+        }
+    }
+
+    private void shutdown() {
+        List<Subtask<? extends T>> running;
+        synchronized (this) {
+            done = true;
+            notifyAll();
+            running = new ArrayList<>(subtasks);
+        }
+        for (Subtask<? extends T> subtask : running) {
+            subtask.cancel();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void onFinished(Subtask<?> subtask, Object value, Throwable error) {
+        pending--;
+        if (!done) {
+            if (error == null && policy == Policy.FIRST_SUCCESS) {
+                // Forked subtasks produce subtypes of T
+                result = (T) value;
+                hasResult = true;
+                done = true;
+            } else if (error != null && failure == null) {
+                failure = error;
+                if (policy == Policy.ALL_SUCCESSFUL) {
+                    done = true;
+                }
+            }
+        }
+        notifyAll();
+        if (done && pending > 0) {
+            // Interrupting under the lock is safe, subtasks only take it when they finish
+            for (Subtask<? extends T> other : subtasks) {
+                if (other != subtask) {
+                    other.cancel();
+                }
+            }
+        }
+    }
+
+    private void checkOwner() {
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("Scope of module " + moduleId + " is owned by " + owner.getName());
+        }
+    }
+
+    /**
+     * Handle of a forked subtask.
+     *
+     * @param <U> The result type
+     */
+    public static final class Subtask<U> {
+        private final ModuleTaskScope<?> scope;
+        private final Callable<? extends U> task;
+        private volatile Thread thread;
+        private volatile State state = State.RUNNING;
+        private volatile U value;
+        private volatile Throwable error;
+
+        private Subtask(ModuleTaskScope<?> scope, Callable<? extends U> task) {
+            this.scope = scope;
+            this.task = task;
+        }
+
+        /**
+         * Gets the state of the subtask.
+         *
+         * @return The state
+         */
+        public State state() {
+            return state;
+        }
+
+        /**
+         * Gets the result of a successful subtask.
+         *
+         * @return The result
+         * @throws IllegalStateException If the subtask did not succeed
+         */
+        public U get() {
+            if (state != State.SUCCESS) {
+                throw new IllegalStateException("Subtask has no result, state is " + state);
+            }
+            return value;
+        }
+
+        /**
+         * Gets the exception of a failed subtask.
+         *
+         * @return The exception
+         * @throws IllegalStateException If the subtask did not fail
+         */
+        public Throwable exception() {
+            if (state != State.FAILED) {
+                throw new IllegalStateException("Subtask did not fail, state is " + state);
+            }
+            return error;
+        }
+
+        private void run() {
+            DEADLINE.set(new long[] {scope.deadline});
+            boolean acquired = false;
+            U result = null;
+            Throwable failure = null;
+            try {
+                // A cancel before the thread started is only visible in the state
+                if (state == State.RUNNING && scope.permits != null) {
+                    scope.permits.acquire();
+                    acquired = true;
+                    HELD_PERMIT.set(scope.permits);
+                }
+                if (state == State.RUNNING) {
+                    result = scope.cpuAccounting != null
+                        ? scope.cpuAccounting.call(scope.moduleId, task)
+                        : task.call();
+                }
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                if (acquired) {
+                    HELD_PERMIT.remove();
+                    scope.permits.release();
+                }
+            }
+
+            boolean cancelled;
+            synchronized (this) {
+                cancelled = state == State.CANCELLED;
+                if (!cancelled) {
+                    value = result;
+                    error = failure;
+                    state = failure == null ? State.SUCCESS : State.FAILED;
+                }
+                thread = null;
+            }
+            // Clear a cancel interrupt that arrived after the task returned
+            Thread.interrupted();
+            scope.onFinished(this, result, cancelled ? new CancellationException() : failure);
+        }
+
+        private void cancel() {
+            Thread running;
+            synchronized (this) {
+                if (state != State.RUNNING) {
+                    return;
+                }
+                state = State.CANCELLED;
+                running = thread;
+            }
+            if (running != null) {
+                running.interrupt();
+            }
+        }
+    }
+}
@@ -1,56 +1,94 @@
 package com.essentialscore.api.scheduling;
 
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 
 /**
- * A priority queue for tasks that orders them by priority and execution time.
+ * A queue for scheduled tasks that hands out due tasks by priority.
+ * Tasks that are not due yet wait in a hierarchical timing wheel; once due they move to a ready
+ * queue per priority, so a pending high priority task never blocks due lower priority ones.
+ *
+ * <p>{@link #offer(ScheduledTask)} and {@link #remove(ScheduledTask)} never take a lock: they record the
+ * change in a concurrent queue, which the consumer applies on the next {@link #poll()}. Inserting and
+ * cancelling are O(1) regardless of how many tasks are pending. The wheel has four levels of 256 slots;
+ * level 0 resolves single ticks, each higher level covers 256 times the span of the one below and is
+ * cascaded down when its slot comes up. All tasks of a tick expire in one batch.</p>
  */
 public class PriorityTaskQueue {
     private static final Logger LOGGER = Logger.getLogger(PriorityTaskQueue.class.getName());
-    
-    private final PriorityBlockingQueue<ScheduledTask> queue;
-    private final ReentrantLock lock;
-    private boolean running;
-    
+
+    /** Default wheel resolution in milliseconds */
+    public static final long DEFAULT_TICK_MILLIS = 10;
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+    private final long tickMillis;
+    private final Map<ScheduledTask, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> changes = new ConcurrentLinkedQueue<>();
+    private volatile boolean running;
+
+    // Consumer side, guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Entry[][] wheel = new Entry[LEVELS][WHEEL_SIZE];
+    private final ArrayDeque<Entry>[] ready;
+    private long currentTick;
+    private int wheelCount;
+    private int readyCount;
+    private long expiredBatches;
+    private long expiredTasks;
+    private int maxBatch;
+
     /**
      * Creates a new priority task queue.
      */
     public PriorityTaskQueue() {
-        this.queue = new PriorityBlockingQueue<>();
-        this.lock = new ReentrantLock();
+        this(DEFAULT_TICK_MILLIS);
+    }
+
+    /**
+     * Creates a new priority task queue.
+     *
+     * @param tickMillis The resolution of the timing wheel in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    public PriorityTaskQueue(long tickMillis) {
+        this.tickMillis = Math.max(1, tickMillis);
+        this.ready = new ArrayDeque[PRIORITIES.length];
+        for (int i = 0; i < ready.length; i++) {
+            ready[i] = new ArrayDeque<>();
+        }
+        this.currentTick = System.currentTimeMillis() / this.tickMillis;
         this.running = false;
     }
-    
+
     /**
      * Starts the queue.
      */
     public void start() {
-        lock.lock();
-        try {
-            running = true;
-            LOGGER.info("Priority task queue started");
-        } finally {
-            lock.unlock();
-        }
+        running = true;
+        LOGGER.info("Priority task queue started");
     }
-    
+
     /**
      * Stops the queue.
      */
     public void stop() {
-        lock.lock();
-        try {
-            running = false;
-            LOGGER.info("Priority task queue stopped with " + queue.size() + " tasks remaining");
-        } finally {
-            lock.unlock();
-        }
+        running = false;
+        LOGGER.info("Priority task queue stopped with " + entries.size() + " tasks remaining");
     }
-    
+
     /**
-     * Adds a task to the queue.
+     * Adds a task to the queue, due at its next execution time.
+     * A task that is already queued is replaced.
      *
      * @param task The task to add
      */
@@ -58,57 +96,67 @@ public class PriorityTaskQueue {
         if (task == null) {
             throw new IllegalArgumentException("Task cannot be null");
         }
-        
-        lock.lock();
-        try {
-            if (!running) {
-                LOGGER.warning("Attempted to offer task to stopped queue: " + task.getName());
-                return;
-            }
-            
-            // If this task is already in the queue, remove it first
-            queue.remove(task);
-            
-            // Add the task to the queue
-            queue.offer(task);
-            
-            LOGGER.fine("Added task to queue: " + task.getName() + " (Priority: " + task.getPriority() + ")");
-        } finally {
-            lock.unlock();
+        offerAt(task, task.getNextExecutionTime());
+    }
+
+    /**
+     * Adds a task to the queue, due at the given time instead of its next execution time,
+     * e.g. for retries. A task that is already queued is replaced.
+     *
+     * @param task The task to add
+     * @param dueAtMillis The time the task becomes due, in epoch milliseconds
+     */
+    public void offerAt(ScheduledTask task, long dueAtMillis) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        if (!running) {
+            LOGGER.warning("Attempted to offer task to stopped queue: " + task.getName());
+            return;
         }
+
+        Entry entry = new Entry(task, Math.floorDiv(dueAtMillis + tickMillis - 1, tickMillis));
+        Entry previous = entries.put(task, entry);
+        if (previous != null) {
+            cancel(previous);
+        }
+        changes.add(entry);
+
+        LOGGER.fine("Added task to queue: " + task.getName() + " (Priority: " + task.getPriority() + ")");
     }
-    
+
     /**
-     * Retrieves and removes the next task from the queue.
-     * Only returns tasks that are ready to execute.
+     * Retrieves and removes the next due task, highest priority first.
      *
-     * @return The next task, or null if no tasks are ready
+     * @return The next task, or null if no tasks are due
      */
     public ScheduledTask poll() {
+        if (!running) {
+            return null;
+        }
+
         lock.lock();
         try {
-            if (!running || queue.isEmpty()) {
-                return null;
+            advance(System.currentTimeMillis() / tickMillis);
+            for (int i = ready.length - 1; i >= 0 && readyCount > 0; i--) {
+                Entry entry;
+                while ((entry = ready[i].poll()) != null) {
+                    readyCount--;
+                    if (entry.cancelled) {
+                        continue;
+                    }
+                    entry.state = Entry.DONE;
+                    entries.remove(entry.task, entry);
+                    LOGGER.fine("Retrieved task from queue: " + entry.task.getName());
+                    return entry.task;
+                }
             }
-            
-            // Peek at the highest priority task
-            ScheduledTask task = queue.peek();
-            
-            // Check if it's time to execute
-            if (task != null && task.getNextExecutionTime() <= System.currentTimeMillis()) {
-                // Remove and return the task
-                queue.poll();
-                LOGGER.fine("Retrieved task from queue: " + task.getName());
-                return task;
-            }
-            
-            // No tasks are ready to execute
             return null;
         } finally {
             lock.unlock();
         }
     }
-    
+
     /**
      * Removes a task from the queue.
      *
@@ -116,57 +164,241 @@ public class PriorityTaskQueue {
      * @return true if the task was removed
      */
     public boolean remove(ScheduledTask task) {
-        lock.lock();
-        try {
-            boolean removed = queue.remove(task);
-            if (removed) {
-                LOGGER.fine("Removed task from queue: " + task.getName());
-            }
-            return removed;
-        } finally {
-            lock.unlock();
+        Entry entry = entries.remove(task);
+        if (entry == null) {
+            return false;
         }
+        cancel(entry);
+        LOGGER.fine("Removed task from queue: " + task.getName());
+        return true;
     }
-    
+
     /**
      * Gets the number of tasks in the queue.
      *
      * @return The number of tasks
      */
     public int size() {
-        lock.lock();
-        try {
-            return queue.size();
-        } finally {
-            lock.unlock();
-        }
+        return entries.size();
     }
-    
+
     /**
      * Checks if the queue is empty.
      *
      * @return true if the queue is empty
      */
     public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Gets the resolution of the timing wheel.
+     *
+     * @return The tick length in milliseconds
+     */
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * Clears the queue.
+     */
+    public void clear() {
         lock.lock();
         try {
-            return queue.isEmpty();
+            int size = entries.size();
+            for (Entry entry : entries.values()) {
+                entry.cancelled = true;
+            }
+            entries.clear();
+            changes.clear();
+            for (Entry[] level : wheel) {
+                Arrays.fill(level, null);
+            }
+            for (ArrayDeque<Entry> queue : ready) {
+                queue.clear();
+            }
+            wheelCount = 0;
+            readyCount = 0;
+            LOGGER.info("Cleared priority task queue, removed " + size + " tasks");
         } finally {
             lock.unlock();
         }
     }
-    
+
     /**
-     * Clears the queue.
+     * Gets statistics about the queue.
+     *
+     * @return Statistics as a map
      */
-    public void clear() {
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
         lock.lock();
         try {
-            int size = queue.size();
-            queue.clear();
-            LOGGER.info("Cleared priority task queue, removed " + size + " tasks");
+            stats.put("size", entries.size());
+            stats.put("waiting", wheelCount);
+            stats.put("ready", readyCount);
+            stats.put("pendingChanges", changes.size());
+            stats.put("tickMillis", tickMillis);
+            stats.put("expiredTasks", expiredTasks);
+            stats.put("avgBatch", expiredBatches > 0 ? (double) expiredTasks / expiredBatches : 0.0);
+            stats.put("maxBatch", maxBatch);
         } finally {
             lock.unlock();
         }
+        return stats;
+    }
+
+    private void cancel(Entry entry) {
+        entry.cancelled = true;
+        // The consumer unlinks it from its wheel slot on the next poll
+        changes.add(entry);
+    }
+
+    /**
+     * Applies pending offers and removals, then advances the wheel to the given tick.
+     */
+    private void advance(long nowTick) {
+        Entry change;
+        while ((change = changes.poll()) != null) {
+            if (change.cancelled) {
+                if (change.state == Entry.WHEEL) {
+                    unlink(change);
+                }
+                change.state = Entry.DONE;
+            } else if (change.state == Entry.NEW) {
+                insert(change);
+            }
+        }
+
+        while (currentTick < nowTick) {
+            if (wheelCount == 0) {
+                // Nothing waiting, skip the idle ticks
+                currentTick = nowTick;
+                break;
+            }
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) (currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+                }
+            }
+            expire((int) currentTick & WHEEL_MASK);
+        }
+    }
+
+    private void insert(Entry entry) {
+        long delta = entry.dueTick - currentTick;
+        if (delta <= 0) {
+            makeReady(entry);
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        long slotTick = entry.dueTick;
+        if (delta >= 1L << (WHEEL_BITS * LEVELS)) {
+            // Beyond the wheel, park in the farthest top slot and re-insert when it cascades
+            slotTick = currentTick + (WHEEL_MASK * (1L << (WHEEL_BITS * (LEVELS - 1))));
+        }
+        int slot = (int) (slotTick >>> (WHEEL_BITS * level)) & WHEEL_MASK;
+
+        entry.level = level;
+        entry.slot = slot;
+        entry.prev = null;
+        entry.next = wheel[level][slot];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        wheel[level][slot] = entry;
+        entry.state = Entry.WHEEL;
+        wheelCount++;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            wheel[entry.level][entry.slot] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+        wheelCount--;
+    }
+
+    private void cascade(int level, int slot) {
+        Entry entry = wheel[level][slot];
+        wheel[level][slot] = null;
+        while (entry != null) {
+            Entry next = entry.next;
+            entry.prev = null;
+            entry.next = null;
+            wheelCount--;
+            if (entry.cancelled) {
+                entry.state = Entry.DONE;
+            } else {
+                insert(entry);
+            }
+            entry = next;
+        }
+    }
+
+    private void expire(int slot) {
+        Entry entry = wheel[0][slot];
+        if (entry == null) {
+            return;
+        }
+        wheel[0][slot] = null;
+        int batch = 0;
+        while (entry != null) {
+            Entry next = entry.next;
+            entry.prev = null;
+            entry.next = null;
+            wheelCount--;
+            if (entry.cancelled) {
+                entry.state = Entry.DONE;
+            } else {
+                makeReady(entry);
+                batch++;
+            }
+            entry = next;
+        }
+        expiredBatches++;
+        expiredTasks += batch;
+        maxBatch = Math.max(maxBatch, batch);
+    }
+
+    private void makeReady(Entry entry) {
+        entry.state = Entry.READY;
+        ready[entry.task.getPriority().ordinal()].add(entry);
+        readyCount++;
+    }
+
+    /**
+     * A queued task. The link fields are only touched by the consumer.
+     */
+    private static final class Entry {
+        static final int NEW = 0;
+        static final int WHEEL = 1;
+        static final int READY = 2;
+        static final int DONE = 3;
+
+        final ScheduledTask task;
+        final long dueTick;
+        volatile boolean cancelled;
+        int state = NEW;
+        int level;
+        int slot;
+        Entry prev;
+        Entry next;
+
+        Entry(ScheduledTask task, long dueTick) {
+            this.task = task;
+            this.dueTick = dueTick;
+        }
     }
-} 
+}
@@ -5,28 +5,78 @@ import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.Plugin;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.time.Instant;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.CRC32;
 
 /**
  * Manages persistence of tasks to survive server restarts.
+ *
+ * <p>Task state changes (scheduled, rescheduled, completed, cancelled) are appended to a journal as
+ * one checksummed line each, so the cost of persistence follows the change rate instead of the number
+ * of tasks. A single writer thread collects all changes that arrived while the previous batch was
+ * being written and makes them durable with one fsync (group commit). Once the journal has grown well
+ * beyond the number of live tasks, the writer stores a snapshot of the live tasks and starts a new,
+ * empty journal. On start the snapshot is loaded and the journal replayed up to the last intact line;
+ * a torn tail left by a crash is cut off.</p>
  */
 public class TaskPersistenceManager {
     private static final Logger LOGGER = Logger.getLogger(TaskPersistenceManager.class.getName());
-    
+
+    private static final String SNAPSHOT_HEADER = "# EssentialsCore task snapshot v1 generation ";
+    private static final String JOURNAL_HEADER = "# EssentialsCore task journal v1 generation ";
+    /** Minimum number of journal records before a compaction is considered */
+    private static final int COMPACT_MIN_RECORDS = 10_000;
+    /** Maximum number of records written per fsync */
+    private static final int MAX_BATCH = 4096;
+    /** Queued last by {@link #stop()}; the writer exits after committing everything before it */
+    private static final Object STOP = new Object();
+
+    private static final char OP_SCHEDULED = 'S';
+    private static final char OP_RESCHEDULED = 'R';
+    private static final char OP_COMPLETED = 'C';
+    private static final char OP_CANCELLED = 'X';
+
     private final Plugin plugin;
     private final File storageFile;
-    private boolean running;
-    
+    private final File snapshotFile;
+    private final File journalFile;
+    private final Map<UUID, TaskRecord> liveTasks = new ConcurrentHashMap<>();
+    private final BlockingQueue<Object> pending = new LinkedBlockingQueue<>();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong recordsWritten = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+    private volatile boolean running;
+    private Thread writer;
+
+    // Writer side
+    private FileChannel journal;
+    private long generation;
+    private long journalRecords;
+
     /**
      * Creates a new task persistence manager.
      *
@@ -35,37 +85,121 @@ public class TaskPersistenceManager {
     public TaskPersistenceManager(Plugin plugin) {
         this.plugin = plugin;
         this.storageFile = new File(plugin.getDataFolder(), "scheduled_tasks.yml");
+        this.snapshotFile = new File(plugin.getDataFolder(), "scheduled_tasks.snapshot");
+        this.journalFile = new File(plugin.getDataFolder(), "scheduled_tasks.journal");
         this.running = false;
     }
-    
+
     /**
-     * Starts the persistence manager.
+     * Starts the persistence manager: recovers the persisted tasks and opens the journal.
      */
-    public void start() {
+    public synchronized void start() {
         if (running) return;
-        
+
         LOGGER.info("Starting task persistence manager");
-        
+
         // Create parent directory if it doesn't exist
         if (!plugin.getDataFolder().exists()) {
             plugin.getDataFolder().mkdirs();
         }
-        
+
+        try {
+            recover();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error opening task journal, task changes will not be persisted", e);
+            return;
+        }
+
         running = true;
+        writer = new Thread(this::writeLoop, "TaskPersistence-Journal");
+        writer.setDaemon(true);
+        writer.start();
     }
-    
+
     /**
-     * Stops the persistence manager.
+     * Stops the persistence manager after all recorded changes are durable.
      */
-    public void stop() {
+    public synchronized void stop() {
         if (!running) return;
-        
+
         LOGGER.info("Stopping task persistence manager");
+        flush();
         running = false;
+        // No interrupt: it would close the journal channel in the middle of a write
+        pending.add(STOP);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            LOGGER.warning("Task journal writer did not finish in time, leaving the journal open");
+            return;
+        }
+        closeJournal();
+    }
+
+    /**
+     * Records that a task was scheduled or replaced.
+     *
+     * @param task The task
+     */
+    public void recordScheduled(ScheduledTask task) {
+        enqueue(new Change(OP_SCHEDULED, task.getId(), TaskRecord.of(task)));
+    }
+
+    /**
+     * Records a new execution time, retry count or state of a task.
+     *
+     * @param task The task
+     */
+    public void recordRescheduled(ScheduledTask task) {
+        TaskRecord update = new TaskRecord();
+        update.nextExecutionTime = task.getNextExecutionTime();
+        update.retryCount = task.getRetryCount();
+        update.state = task.getState().name();
+        enqueue(new Change(OP_RESCHEDULED, task.getId(), update));
+    }
+
+    /**
+     * Records that a task finished its lifecycle.
+     *
+     * @param taskId The task ID
+     */
+    public void recordCompleted(UUID taskId) {
+        enqueue(new Change(OP_COMPLETED, taskId, null));
+    }
+
+    /**
+     * Records that a task was cancelled.
+     *
+     * @param taskId The task ID
+     */
+    public void recordCancelled(UUID taskId) {
+        enqueue(new Change(OP_CANCELLED, taskId, null));
+    }
+
+    /**
+     * Waits until all changes recorded so far are durable.
+     */
+    public void flush() {
+        if (!running) {
+            return;
+        }
+        CompletableFuture<Void> barrier = new CompletableFuture<>();
+        pending.add(barrier);
+        try {
+            barrier.get(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Waiting for the task journal failed", e);
+        }
     }
-    
+
     /**
-     * Saves tasks to persistent storage.
+     * Saves tasks to persistent storage, replacing everything persisted before.
+     * The tasks are written as a new snapshot and the journal is started over.
      *
      * @param tasks The tasks to save
      */
@@ -74,55 +208,19 @@ public class TaskPersistenceManager {
             LOGGER.warning("Attempted to save tasks while persistence manager is stopped");
             return;
         }
-        
-        try {
-            FileConfiguration config = new YamlConfiguration();
-            ConfigurationSection tasksSection = config.createSection("tasks");
-            
-            for (Map.Entry<UUID, ScheduledTask> entry : tasks.entrySet()) {
-                UUID taskId = entry.getKey();
-                ScheduledTask task = entry.getValue();
-                
-                // Skip transient tasks (those marked as not persistable)
-                if (task.isExpired()) {
-                    continue;
-                }
-                
-                ConfigurationSection taskSection = tasksSection.createSection(taskId.toString());
-                
-                // Save basic task properties
-                taskSection.set("name", task.getName());
-                taskSection.set("priority", task.getPriority().name());
-                taskSection.set("nextExecutionTime", task.getNextExecutionTime());
-                taskSection.set("cronExpression", task.getCronExpression());
-                taskSection.set("periodMillis", task.getPeriodMillis());
-                taskSection.set("async", task.isAsync());
-                taskSection.set("distributed", task.isDistributed());
-                taskSection.set("resourceId", task.getResourceId());
-                taskSection.set("maxRetries", task.getMaxRetries());
-                taskSection.set("retryStrategy", task.getRetryStrategy().name());
-                taskSection.set("retryCount", task.getRetryCount());
-                taskSection.set("state", task.getState().name());
-                taskSection.set("expirationTime", task.getExpirationTime());
-                
-                // Save dependencies as a list of UUIDs
-                if (task.getDependencies() != null && !task.getDependencies().isEmpty()) {
-                    taskSection.set("dependencies", task.getDependencies().stream()
-                            .map(UUID::toString).toArray(String[]::new));
-                }
-                
-                // We can't save the Runnable, so tasks will need to be reconnected with their
-                // implementation when loaded
+
+        Map<UUID, TaskRecord> records = new HashMap<>();
+        for (Map.Entry<UUID, ScheduledTask> entry : tasks.entrySet()) {
+            // Skip transient tasks (those marked as not persistable)
+            if (!entry.getValue().isExpired()) {
+                records.put(entry.getKey(), TaskRecord.of(entry.getValue()));
             }
-            
-            // Save to file
-            config.save(storageFile);
-            LOGGER.info("Saved " + tasks.size() + " tasks to " + storageFile.getAbsolutePath());
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Error saving tasks to file", e);
         }
+        pending.add(new Replace(records));
+        flush();
+        LOGGER.info("Saved " + records.size() + " tasks to " + snapshotFile.getAbsolutePath());
     }
-    
+
     /**
      * Loads tasks from persistent storage.
      *
@@ -130,141 +228,614 @@ public class TaskPersistenceManager {
      */
     public Map<UUID, ScheduledTask> loadTasks() {
         Map<UUID, ScheduledTask> tasks = new HashMap<>();
-        
+
         if (!running) {
             LOGGER.warning("Attempted to load tasks while persistence manager is stopped");
             return tasks;
         }
-        
-        if (!storageFile.exists()) {
-            LOGGER.info("No tasks file found at " + storageFile.getAbsolutePath());
-            return tasks;
-        }
-        
-        try {
-            FileConfiguration config = YamlConfiguration.loadConfiguration(storageFile);
-            ConfigurationSection tasksSection = config.getConfigurationSection("tasks");
-            
-            if (tasksSection == null) {
-                LOGGER.info("No tasks found in " + storageFile.getAbsolutePath());
-                return tasks;
+
+        long now = System.currentTimeMillis();
+        for (Map.Entry<UUID, TaskRecord> entry : liveTasks.entrySet()) {
+            TaskRecord record = entry.getValue();
+            if (record.expirationTime > 0 && now > record.expirationTime) {
+                LOGGER.fine("Skipping expired task: " + entry.getKey());
+                continue;
             }
-            
-            for (String taskIdString : tasksSection.getKeys(false)) {
-                try {
-                    UUID taskId = UUID.fromString(taskIdString);
-                    ConfigurationSection taskSection = tasksSection.getConfigurationSection(taskIdString);
-                    
-                    if (taskSection == null) continue;
-                    
-                    // Check if task has expired
-                    long expirationTime = taskSection.getLong("expirationTime", 0);
-                    if (expirationTime > 0 && System.currentTimeMillis() > expirationTime) {
-                        LOGGER.fine("Skipping expired task: " + taskIdString);
-                        continue;
-                    }
-                    
-                    // Load task properties
-                    String name = taskSection.getString("name", "unknown-task");
-                    TaskPriority priority = TaskPriority.valueOf(
-                            taskSection.getString("priority", TaskPriority.NORMAL.name()));
-                    long nextExecutionTime = taskSection.getLong("nextExecutionTime", 0);
-                    String cronExpression = taskSection.getString("cronExpression");
-                    long periodMillis = taskSection.getLong("periodMillis", 0);
-                    boolean async = taskSection.getBoolean("async", false);
-                    boolean distributed = taskSection.getBoolean("distributed", false);
-                    String resourceId = taskSection.getString("resourceId");
-                    int maxRetries = taskSection.getInt("maxRetries", 3);
-                    RetryStrategy retryStrategy = RetryStrategy.valueOf(
-                            taskSection.getString("retryStrategy", RetryStrategy.EXPONENTIAL_BACKOFF.name()));
-                    int retryCount = taskSection.getInt("retryCount", 0);
-                    TaskState state = TaskState.valueOf(
-                            taskSection.getString("state", TaskState.SCHEDULED.name()));
-                    
-                    // Load dependencies
-                    java.util.List<String> dependencyStrings = taskSection.getStringList("dependencies");
-                    UUID[] dependencies = dependencyStrings.stream()
-                            .map(UUID::fromString)
-                            .toArray(UUID[]::new);
-                    
-                    // Create placeholder task with a dummy Runnable
-                    // The actual implementation will need to be reconnected by the application
-                    ScheduledTask task = ScheduledTask.builder()
-                            .id(taskId)
-                            .name(name)
-                            .runnable(() -> LOGGER.warning("Placeholder runnable executed for task: " + name))
-                            .priority(priority)
-                            .executeAt(nextExecutionTime)
-                            .cronExpression(cronExpression)
-                            .period(periodMillis)
-                            .async(async)
-                            .distributed(distributed)
-                            .resourceId(resourceId)
-                            .maxRetries(maxRetries)
-                            .retryStrategy(retryStrategy)
-                            .dependencies(dependencies)
-                            .expiresAt(expirationTime)
-                            .build();
-                    
-                    // Set non-builder properties
-                    for (int i = 0; i < retryCount; i++) {
-                        task.incrementRetryCount();
-                    }
-                    task.setState(state);
-                    
-                    tasks.put(taskId, task);
-                    
-                    LOGGER.fine("Loaded task: " + name + " (ID: " + taskId + ")");
-                } catch (Exception e) {
-                    LOGGER.log(Level.WARNING, "Error loading task " + taskIdString, e);
-                }
+            try {
+                tasks.put(entry.getKey(), record.toTask(entry.getKey()));
+                LOGGER.fine("Loaded task: " + record.name + " (ID: " + entry.getKey() + ")");
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Error loading task " + entry.getKey(), e);
             }
-            
-            LOGGER.info("Loaded " + tasks.size() + " tasks from " + storageFile.getAbsolutePath());
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error loading tasks from file", e);
         }
-        
+
+        LOGGER.info("Loaded " + tasks.size() + " tasks from " + snapshotFile.getAbsolutePath());
         return tasks;
     }
-    
+
     /**
      * Deletes expired tasks from storage.
      */
     public void cleanupExpiredTasks() {
-        if (!running || !storageFile.exists()) {
+        if (!running) {
             return;
         }
-        
+
+        int removedCount = 0;
+        long now = System.currentTimeMillis();
+        for (Map.Entry<UUID, TaskRecord> entry : liveTasks.entrySet()) {
+            long expirationTime = entry.getValue().expirationTime;
+            if (expirationTime > 0 && now > expirationTime) {
+                recordCompleted(entry.getKey());
+                removedCount++;
+            }
+        }
+
+        if (removedCount > 0) {
+            LOGGER.info("Removed " + removedCount + " expired tasks from storage");
+        }
+    }
+
+    /**
+     * Gets statistics about the journal.
+     *
+     * @return Statistics as a map
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long commitCount = commits.get();
+        stats.put("liveTasks", liveTasks.size());
+        stats.put("pendingChanges", pending.size());
+        stats.put("commits", commitCount);
+        stats.put("recordsWritten", recordsWritten.get());
+        stats.put("avgBatch", commitCount > 0 ? (double) recordsWritten.get() / commitCount : 0.0);
+        stats.put("compactions", compactions.get());
+        return stats;
+    }
+
+    private void enqueue(Change change) {
+        if (!running) {
+            LOGGER.fine("Task change not persisted, persistence manager is stopped: " + change.taskId);
+            return;
+        }
+        pending.add(change);
+    }
+
+    /**
+     * Loads the snapshot (or the legacy YAML file), replays the journal and opens it for appending.
+     */
+    private void recover() throws IOException {
+        liveTasks.clear();
+        generation = 0;
+        boolean migrated = false;
+
+        if (snapshotFile.isFile()) {
+            List<String> lines = Files.readAllLines(snapshotFile.toPath(), StandardCharsets.UTF_8);
+            if (!lines.isEmpty()) {
+                generation = Math.max(0, parseGeneration(lines.get(0), SNAPSHOT_HEADER));
+            }
+            for (int i = 1; i < lines.size(); i++) {
+                if (!apply(lines.get(i))) {
+                    LOGGER.warning("Task snapshot is damaged at line " + (i + 1) + ", ignoring the rest");
+                    break;
+                }
+            }
+        } else if (storageFile.isFile()) {
+            loadLegacy();
+            migrated = true;
+        }
+
+        long validLength = 0;
+        long replayed = 0;
+        if (journalFile.isFile()) {
+            byte[] data = Files.readAllBytes(journalFile.toPath());
+            int lineStart = 0;
+            boolean currentGeneration = false;
+            for (int i = 0; i < data.length; i++) {
+                if (data[i] != '\n') {
+                    continue;
+                }
+                String line = new String(data, lineStart, i - lineStart, StandardCharsets.UTF_8);
+                if (lineStart == 0) {
+                    // An older journal was already folded into the snapshot before a crash
+                    currentGeneration = parseGeneration(line, JOURNAL_HEADER) == generation;
+                    if (!currentGeneration) {
+                        break;
+                    }
+                } else if (!apply(line)) {
+                    LOGGER.warning("Task journal ends with a damaged record, discarding "
+                        + (data.length - lineStart) + " bytes");
+                    break;
+                } else {
+                    replayed++;
+                }
+                lineStart = i + 1;
+                validLength = lineStart;
+            }
+            if (!currentGeneration) {
+                validLength = 0;
+            }
+        }
+
+        if (migrated) {
+            writeSnapshot();
+            LOGGER.info("Migrated " + liveTasks.size() + " tasks from " + storageFile.getName() + " to the task journal");
+        } else {
+            openJournal(validLength);
+            journalRecords = replayed;
+        }
+        LOGGER.fine("Recovered " + liveTasks.size() + " tasks, replayed " + replayed + " journal records");
+    }
+
+    private void writeLoop() {
+        List<Object> batch = new ArrayList<>();
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                // Only the STOP record ends the writer
+                continue;
+            }
+            // Everything that arrived while the last batch was written goes into this one
+            pending.drainTo(batch, MAX_BATCH);
+            stopping = batch.remove(STOP);
+            try {
+                commit(batch);
+            } catch (Throwable t) {
+                LOGGER.log(Level.SEVERE, "Error writing task journal", t);
+                for (Object item : batch) {
+                    if (item instanceof CompletableFuture) {
+                        ((CompletableFuture<?>) item).completeExceptionally(t);
+                    }
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private void commit(List<Object> batch) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<CompletableFuture<Void>> barriers = new ArrayList<>();
+        int written = 0;
+        boolean compact = false;
+
+        for (Object item : batch) {
+            if (item instanceof Change) {
+                Change change = (Change) item;
+                String payload = change.encode();
+                if (apply(change.op, change.taskId, change.record)) {
+                    out.write(line(payload));
+                    written++;
+                }
+            } else if (item instanceof Replace) {
+                liveTasks.clear();
+                liveTasks.putAll(((Replace) item).records);
+                // Earlier records of this batch are covered by the snapshot
+                out.reset();
+                written = 0;
+                compact = true;
+            } else if (item instanceof CompletableFuture) {
+                @SuppressWarnings("unchecked")
+                CompletableFuture<Void> barrier = (CompletableFuture<Void>) item;
+                barriers.add(barrier);
+            }
+        }
+
+        if (compact) {
+            writeSnapshot();
+        }
+        if (out.size() > 0) {
+            ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+            while (buffer.hasRemaining()) {
+                journal.write(buffer);
+            }
+            journal.force(false);
+            journalRecords += written;
+            recordsWritten.addAndGet(written);
+            commits.incrementAndGet();
+        }
+        if (!compact && journalRecords >= Math.max(COMPACT_MIN_RECORDS, 2L * liveTasks.size())) {
+            writeSnapshot();
+        }
+        for (CompletableFuture<Void> barrier : barriers) {
+            barrier.complete(null);
+        }
+    }
+
+    /**
+     * Writes all live tasks to a new snapshot generation and starts an empty journal for it.
+     */
+    private void writeSnapshot() throws IOException {
+        long next = generation + 1;
+        File tempFile = new File(snapshotFile.getParentFile(), snapshotFile.getName() + ".tmp");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write((SNAPSHOT_HEADER + next + "\n").getBytes(StandardCharsets.UTF_8));
+        for (Map.Entry<UUID, TaskRecord> entry : liveTasks.entrySet()) {
+            out.write(line(new Change(OP_SCHEDULED, entry.getKey(), entry.getValue()).encode()));
+        }
+        try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        // The rename is only durable once the directory entry is
+        syncDirectory(snapshotFile.getParentFile());
+
+        // From here on the old journal is ignored on recovery, its generation no longer matches
+        generation = next;
+        closeJournal();
+        openJournal(0);
+        journalRecords = 0;
+        compactions.incrementAndGet();
+        LOGGER.fine("Compacted task journal into snapshot generation " + next + " with " + liveTasks.size() + " tasks");
+    }
+
+    private void openJournal(long validLength) throws IOException {
+        journal = FileChannel.open(journalFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (validLength > 0) {
+            // Cut off a torn tail, new records must follow the last intact one
+            journal.truncate(validLength);
+            journal.position(validLength);
+        } else {
+            journal.truncate(0);
+            journal.write(ByteBuffer.wrap((JOURNAL_HEADER + generation + "\n").getBytes(StandardCharsets.UTF_8)));
+            journal.force(true);
+        }
+    }
+
+    private static void syncDirectory(File directory) {
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened for syncing on every platform (e.g. Windows)
+            LOGGER.log(Level.FINE, "Could not sync directory " + directory, e);
+        }
+    }
+
+    private void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Error closing task journal", e);
+            }
+            journal = null;
+        }
+    }
+
+    /**
+     * Applies a checksummed line of the snapshot or journal to the live tasks.
+     *
+     * @return false if the line is damaged
+     */
+    private boolean apply(String line) {
+        if (line.isEmpty()) {
+            return true;
+        }
+        int tab = line.indexOf('\t');
+        if (tab <= 0) {
+            return false;
+        }
+        String payload = line.substring(tab + 1);
+        CRC32 crc = new CRC32();
+        crc.update(payload.getBytes(StandardCharsets.UTF_8));
         try {
-            FileConfiguration config = YamlConfiguration.loadConfiguration(storageFile);
-            ConfigurationSection tasksSection = config.getConfigurationSection("tasks");
-            
-            if (tasksSection == null) {
-                return;
+            if (Long.parseLong(line.substring(0, tab), 16) != crc.getValue()) {
+                return false;
             }
-            
-            int removedCount = 0;
-            long now = System.currentTimeMillis();
-            
-            for (String taskIdString : tasksSection.getKeys(false)) {
+            Change change = Change.decode(payload);
+            apply(change.op, change.taskId, change.record);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Applies a change to the live tasks.
+     *
+     * @return false if the change has no effect and need not be written
+     */
+    private boolean apply(char op, UUID taskId, TaskRecord record) {
+        switch (op) {
+            case OP_SCHEDULED:
+                liveTasks.put(taskId, record);
+                return true;
+            case OP_RESCHEDULED:
+                TaskRecord existing = liveTasks.get(taskId);
+                if (existing == null) {
+                    return false;
+                }
+                existing.nextExecutionTime = record.nextExecutionTime;
+                existing.retryCount = record.retryCount;
+                existing.state = record.state;
+                return true;
+            default:
+                return liveTasks.remove(taskId) != null;
+        }
+    }
+
+    private static long parseGeneration(String header, String prefix) {
+        if (!header.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(header.substring(prefix.length()).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static byte[] line(String payload) {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        byte[] prefix = (Long.toHexString(crc.getValue()) + "\t").getBytes(StandardCharsets.UTF_8);
+        byte[] result = new byte[prefix.length + bytes.length + 1];
+        System.arraycopy(prefix, 0, result, 0, prefix.length);
+        System.arraycopy(bytes, 0, result, prefix.length, bytes.length);
+        result[result.length - 1] = '\n';
+        return result;
+    }
+
+    /**
+     * Reads the YAML file written by earlier versions.
+     */
+    private void loadLegacy() {
+        FileConfiguration config = YamlConfiguration.loadConfiguration(storageFile);
+        ConfigurationSection tasksSection = config.getConfigurationSection("tasks");
+        if (tasksSection == null) {
+            return;
+        }
+
+        for (String taskIdString : tasksSection.getKeys(false)) {
+            try {
                 ConfigurationSection taskSection = tasksSection.getConfigurationSection(taskIdString);
-                
                 if (taskSection == null) continue;
-                
-                long expirationTime = taskSection.getLong("expirationTime", 0);
-                if (expirationTime > 0 && now > expirationTime) {
-                    tasksSection.set(taskIdString, null);
-                    removedCount++;
+
+                TaskRecord record = new TaskRecord();
+                record.name = taskSection.getString("name", "unknown-task");
+                record.priority = taskSection.getString("priority", TaskPriority.NORMAL.name());
+                record.nextExecutionTime = taskSection.getLong("nextExecutionTime", 0);
+                record.cronExpression = taskSection.getString("cronExpression");
+                record.periodMillis = taskSection.getLong("periodMillis", 0);
+                record.async = taskSection.getBoolean("async", false);
+                record.distributed = taskSection.getBoolean("distributed", false);
+                record.resourceId = taskSection.getString("resourceId");
+                record.maxRetries = taskSection.getInt("maxRetries", 3);
+                record.retryStrategy = taskSection.getString("retryStrategy", RetryStrategy.EXPONENTIAL_BACKOFF.name());
+                record.retryCount = taskSection.getInt("retryCount", 0);
+                record.state = taskSection.getString("state", TaskState.SCHEDULED.name());
+                record.expirationTime = taskSection.getLong("expirationTime", 0);
+                record.dependencies = String.join(",", taskSection.getStringList("dependencies"));
+                liveTasks.put(UUID.fromString(taskIdString), record);
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Error loading task " + taskIdString, e);
+            }
+        }
+    }
+
+    /**
+     * A journaled change of one task.
+     */
+    private static final class Change {
+        final char op;
+        final UUID taskId;
+        final TaskRecord record;
+
+        Change(char op, UUID taskId, TaskRecord record) {
+            this.op = op;
+            this.taskId = taskId;
+            this.record = record;
+        }
+
+        String encode() {
+            StringBuilder sb = new StringBuilder(128).append(op).append('\t').append(taskId);
+            if (op == OP_SCHEDULED) {
+                sb.append('\t');
+                record.encode(sb);
+            } else if (op == OP_RESCHEDULED) {
+                sb.append('\t').append(record.nextExecutionTime)
+                    .append('\t').append(record.retryCount)
+                    .append('\t').append(record.state);
+            }
+            return sb.toString();
+        }
+
+        static Change decode(String payload) {
+            String[] fields = payload.split("\t", -1);
+            char op = fields[0].charAt(0);
+            UUID taskId = UUID.fromString(fields[1]);
+            TaskRecord record = null;
+            if (op == OP_SCHEDULED) {
+                record = TaskRecord.decode(fields, 2);
+            } else if (op == OP_RESCHEDULED) {
+                record = new TaskRecord();
+                record.nextExecutionTime = Long.parseLong(fields[2]);
+                record.retryCount = Integer.parseInt(fields[3]);
+                record.state = fields[4];
+            } else if (op != OP_COMPLETED && op != OP_CANCELLED) {
+                throw new IllegalArgumentException("Unknown journal operation " + op);
+            }
+            return new Change(op, taskId, record);
+        }
+    }
+
+    /**
+     * Replaces all persisted tasks with a new snapshot.
+     */
+    private static final class Replace {
+        final Map<UUID, TaskRecord> records;
+
+        Replace(Map<UUID, TaskRecord> records) {
+            this.records = records;
+        }
+    }
+
+    /**
+     * The persisted fields of a task. The runnable cannot be saved, so loaded tasks get a
+     * placeholder and need to be reconnected with their implementation.
+     */
+    private static final class TaskRecord {
+        private static final int FIELDS = 14;
+
+        String name;
+        String priority;
+        long nextExecutionTime;
+        String cronExpression;
+        long periodMillis;
+        boolean async;
+        boolean distributed;
+        String resourceId;
+        int maxRetries;
+        String retryStrategy;
+        int retryCount;
+        String state;
+        long expirationTime;
+        String dependencies;
+
+        static TaskRecord of(ScheduledTask task) {
+            TaskRecord record = new TaskRecord();
+            record.name = task.getName();
+            record.priority = task.getPriority().name();
+            record.nextExecutionTime = task.getNextExecutionTime();
+            record.cronExpression = task.getCronExpression();
+            record.periodMillis = task.getPeriodMillis();
+            record.async = task.isAsync();
+            record.distributed = task.isDistributed();
+            record.resourceId = task.getResourceId();
+            record.maxRetries = task.getMaxRetries();
+            record.retryStrategy = task.getRetryStrategy().name();
+            record.retryCount = task.getRetryCount();
+            record.state = task.getState().name();
+            record.expirationTime = task.getExpirationTime();
+            StringBuilder deps = new StringBuilder();
+            if (task.getDependencies() != null) {
+                for (UUID dependency : task.getDependencies()) {
+                    if (deps.length() > 0) {
+                        deps.append(',');
+                    }
+                    deps.append(dependency);
                 }
             }
-            
-            if (removedCount > 0) {
-                config.save(storageFile);
-                LOGGER.info("Removed " + removedCount + " expired tasks from storage");
+            record.dependencies = deps.toString();
+            return record;
+        }
+
+        ScheduledTask toTask(UUID taskId) {
+            String taskName = name;
+            UUID[] dependencyIds = dependencies == null || dependencies.isEmpty() ? new UUID[0]
+                : Arrays.stream(dependencies.split(",")).map(UUID::fromString).toArray(UUID[]::new);
+
+            // Create placeholder task with a dummy Runnable
+            // The actual implementation will need to be reconnected by the application
+            ScheduledTask task = ScheduledTask.builder()
+                    .id(taskId)
+                    .name(taskName)
+                    .runnable(() -> LOGGER.warning("Placeholder runnable executed for task: " + taskName))
+                    .priority(TaskPriority.valueOf(priority))
+                    .executeAt(nextExecutionTime)
+                    .cronExpression(cronExpression)
+                    .period(periodMillis)
+                    .async(async)
+                    .distributed(distributed)
+                    .resourceId(resourceId)
+                    .maxRetries(maxRetries)
+                    .retryStrategy(RetryStrategy.valueOf(retryStrategy))
+                    .dependencies(dependencyIds)
+                    .expiresAt(expirationTime)
+                    .build();
+
+            // Set non-builder properties
+            for (int i = 0; i < retryCount; i++) {
+                task.incrementRetryCount();
             }
-        } catch (IOException e) {
-            LOGGER.log(Level.WARNING, "Error cleaning up expired tasks", e);
+            task.setState(TaskState.valueOf(state));
+            return task;
+        }
+
+        void encode(StringBuilder sb) {
+            escape(sb, name).append('\t').append(priority)
+                .append('\t').append(nextExecutionTime)
+                .append('\t');
+            escape(sb, cronExpression).append('\t').append(periodMillis)
+                .append('\t').append(async ? '1' : '0')
+                .append('\t').append(distributed ? '1' : '0')
+                .append('\t');
+            escape(sb, resourceId).append('\t').append(maxRetries)
+                .append('\t').append(retryStrategy)
+                .append('\t').append(retryCount)
+                .append('\t').append(state)
+                .append('\t').append(expirationTime)
+                .append('\t').append(dependencies);
+        }
+
+        static TaskRecord decode(String[] fields, int offset) {
+            if (fields.length - offset != FIELDS) {
+                throw new IllegalArgumentException("Expected " + FIELDS + " task fields");
+            }
+            TaskRecord record = new TaskRecord();
+            record.name = unescape(fields[offset]);
+            record.priority = fields[offset + 1];
+            record.nextExecutionTime = Long.parseLong(fields[offset + 2]);
+            record.cronExpression = unescape(fields[offset + 3]);
+            record.periodMillis = Long.parseLong(fields[offset + 4]);
+            record.async = "1".equals(fields[offset + 5]);
+            record.distributed = "1".equals(fields[offset + 6]);
+            record.resourceId = unescape(fields[offset + 7]);
+            record.maxRetries = Integer.parseInt(fields[offset + 8]);
+            record.retryStrategy = fields[offset + 9];
+            record.retryCount = Integer.parseInt(fields[offset + 10]);
+            record.state = fields[offset + 11];
+            record.expirationTime = Long.parseLong(fields[offset + 12]);
+            record.dependencies = fields[offset + 13];
+            return record;
+        }
+
+        private static StringBuilder escape(StringBuilder sb, String value) {
+            if (value == null) {
+                return sb.append("\\0");
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\\': sb.append("\\\\"); break;
+                    case '\t': sb.append("\\t"); break;
+                    case '\n': sb.append("\\n"); break;
+                    case '\r': sb.append("\\r"); break;
+                    default: sb.append(c);
+                }
+            }
+            return sb;
+        }
+
+        private static String unescape(String value) {
+            if ("\\0".equals(value)) {
+                return null;
+            }
+            if (value.indexOf('\\') < 0) {
+                return value;
+            }
+            StringBuilder sb = new StringBuilder(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '\\' && i + 1 < value.length()) {
+                    char next = value.charAt(++i);
+                    sb.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+                } else {
+                    sb.append(c);
+                }
+            }
+            return sb.toString();
         }
     }
-} 
+}
@@ -111,9 +111,9 @@ public class TaskScheduler {
         Map<UUID, ScheduledTask> tasks = persistenceManager.loadTasks();
         
         tasks.forEach((id, task) -> {
-            // Only restore tasks that haven't expired
+            // Only restore tasks that haven't expired, they are already in the journal
             if (!task.isExpired()) {
-                scheduleTask(task);
+                enqueueTask(task);
             }
         });
         
@@ -129,20 +129,20 @@ public class TaskScheduler {
     }
     
     /**
-     * Starts the task processor that pulls tasks from the priority queue.
+     * Starts the task processor that pulls all due tasks from the priority queue once per wheel tick.
      */
     private void startTaskProcessor() {
         scheduler.scheduleAtFixedRate(() -> {
             try {
-                // Process tasks in the queue
-                ScheduledTask task = priorityQueue.poll();
-                if (task != null) {
+                // Process all due tasks, highest priority first
+                ScheduledTask task;
+                while ((task = priorityQueue.poll()) != null) {
                     processTask(task);
                 }
             } catch (Exception e) {
                 LOGGER.warning("Error in task processor: " + e.getMessage());
             }
-        }, 0, 100, TimeUnit.MILLISECONDS);
+        }, 0, priorityQueue.getTickMillis(), TimeUnit.MILLISECONDS);
     }
     
     /**
@@ -153,17 +153,15 @@ public class TaskScheduler {
     private void processTask(ScheduledTask task) {
         // Check dependencies
         if (!dependencyManager.areDependenciesMet(task)) {
-            // Requeue for later processing
-            priorityQueue.offer(task);
+            // Requeue for the next tick
+            priorityQueue.offerAt(task, System.currentTimeMillis() + priorityQueue.getTickMillis());
             return;
         }
         
         // Check rate limits
         if (!rateLimiter.allowExecution(task)) {
             // Requeue for later processing with delay
-            scheduler.schedule(() -> priorityQueue.offer(task), 
-                               rateLimiter.getNextAllowedTime(task) - System.currentTimeMillis(), 
-                               TimeUnit.MILLISECONDS);
+            priorityQueue.offerAt(task, rateLimiter.getNextAllowedTime(task));
             return;
         }
         
@@ -264,10 +262,12 @@ public class TaskScheduler {
         // Check if task should be rescheduled
         if (task.shouldReschedule()) {
             task.updateNextExecutionTime();
-            scheduleTask(task);
+            persistenceManager.recordRescheduled(task);
+            enqueueTask(task);
         } else {
             // Task completed its lifecycle
             activeTasks.remove(task.getId());
+            persistenceManager.recordCompleted(task.getId());
         }
     }
     
@@ -285,13 +285,15 @@ public class TaskScheduler {
             // Schedule retry with backoff
             long delay = retryManager.getRetryDelayMillis(task);
             task.incrementRetryCount();
+            persistenceManager.recordRescheduled(task);
             
-            scheduler.schedule(() -> priorityQueue.offer(task), delay, TimeUnit.MILLISECONDS);
+            priorityQueue.offerAt(task, System.currentTimeMillis() + delay);
             LOGGER.info("Scheduled retry #" + task.getRetryCount() + " for task " + task.getName() + " in " + delay + "ms");
         } else {
             // Task has exceeded retry limit
             LOGGER.severe("Task " + task.getName() + " failed permanently after " + task.getRetryCount() + " retries");
             activeTasks.remove(task.getId());
+            persistenceManager.recordCompleted(task.getId());
             
             // Execute failure callback if present
             if (task.getFailureCallback() != null) {
@@ -311,6 +313,17 @@ public class TaskScheduler {
      * @return The task ID
      */
     public UUID scheduleTask(ScheduledTask task) {
+        persistenceManager.recordScheduled(task);
+        return enqueueTask(task);
+    }
+    
+    /**
+     * Registers a task and hands it to the priority queue without journaling it.
+     *
+     * @param task The task to enqueue
+     * @return The task ID
+     */
+    private UUID enqueueTask(ScheduledTask task) {
         // Register task
         activeTasks.put(task.getId(), task);
         
@@ -318,10 +331,10 @@ public class TaskScheduler {
         long initialDelay = task.getNextExecutionTime() - System.currentTimeMillis();
         initialDelay = Math.max(0, initialDelay);
         
-        // Schedule initial execution
-        scheduler.schedule(() -> priorityQueue.offer(task), initialDelay, TimeUnit.MILLISECONDS);
+        // The timing wheel of the queue holds the task until it is due
+        priorityQueue.offer(task);
         
-        LOGGER.info("Scheduled task: " + task.getName() + " (ID: " + task.getId() + ") to run in " + initialDelay + "ms");
+        LOGGER.fine("Scheduled task: " + task.getName() + " (ID: " + task.getId() + ") to run in " + initialDelay + "ms");
         return task.getId();
     }
     
@@ -429,6 +442,8 @@ public class TaskScheduler {
     public boolean cancelTask(UUID taskId) {
         ScheduledTask task = activeTasks.remove(taskId);
         if (task != null) {
+            priorityQueue.remove(task);
+            persistenceManager.recordCancelled(taskId);
             LOGGER.info("Cancelled task: " + task.getName() + " (ID: " + taskId + ")");
             return true;
         }
@@ -0,0 +1,528 @@
+package com.essentialscore.api.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs module tasks on a shared set of worker threads with a separate queue per module.
+ *
+ * <p>Queues are served by weighted fair queuing on run time: every module has a virtual
+ * time that advances by its tasks' run time divided by its weight, and a free worker always
+ * takes the next task of the eligible module with the smallest virtual time. A module that
+ * becomes active again starts at the smallest virtual time of the active modules, so idle
+ * periods do not build up credit. Per-module concurrency caps keep a single module from
+ * occupying every worker, and queue limits reject work from a module that floods the pool.</p>
+ */
+public class FairShareExecutor {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Condition taskFinished = lock.newCondition();
+    private final Condition terminated = lock.newCondition();
+    private final Map<String, ModuleQueue> queues = new LinkedHashMap<>();
+    private final Map<String, ExecutorService> views = new ConcurrentHashMap<>();
+    private final Map<String, int[]> limits = new HashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final int defaultWeight;
+    private final int defaultMaxConcurrency;
+    private final int defaultQueueLimit;
+    private int liveWorkers;
+    private boolean shutdown;
+
+    /**
+     * Creates the executor and starts its workers.
+     *
+     * @param workerCount The number of shared worker threads
+     * @param defaultWeight The weight of modules without explicit limits
+     * @param defaultMaxConcurrency The maximum number of concurrently running tasks per module
+     * @param defaultQueueLimit The maximum number of queued tasks per module
+     * @param threadFactory The factory for the worker threads
+     */
+    public FairShareExecutor(int workerCount, int defaultWeight, int defaultMaxConcurrency, int defaultQueueLimit,
+                             ThreadFactory threadFactory) {
+        this.defaultWeight = Math.max(1, defaultWeight);
+        this.defaultMaxConcurrency = Math.max(1, defaultMaxConcurrency);
+        this.defaultQueueLimit = Math.max(1, defaultQueueLimit);
+
+        int count = Math.max(1, workerCount);
+        for (int i = 0; i < count; i++) {
+            Thread worker = threadFactory.newThread(this::workerLoop);
+            workers.add(worker);
+        }
+        liveWorkers = count;
+        workers.forEach(Thread::start);
+    }
+
+    /**
+     * Sets the scheduling limits of a module.
+     *
+     * @param moduleId The module ID
+     * @param weight The share of worker time relative to other modules
+     * @param maxConcurrency The maximum number of concurrently running tasks
+     * @param queueLimit The maximum number of queued tasks
+     */
+    public void setLimits(String moduleId, int weight, int maxConcurrency, int queueLimit) {
+        lock.lock();
+        try {
+            int[] moduleLimits = {Math.max(1, weight), Math.max(1, maxConcurrency), Math.max(1, queueLimit)};
+            // Die Limits bleiben erhalten, wenn das Modul entfernt und neu geladen wird
+            limits.put(moduleId, moduleLimits);
+            ModuleQueue queue = queue(moduleId);
+            queue.weight = moduleLimits[0];
+            queue.maxConcurrency = moduleLimits[1];
+            queue.queueLimit = moduleLimits[2];
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues a task for a module.
+     *
+     * @param moduleId The module ID
+     * @param task The task
+     * @throws RejectedExecutionException If the executor is shut down or the module's queue is full
+     */
+    public void execute(String moduleId, Runnable task) {
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new RejectedExecutionException("Executor is shut down");
+            }
+            ModuleQueue queue = queue(moduleId);
+            if (queue.pending.size() >= queue.queueLimit) {
+                queue.rejected++;
+                throw new RejectedExecutionException("Task queue of module " + moduleId + " is full (" + queue.queueLimit + ")");
+            }
+            if (queue.isIdle()) {
+                // Wieder aktive Module starten bei der kleinsten virtuellen Zeit, ohne Guthaben aus der Leerlaufzeit
+                queue.virtualTime = Math.max(queue.virtualTime, minActiveVirtualTime());
+            }
+            queue.pending.addLast(new QueuedTask(task, System.nanoTime()));
+            queue.submitted++;
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets an executor service that submits to a module's queue.
+     * Shutting down the view only stops accepting tasks for that module.
+     *
+     * @param moduleId The module ID
+     * @return The executor service for the module
+     */
+    public ExecutorService executorFor(String moduleId) {
+        return views.computeIfAbsent(moduleId, ModuleExecutor::new);
+    }
+
+    /**
+     * Removes all queued tasks of a module.
+     *
+     * @param moduleId The module ID
+     * @return The removed tasks
+     */
+    public List<Runnable> drain(String moduleId) {
+        lock.lock();
+        try {
+            ModuleQueue queue = queues.get(moduleId);
+            if (queue == null) {
+                return Collections.emptyList();
+            }
+            List<Runnable> drained = new ArrayList<>(queue.pending.size());
+            for (QueuedTask queued : queue.pending) {
+                drained.add(queued.task);
+            }
+            queue.pending.clear();
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a module from the executor, e.g. when it is unloaded.
+     * Queued tasks are dropped and the module's executor view is shut down. Tasks that are
+     * still running finish, after which the queue and its statistics are discarded.
+     *
+     * @param moduleId The module ID
+     * @return The tasks that were never started
+     */
+    public List<Runnable> removeModule(String moduleId) {
+        ExecutorService view = views.remove(moduleId);
+        if (view != null) {
+            view.shutdown();
+        }
+        List<Runnable> drained = drain(moduleId);
+        lock.lock();
+        try {
+            ModuleQueue queue = queues.get(moduleId);
+            if (queue != null) {
+                if (queue.running == 0) {
+                    queues.remove(moduleId);
+                } else {
+                    queue.removed = true;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return drained;
+    }
+
+    /**
+     * Gets the scheduling statistics of a module.
+     *
+     * @param moduleId The module ID
+     * @return The statistics, empty if the module never submitted a task
+     */
+    public Map<String, Object> getModuleStatistics(String moduleId) {
+        lock.lock();
+        try {
+            ModuleQueue queue = queues.get(moduleId);
+            return queue != null ? queue.statistics() : Collections.emptyMap();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the scheduling statistics of all modules.
+     *
+     * @return The statistics per module
+     */
+    public Map<String, Map<String, Object>> getStatistics() {
+        lock.lock();
+        try {
+            Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+            for (Map.Entry<String, ModuleQueue> entry : queues.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().statistics());
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of shared worker threads.
+     *
+     * @return The worker count
+     */
+    public int getWorkerCount() {
+        return workers.size();
+    }
+
+    /**
+     * Stops accepting tasks. Queued tasks are still run.
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting tasks, drops queued tasks and interrupts running ones.
+     *
+     * @return The tasks that were never started
+     */
+    public List<Runnable> shutdownNow() {
+        List<Runnable> dropped = new ArrayList<>();
+        lock.lock();
+        try {
+            shutdown = true;
+            for (ModuleQueue queue : queues.values()) {
+                for (QueuedTask queued : queue.pending) {
+                    dropped.add(queued.task);
+                }
+                queue.pending.clear();
+            }
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        workers.forEach(Thread::interrupt);
+        return dropped;
+    }
+
+    /**
+     * Waits until all workers have finished after a shutdown.
+     *
+     * @param timeout The maximum time to wait
+     * @param unit The unit of the timeout
+     * @return true if all workers finished
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (liveWorkers > 0) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = terminated.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void workerLoop() {
+        try {
+            while (true) {
+                ModuleQueue queue;
+                QueuedTask queued;
+
+                lock.lock();
+                try {
+                    while ((queue = nextQueue()) == null) {
+                        if (shutdown && isEmpty()) {
+                            return;
+                        }
+                        workAvailable.await();
+                    }
+                    queued = queue.pending.pollFirst();
+                    queue.running++;
+                } finally {
+                    lock.unlock();
+                }
+
+                long start = System.nanoTime();
+                try {
+                    queued.task.run();
+                } catch (Throwable t) {
+                    // Fehler werden von den Aufrufern im Task selbst behandelt, der Worker läuft weiter
+                } finally {
+                    long runNanos = System.nanoTime() - start;
+                    lock.lock();
+                    try {
+                        // Ein Task kann das Interrupt-Flag gesetzt lassen; ohne Zurücksetzen
+                        // würde das nächste await() den Worker beenden
+                        if (!shutdown) {
+                            Thread.interrupted();
+                        }
+                        queue.running--;
+                        queue.completed++;
+                        queue.waitNanos += start - queued.enqueuedAt;
+                        queue.maxWaitNanos = Math.max(queue.maxWaitNanos, start - queued.enqueuedAt);
+                        queue.runNanos += runNanos;
+                        queue.virtualTime += (double) runNanos / queue.weight;
+                        if (queue.removed && queue.isIdle() && queues.get(queue.moduleId) == queue) {
+                            queues.remove(queue.moduleId);
+                        }
+                        taskFinished.signalAll();
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.lock();
+            try {
+                liveWorkers--;
+                terminated.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Wählt die Warteschlange mit der kleinsten virtuellen Zeit, die Arbeit hat und ihr Limit nicht erreicht
+     */
+    private ModuleQueue nextQueue() {
+        ModuleQueue best = null;
+        for (ModuleQueue queue : queues.values()) {
+            if (!queue.pending.isEmpty() && queue.running < queue.maxConcurrency
+                    && (best == null || queue.virtualTime < best.virtualTime)) {
+                best = queue;
+            }
+        }
+        return best;
+    }
+
+    private double minActiveVirtualTime() {
+        double min = Double.MAX_VALUE;
+        for (ModuleQueue queue : queues.values()) {
+            if (!queue.isIdle()) {
+                min = Math.min(min, queue.virtualTime);
+            }
+        }
+        return min == Double.MAX_VALUE ? 0.0 : min;
+    }
+
+    private boolean isEmpty() {
+        for (ModuleQueue queue : queues.values()) {
+            if (!queue.pending.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ModuleQueue queue(String moduleId) {
+        ModuleQueue queue = queues.get(moduleId);
+        if (queue == null || queue.removed) {
+            // Ein entferntes Modul, das neu geladen wird, beginnt mit einer neuen Warteschlange
+            int[] moduleLimits = limits.get(moduleId);
+            queue = moduleLimits != null
+                ? new ModuleQueue(moduleId, moduleLimits[0], moduleLimits[1], moduleLimits[2])
+                : new ModuleQueue(moduleId, defaultWeight, defaultMaxConcurrency, defaultQueueLimit);
+            queues.put(moduleId, queue);
+        }
+        return queue;
+    }
+
+    /**
+     * Queue and accounting of one module
+     */
+    private static final class ModuleQueue {
+        private final String moduleId;
+        private final Deque<QueuedTask> pending = new ArrayDeque<>();
+        private int weight;
+        private int maxConcurrency;
+        private int queueLimit;
+        private int running;
+        private double virtualTime;
+        private long submitted;
+        private long completed;
+        private long rejected;
+        private long waitNanos;
+        private long maxWaitNanos;
+        private long runNanos;
+        private boolean removed;
+
+        ModuleQueue(String moduleId, int weight, int maxConcurrency, int queueLimit) {
+            this.moduleId = moduleId;
+            this.weight = weight;
+            this.maxConcurrency = maxConcurrency;
+            this.queueLimit = queueLimit;
+        }
+
+        boolean isIdle() {
+            return pending.isEmpty() && running == 0;
+        }
+
+        Map<String, Object> statistics() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("weight", weight);
+            stats.put("max_concurrency", maxConcurrency);
+            stats.put("queue_limit", queueLimit);
+            stats.put("queued", pending.size());
+            stats.put("running", running);
+            stats.put("submitted", submitted);
+            stats.put("completed", completed);
+            stats.put("rejected", rejected);
+            stats.put("avg_wait_ms", completed > 0 ? waitNanos / 1_000_000.0 / completed : 0.0);
+            stats.put("max_wait_ms", maxWaitNanos / 1_000_000.0);
+            stats.put("avg_run_ms", completed > 0 ? runNanos / 1_000_000.0 / completed : 0.0);
+            stats.put("total_run_ms", runNanos / 1_000_000.0);
+            return stats;
+        }
+    }
+
+    /**
+     * A task with the time it was queued
+     */
+    private static final class QueuedTask {
+        private final Runnable task;
+        private final long enqueuedAt;
+
+        QueuedTask(Runnable task, long enqueuedAt) {
+            this.task = task;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    /**
+     * Executor service view on the queue of one module
+     */
+    private final class ModuleExecutor extends AbstractExecutorService {
+        private final String moduleId;
+        private volatile boolean closed;
+
+        ModuleExecutor(String moduleId) {
+            this.moduleId = moduleId;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            if (closed) {
+                throw new RejectedExecutionException("Executor of module " + moduleId + " is shut down");
+            }
+            FairShareExecutor.this.execute(moduleId, command);
+        }
+
+        @Override
+        public void shutdown() {
+            closed = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            closed = true;
+            return drain(moduleId);
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return closed;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            if (!closed) {
+                return false;
+            }
+            lock.lock();
+            try {
+                ModuleQueue queue = queues.get(moduleId);
+                return queue == null || queue.isIdle();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            lock.lock();
+            try {
+                while (!isTerminated()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    taskFinished.awaitNanos(remaining);
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
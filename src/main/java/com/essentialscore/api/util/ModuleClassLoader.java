@@ -1,9 +1,11 @@
 package com.essentialscore.api.util;
 
+import com.essentialscore.api.event.LookupAnchor;
 import org.bukkit.plugin.Plugin;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.invoke.MethodHandles;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
@@ -18,12 +20,13 @@ import java.util.logging.Level;
 /**
  * Custom class loader for modules that provides isolation and dependency management.
  */
-public class ModuleClassLoader extends URLClassLoader {
+public class ModuleClassLoader extends URLClassLoader implements LookupAnchor.Host {
     private final Plugin plugin;
     private final String moduleId;
     private final Map<String, Class<?>> classCache;
     private final List<String> loadedClasses;
     private final File jarFile;
+    private MethodHandles.Lookup listenerLookup;
 
     // Static mapping of modules to their class loaders
     private static final Map<String, ModuleClassLoader> MODULE_LOADERS = new ConcurrentHashMap<>();
@@ -100,6 +103,25 @@ public class ModuleClassLoader extends URLClassLoader {
         return super.findClass(name);
     }
 
+    /**
+     * Gets a full-privilege lookup inside this loader, defining a {@link LookupAnchor} copy on
+     * first use, so event executors can be generated for listeners of this module.
+     *
+     * @return The lookup
+     * @throws ReflectiveOperationException if the anchor cannot be defined
+     */
+    @Override
+    public MethodHandles.Lookup getListenerLookup() throws ReflectiveOperationException {
+        synchronized (getClassLoadingLock(LookupAnchor.class.getName())) {
+            if (listenerLookup == null) {
+                byte[] bytes = LookupAnchor.templateBytes();
+                listenerLookup = LookupAnchor.instantiate(
+                        defineClass(LookupAnchor.class.getName(), bytes, 0, bytes.length));
+            }
+            return listenerLookup;
+        }
+    }
+
     @Override
     public void close() throws IOException {
         // Unregister from the static map
@@ -1,5 +1,8 @@
 package com.essentialscore.api.util;
 
+import com.essentialscore.api.scheduling.MainThreadScheduler;
+import com.essentialscore.api.scheduling.TaskPriority;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitScheduler;
 import org.bukkit.scheduler.BukkitTask;
@@ -12,7 +15,9 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 
@@ -24,17 +29,31 @@ public class ThreadManager {
     private final BukkitScheduler scheduler;
     private final ExecutorService executorService;
     private final ScheduledExecutorService scheduledExecutorService;
-    private final Map<String, ExecutorService> moduleExecutors;
+    private final FairShareExecutor moduleExecutor;
     private final Map<Integer, String> taskOwners;
     private final Map<String, Map<Integer, BukkitTask>> moduleTasks;
+    private final MainThreadScheduler mainThreadScheduler;
 
     /**
-     * Creates a new thread manager.
+     * Creates a new thread manager without budgeted main thread scheduling.
      *
      * @param plugin The plugin
      */
     public ThreadManager(Plugin plugin) {
+        this(plugin, null);
+    }
+
+    /**
+     * Creates a new thread manager that runs budgeted main thread work on a shared scheduler.
+     * The scheduler is ticked and shut down by its owner, usually the core's
+     * {@code getMainThreadScheduler()}, so all work shares a single per-tick budget.
+     *
+     * @param plugin The plugin
+     * @param mainThreadScheduler The shared main thread scheduler, or null if unavailable
+     */
+    public ThreadManager(Plugin plugin, MainThreadScheduler mainThreadScheduler) {
         this.plugin = plugin;
+        this.mainThreadScheduler = mainThreadScheduler;
         this.scheduler = plugin.getServer().getScheduler();
         this.executorService = Executors.newCachedThreadPool(r -> {
             Thread thread = new Thread(r);
@@ -46,11 +65,49 @@ public class ThreadManager {
             thread.setName("EssentialsCore-Scheduled-" + thread.threadId());
             return thread;
         });
-        this.moduleExecutors = new ConcurrentHashMap<>();
+        this.moduleExecutor = createModuleExecutor(plugin);
         this.taskOwners = new ConcurrentHashMap<>();
         this.moduleTasks = new ConcurrentHashMap<>();
     }
 
+    /**
+     * Creates the shared pool for module tasks and applies the configured per-module limits
+     * from {@code threading.module-pool}.
+     *
+     * @param plugin The plugin whose configuration is read
+     * @return The started pool
+     */
+    public static FairShareExecutor createModuleExecutor(Plugin plugin) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int workers = plugin.getConfig().getInt("threading.module-pool.workers", Math.max(4, processors * 2));
+        AtomicInteger counter = new AtomicInteger(1);
+        
+        FairShareExecutor executor = new FairShareExecutor(
+            workers,
+            plugin.getConfig().getInt("threading.module-pool.default-weight", 1),
+            plugin.getConfig().getInt("threading.module-pool.default-max-concurrency", Math.max(1, workers / 2)),
+            plugin.getConfig().getInt("threading.module-pool.default-queue-limit", 1000),
+            r -> {
+                Thread thread = new Thread(r, "EssentialsCore-Module-" + counter.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        
+        ConfigurationSection modules = plugin.getConfig().getConfigurationSection("threading.module-pool.modules");
+        if (modules != null) {
+            for (String moduleId : modules.getKeys(false)) {
+                ConfigurationSection limits = modules.getConfigurationSection(moduleId);
+                if (limits != null) {
+                    executor.setLimits(moduleId,
+                        limits.getInt("weight", 1),
+                        limits.getInt("max-concurrency", Math.max(1, workers / 2)),
+                        limits.getInt("queue-limit", 1000));
+                }
+            }
+        }
+        return executor;
+    }
+
     /**
      * Runs a task asynchronously.
      *
@@ -75,19 +132,15 @@ public class ThreadManager {
     }
 
     /**
-     * Runs a task asynchronously with a specific executor service.
+     * Runs a task asynchronously on the shared module pool.
+     * Modules share the pool by weight, so a module queuing many tasks does not delay the others.
      *
      * @param moduleId The module ID
      * @param task The task to run
+     * @throws RejectedExecutionException If the module's queue is full
      */
     public void runTaskWithExecutor(String moduleId, Runnable task) {
-        ExecutorService executor = moduleExecutors.computeIfAbsent(moduleId, k -> Executors.newCachedThreadPool(r -> {
-            Thread thread = new Thread(r);
-            thread.setName("Module-" + moduleId + "-" + thread.threadId());
-            return thread;
-        }));
-        
-        executor.submit(() -> {
+        moduleExecutor.execute(moduleId, () -> {
             try {
                 task.run();
             } catch (Exception e) {
@@ -96,6 +149,37 @@ public class ThreadManager {
         });
     }
 
+    /**
+     * Sets the share of the module pool for a module.
+     *
+     * @param moduleId The module ID
+     * @param weight The share of worker time relative to other modules
+     * @param maxConcurrency The maximum number of concurrently running tasks
+     * @param queueLimit The maximum number of queued tasks
+     */
+    public void setModuleLimits(String moduleId, int weight, int maxConcurrency, int queueLimit) {
+        moduleExecutor.setLimits(moduleId, weight, maxConcurrency, queueLimit);
+    }
+
+    /**
+     * Gets queue wait and run time statistics of a module in the module pool.
+     *
+     * @param moduleId The module ID
+     * @return The statistics
+     */
+    public Map<String, Object> getModuleStatistics(String moduleId) {
+        return moduleExecutor.getModuleStatistics(moduleId);
+    }
+
+    /**
+     * Gets queue wait and run time statistics of all modules in the module pool.
+     *
+     * @return The statistics per module
+     */
+    public Map<String, Map<String, Object>> getModuleStatistics() {
+        return moduleExecutor.getStatistics();
+    }
+
     /**
      * Runs a task on the main server thread.
      *
@@ -119,6 +203,44 @@ public class ThreadManager {
         return taskId;
     }
 
+    /**
+     * Runs a task on the main server thread within the per-tick time budget.
+     * If the budget of the current tick is used up, the task runs in a later tick.
+     *
+     * @param moduleId The module ID
+     * @param task The task to run
+     * @param priority The priority relative to other waiting main thread work
+     * @return A future completed after the task ran
+     */
+    public CompletableFuture<Void> runTaskBudgeted(String moduleId, Runnable task, TaskPriority priority) {
+        return getMainThreadScheduler().submit(moduleId, priority, task);
+    }
+
+    /**
+     * Runs a long job on the main server thread in slices spread across ticks.
+     *
+     * @param moduleId The module ID
+     * @param slice The job, returning true while more slices remain
+     * @param priority The priority relative to other waiting main thread work
+     * @return A future completed after the last slice
+     */
+    public CompletableFuture<Void> runSliced(String moduleId, MainThreadScheduler.Slice slice, TaskPriority priority) {
+        return getMainThreadScheduler().submitSliced(moduleId, priority, slice);
+    }
+
+    /**
+     * Gets the shared budgeted main thread scheduler passed at construction.
+     *
+     * @return The scheduler
+     * @throws IllegalStateException If this manager was created without one
+     */
+    public MainThreadScheduler getMainThreadScheduler() {
+        if (mainThreadScheduler == null) {
+            throw new IllegalStateException("Cannot schedule main thread job: no shared scheduler configured");
+        }
+        return mainThreadScheduler;
+    }
+
     /**
      * Runs a task after a delay.
      *
@@ -265,17 +387,22 @@ public class ThreadManager {
      * @return The number of tasks cancelled
      */
     public int cancelTasks(String moduleId) {
+        // Drop tasks still queued in the module pool and the main thread budget
+        int count = moduleExecutor.drain(moduleId).size();
+        if (mainThreadScheduler != null) {
+            count += mainThreadScheduler.cancelModule(moduleId);
+        }
+        
         Map<Integer, BukkitTask> tasks = moduleTasks.get(moduleId);
         if (tasks != null) {
-            int count = tasks.size();
+            count += tasks.size();
             tasks.forEach((id, task) -> {
                 task.cancel();
                 taskOwners.remove(id);
             });
             tasks.clear();
-            return count;
         }
-        return 0;
+        return count;
     }
 
     /**
@@ -289,13 +416,17 @@ public class ThreadManager {
     public <T> CompletableFuture<T> supplyAsync(String moduleId, Supplier<T> supplier) {
         CompletableFuture<T> future = new CompletableFuture<>();
         
-        runTaskAsync(moduleId, () -> {
-            try {
-                future.complete(supplier.get());
-            } catch (Exception e) {
-                future.completeExceptionally(e);
-            }
-        });
+        try {
+            moduleExecutor.execute(moduleId, () -> {
+                try {
+                    future.complete(supplier.get());
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
         
         return future;
     }
@@ -312,16 +443,14 @@ public class ThreadManager {
         // Shutdown executor services
         executorService.shutdown();
         scheduledExecutorService.shutdown();
-        moduleExecutors.values().forEach(ExecutorService::shutdown);
+        moduleExecutor.shutdown();
         
         // Try to await termination
         try {
             executorService.awaitTermination(5, TimeUnit.SECONDS);
             scheduledExecutorService.awaitTermination(5, TimeUnit.SECONDS);
             
-            for (ExecutorService executor : moduleExecutors.values()) {
-                executor.awaitTermination(2, TimeUnit.SECONDS);
-            }
+            moduleExecutor.awaitTermination(2, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
@@ -329,21 +458,18 @@ public class ThreadManager {
         // Force shutdown if needed
         executorService.shutdownNow();
         scheduledExecutorService.shutdownNow();
-        moduleExecutors.values().forEach(ExecutorService::shutdownNow);
+        moduleExecutor.shutdownNow();
     }
 
     /**
      * Gets the executor service for a module.
+     * The executor queues into the module's share of the shared module pool.
      *
      * @param moduleId The module ID
      * @return The executor service
      */
     public ExecutorService getModuleExecutor(String moduleId) {
-        return moduleExecutors.computeIfAbsent(moduleId, k -> Executors.newCachedThreadPool(r -> {
-            Thread thread = new Thread(r);
-            thread.setName("Module-" + moduleId + "-" + thread.threadId());
-            return thread;
-        }));
+        return moduleExecutor.executorFor(moduleId);
     }
 
     /**
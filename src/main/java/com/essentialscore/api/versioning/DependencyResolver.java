@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -170,6 +171,75 @@ public class DependencyResolver {
         return new ResolutionResult(loadOrder, missingDependencies, circularDependencies, versionConflicts);
     }
     
+    /**
+     * Groups modules into load levels. Every module only depends on modules of
+     * earlier levels, so all modules within one level can be loaded concurrently.
+     * Optional dependencies are honoured if the dependency is part of the given list.
+     * Modules taking part in a cycle are placed together in a final level.
+     * 
+     * @param modules List of modules to group
+     * @return The load levels, dependencies first
+     */
+    public List<List<ModuleInfo>> computeLoadLevels(List<ModuleInfo> modules) {
+        Map<String, ModuleInfo> moduleMap = new LinkedHashMap<>();
+        for (ModuleInfo module : modules) {
+            moduleMap.put(module.getName(), module);
+        }
+        
+        // Count unresolved dependencies and remember the reverse edges
+        Map<String, Integer> pending = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        for (ModuleInfo module : moduleMap.values()) {
+            Set<String> dependencies = new HashSet<>(module.getDependencies().keySet());
+            dependencies.addAll(module.getOptionalDependencies().keySet());
+            dependencies.remove(module.getName());
+            dependencies.retainAll(moduleMap.keySet());
+            
+            pending.put(module.getName(), dependencies.size());
+            for (String dependency : dependencies) {
+                dependents.computeIfAbsent(dependency, k -> new ArrayList<>()).add(module.getName());
+            }
+        }
+        
+        List<List<ModuleInfo>> levels = new ArrayList<>();
+        List<ModuleInfo> level = new ArrayList<>();
+        for (ModuleInfo module : moduleMap.values()) {
+            if (pending.get(module.getName()) == 0) {
+                level.add(module);
+            }
+        }
+        
+        // Peel off one level at a time (Kahn's algorithm)
+        int placed = 0;
+        while (!level.isEmpty()) {
+            levels.add(level);
+            placed += level.size();
+            
+            List<ModuleInfo> next = new ArrayList<>();
+            for (ModuleInfo module : level) {
+                for (String dependent : dependents.getOrDefault(module.getName(), Collections.emptyList())) {
+                    if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                        next.add(moduleMap.get(dependent));
+                    }
+                }
+            }
+            level = next;
+        }
+        
+        // Whatever is left is part of or depends on a cycle
+        if (placed < moduleMap.size()) {
+            List<ModuleInfo> cyclic = new ArrayList<>();
+            for (ModuleInfo module : moduleMap.values()) {
+                if (pending.get(module.getName()) > 0) {
+                    cyclic.add(module);
+                }
+            }
+            levels.add(cyclic);
+        }
+        
+        return levels;
+    }
+    
     /**
      * Detects circular dependencies in the dependency graph.
      * 
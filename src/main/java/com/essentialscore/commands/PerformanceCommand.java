@@ -1,6 +1,9 @@
 package com.essentialscore.commands;
 
 import com.essentialscore.ApiCore;
+import com.essentialscore.api.event.EventBus;
+import com.essentialscore.api.event.HandlerTiming;
+import com.essentialscore.api.event.SlowListenerReport;
 import com.essentialscore.api.language.LanguageManager;
 import com.essentialscore.utils.ClickableCommand;
 import org.bukkit.Bukkit;
@@ -15,6 +18,7 @@ import org.bukkit.entity.Player;
 
 import java.text.DecimalFormat;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,7 +35,7 @@ public class PerformanceCommand implements CommandExecutor, TabCompleter {
     
     // Performance-Aktionen (status und report entfernt)
     private final List<String> performanceActions = Arrays.asList(
-        "benchmark", "monitor", "clear", "help", "compare", "bossbar"
+        "benchmark", "monitor", "clear", "help", "compare", "bossbar", "listeners"
     );
     
     // BossBar Management
@@ -68,6 +72,9 @@ public class PerformanceCommand implements CommandExecutor, TabCompleter {
             case "bossbar":
                 handleBossBarCommand(sender, subArgs);
                 break;
+            case "listeners":
+                handleListenersCommand(sender, subArgs);
+                break;
             case "help":
                 showPerformanceHelp(sender);
                 break;
@@ -89,6 +96,10 @@ public class PerformanceCommand implements CommandExecutor, TabCompleter {
             return Arrays.asList("toggle", "config", "show", "hide").stream()
                 .filter(option -> option.startsWith(args[1].toLowerCase()))
                 .collect(Collectors.toList());
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("listeners")) {
+            return Arrays.asList("on", "off", "reset", "slow", "threshold").stream()
+                .filter(option -> option.startsWith(args[1].toLowerCase()))
+                .collect(Collectors.toList());
         }
         return Arrays.asList();
     }
@@ -330,6 +341,106 @@ public class PerformanceCommand implements CommandExecutor, TabCompleter {
         }, 0L, 20L); // Update jede Sekunde
     }
 
+    /**
+     * Zeigt und steuert die Laufzeitmessung der EventBus-Listener
+     */
+    private void handleListenersCommand(CommandSender sender, String[] args) {
+        EventBus eventBus = plugin.getEventBus();
+        if (eventBus == null) {
+            sender.sendMessage(lang.formatMessage("&c✗ &7EventBus is not available"));
+            return;
+        }
+        
+        String option = args.length > 0 ? args[0].toLowerCase() : "";
+        switch (option) {
+            case "on":
+                eventBus.setTimingsEnabled(true);
+                sender.sendMessage(lang.formatMessage("&a✓ &7Listener timings enabled"));
+                return;
+            case "off":
+                eventBus.setTimingsEnabled(false);
+                sender.sendMessage(lang.formatMessage("&a✓ &7Listener timings disabled"));
+                return;
+            case "reset":
+                eventBus.resetTimings();
+                sender.sendMessage(lang.formatMessage("&a✓ &7Listener timings reset"));
+                return;
+            case "threshold":
+                if (args.length < 2) {
+                    sender.sendMessage(lang.formatMessage("&7Slow listener threshold: &f" + df.format(eventBus.getSlowListenerThreshold()) + " ms"));
+                    return;
+                }
+                try {
+                    eventBus.setSlowListenerThreshold(Double.parseDouble(args[1]));
+                    sender.sendMessage(lang.formatMessage("&a✓ &7Slow listener threshold set to &f" + args[1] + " ms"));
+                } catch (NumberFormatException e) {
+                    sender.sendMessage(lang.formatMessage("&c✗ &7Invalid threshold: &f" + args[1]));
+                }
+                return;
+            case "slow":
+                showSlowListeners(sender, eventBus);
+                return;
+            default:
+                showListenerTimings(sender, eventBus);
+        }
+    }
+    
+    /**
+     * Zeigt die teuersten Listener nach Gesamtlaufzeit
+     */
+    private void showListenerTimings(CommandSender sender, EventBus eventBus) {
+        sender.sendMessage(lang.formatMessage("&6&l━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━"));
+        sender.sendMessage(lang.formatMessage("&6&l         ⏱ LISTENER TIMINGS"));
+        sender.sendMessage(lang.formatMessage("&6&l━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━"));
+        
+        sender.sendMessage(lang.formatMessage("&7Timings: " + (eventBus.isTimingsEnabled() ? "&aenabled" : "&cdisabled") +
+            " &7| Slow threshold: &f" + df.format(eventBus.getSlowListenerThreshold()) + " ms"));
+        
+        List<HandlerTiming> timings = eventBus.getHandlerTimings();
+        timings.sort(Comparator.comparingLong(HandlerTiming::getTotalNanos).reversed());
+        
+        int shown = 0;
+        for (HandlerTiming timing : timings) {
+            if (timing.getCount() == 0 || shown >= 10) {
+                continue;
+            }
+            shown++;
+            sender.sendMessage(lang.formatMessage("&e" + timing.getPlugin() + " &7" + timing.getListenerClass().substring(timing.getListenerClass().lastIndexOf('.') + 1) +
+                "#" + timing.getMethod() + " &8(" + timing.getEventType().substring(timing.getEventType().lastIndexOf('.') + 1) + ")"));
+            sender.sendMessage(lang.formatMessage("  &7calls: &f" + timing.getCount() +
+                " &7total: &f" + df.format(timing.getTotalNanos() / 1_000_000.0) + " ms" +
+                " &7avg: &f" + df.format(timing.getAverageNanos() / 1_000.0) + " µs" +
+                " &7p99: &f" + df.format(timing.getPercentileNanos(99) / 1_000.0) + " µs" +
+                " &7max: &f" + df.format(timing.getMaxNanos() / 1_000_000.0) + " ms" +
+                (timing.getSlowCount() > 0 ? " &cslow: " + timing.getSlowCount() : "")));
+        }
+        if (shown == 0) {
+            sender.sendMessage(lang.formatMessage("&7No listener timings recorded"));
+        }
+        
+        ClickableCommand.sendHelpMessage(sender, "/apicore performance listeners " + (eventBus.isTimingsEnabled() ? "off" : "on"), "Toggle listener timings");
+        ClickableCommand.sendHelpMessage(sender, "/apicore performance listeners slow", "Show slow listener reports");
+        sender.sendMessage(lang.formatMessage("&6&l━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━"));
+    }
+    
+    /**
+     * Zeigt die zuletzt erkannten langsamen Listener
+     */
+    private void showSlowListeners(CommandSender sender, EventBus eventBus) {
+        List<SlowListenerReport> reports = eventBus.getSlowListenerReports();
+        if (reports.isEmpty()) {
+            sender.sendMessage(lang.formatMessage("&a✓ &7No slow listeners recorded"));
+            return;
+        }
+        
+        sender.sendMessage(lang.formatMessage("&6Slow listeners (last " + Math.min(10, reports.size()) + "):"));
+        for (int i = reports.size() - 1; i >= Math.max(0, reports.size() - 10); i--) {
+            SlowListenerReport report = reports.get(i);
+            sender.sendMessage(lang.formatMessage("&c" + df.format(report.getDurationNanos() / 1_000_000.0) + " ms &7" +
+                report.getHandler().getName() + " &8← " + report.getEventType()));
+        }
+    }
+    
     /**
      * Vergleicht Benchmarks
      */
@@ -367,6 +478,7 @@ public class PerformanceCommand implements CommandExecutor, TabCompleter {
         ClickableCommand.sendHelpMessage(sender, "/performance bossbar", "Configure BossBar");
         ClickableCommand.sendHelpMessage(sender, "/performance compare", "Compare benchmarks");
         ClickableCommand.sendHelpMessage(sender, "/performance clear", "Clear data");
+        ClickableCommand.sendHelpMessage(sender, "/performance listeners", "Event listener timings");
         
         sender.sendMessage(lang.formatMessage("&6&l━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━"));
     }
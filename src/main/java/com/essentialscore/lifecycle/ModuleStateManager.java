@@ -8,19 +8,26 @@ import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.concurrent.TimeUnit;
@@ -44,7 +51,13 @@ public class ModuleStateManager {
     private final Map<String, Module> moduleInstances;
     private final Map<String, FileConfiguration> moduleConfigs;
     private final Map<String, Lock> moduleLocks;
+    private final Map<String, Set<String>> moduleDependencies;
+    private final ExecutorService transitionExecutor;
+    private final Set<String> hungTransitions;
+    private volatile Function<String, Module> hotSwapHandler;
     private static final int MAX_HISTORY_SIZE = 10;
+    private static final Set<ModuleState> SHUTDOWN_STATES = EnumSet.of(
+        ModuleState.DISABLING, ModuleState.DISABLED, ModuleState.UNLOADING, ModuleState.UNLOADED);
     private static final long STATE_TRANSITION_TIMEOUT = 30000; // 30 Sekunden
     private static final Map<ModuleState, Set<ModuleState>> VALID_TRANSITIONS;
 
@@ -106,6 +119,9 @@ public class ModuleStateManager {
         this.moduleInstances = new ConcurrentHashMap<>();
         this.moduleConfigs = new ConcurrentHashMap<>();
         this.moduleLocks = new ConcurrentHashMap<>();
+        this.moduleDependencies = new ConcurrentHashMap<>();
+        this.transitionExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        this.hungTransitions = ConcurrentHashMap.newKeySet();
         
         // Create formatter for nice console output
         String rawPrefix = "&8[&6&lStateManager&8]";
@@ -140,10 +156,52 @@ public class ModuleStateManager {
         moduleInstances.put(moduleName, module);
         moduleStates.put(moduleName, ModuleState.DISCOVERED);
         moduleLocks.put(moduleName, new ReentrantLock());
+        stateHistory.put(moduleName, Collections.synchronizedList(new ArrayList<>()));
         
         return true;
     }
     
+    /**
+     * Registers a module together with the modules it depends on.
+     * Dependencies order the module in batch transitions.
+     *
+     * @param moduleName The name of the module
+     * @param module The module instance
+     * @param dependencies The names of the modules this module depends on
+     * @return true if the module was registered, false if it was already registered
+     */
+    public boolean registerModule(String moduleName, Module module, Set<String> dependencies) {
+        if (!registerModule(moduleName, module)) {
+            return false;
+        }
+        setDependencies(moduleName, dependencies);
+        return true;
+    }
+    
+    /**
+     * Sets the modules a module depends on.
+     *
+     * @param moduleName The name of the module
+     * @param dependencies The names of the modules this module depends on
+     */
+    public void setDependencies(String moduleName, Set<String> dependencies) {
+        if (dependencies == null || dependencies.isEmpty()) {
+            moduleDependencies.remove(moduleName);
+        } else {
+            moduleDependencies.put(moduleName, Collections.unmodifiableSet(new HashSet<>(dependencies)));
+        }
+    }
+    
+    /**
+     * Gets the modules a module depends on.
+     *
+     * @param moduleName The name of the module
+     * @return The dependencies, empty if none are known
+     */
+    public Set<String> getDependencies(String moduleName) {
+        return moduleDependencies.getOrDefault(moduleName, Collections.emptySet());
+    }
+    
     /**
      * Gets the current state of a module.
      *
@@ -166,7 +224,13 @@ public class ModuleStateManager {
      * @return The previous state, or null if the module has no previous state
      */
     public ModuleState getPreviousState(String moduleName) {
-        return stateHistory.get(moduleName).size() > 1 ? stateHistory.get(moduleName).get(stateHistory.get(moduleName).size() - 2) : null;
+        List<ModuleState> history = stateHistory.get(moduleName);
+        if (history == null) {
+            return null;
+        }
+        synchronized (history) {
+            return history.size() > 1 ? history.get(history.size() - 2) : null;
+        }
     }
     
     /**
@@ -316,6 +380,53 @@ public class ModuleStateManager {
      * @return true if the transition was successful, false otherwise
      */
     public boolean transitionToState(String moduleName, ModuleState targetState) {
+        Lock lock = moduleLocks.get(moduleName);
+        if (lock == null) {
+            console.error("No lock found for module: " + moduleName);
+            return false;
+        }
+
+        if (targetState == ModuleState.RELOADING) {
+            // Das Neuladen sperrt selbst und gibt die Sperre während eines Hot-Swaps frei
+            return reloadModule(moduleName);
+        }
+
+        // Die Sperre gilt für den gesamten mehrstufigen Übergang, die einzelnen Schritte sperren reentrant
+        lock.lock();
+        try {
+            if (targetState == ModuleState.ERROR) {
+                return markError(moduleName);
+            }
+            return transitionToStateLocked(moduleName, targetState);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Setzt ein Modul in den Fehlerzustand, während die Sperre des Moduls gehalten wird.
+     */
+    private boolean markError(String moduleName) {
+        ModuleState currentState = moduleStates.get(moduleName);
+        if (currentState == null) {
+            console.error("No state found for module: " + moduleName);
+            return false;
+        }
+        if (currentState != ModuleState.ERROR) {
+            moduleStates.put(moduleName, ModuleState.ERROR);
+            stateTransitionTimes.put(moduleName, System.currentTimeMillis());
+            logStateChange(moduleName, currentState, ModuleState.ERROR);
+            transitionQueue.offer(new StateTransitionEvent(
+                moduleName, currentState, ModuleState.ERROR, System.currentTimeMillis()
+            ));
+        }
+        return true;
+    }
+    
+    /**
+     * Führt einen Übergang aus, während die Sperre des Moduls gehalten wird.
+     */
+    private boolean transitionToStateLocked(String moduleName, ModuleState targetState) {
         ModuleState currentState = moduleStates.get(moduleName);
         if (currentState == null) {
             console.error("No state found for module: " + moduleName);
@@ -356,7 +467,7 @@ public class ModuleStateManager {
                 if (currentState.isLoaded()) {
                     // First disable if necessary
                     if (currentState.isActive()) {
-                        if (!transitionToState(moduleName, ModuleState.DISABLED)) {
+                        if (!transitionToStateLocked(moduleName, ModuleState.DISABLED)) {
                             return false;
                         }
                     }
@@ -407,12 +518,6 @@ public class ModuleStateManager {
                 }
                 break;
                 
-            case ERROR:
-                // Any state can transition to ERROR
-                moduleStates.put(moduleName, ModuleState.ERROR);
-                logStateChange(moduleName, currentState, ModuleState.ERROR);
-                return true;
-                
             case LOADING:
                 if (currentState == ModuleState.DISCOVERED || currentState == ModuleState.UNLOADED) {
                     return transitionToNextState(moduleName);
@@ -449,12 +554,6 @@ public class ModuleStateManager {
                 }
                 break;
                 
-            case RELOADING:
-                if (currentState == ModuleState.ENABLED || currentState == ModuleState.ERROR) {
-                    moduleStates.put(moduleName, ModuleState.RELOADING);
-                    return reloadModule(moduleName);
-                }
-                break;
         }
         
         // For other cases, just move one state at a time until we reach the target
@@ -475,7 +574,141 @@ public class ModuleStateManager {
     }
     
     /**
-     * Reloads a module, applying new configuration if available.
+     * Transitions several modules to a state in parallel.
+     * Each module runs its own transition under its own lock, so a slow {@code onEnable}
+     * or {@code onDisable} only delays the modules that depend on it. When moving towards
+     * an active state a module waits for its dependencies in the batch, when shutting down
+     * it waits for the modules in the batch that depend on it. If a module it waits for
+     * fails, the module is not transitioned and its result reports the failed dependency.
+     *
+     * @param moduleNames The modules to transition
+     * @param targetState The target state
+     * @return A future per module, completing with the outcome and timings of its transition
+     */
+    public Map<String, CompletableFuture<TransitionResult>> transitionAll(Set<String> moduleNames, ModuleState targetState) {
+        return transitionAll(moduleNames, targetState, transitionExecutor);
+    }
+    
+    /**
+     * Transitions several modules to a state in parallel on the given executor.
+     *
+     * @param moduleNames The modules to transition
+     * @param targetState The target state
+     * @param executor The executor running the individual transitions
+     * @return A future per module, completing with the outcome and timings of its transition
+     * @see #transitionAll(Set, ModuleState)
+     */
+    public Map<String, CompletableFuture<TransitionResult>> transitionAll(Set<String> moduleNames, ModuleState targetState,
+                                                                         Executor executor) {
+        boolean shutdown = SHUTDOWN_STATES.contains(targetState);
+        long batchStart = System.nanoTime();
+        
+        // Wartekanten innerhalb des Batches: beim Hochfahren die Abhängigkeiten, beim Herunterfahren die Abhängigen
+        Map<String, Set<String>> waitsFor = new LinkedHashMap<>();
+        for (String moduleName : moduleNames) {
+            waitsFor.put(moduleName, new HashSet<>());
+        }
+        for (String moduleName : moduleNames) {
+            for (String dependency : getDependencies(moduleName)) {
+                if (!waitsFor.containsKey(dependency) || dependency.equals(moduleName)) {
+                    continue;
+                }
+                if (shutdown) {
+                    waitsFor.get(dependency).add(moduleName);
+                } else {
+                    waitsFor.get(moduleName).add(dependency);
+                }
+            }
+        }
+        
+        Map<String, CompletableFuture<TransitionResult>> futures = new LinkedHashMap<>();
+        Set<String> visiting = new HashSet<>();
+        for (String moduleName : moduleNames) {
+            scheduleTransition(moduleName, targetState, waitsFor, futures, visiting, executor, batchStart);
+        }
+        return futures;
+    }
+    
+    /**
+     * Legt den Future eines Moduls an, nachdem die Futures aller Module angelegt wurden, auf die es wartet.
+     */
+    private CompletableFuture<TransitionResult> scheduleTransition(String moduleName, ModuleState targetState,
+                                                                   Map<String, Set<String>> waitsFor,
+                                                                   Map<String, CompletableFuture<TransitionResult>> futures,
+                                                                   Set<String> visiting, Executor executor, long batchStart) {
+        CompletableFuture<TransitionResult> existing = futures.get(moduleName);
+        if (existing != null) {
+            return existing;
+        }
+        
+        if (!visiting.add(moduleName)) {
+            // Zyklische Abhängigkeit: das Modul wird nicht umgeschaltet
+            CompletableFuture<TransitionResult> cyclic = CompletableFuture.completedFuture(new TransitionResult(
+                moduleName, moduleStates.get(moduleName), targetState, false, "Cyclic dependency", 0L, 0L));
+            futures.put(moduleName, cyclic);
+            return cyclic;
+        }
+        
+        List<CompletableFuture<TransitionResult>> prerequisites = new ArrayList<>();
+        for (String other : waitsFor.get(moduleName)) {
+            prerequisites.add(scheduleTransition(other, targetState, waitsFor, futures, visiting, executor, batchStart));
+        }
+        visiting.remove(moduleName);
+        
+        // Ein Zyklus kann diesen Future bereits angelegt haben
+        existing = futures.get(moduleName);
+        if (existing != null) {
+            return existing;
+        }
+        
+        CompletableFuture<TransitionResult> future = CompletableFuture
+            .allOf(prerequisites.toArray(new CompletableFuture[0]))
+            .thenApplyAsync(ignored -> {
+                long start = System.nanoTime();
+                ModuleState fromState = moduleStates.get(moduleName);
+                
+                for (CompletableFuture<TransitionResult> prerequisite : prerequisites) {
+                    TransitionResult result = prerequisite.join();
+                    if (!result.isSuccess()) {
+                        return new TransitionResult(moduleName, fromState, fromState, false,
+                            "Waiting for " + result.getModuleName() + " failed", start - batchStart, 0L);
+                    }
+                }
+                
+                boolean success;
+                String error = null;
+                try {
+                    success = transitionToState(moduleName, targetState);
+                } catch (RuntimeException e) {
+                    success = false;
+                    error = e.getMessage();
+                    logger.log(Level.SEVERE, "Module transition error", e);
+                }
+                if (!success && error == null) {
+                    error = "Transition to " + targetState.name() + " failed";
+                }
+                return new TransitionResult(moduleName, fromState, moduleStates.get(moduleName), success, error,
+                    start - batchStart, System.nanoTime() - start);
+            }, executor);
+        
+        futures.put(moduleName, future);
+        return future;
+    }
+    
+    /**
+     * Sets the handler that reloads a module through the hot-swap path of the module manager.
+     * Without a handler, {@link #reloadModule(String)} only applies the new configuration.
+     *
+     * @param handler Swaps in a freshly loaded version of the module and returns its instance,
+     *                or null if the swap failed and the previous version stays active
+     */
+    public void setHotSwapHandler(Function<String, Module> handler) {
+        this.hotSwapHandler = handler;
+    }
+    
+    /**
+     * Reloads a module. With a hot-swap handler the module is replaced by a freshly loaded version,
+     * otherwise the new configuration is applied to the running instance.
      *
      * @param moduleName The name of the module
      * @return true if the reload was successful, false otherwise
@@ -487,6 +720,8 @@ public class ModuleStateManager {
             return false;
         }
         
+        Function<String, Module> handler = hotSwapHandler;
+        ModuleState currentState;
         lock.lock();
         try {
             Module module = moduleInstances.get(moduleName);
@@ -495,8 +730,10 @@ public class ModuleStateManager {
                 return false;
             }
             
-            ModuleState currentState = moduleStates.get(moduleName);
-            if (currentState == null || !currentState.isLoaded()) {
+            currentState = moduleStates.get(moduleName);
+            // Ein Modul im Fehlerzustand kann nur durch eine neue Version ersetzt werden
+            boolean swappable = currentState == ModuleState.ERROR && handler != null;
+            if (currentState == null || !(currentState.isLoaded() || swappable)) {
                 console.error("Module " + moduleName + " is not in a loadable state: " + currentState);
                 return false;
             }
@@ -504,33 +741,71 @@ public class ModuleStateManager {
             // Set state to reloading
             moduleStates.put(moduleName, ModuleState.RELOADING);
             
-            try {
-                // Reload configuration
-                FileConfiguration config = loadModuleConfig(moduleName);
-                moduleConfigs.put(moduleName, config);
-                
-                // Call reload hook
-                boolean success = module.onReload(config);
-                
-                if (success) {
-                    // Set state back to what it was
-                    moduleStates.put(moduleName, currentState);
-                    console.info("Successfully reloaded module: " + moduleName);
-                } else {
-                    moduleStates.put(moduleName, ModuleState.ERROR);
-                    console.error("Module " + moduleName + " reported reload failure");
-                }
-                
-                return success;
-            } catch (Throwable t) {
-                 console.error("Error reloading module " + moduleName);
-                 logger.log(Level.SEVERE, "Module reload error", t);
-                 moduleStates.put(moduleName, ModuleState.ERROR);
-                return false;
+            if (handler == null) {
+                return reloadConfigLocked(moduleName, module, currentState);
             }
         } finally {
             lock.unlock();
         }
+        
+        // Der Austausch läuft ohne Sperre: er entlädt und aktiviert das Modul im Hauptthread,
+        // wo die Hooks der alten und neuen Version selbst Übergänge dieses Moduls auslösen
+        Module swapped;
+        try {
+            swapped = handler.apply(moduleName);
+        } catch (Throwable t) {
+            logger.log(Level.SEVERE, "Module hot swap error", t);
+            swapped = null;
+        }
+        
+        lock.lock();
+        try {
+            if (swapped != null) {
+                moduleInstances.put(moduleName, swapped);
+                ModuleState newState = currentState == ModuleState.ERROR ? ModuleState.ENABLED : currentState;
+                moduleStates.put(moduleName, newState);
+                stateTransitionTimes.put(moduleName, System.currentTimeMillis());
+                logStateChange(moduleName, ModuleState.RELOADING, newState);
+                console.info("Successfully reloaded module: " + moduleName);
+                return true;
+            }
+            // Die vorherige Version bleibt aktiv
+            moduleStates.put(moduleName, currentState);
+            console.error("Hot swap of module " + moduleName + " failed, the previous version stays active");
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Wendet die neue Konfiguration auf die laufende Instanz an, während die Sperre gehalten wird.
+     */
+    private boolean reloadConfigLocked(String moduleName, Module module, ModuleState previousState) {
+        try {
+            // Reload configuration
+            FileConfiguration config = loadModuleConfig(moduleName);
+            moduleConfigs.put(moduleName, config);
+            
+            // Call reload hook
+            boolean success = module.onReload(config);
+            
+            if (success) {
+                // Set state back to what it was
+                moduleStates.put(moduleName, previousState);
+                console.info("Successfully reloaded module: " + moduleName);
+            } else {
+                moduleStates.put(moduleName, ModuleState.ERROR);
+                console.error("Module " + moduleName + " reported reload failure");
+            }
+            
+            return success;
+        } catch (Throwable t) {
+             console.error("Error reloading module " + moduleName);
+             logger.log(Level.SEVERE, "Module reload error", t);
+             moduleStates.put(moduleName, ModuleState.ERROR);
+            return false;
+        }
     }
     
     /**
@@ -626,6 +901,40 @@ public class ModuleStateManager {
         public long getTimestamp() { return timestamp; }
     }
 
+    /**
+     * Outcome of one module's transition in a batch.
+     */
+    public static class TransitionResult {
+        private final String moduleName;
+        private final ModuleState fromState;
+        private final ModuleState resultState;
+        private final boolean success;
+        private final String error;
+        private final long waitNanos;
+        private final long transitionNanos;
+
+        public TransitionResult(String moduleName, ModuleState fromState, ModuleState resultState,
+                                boolean success, String error, long waitNanos, long transitionNanos) {
+            this.moduleName = moduleName;
+            this.fromState = fromState;
+            this.resultState = resultState;
+            this.success = success;
+            this.error = error;
+            this.waitNanos = waitNanos;
+            this.transitionNanos = transitionNanos;
+        }
+
+        public String getModuleName() { return moduleName; }
+        public ModuleState getFromState() { return fromState; }
+        public ModuleState getResultState() { return resultState; }
+        public boolean isSuccess() { return success; }
+        public String getError() { return error; }
+        /** @return Time from the start of the batch until this module's transition began */
+        public long getWaitNanos() { return waitNanos; }
+        /** @return Time spent in this module's own transition */
+        public long getTransitionNanos() { return transitionNanos; }
+    }
+
     /**
      * Exception class for module state transitions.
      */
@@ -763,16 +1072,9 @@ public class ModuleStateManager {
                 
                 if (state.isTransitionalState()) {
                     Long transitionStart = stateTransitionTimes.get(moduleName);
-                    if (transitionStart != null && 
+                    if (transitionStart != null &&
                         (currentTime - transitionStart) > STATE_TRANSITION_TIMEOUT) {
-                        
-                        logger.severe(String.format(
-                            "Zustandsübergang-Timeout für Modul %s im Zustand %s",
-                            moduleName, state
-                        ));
-                        
-                        // Versuch, das Modul in einen sicheren Zustand zu bringen
-                        transitionToState(moduleName, ModuleState.ERROR);
+                        markTimedOut(moduleName, state);
                     }
                 }
             }
@@ -781,6 +1083,40 @@ public class ModuleStateManager {
         }
     }
 
+    /**
+     * Setzt ein Modul nach einem Timeout in den Fehlerzustand. Hält ein hängender Übergang die Sperre
+     * noch, wird das nur einmal gemeldet und beim nächsten Durchlauf erneut versucht.
+     */
+    private void markTimedOut(String moduleName, ModuleState state) {
+        Lock lock = moduleLocks.get(moduleName);
+        if (lock == null) {
+            return;
+        }
+        if (!lock.tryLock()) {
+            if (hungTransitions.add(moduleName)) {
+                logger.severe(String.format(
+                    "Zustandsübergang-Timeout für Modul %s im Zustand %s, der Übergang blockiert noch",
+                    moduleName, state
+                ));
+            }
+            return;
+        }
+        try {
+            hungTransitions.remove(moduleName);
+            // Der Übergang kann inzwischen abgeschlossen sein
+            if (moduleStates.get(moduleName) != state) {
+                return;
+            }
+            logger.severe(String.format(
+                "Zustandsübergang-Timeout für Modul %s im Zustand %s",
+                moduleName, state
+            ));
+            markError(moduleName);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Protokolliert einen Zustandsübergang in der Historie.
      */
@@ -812,6 +1148,7 @@ public class ModuleStateManager {
      * Bereinigt Ressourcen beim Herunterfahren.
      */
     public void shutdown() {
+        transitionExecutor.shutdown();
         stateMonitor.shutdown();
         try {
             if (!stateMonitor.awaitTermination(5, TimeUnit.SECONDS)) {
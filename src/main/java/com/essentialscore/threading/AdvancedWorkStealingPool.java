@@ -1,28 +1,53 @@
 package com.essentialscore.threading;
 
+import java.lang.ref.WeakReference;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Ein erweiterter Work-Stealing-Thread-Pool mit priorisierter Task-Ausführung,
  * vorgeheizten Threads und dynamischer Ressourcenanpassung.
+ * <p>
+ * Von außen übermittelte Aufgaben landen in einer Warteschlange je {@link TaskPriority}.
+ * Für jede Aufgabe wird nur ein Platzhalter in den ForkJoinPool gestellt; erst wenn ein Worker
+ * ihn ausführt, wird entschieden, welche Aufgabe tatsächlich läuft. Die Warteschlangen werden
+ * strikt nach Priorität bedient, kritische Arbeit überholt also immer. Damit niedrige Prioritäten
+ * nicht verhungern, altern sie: Wartet der Kopf einer Warteschlange länger als deren Höchstwartezeit,
+ * wird sie vor alle nicht gealterten Warteschlangen gezogen (unter mehreren gealterten gewinnt die am
+ * längsten überfällige).
+ * Aufgaben, die von Workern dieses Pools übermittelt oder geforkt werden, bleiben in der lokalen
+ * Deque des Workers und werden weiterhin per Work-Stealing verteilt.
  */
 public class AdvancedWorkStealingPool extends ForkJoinPool {
+    /** Höchstwartezeit je Priorität bis zur Alterung, indiziert über {@link TaskPriority#getValue()} */
+    private static final long[] MAX_WAIT_NANOS = {
+            TimeUnit.MILLISECONDS.toNanos(1000),
+            TimeUnit.MILLISECONDS.toNanos(250),
+            TimeUnit.MILLISECONDS.toNanos(50),
+            Long.MAX_VALUE
+    };
+    /** Obergrenze getrennt erfasster Task-Klassen, weitere landen unter {@link #OTHER_TASK_TYPES} */
+    private static final int MAX_TRACKED_TASK_TYPES = 128;
+    private static final String OTHER_TASK_TYPES = Object.class.getName();
+    
     private final Logger logger;
     private final ScheduledExecutorService healthMonitor;
-    private final ConcurrentHashMap<Class<?>, TaskStatistics> taskStats = new ConcurrentHashMap<>();
+    // Nach Klassenname statt Class-Objekt, damit die Statistik keine Modul-ClassLoader festhält
+    private final ConcurrentHashMap<String, TaskStatistics> taskStats = new ConcurrentHashMap<>();
     private final AtomicInteger overloadCount = new AtomicInteger(0);
     private volatile boolean isShuttingDown = false;
     private final AtomicInteger activeTaskCount = new AtomicInteger(0);
-    private final AtomicInteger totalTasksSubmitted = new AtomicInteger(0);
-    private final ConcurrentHashMap<String, Long> taskExecutionTimes = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, AtomicInteger> taskTypeCounter = new ConcurrentHashMap<>();
+    private final LongAdder totalTasksSubmitted = new LongAdder();
     private final boolean monitoringEnabled;
+    private final PriorityLane[] lanes = createLanes();
     
     /**
      * Erstellt einen neuen optimierten Work-Stealing-Thread-Pool.
@@ -75,7 +100,7 @@ public class AdvancedWorkStealingPool extends ForkJoinPool {
         CountDownLatch latch = new CountDownLatch(warmupTasks);
         
         for (int i = 0; i < warmupTasks; i++) {
-            execute(() -> {
+            super.execute(() -> {
                 try {
                     // JIT-Warming für Threadpool-Kernfunktionen
                     Thread.sleep(1);
@@ -125,9 +150,11 @@ public class AdvancedWorkStealingPool extends ForkJoinPool {
                 
                 // Ausgabe der Task-Statistiken
                 if (logger.isLoggable(Level.FINER)) {
-                    taskStats.forEach((cls, stats) -> {
-                        logger.finer(String.format("Task [%s]: Count=%d, AvgTime=%.2fms, MaxTime=%.2fms",
-                                cls.getSimpleName(), stats.getCount(), stats.getAverageTimeMs(), stats.getMaxTimeMs()));
+                    taskStats.forEach((name, stats) -> {
+                        LatencyHistogram.Snapshot snapshot = stats.execution.snapshot();
+                        logger.finer(String.format("Task [%s]: Count=%d, AvgTime=%.2fms, P99=%.2fms, MaxTime=%.2fms",
+                                name.substring(name.lastIndexOf('.') + 1), snapshot.getCount(), snapshot.getMeanNanos() / 1_000_000.0,
+                                snapshot.getPercentileNanos(99) / 1_000_000.0, snapshot.getMaxNanos() / 1_000_000.0));
                     });
                 }
                 
@@ -152,15 +179,15 @@ public class AdvancedWorkStealingPool extends ForkJoinPool {
     }
     
     /**
-     * Übermittelt eine Aufgabe zum Ausführen
+     * Übermittelt eine Aufgabe zum Ausführen. Ein {@link PrioritizedTask} wird mit seiner
+     * Priorität eingereiht, alle anderen Aufgaben mit {@link TaskPriority#NORMAL}.
      * 
      * @param task Die auszuführende Aufgabe
      * @return Ein Future-Objekt für das Ergebnis
      */
     @Override
     public <T> ForkJoinTask<T> submit(ForkJoinTask<T> task) {
-        trackTaskSubmission(task);
-        return super.submit(task);
+        return enqueue(task, priorityOf(task), taskTypeOf(task));
     }
     
     /**
@@ -171,8 +198,7 @@ public class AdvancedWorkStealingPool extends ForkJoinPool {
      */
     @Override
     public ForkJoinTask<?> submit(Runnable task) {
-        trackTaskSubmission(task);
-        return super.submit(task);
+        return enqueue(ForkJoinTask.adapt(task), TaskPriority.NORMAL, task.getClass());
     }
     
     /**
@@ -184,8 +210,7 @@ public class AdvancedWorkStealingPool extends ForkJoinPool {
      */
     @Override
     public <T> ForkJoinTask<T> submit(Runnable task, T result) {
-        trackTaskSubmission(task);
-        return super.submit(task, result);
+        return enqueue(ForkJoinTask.adapt(task, result), TaskPriority.NORMAL, task.getClass());
     }
     
     /**
@@ -196,27 +221,243 @@ public class AdvancedWorkStealingPool extends ForkJoinPool {
      */
     @Override
     public <T> ForkJoinTask<T> submit(Callable<T> task) {
-        trackTaskSubmission(task);
-        return super.submit(task);
+        return enqueue(ForkJoinTask.adapt(task), TaskPriority.NORMAL, task.getClass());
+    }
+    
+    /**
+     * Übermittelt eine Runnable-Aufgabe mit einer bestimmten Priorität
+     * 
+     * @param task Die auszuführende Runnable-Aufgabe
+     * @param priority Die Priorität
+     * @return Ein Future-Objekt
+     */
+    public ForkJoinTask<?> submit(Runnable task, TaskPriority priority) {
+        return submit(new PrioritizedTask<Void>(task, priority));
+    }
+    
+    /**
+     * Übermittelt eine Callable-Aufgabe mit einer bestimmten Priorität
+     * 
+     * @param task Die auszuführende Callable-Aufgabe
+     * @param priority Die Priorität
+     * @return Ein Future-Objekt für das Ergebnis
+     */
+    public <T> ForkJoinTask<T> submit(Callable<T> task, TaskPriority priority) {
+        return submit(new PrioritizedTask<>(task, priority));
+    }
+    
+    /**
+     * Übermittelt eine Runnable-Aufgabe, deren Statistiken unter einer eigenen Klasse geführt werden.
+     * Für Wrapper, die die eigentliche Aufgabe umschließen und sonst deren Lambda-Klasse melden würden.
+     * 
+     * @param task Die auszuführende Runnable-Aufgabe
+     * @param priority Die Priorität
+     * @param taskType Die Klasse, unter der die Statistiken geführt werden
+     * @return Ein Future-Objekt
+     */
+    public ForkJoinTask<?> submit(Runnable task, TaskPriority priority, Class<?> taskType) {
+        return submit(new PrioritizedTask<Void>(task, priority, taskType));
     }
     
     /**
-     * Verfolgt die Übermittlung einer Aufgabe
+     * Übermittelt eine Callable-Aufgabe, deren Statistiken unter einer eigenen Klasse geführt werden
      * 
-     * @param task Die übermittelte Aufgabe
+     * @param task Die auszuführende Callable-Aufgabe
+     * @param priority Die Priorität
+     * @param taskType Die Klasse, unter der die Statistiken geführt werden
+     * @return Ein Future-Objekt für das Ergebnis
+     */
+    public <T> ForkJoinTask<T> submit(Callable<T> task, TaskPriority priority, Class<?> taskType) {
+        return submit(new PrioritizedTask<>(task, priority, taskType));
+    }
+    
+    @Override
+    public void execute(ForkJoinTask<?> task) {
+        enqueue(task, priorityOf(task), taskTypeOf(task));
+    }
+    
+    @Override
+    public void execute(Runnable task) {
+        if (task instanceof ForkJoinTask<?>) {
+            execute((ForkJoinTask<?>) task);
+        } else {
+            enqueue(ForkJoinTask.adapt(task), TaskPriority.NORMAL, task.getClass());
+        }
+    }
+    
+    /**
+     * Bricht neben den laufenden Aufgaben auch alle noch eingereihten Aufgaben ab
      */
-    private void trackTaskSubmission(Object task) {
+    @Override
+    public List<Runnable> shutdownNow() {
+        isShuttingDown = true;
+        List<Runnable> dropped = super.shutdownNow();
+        for (PriorityLane lane : lanes) {
+            QueuedTask queued;
+            while ((queued = lane.queue.poll()) != null) {
+                lane.size.decrementAndGet();
+                activeTaskCount.decrementAndGet();
+                queued.task.cancel(false);
+            }
+        }
+        return dropped;
+    }
+    
+    @Override
+    public void shutdown() {
+        isShuttingDown = true;
+        super.shutdown();
+    }
+    
+    /**
+     * Reiht eine Aufgabe in die Warteschlange ihrer Priorität ein und stellt einen
+     * Platzhalter in den ForkJoinPool. Aufgaben aus eigenen Workern gehen direkt in deren Deque.
+     */
+    private <T> ForkJoinTask<T> enqueue(ForkJoinTask<T> task, TaskPriority priority, Class<?> taskType) {
+        Thread current = Thread.currentThread();
+        if (current instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) current).getPool() == this) {
+            // Teilaufgabe: lokal halten, damit Work-Stealing und join() effizient bleiben
+            super.execute(task);
+            return task;
+        }
+        
+        TaskStatistics stats = statisticsFor(taskType);
+        if (stats != null) {
+            stats.submitted.increment();
+        }
+        totalTasksSubmitted.increment();
         activeTaskCount.incrementAndGet();
-        totalTasksSubmitted.incrementAndGet();
         
-        if (monitoringEnabled) {
-            String taskType = task.getClass().getName();
-            taskTypeCounter.computeIfAbsent(taskType, k -> new AtomicInteger(0))
-                           .incrementAndGet();
-            
-            // Erstelle oder hole TaskStatistics für diesen Task-Typ
-            taskStats.computeIfAbsent(task.getClass(), k -> new TaskStatistics());
+        PriorityLane lane = lanes[priority.getValue()];
+        QueuedTask queued = new QueuedTask(task, stats, System.nanoTime());
+        lane.queue.add(queued);
+        lane.size.incrementAndGet();
+        try {
+            super.execute((Runnable) this::dispatchNext);
+        } catch (RejectedExecutionException e) {
+            if (lane.queue.remove(queued)) {
+                lane.size.decrementAndGet();
+                activeTaskCount.decrementAndGet();
+            }
+            throw e;
         }
+        return task;
+    }
+    
+    /**
+     * Wird von einem Platzhalter ausgeführt und startet die nächste Aufgabe nach
+     * {@link #selectLane(long)}. Da je eingereihter Aufgabe genau ein Platzhalter existiert,
+     * bleibt keine Aufgabe liegen.
+     */
+    private void dispatchNext() {
+        QueuedTask queued = null;
+        PriorityLane lane = null;
+        while (queued == null) {
+            lane = selectLane(System.nanoTime());
+            if (lane == null) {
+                return;
+            }
+            queued = lane.queue.poll();
+        }
+        lane.size.decrementAndGet();
+        long start = System.nanoTime();
+        lane.waitTimes.record(start - queued.enqueuedAt);
+        try {
+            queued.task.quietlyInvoke();
+        } finally {
+            activeTaskCount.decrementAndGet();
+            if (queued.stats != null) {
+                queued.stats.execution.record(System.nanoTime() - start);
+            }
+        }
+    }
+    
+    /**
+     * Wählt die höchste nicht leere Priorität. Eine Warteschlange, deren Kopf länger als ihre
+     * Höchstwartezeit wartet, hat Vorrang; unter mehreren gealterten die am längsten überfällige.
+     */
+    private PriorityLane selectLane(long now) {
+        PriorityLane highest = null;
+        PriorityLane aged = null;
+        long agedOverdue = -1;
+        for (int i = lanes.length - 1; i >= 0; i--) {
+            PriorityLane lane = lanes[i];
+            QueuedTask head = lane.queue.peek();
+            if (head == null) {
+                continue;
+            }
+            if (highest == null) {
+                highest = lane;
+            }
+            long overdue = (now - head.enqueuedAt) - lane.maxWaitNanos;
+            if (overdue > agedOverdue) {
+                agedOverdue = overdue;
+                aged = lane;
+            }
+        }
+        return aged != null ? aged : highest;
+    }
+    
+    private static TaskPriority priorityOf(ForkJoinTask<?> task) {
+        if (task instanceof PrioritizedTask<?>) {
+            TaskPriority priority = ((PrioritizedTask<?>) task).getPriority();
+            return priority != null ? priority : TaskPriority.NORMAL;
+        }
+        return TaskPriority.NORMAL;
+    }
+    
+    private static Class<?> taskTypeOf(ForkJoinTask<?> task) {
+        return task instanceof PrioritizedTask<?> ? ((PrioritizedTask<?>) task).getTaskType() : task.getClass();
+    }
+    
+    /**
+     * Holt die Statistik einer Task-Klasse. Der Normalfall ist ein einfacher Map-Zugriff ohne Allokation.
+     */
+    private TaskStatistics statisticsFor(Class<?> taskType) {
+        if (!monitoringEnabled) {
+            return null;
+        }
+        TaskStatistics stats = taskStats.get(taskType.getName());
+        if (stats == null) {
+            if (taskStats.size() < MAX_TRACKED_TASK_TYPES) {
+                stats = taskStats.computeIfAbsent(taskType.getName(), k -> new TaskStatistics(taskType.getClassLoader()));
+            } else {
+                stats = taskStats.computeIfAbsent(OTHER_TASK_TYPES, k -> new TaskStatistics(null));
+            }
+        }
+        return stats;
+    }
+    
+    private static PriorityLane[] createLanes() {
+        TaskPriority[] priorities = TaskPriority.values();
+        PriorityLane[] result = new PriorityLane[priorities.length];
+        for (TaskPriority priority : priorities) {
+            result[priority.getValue()] = new PriorityLane(priority, MAX_WAIT_NANOS[priority.getValue()]);
+        }
+        return result;
+    }
+    
+    /**
+     * Gibt die Anzahl der eingereihten, noch nicht gestarteten Aufgaben einer Priorität zurück
+     * 
+     * @param priority Die Priorität
+     * @return Anzahl wartender Aufgaben
+     */
+    public int getQueuedTaskCount(TaskPriority priority) {
+        return lanes[priority.getValue()].size.get();
+    }
+    
+    /**
+     * Gibt Warteschlangen-Statistiken je Priorität zurück, höchste Priorität zuerst
+     * 
+     * @return Priorität und deren Statistiken (weight, queued sowie Wartezeit-Perzentile aus {@link LatencyHistogram.Snapshot#toMap()})
+     */
+    public Map<String, Map<String, Object>> getPriorityStatistics() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        for (int i = lanes.length - 1; i >= 0; i--) {
+            stats.put(lanes[i].priority.name(), lanes[i].getStatistics());
+        }
+        return stats;
     }
     
     /**
@@ -234,7 +475,7 @@ public class AdvancedWorkStealingPool extends ForkJoinPool {
      * @return Gesamtzahl der Aufgaben
      */
     public int getTotalTasksSubmitted() {
-        return totalTasksSubmitted.get();
+        return totalTasksSubmitted.intValue();
     }
     
     /**
@@ -248,14 +489,50 @@ public class AdvancedWorkStealingPool extends ForkJoinPool {
             return -1;
         }
         
-        Long totalTime = taskExecutionTimes.get(taskType);
-        AtomicInteger count = taskTypeCounter.get(taskType);
-        
-        if (totalTime == null || count == null || count.get() == 0) {
+        TaskStatistics stats = taskStats.get(taskType);
+        if (stats == null) {
             return -1;
         }
+        LatencyHistogram.Snapshot snapshot = stats.execution.snapshot();
+        return snapshot.getCount() > 0 ? snapshot.getMeanNanos() / 1_000_000.0 : -1;
+    }
+    
+    /**
+     * Gibt Ausführungszeiten und Durchsatz je Task-Klasse zurück, häufigste zuerst.
+     * Erfasst werden alle über die Prioritäts-Warteschlangen gelaufenen Aufgaben.
+     * 
+     * @return Klassenname und Statistiken (submitted, count, throughputPerSec, avgMs, p50Ms, p99Ms, p999Ms, maxMs)
+     */
+    public Map<String, Map<String, Object>> getTaskStatistics() {
+        List<Map.Entry<String, Map<String, Object>>> entries = new java.util.ArrayList<>();
+        taskStats.forEach((name, stats) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("submitted", stats.submitted.sum());
+            values.putAll(stats.execution.snapshot().toMap());
+            entries.add(Map.entry(name, values));
+        });
+        entries.sort((a, b) -> Long.compare((Long) b.getValue().get("count"), (Long) a.getValue().get("count")));
         
-        return totalTime / (double) count.get();
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Object>> entry : entries) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+    
+    /**
+     * Entfernt die Statistiken aller Task-Klassen eines ClassLoaders, z.B. beim Entladen eines Moduls
+     * 
+     * @param loader Der ClassLoader des Moduls
+     * @return Anzahl entfernter Task-Klassen
+     */
+    public int removeTaskStatistics(ClassLoader loader) {
+        if (loader == null) {
+            return 0;
+        }
+        int before = taskStats.size();
+        taskStats.values().removeIf(stats -> stats.loader != null && stats.loader.get() == loader);
+        return before - taskStats.size();
     }
     
     /**
@@ -417,19 +694,16 @@ public class AdvancedWorkStealingPool extends ForkJoinPool {
     }
     
     /**
-     * Verfolgt die Beendigung einer Aufgabe mit Ausführungszeit
+     * Zeichnet die Ausführungszeit einer Aufgabe auf, die nicht über die Warteschlangen
+     * des Pools lief (z.B. geforkte Teilaufgaben). Eingereihte Aufgaben misst der Pool selbst.
      * 
      * @param task Die beendete Aufgabe
      * @param executionTimeMs Die Ausführungszeit in Millisekunden
      */
     public void trackTaskCompletion(Object task, double executionTimeMs) {
-        activeTaskCount.decrementAndGet();
-        
-        if (monitoringEnabled) {
-            TaskStatistics stats = taskStats.get(task.getClass());
-            if (stats != null) {
-                stats.recordExecution(executionTimeMs);
-            }
+        TaskStatistics stats = statisticsFor(task.getClass());
+        if (stats != null) {
+            stats.execution.record((long) (executionTimeMs * 1_000_000.0));
         }
     }
     
@@ -458,32 +732,51 @@ public class AdvancedWorkStealingPool extends ForkJoinPool {
      * Innere Klasse für Task-Statistiken.
      */
     static class TaskStatistics {
-        private final AtomicInteger count = new AtomicInteger(0);
-        private volatile double totalTimeMs = 0;
-        private volatile double maxTimeMs = 0;
+        private final LongAdder submitted = new LongAdder();
+        private final LatencyHistogram execution = new LatencyHistogram();
+        private final WeakReference<ClassLoader> loader;
         
-        public void recordExecution(double executionTimeMs) {
-            count.incrementAndGet();
-            totalTimeMs += executionTimeMs;
-            
-            synchronized (this) {
-                if (executionTimeMs > maxTimeMs) {
-                    maxTimeMs = executionTimeMs;
-                }
-            }
+        TaskStatistics(ClassLoader loader) {
+            this.loader = loader != null ? new WeakReference<>(loader) : null;
         }
-        
-        public int getCount() {
-            return count.get();
+    }
+    
+    /**
+     * Eine eingereihte Aufgabe mit Zeitpunkt der Übermittlung.
+     */
+    private static final class QueuedTask {
+        private final ForkJoinTask<?> task;
+        private final TaskStatistics stats;
+        private final long enqueuedAt;
+        
+        QueuedTask(ForkJoinTask<?> task, TaskStatistics stats, long enqueuedAt) {
+            this.task = task;
+            this.stats = stats;
+            this.enqueuedAt = enqueuedAt;
         }
-        
-        public double getAverageTimeMs() {
-            int currentCount = count.get();
-            return currentCount > 0 ? totalTimeMs / currentCount : 0;
+    }
+    
+    /**
+     * Warteschlange einer Priorität mit Wartezeit-Statistik.
+     */
+    private static final class PriorityLane {
+        private final TaskPriority priority;
+        private final long maxWaitNanos;
+        private final ConcurrentLinkedQueue<QueuedTask> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final LatencyHistogram waitTimes = new LatencyHistogram();
+        
+        PriorityLane(TaskPriority priority, long maxWaitNanos) {
+            this.priority = priority;
+            this.maxWaitNanos = maxWaitNanos;
         }
         
-        public double getMaxTimeMs() {
-            return maxTimeMs;
+        Map<String, Object> getStatistics() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("maxWaitMs", maxWaitNanos == Long.MAX_VALUE ? -1 : TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+            stats.put("queued", size.get());
+            stats.putAll(waitTimes.snapshot().toMap());
+            return stats;
         }
     }
     
@@ -514,18 +807,29 @@ public class AdvancedWorkStealingPool extends ForkJoinPool {
     public static class PrioritizedTask<V> extends RecursiveTask<V> {
         private final Runnable action;
         private final Callable<V> callable;
+        private final Class<?> taskType;
         private volatile TaskPriority priority = TaskPriority.NORMAL;
         
         public PrioritizedTask(Runnable action, TaskPriority priority) {
+            this(action, priority, null);
+        }
+        
+        public PrioritizedTask(Callable<V> callable, TaskPriority priority) {
+            this(callable, priority, null);
+        }
+        
+        public PrioritizedTask(Runnable action, TaskPriority priority, Class<?> taskType) {
             this.action = action;
             this.callable = null;
             this.priority = priority;
+            this.taskType = taskType;
         }
         
-        public PrioritizedTask(Callable<V> callable, TaskPriority priority) {
+        public PrioritizedTask(Callable<V> callable, TaskPriority priority, Class<?> taskType) {
             this.action = null;
             this.callable = callable;
             this.priority = priority;
+            this.taskType = taskType;
         }
         
         public void setPriority(TaskPriority priority) {
@@ -536,6 +840,18 @@ public class AdvancedWorkStealingPool extends ForkJoinPool {
             return priority;
         }
         
+        /**
+         * Gibt die Klasse der eigentlichen Aufgabe für Statistiken zurück
+         * 
+         * @return Die explizit angegebene Klasse, sonst die des Runnable bzw. Callable
+         */
+        public Class<?> getTaskType() {
+            if (taskType != null) {
+                return taskType;
+            }
+            return action != null ? action.getClass() : callable != null ? callable.getClass() : getClass();
+        }
+        
         @Override
         protected V compute() {
             // Priorität des aktuellen Threads anpassen
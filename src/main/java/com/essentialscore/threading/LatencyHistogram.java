@@ -0,0 +1,164 @@
+package com.essentialscore.threading;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sperrfreies Latenz-Histogramm mit logarithmisch-linearen Buckets (HDR-Prinzip).
+ * Jede Zweierpotenz ist in 16 Unter-Buckets geteilt, der relative Fehler eines
+ * Perzentils liegt damit unter 6,25 %. Die Buckets sind nach Thread gestreift,
+ * sodass parallele Worker selten dieselbe Cache-Line erhöhen. Das Aufzeichnen
+ * alloziert nicht, ein Snapshot summiert nur die Streifen.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Werte ab 2^40 ns (ca. 18 Minuten) landen im letzten Bucket */
+    private static final int MAX_EXPONENT = 40;
+    private static final long MAX_TRACKABLE = (1L << MAX_EXPONENT) - 1;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final int STRIPES = Math.min(4, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors())));
+
+    private final AtomicLongArray buckets = new AtomicLongArray(STRIPES * BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final long createdAt = System.nanoTime();
+
+    /**
+     * Zeichnet eine Dauer auf
+     *
+     * @param nanos Die Dauer in Nanosekunden
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        int stripe = (int) (Thread.currentThread().threadId() & (STRIPES - 1));
+        buckets.incrementAndGet(stripe * BUCKETS + bucketIndex(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Erstellt eine Momentaufnahme aller bisher aufgezeichneten Werte
+     *
+     * @return Die Momentaufnahme
+     */
+    public Snapshot snapshot() {
+        long[] merged = new long[BUCKETS];
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            int offset = stripe * BUCKETS;
+            for (int i = 0; i < BUCKETS; i++) {
+                merged[i] += buckets.get(offset + i);
+            }
+        }
+        long recorded = 0;
+        for (long bucket : merged) {
+            recorded += bucket;
+        }
+        return new Snapshot(merged, recorded, totalNanos.sum(), maxNanos.get(), System.nanoTime() - createdAt);
+    }
+
+    static int bucketIndex(long nanos) {
+        long value = Math.min(nanos, MAX_TRACKABLE);
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (subBucket + 1) * width - 1;
+    }
+
+    /**
+     * Unveränderliche Momentaufnahme eines Histogramms
+     */
+    public static final class Snapshot {
+        private final long[] buckets;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long elapsedNanos;
+
+        Snapshot(long[] buckets, long count, long totalNanos, long maxNanos, long elapsedNanos) {
+            this.buckets = buckets;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Gibt ein Perzentil zurück (Obergrenze des Buckets, höchstens das Maximum)
+         *
+         * @param percentile Das Perzentil zwischen 0 und 100
+         * @return Die Dauer in Nanosekunden
+         */
+        public long getPercentileNanos(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(count * Math.min(100.0, Math.max(0.0, percentile)) / 100.0));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        public double getMeanNanos() {
+            return count > 0 ? (double) totalNanos / count : 0.0;
+        }
+
+        /**
+         * Gibt den Durchsatz seit Erstellung des Histogramms zurück
+         *
+         * @return Aufzeichnungen pro Sekunde
+         */
+        public double getThroughputPerSecond() {
+            return elapsedNanos > 0 ? count * 1_000_000_000.0 / elapsedNanos : 0.0;
+        }
+
+        /**
+         * Gibt die üblichen Kennzahlen in Millisekunden zurück
+         *
+         * @return count, throughputPerSec, avgMs, p50Ms, p99Ms, p999Ms, maxMs
+         */
+        public Map<String, Object> toMap() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", count);
+            stats.put("throughputPerSec", getThroughputPerSecond());
+            stats.put("avgMs", getMeanNanos() / 1_000_000.0);
+            stats.put("p50Ms", getPercentileNanos(50) / 1_000_000.0);
+            stats.put("p99Ms", getPercentileNanos(99) / 1_000_000.0);
+            stats.put("p999Ms", getPercentileNanos(99.9) / 1_000_000.0);
+            stats.put("maxMs", maxNanos / 1_000_000.0);
+            return stats;
+        }
+    }
+}
@@ -6,11 +6,15 @@ import com.essentialscore.ConsoleFormatter;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.regex.Pattern;
@@ -27,7 +31,7 @@ public class ModuleResourceManager {
     private final int bufferSize;
     
     // Cache-System für schnellen Ressourcenzugriff
-    private final Map<String, Map<String, ResourceInfo>> resourceCache = new ConcurrentHashMap<>();
+    private final ResourceCache resourceCache;
     
     // Extraktions-Konfiguration
     private final List<String> commonResourceExtensions;
@@ -36,7 +40,6 @@ public class ModuleResourceManager {
     private boolean backupOnOverwrite = true;
     private boolean verifyIntegrity = false;
     private boolean cacheEnabled = true;
-    private long cacheTimeoutMinutes = 5;
     private List<String> defaultFileTypes = Arrays.asList(".yml", ".yaml", ".json", ".properties", ".txt", ".cfg");
     private List<String> extractSubdirectories = Arrays.asList("assets", "data", "translations");
     private List<String> ignorePatterns = Arrays.asList("*.temp", "draft_*");
@@ -44,48 +47,6 @@ public class ModuleResourceManager {
     // Indizierung von Ressourcen für schnellen Zugriff
     private final Map<String, ResourceIndex> moduleResourceIndices = new ConcurrentHashMap<>();
     
-    /**
-     * Informationen über eine Ressourcendatei
-     */
-    private static class ResourceInfo {
-        private final File file;
-        private final long lastModified;
-        private final long size;
-        private byte[] cachedData;
-        private long cacheTimestamp;
-        
-        public ResourceInfo(File file) {
-            this.file = file;
-            this.lastModified = file.lastModified();
-            this.size = file.length();
-        }
-        
-        public boolean isValid() {
-            return file.exists() && file.lastModified() == lastModified && file.length() == size;
-        }
-        
-        public void cacheData(byte[] data) {
-            this.cachedData = data;
-            this.cacheTimestamp = System.currentTimeMillis();
-        }
-        
-        public byte[] getCachedData() {
-            return cachedData;
-        }
-        
-        public boolean isCacheValid(long timeoutMinutes) {
-            return cachedData != null && 
-                   System.currentTimeMillis() - cacheTimestamp < TimeUnit.MINUTES.toMillis(timeoutMinutes);
-        }
-        
-        // The method is actually used when accessing the file outside the class
-        // or might be used in future extensions
-        @SuppressWarnings("unused")
-        public File getFile() {
-            return file;
-        }
-    }
-    
     /**
      * Index für alle Ressourcen eines Moduls
      */
@@ -155,7 +116,12 @@ public class ModuleResourceManager {
         this.backupOnOverwrite = core.getConfig().getBoolean("resources.backup-on-overwrite", true);
         this.verifyIntegrity = core.getConfig().getBoolean("resources.verify-integrity", false);
         this.cacheEnabled = core.getConfig().getBoolean("resources.enable-cache", true);
-        this.cacheTimeoutMinutes = core.getConfig().getLong("resources.cache-timeout-minutes", 5);
+        this.resourceCache = new ResourceCache(
+            core.getConfig().getLong("resources.cache.max-heap-mb", 32) * 1024 * 1024,
+            core.getConfig().getLong("resources.cache.max-mapped-mb", 512) * 1024 * 1024,
+            core.getConfig().getLong("resources.cache.module-quota-mb", 8) * 1024 * 1024,
+            core.getConfig().getLong("resources.cache.map-threshold-kb", 256) * 1024
+        );
         
         // Standard-Ressourcenendungen
         List<String> configExtensions = core.getConfig().getStringList("resources.common-extensions");
@@ -254,7 +220,7 @@ public class ModuleResourceManager {
                 // Phase 1: Extraktionsplan erstellen
                 console.section("PHASE 2: EXTRAKTION");
                 console.info("Erstelle Extraktionsplan...");
-                Map<JarEntry, File> extractionPlan = new HashMap<>();
+                Map<String, JarEntry> extractionPlan = new LinkedHashMap<>();
                 
                 Enumeration<JarEntry> entries = jar.entries();
                 // Total-Zähler für Fortschrittsbalken
@@ -316,116 +282,32 @@ public class ModuleResourceManager {
                     }
                     
                     // Wenn ein gültiger Pfad gefunden wurde, Datei extrahieren
-                    if (relativePath != null && !relativePath.isEmpty()) {
-                        File targetFile = new File(resourcesDir, relativePath);
-                        extractionPlan.put(entry, targetFile);
+                    if (relativePath != null && !relativePath.isEmpty() && extractionPlan.putIfAbsent(relativePath, entry) == null) {
                         planSize++;
                     }
                 }
                 
                 console.success("Analyse abgeschlossen: " + planSize + " extrahierbare Ressourcen gefunden");
                 
-                // Phase 2: Extraktionsplan ausführen
+                // Phase 2: Extraktionsplan ausführen, nur fehlende oder in der JAR geänderte Einträge werden geschrieben
                 console.section("PHASE 3: EXTRAKTION DURCHFÜHREN");
-                console.info("Extrahiere " + planSize + " Ressourcen...");
+                console.info("Vergleiche " + planSize + " Ressourcen mit dem Extraktionsmanifest...");
                 
-                int currentStep = 0;
-                console.colorProgressBar(0, planSize, 40, "0% abgeschlossen");
+                ResourceExtractor.Result result = ResourceExtractor.extract(jar, extractionPlan, resourcesDir, 
+                    overwriteExisting, verifyIntegrity, targetFile -> !backupOnOverwrite || backupFile(targetFile));
                 
-                for (Map.Entry<JarEntry, File> extract : extractionPlan.entrySet()) {
-                    JarEntry entry = extract.getKey();
-                    File targetFile = extract.getValue();
-                    String entryName = entry.getName();
-                    currentStep++;
-                    
-                    // Fortschrittsanzeige aktualisieren
-                    if (currentStep % 5 == 0 || currentStep == planSize) {
-                        int percent = (int)((currentStep / (double)planSize) * 100);
-                        console.colorProgressBar(currentStep, planSize, 40, percent + "% abgeschlossen");
-                    }
-                    
-                    // Status für wichtige Dateitypen
-                    boolean isImportantFile = entryName.endsWith(".yml") || entryName.endsWith(".json") || 
-                                            entryName.endsWith(".properties") || entryName.endsWith(".sql");
-                    
-                    // Überprüfen, ob die Datei bereits existiert und ob sie überschrieben werden soll
-                    if (targetFile.exists()) {
-                        if (!overwriteExisting) {
-                            skippedCount++;
-                            
-                            // Zeige Fortschritt für wichtige überspungene Dateien
-                            if (isImportantFile && core.isDebugMode()) {
-                                console.richStep(currentStep, planSize, "Übersprungen: " + getRelativePath(resourcesDir, targetFile), false);
-                            }
-                            
-                            // Trotzdem zum Index hinzufügen
-                            String relativePath = getRelativePath(resourcesDir, targetFile);
-                            resourceIndex.addResource(relativePath);
-                            continue;
-                        }
-                        
-                        // Backup erstellen, falls konfiguriert
-                        if (backupOnOverwrite) {
-                            if (!backupFile(targetFile)) {
-                                errorCount++;
-                                continue;
-                            }
-                        }
-                    }
-                    
-                    // Stelle sicher, dass das Elternverzeichnis existiert
-                    File parent = targetFile.getParentFile();
-                    if (!parent.exists() && !parent.mkdirs()) {
-                        console.error("Konnte Verzeichnis nicht erstellen: " + parent.getAbsolutePath());
-                        errorCount++;
-                        continue;
-                    }
-                    
-                    // Extrahiere die Datei
-                    try (InputStream in = jar.getInputStream(entry);
-                         ByteArrayOutputStream byteStream = new ByteArrayOutputStream()) {
-                        
-                        byte[] buffer = new byte[bufferSize];
-                        int bytesRead;
-                        while ((bytesRead = in.read(buffer)) != -1) {
-                            byteStream.write(buffer, 0, bytesRead);
-                        }
-                        
-                        byte[] data = byteStream.toByteArray();
-                        
-                        // Schreibe die Daten in die Datei
-                        try (FileOutputStream out = new FileOutputStream(targetFile)) {
-                            out.write(data);
-                        }
-                        
-                        // Überprüfe die Integrität wenn aktiviert
-                        if (verifyIntegrity) {
-                            boolean integrityValid = verifyFileIntegrity(data, targetFile);
-                            if (!integrityValid) {
-                                console.warning("Integritätsprüfung fehlgeschlagen für: " + targetFile.getName());
-                                errorCount++;
-                                continue;
-                            }
-                        }
-                        
-                        // Zum Index hinzufügen
-                        String relativePath = getRelativePath(resourcesDir, targetFile);
-                        resourceIndex.addResource(relativePath);
-                        
-                        // Nur wichtige Dateien explizit loggen um die Konsole nicht zu überfüllen
-                        if (isImportantFile && core.isDebugMode()) {
-                            console.richStep(currentStep, planSize, "Extrahiert: " + relativePath, true);
-                        }
-                        
-                        extractedCount++;
-                    } catch (IOException e) {
-                        console.richStep(currentStep, planSize, "Fehler: " + entryName, false);
-                        errorCount++;
-                    }
+                extractedCount = result.getExtracted();
+                skippedCount = result.getUnchanged() + result.getSkipped();
+                errorCount = result.getFailed();
+                for (String corruptPath : result.getCorrupt()) {
+                    console.warning("Integritätsprüfung fehlgeschlagen für: " + corruptPath);
                 }
                 
-                // Index speichern
+                // Index aus dem Verzeichnis aufbauen, damit auch zur Laufzeit gespeicherte oder
+                // von Hand hinzugefügte Dateien enthalten sind, die nicht im Manifest stehen
+                indexResourceDirectory(resourcesDir, resourcesDir, resourceIndex);
                 moduleResourceIndices.put(moduleName, resourceIndex);
+                resourceCache.invalidateModule(moduleName);
                 
                 // Abschlussstatistik mit Box anzeigen
                 console.blank();
@@ -469,14 +351,6 @@ public class ModuleResourceManager {
         // Pfad normalisieren
         resourcePath = normalizeResourcePath(resourcePath);
         
-        // Prüfe Cache zuerst
-        if (cacheEnabled) {
-            ResourceInfo cachedInfo = getCachedResourceInfo(moduleName, resourcePath);
-            if (cachedInfo != null && cachedInfo.isCacheValid(cacheTimeoutMinutes)) {
-                return cachedInfo.getCachedData();
-            }
-        }
-        
         // Hole die Ressourcendatei
         File resourceFile = getResourceFile(moduleName, resourcePath);
         if (resourceFile == null || !resourceFile.exists() || !resourceFile.isFile()) {
@@ -489,8 +363,10 @@ public class ModuleResourceManager {
         }
         
         try {
-            // Erstelle oder aktualisiere ResourceInfo
-            ResourceInfo resourceInfo = new ResourceInfo(resourceFile);
+            // Cache prüft Größe und Zeitstempel der Datei selbst
+            if (cacheEnabled) {
+                return resourceCache.getBytes(moduleName, resourcePath, resourceFile);
+            }
             
             // Lese die Datei
             byte[] data;
@@ -506,12 +382,6 @@ public class ModuleResourceManager {
                 data = out.toByteArray();
             }
             
-            // Cache aktualisieren, falls aktiviert
-            if (cacheEnabled) {
-                resourceInfo.cacheData(data);
-                putCachedResourceInfo(moduleName, resourcePath, resourceInfo);
-            }
-            
             return data;
         } catch (IOException e) {
             console.warning("Fehler beim Lesen der Ressource " + resourcePath + ": " + e.getMessage());
@@ -527,12 +397,91 @@ public class ModuleResourceManager {
      * @return Die Ressource als String oder null, wenn sie nicht gefunden wurde
      */
     public String getResourceAsString(String moduleName, String resourcePath) {
-        byte[] data = getResourceAsBytes(moduleName, resourcePath);
-        if (data == null) {
+        ByteBuffer buffer = getResourceAsBuffer(moduleName, resourcePath);
+        if (buffer == null) {
             return null;
         }
         
-        return new String(data, StandardCharsets.UTF_8);
+        return StandardCharsets.UTF_8.decode(buffer).toString();
+    }
+    
+    /**
+     * Gibt eine Ressource als schreibgeschützten Puffer zurück.
+     * Große Dateien werden eingeblendet statt in den Heap gelesen, der Inhalt wird nicht kopiert.
+     * 
+     * @param moduleName Der Name des Moduls
+     * @param resourcePath Der Pfad zur Ressource
+     * @return Die Ressource als Puffer oder null, wenn sie nicht gefunden wurde
+     */
+    public ByteBuffer getResourceAsBuffer(String moduleName, String resourcePath) {
+        if (moduleName == null || resourcePath == null) {
+            return null;
+        }
+        
+        // Pfad normalisieren
+        resourcePath = normalizeResourcePath(resourcePath);
+        
+        File resourceFile = getResourceFile(moduleName, resourcePath);
+        if (cacheEnabled && resourceFile != null && resourceFile.isFile()) {
+            try {
+                return resourceCache.getBuffer(moduleName, resourcePath, resourceFile);
+            } catch (IOException e) {
+                console.warning("Fehler beim Lesen der Ressource " + resourcePath + ": " + e.getMessage());
+                return null;
+            }
+        }
+        
+        byte[] data = getResourceAsBytes(moduleName, resourcePath);
+        return data != null ? ByteBuffer.wrap(data).asReadOnlyBuffer() : null;
+    }
+    
+    /**
+     * Schreibt eine Ressource in einen Ausgabestrom, ohne sie vollständig in den Heap zu laden
+     * 
+     * @param moduleName Der Name des Moduls
+     * @param resourcePath Der Pfad zur Ressource
+     * @param out Der Zielstrom, er wird nicht geschlossen
+     * @return Die Anzahl der geschriebenen Bytes oder -1, wenn die Ressource nicht gefunden wurde
+     * @throws IOException Wenn das Schreiben fehlschlägt
+     */
+    public long transferResource(String moduleName, String resourcePath, OutputStream out) throws IOException {
+        if (moduleName == null || resourcePath == null) {
+            return -1;
+        }
+        
+        String normalizedPath = normalizeResourcePath(resourcePath);
+        File resourceFile = getResourceFile(moduleName, normalizedPath);
+        
+        if (resourceFile != null && resourceFile.isFile()) {
+            if (cacheEnabled) {
+                ByteBuffer buffer = resourceCache.getBuffer(moduleName, normalizedPath, resourceFile);
+                long length = buffer.remaining();
+                WritableByteChannel channel = Channels.newChannel(out);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                return length;
+            }
+            
+            // Ohne Cache direkt vom Dateikanal übertragen
+            try (FileChannel source = FileChannel.open(resourceFile.toPath(), StandardOpenOption.READ)) {
+                WritableByteChannel channel = Channels.newChannel(out);
+                long size = source.size();
+                long position = 0;
+                while (position < size) {
+                    position += source.transferTo(position, size - position, channel);
+                }
+                return size;
+            }
+        }
+        
+        // Nicht extrahierte Ressourcen direkt aus der JAR streamen
+        try (InputStream in = getModuleJarResourceStream(moduleName, normalizedPath)) {
+            if (in == null) {
+                return -1;
+            }
+            return in.transferTo(out);
+        }
     }
     
     /**
@@ -558,8 +507,11 @@ public class ModuleResourceManager {
         }
         
         try {
+            if (cacheEnabled) {
+                return ResourceCache.newInputStream(resourceCache.getBuffer(moduleName, resourcePath, resourceFile));
+            }
             return new FileInputStream(resourceFile);
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             console.warning("Fehler beim Öffnen der Ressource " + resourcePath + ": " + e.getMessage());
             return null;
         }
@@ -606,14 +558,12 @@ public class ModuleResourceManager {
         }
         
         // Datei speichern
-        try (FileOutputStream out = new FileOutputStream(resourceFile)) {
-            out.write(data);
+        try {
+            ResourceExtractor.writeAtomically(resourceFile, data);
             
             // Cache aktualisieren, falls aktiviert
             if (cacheEnabled) {
-                ResourceInfo resourceInfo = new ResourceInfo(resourceFile);
-                resourceInfo.cacheData(data);
-                putCachedResourceInfo(moduleName, resourcePath, resourceInfo);
+                resourceCache.put(moduleName, resourcePath, resourceFile, data);
             }
             
             // Index aktualisieren
@@ -690,6 +640,8 @@ public class ModuleResourceManager {
         }
         
         ResourceIndex index = new ResourceIndex();
+        
+        // Das Verzeichnis ist maßgeblich: das Manifest kennt nur die aus der JAR extrahierten Dateien
         int count = indexResourceDirectory(resourcesDir, resourcesDir, index);
         
         if (count > 0) {
@@ -712,7 +664,7 @@ public class ModuleResourceManager {
         for (File file : files) {
             if (file.isDirectory()) {
                 count += indexResourceDirectory(baseDir, file, index);
-            } else if (file.isFile()) {
+            } else if (file.isFile() && !file.getName().equals(ResourceExtractor.MANIFEST_FILE)) {
                 String relativePath = getRelativePath(baseDir, file);
                 index.addResource(relativePath);
                 count++;
@@ -1210,38 +1162,12 @@ public class ModuleResourceManager {
     
     // ---------------------------- Cache-Verwaltung ----------------------------
     
-    /**
-     * Holt eine ResourceInfo aus dem Cache
-     */
-    private ResourceInfo getCachedResourceInfo(String moduleName, String resourcePath) {
-        Map<String, ResourceInfo> moduleCache = resourceCache.get(moduleName);
-        if (moduleCache != null) {
-            ResourceInfo info = moduleCache.get(resourcePath);
-            if (info != null && info.isValid()) {
-                return info;
-            } else if (info != null) {
-                // Ungültige Einträge entfernen
-                moduleCache.remove(resourcePath);
-            }
-        }
-        
-        return null;
-    }
-    
-    /**
-     * Speichert eine ResourceInfo im Cache
-     */
-    private void putCachedResourceInfo(String moduleName, String resourcePath, ResourceInfo info) {
-        Map<String, ResourceInfo> moduleCache = resourceCache.computeIfAbsent(moduleName, k -> new ConcurrentHashMap<>());
-        moduleCache.put(resourcePath, info);
-    }
-    
     /**
      * Leert den Cache für ein Modul
      */
     public void clearModuleCache(String moduleName) {
         if (moduleName != null) {
-            resourceCache.remove(moduleName);
+            resourceCache.invalidateModule(moduleName);
             if (core.isDebugMode()) {
                 console.debug("Cache für Modul " + moduleName + " geleert", true);
             }
@@ -1257,7 +1183,16 @@ public class ModuleResourceManager {
             console.debug("Alle Ressourcen-Caches geleert", true);
         }
     }
-
+    
+    /**
+     * Gibt Statistiken über den Ressourcen-Cache zurück
+     * 
+     * @return Statistiken als Map
+     */
+    public Map<String, Object> getCacheStatistics() {
+        return resourceCache.getStatistics();
+    }
+    
     /**
      * Setzt, ob vorhandene Dateien überschrieben werden sollen
      *
@@ -1376,40 +1311,6 @@ public class ModuleResourceManager {
         }
     }
 
-    /**
-     * Überprüft die Integrität einer extrahierten Datei durch Berechnung und Vergleich einer Prüfsumme
-     *
-     * @param sourceData Die Quelldaten
-     * @param targetFile Die Zieldatei
-     * @return True, wenn die Integrität gewährleistet ist
-     */
-    private boolean verifyFileIntegrity(byte[] sourceData, File targetFile) {
-        if (!targetFile.exists() || sourceData == null) {
-            return false;
-        }
-
-        try {
-            byte[] targetData = Files.readAllBytes(targetFile.toPath());
-            
-            // Vergleiche Länge
-            if (sourceData.length != targetData.length) {
-                return false;
-            }
-            
-            // Berechne Prüfsummen
-            java.security.MessageDigest md = java.security.MessageDigest.getInstance("SHA-256");
-            byte[] sourceHash = md.digest(sourceData);
-            md.reset();
-            byte[] targetHash = md.digest(targetData);
-            
-            // Vergleiche Prüfsummen
-            return java.util.Arrays.equals(sourceHash, targetHash);
-        } catch (Exception e) {
-            console.warning("Fehler bei der Integritätsprüfung für " + targetFile.getName() + ": " + e.getMessage());
-            return false;
-        }
-    }
-
     /**
      * Prüft, ob ein Dateiname einem Glob-Muster entspricht
      *
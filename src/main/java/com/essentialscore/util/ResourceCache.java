@@ -0,0 +1,392 @@
+package com.essentialscore.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Größenbegrenzter Cache für Modulressourcen.
+ * Kleine Ressourcen liegen als Byte-Array im Heap, große Ressourcen werden als
+ * schreibgeschützte {@link java.nio.MappedByteBuffer} eingeblendet und belegen keinen Heap.
+ * Für beide Arten gibt es ein eigenes Byte-Budget, Heap-Einträge zusätzlich mit einer
+ * Quote pro Modul. Verdrängt wird nach Greedy-Dual-Size-Frequency: häufig gelesene und
+ * kleine Einträge bleiben länger, ein Alterungswert sorgt dafür, dass lange nicht
+ * gelesene Einträge trotz vieler früherer Zugriffe irgendwann verdrängt werden.
+ * Einträge sind gültig, solange Größe und Zeitstempel der Datei unverändert sind.
+ */
+public class ResourceCache {
+    private static final double SIZE_UNIT = 1024.0;
+
+    private static final Comparator<Entry> PRIORITY_ORDER = (a, b) -> {
+        int result = Double.compare(a.priority, b.priority);
+        return result != 0 ? result : Long.compare(a.sequence, b.sequence);
+    };
+
+    private final long maxHeapBytes;
+    private final long maxMappedBytes;
+    private final long moduleQuotaBytes;
+    private final long mapThresholdBytes;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> evictionOrder = new TreeSet<>(PRIORITY_ORDER);
+    private final Map<String, Long> moduleHeapBytes = new HashMap<>();
+    private double clock;
+    private long sequence;
+    private long heapBytes;
+    private long mappedBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder uncached = new LongAdder();
+
+    /**
+     * Erstellt den Cache
+     *
+     * @param maxHeapBytes Budget für Einträge im Heap
+     * @param maxMappedBytes Budget für eingeblendete Einträge
+     * @param moduleQuotaBytes Heap-Quote pro Modul
+     * @param mapThresholdBytes Ab dieser Größe wird eine Datei eingeblendet statt gelesen, 0 deaktiviert das Einblenden
+     */
+    public ResourceCache(long maxHeapBytes, long maxMappedBytes, long moduleQuotaBytes, long mapThresholdBytes) {
+        this.maxHeapBytes = maxHeapBytes;
+        this.maxMappedBytes = maxMappedBytes;
+        this.moduleQuotaBytes = Math.min(moduleQuotaBytes, maxHeapBytes);
+        this.mapThresholdBytes = mapThresholdBytes;
+    }
+
+    /**
+     * Gibt den Inhalt einer Ressourcendatei als schreibgeschützten Puffer zurück.
+     * Jeder Aufruf erhält eine eigene Sicht mit Position 0, der Inhalt wird nicht kopiert.
+     *
+     * @param moduleName Der Name des Moduls
+     * @param resourcePath Der normalisierte Pfad der Ressource
+     * @param file Die Ressourcendatei
+     * @return Der Inhalt
+     * @throws IOException Wenn die Datei nicht gelesen werden kann
+     */
+    public ByteBuffer getBuffer(String moduleName, String resourcePath, File file) throws IOException {
+        return acquire(moduleName, resourcePath, file).view();
+    }
+
+    /**
+     * Gibt den Inhalt einer Ressourcendatei als Byte-Array zurück.
+     * Für Einträge im Heap ist das das zwischengespeicherte Array selbst, eingeblendete
+     * Einträge werden kopiert.
+     *
+     * @param moduleName Der Name des Moduls
+     * @param resourcePath Der normalisierte Pfad der Ressource
+     * @param file Die Ressourcendatei
+     * @return Der Inhalt
+     * @throws IOException Wenn die Datei nicht gelesen werden kann
+     */
+    public byte[] getBytes(String moduleName, String resourcePath, File file) throws IOException {
+        Entry entry = acquire(moduleName, resourcePath, file);
+        if (entry.data != null) {
+            return entry.data;
+        }
+        ByteBuffer view = entry.view();
+        byte[] data = new byte[view.remaining()];
+        view.get(data);
+        return data;
+    }
+
+    /**
+     * Übernimmt gerade geschriebene Daten in den Cache
+     *
+     * @param moduleName Der Name des Moduls
+     * @param resourcePath Der normalisierte Pfad der Ressource
+     * @param file Die geschriebene Datei
+     * @param data Der Inhalt der Datei
+     */
+    public void put(String moduleName, String resourcePath, File file, byte[] data) {
+        invalidate(moduleName, resourcePath);
+        if (file.length() == data.length) {
+            admit(new Entry(moduleName, key(moduleName, resourcePath), file.lastModified(), data.length, data, null));
+        }
+    }
+
+    /**
+     * Entfernt eine Ressource aus dem Cache
+     *
+     * @param moduleName Der Name des Moduls
+     * @param resourcePath Der normalisierte Pfad der Ressource
+     */
+    public synchronized void invalidate(String moduleName, String resourcePath) {
+        Entry entry = entries.get(key(moduleName, resourcePath));
+        if (entry != null) {
+            remove(entry);
+        }
+    }
+
+    /**
+     * Entfernt alle Ressourcen eines Moduls aus dem Cache
+     *
+     * @param moduleName Der Name des Moduls
+     */
+    public synchronized void invalidateModule(String moduleName) {
+        for (Iterator<Entry> it = evictionOrder.iterator(); it.hasNext();) {
+            Entry entry = it.next();
+            if (entry.moduleName.equals(moduleName)) {
+                it.remove();
+                release(entry);
+            }
+        }
+    }
+
+    /**
+     * Leert den Cache
+     */
+    public synchronized void clear() {
+        entries.clear();
+        evictionOrder.clear();
+        moduleHeapBytes.clear();
+        heapBytes = 0;
+        mappedBytes = 0;
+        clock = 0;
+    }
+
+    /**
+     * Gibt Statistiken über den Cache zurück
+     *
+     * @return Statistiken als Map
+     */
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("heap_bytes", heapBytes);
+        stats.put("heap_budget_bytes", maxHeapBytes);
+        stats.put("mapped_bytes", mappedBytes);
+        stats.put("mapped_budget_bytes", maxMappedBytes);
+        stats.put("module_quota_bytes", moduleQuotaBytes);
+        stats.put("module_heap_bytes", new LinkedHashMap<>(moduleHeapBytes));
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("uncached", uncached.sum());
+        return stats;
+    }
+
+    /**
+     * Erstellt einen InputStream, der direkt aus einem Puffer liest
+     *
+     * @param buffer Der Puffer, seine Position wird beim Lesen verändert
+     * @return Der InputStream
+     */
+    public static InputStream newInputStream(ByteBuffer buffer) {
+        return new BufferInputStream(buffer);
+    }
+
+    /**
+     * Liefert einen gültigen Eintrag, lädt die Datei bei Bedarf außerhalb der Sperre
+     */
+    private Entry acquire(String moduleName, String resourcePath, File file) throws IOException {
+        String key = key(moduleName, resourcePath);
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+
+        if (entry != null) {
+            if (entry.lastModified == file.lastModified() && entry.length == file.length()) {
+                touch(entry);
+                hits.increment();
+                return entry;
+            }
+            synchronized (this) {
+                if (entries.get(key) == entry) {
+                    remove(entry);
+                }
+            }
+        }
+
+        misses.increment();
+        long lastModified = file.lastModified();
+        long length = file.length();
+        Entry loaded = load(moduleName, key, file, lastModified, length);
+
+        // Nur übernehmen, wenn sich die Datei während des Lesens nicht verändert hat
+        if (file.lastModified() == lastModified && file.length() == length) {
+            admit(loaded);
+        } else {
+            uncached.increment();
+        }
+        return loaded;
+    }
+
+    private Entry load(String moduleName, String key, File file, long lastModified, long length) throws IOException {
+        if (mapThresholdBytes > 0 && length >= mapThresholdBytes) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return new Entry(moduleName, key, lastModified, mapped.capacity(), null, mapped.asReadOnlyBuffer());
+            }
+        }
+        byte[] data = Files.readAllBytes(file.toPath());
+        return new Entry(moduleName, key, lastModified, data.length, data, null);
+    }
+
+    private synchronized void touch(Entry entry) {
+        if (entries.get(entry.key) != entry) {
+            return;
+        }
+        evictionOrder.remove(entry);
+        entry.hits++;
+        entry.priority = priority(entry);
+        evictionOrder.add(entry);
+    }
+
+    private synchronized void admit(Entry entry) {
+        boolean mapped = entry.data == null;
+        if (mapped ? entry.length > maxMappedBytes : entry.length > moduleQuotaBytes) {
+            uncached.increment();
+            return;
+        }
+
+        Entry previous = entries.get(entry.key);
+        if (previous != null) {
+            remove(previous);
+        }
+
+        entry.sequence = sequence++;
+        entry.priority = priority(entry);
+        entries.put(entry.key, entry);
+        evictionOrder.add(entry);
+        if (mapped) {
+            mappedBytes += entry.length;
+        } else {
+            heapBytes += entry.length;
+            moduleHeapBytes.merge(entry.moduleName, entry.length, Long::sum);
+        }
+
+        if (!mapped) {
+            while (moduleHeapBytes.getOrDefault(entry.moduleName, 0L) > moduleQuotaBytes && evict(false, entry.moduleName)) {
+                // Quote des Moduls einhalten
+            }
+            while (heapBytes > maxHeapBytes && evict(false, null)) {
+                // Heap-Budget einhalten
+            }
+        } else {
+            while (mappedBytes > maxMappedBytes && evict(true, null)) {
+                // Budget für eingeblendete Dateien einhalten
+            }
+        }
+    }
+
+    /**
+     * Verdrängt den Eintrag mit der niedrigsten Priorität der passenden Art
+     */
+    private boolean evict(boolean mapped, String moduleName) {
+        for (Entry candidate : evictionOrder) {
+            if ((candidate.data == null) == mapped && (moduleName == null || candidate.moduleName.equals(moduleName))) {
+                clock = candidate.priority;
+                remove(candidate);
+                evictions.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void remove(Entry entry) {
+        evictionOrder.remove(entry);
+        release(entry);
+    }
+
+    private void release(Entry entry) {
+        entries.remove(entry.key);
+        if (entry.data == null) {
+            mappedBytes -= entry.length;
+        } else {
+            heapBytes -= entry.length;
+            moduleHeapBytes.computeIfPresent(entry.moduleName, (k, bytes) -> bytes - entry.length > 0 ? bytes - entry.length : null);
+        }
+    }
+
+    private double priority(Entry entry) {
+        return clock + entry.hits * SIZE_UNIT / (entry.length + SIZE_UNIT);
+    }
+
+    private static String key(String moduleName, String resourcePath) {
+        return moduleName + ':' + resourcePath;
+    }
+
+    /**
+     * Eine zwischengespeicherte Ressource
+     */
+    private static final class Entry {
+        private final String moduleName;
+        private final String key;
+        private final long lastModified;
+        private final long length;
+        private final byte[] data;
+        private final ByteBuffer buffer;
+        private int hits = 1;
+        private double priority;
+        private long sequence;
+
+        Entry(String moduleName, String key, long lastModified, long length, byte[] data, ByteBuffer buffer) {
+            this.moduleName = moduleName;
+            this.key = key;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.data = data;
+            this.buffer = buffer != null ? buffer : ByteBuffer.wrap(data).asReadOnlyBuffer();
+        }
+
+        ByteBuffer view() {
+            return buffer.duplicate();
+        }
+    }
+
+    /**
+     * InputStream über einem Puffer ohne Zwischenkopie
+     */
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.essentialscore.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Extrahiert Ressourcen aus Modul-JARs inkrementell.
+ * Im Zielverzeichnis wird ein Manifest mit CRC32 und Größe jedes extrahierten Eintrags
+ * sowie Größe und Zeitstempel der geschriebenen Datei geführt. Ein Eintrag wird nur
+ * geschrieben, wenn die Datei fehlt oder sich der Eintrag in der JAR geändert hat.
+ * Dateien, die seit der letzten Extraktion verändert wurden, werden nur mit
+ * Überschreiben-Option ersetzt. Geschrieben wird parallel über temporäre Dateien,
+ * die atomar umbenannt werden.
+ */
+public class ResourceExtractor {
+    /** Name der Manifest-Datei im Zielverzeichnis */
+    public static final String MANIFEST_FILE = ".extraction-manifest";
+    private static final String MANIFEST_HEADER = "# EssentialsCore resource manifest v1";
+
+    private ResourceExtractor() {
+    }
+
+    /**
+     * Extrahiert die geplanten Einträge einer JAR in ein Verzeichnis
+     *
+     * @param jar Die geöffnete JAR-Datei
+     * @param plan Relativer Zielpfad je JAR-Eintrag
+     * @param targetDir Das Zielverzeichnis
+     * @param overwrite true, wenn veränderte Dateien durch neue JAR-Inhalte ersetzt werden sollen
+     * @param verify true, wenn geschriebene Dateien gegen die CRC der JAR geprüft werden sollen
+     * @param beforeOverwrite Wird vor dem Ersetzen einer veränderten Datei aufgerufen, false überspringt die Datei, darf null sein
+     * @return Das Ergebnis der Extraktion
+     * @throws IOException Wenn das Manifest nicht gespeichert werden kann
+     */
+    public static Result extract(JarFile jar, Map<String, JarEntry> plan, File targetDir, boolean overwrite,
+                                 boolean verify, Predicate<File> beforeOverwrite) throws IOException {
+        Map<String, Record> previous = readManifest(targetDir);
+        Map<String, Record> manifest = new ConcurrentHashMap<>();
+        Result result = new Result();
+        List<String> pending = new ArrayList<>();
+
+        for (Map.Entry<String, JarEntry> planned : plan.entrySet()) {
+            String path = planned.getKey();
+            JarEntry entry = planned.getValue();
+            File target = new File(targetDir, path);
+            Record record = previous.get(path);
+
+            if (!target.isFile()) {
+                pending.add(path);
+            } else if (record != null && record.crc == entry.getCrc() && record.size == entry.getSize()) {
+                // Eintrag seit der letzten Extraktion unverändert
+                manifest.put(path, record);
+                result.unchanged.incrementAndGet();
+            } else if (record == null && matchesEntry(target, entry)) {
+                // Vorhandene Datei ohne Manifest-Eintrag mit identischem Inhalt übernehmen
+                manifest.put(path, new Record(entry.getCrc(), entry.getSize(), target.length(), target.lastModified()));
+                result.unchanged.incrementAndGet();
+            } else if (record != null && record.matchesDisk(target)) {
+                // Datei unverändert seit der letzten Extraktion, neue Version aus der JAR übernehmen
+                pending.add(path);
+            } else if (overwrite && (beforeOverwrite == null || beforeOverwrite.test(target))) {
+                pending.add(path);
+            } else {
+                if (record != null) {
+                    manifest.put(path, record);
+                }
+                result.skipped.incrementAndGet();
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>(pending.size());
+                for (String path : pending) {
+                    futures.add(pool.submit(() -> {
+                        extractEntry(jar, plan.get(path), path, targetDir, verify, manifest, result);
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (Exception e) {
+                        result.failed.incrementAndGet();
+                    }
+                }
+            }
+        }
+
+        writeManifest(targetDir, manifest);
+        result.paths.addAll(manifest.keySet());
+        return result;
+    }
+
+    /**
+     * Schreibt Daten über eine temporäre Datei und ersetzt das Ziel danach atomar.
+     * Die alte Datei wird dabei nie gekürzt, eingeblendete Puffer darauf bleiben gültig.
+     *
+     * @param target Die Zieldatei
+     * @param data Die Daten
+     * @throws IOException Wenn das Schreiben fehlschlägt
+     */
+    public static void writeAtomically(File target, byte[] data) throws IOException {
+        File tempFile = tempFileFor(target);
+        try (OutputStream out = Files.newOutputStream(tempFile.toPath())) {
+            out.write(data);
+        }
+        replace(tempFile, target);
+    }
+
+    private static void extractEntry(JarFile jar, JarEntry entry, String path, File targetDir, boolean verify,
+                                     Map<String, Record> manifest, Result result) throws IOException {
+        File target = new File(targetDir, path);
+        File parent = target.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+            throw new IOException("Konnte Verzeichnis nicht erstellen: " + parent.getAbsolutePath());
+        }
+
+        File tempFile = tempFileFor(target);
+        long crc;
+        try (CheckedInputStream in = new CheckedInputStream(jar.getInputStream(entry), new CRC32());
+             OutputStream out = Files.newOutputStream(tempFile.toPath())) {
+            in.transferTo(out);
+            crc = in.getChecksum().getValue();
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile.toPath());
+            throw e;
+        }
+
+        if (verify && entry.getCrc() != -1 && entry.getCrc() != crc) {
+            Files.deleteIfExists(tempFile.toPath());
+            result.corrupt.add(path);
+            throw new IOException("Prüfsumme stimmt nicht überein: " + path);
+        }
+
+        replace(tempFile, target);
+        manifest.put(path, new Record(crc, entry.getSize() != -1 ? entry.getSize() : target.length(), target.length(), target.lastModified()));
+        result.extracted.incrementAndGet();
+    }
+
+    private static boolean matchesEntry(File target, JarEntry entry) {
+        if (entry.getCrc() == -1 || target.length() != entry.getSize()) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        try (InputStream in = new FileInputStream(target)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        return crc.getValue() == entry.getCrc();
+    }
+
+    private static File tempFileFor(File target) {
+        return new File(target.getParentFile(), target.getName() + "." + Thread.currentThread().threadId() + ".tmp");
+    }
+
+    private static void replace(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static Map<String, Record> readManifest(File targetDir) {
+        Map<String, Record> records = new ConcurrentHashMap<>();
+        File file = new File(targetDir, MANIFEST_FILE);
+        if (!file.isFile()) {
+            return records;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("\t", 5);
+                if (parts.length == 5) {
+                    records.put(parts[4], new Record(Long.parseLong(parts[0]), Long.parseLong(parts[1]),
+                        Long.parseLong(parts[2]), Long.parseLong(parts[3])));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Beschädigtes Manifest: alles wie bei der ersten Extraktion behandeln
+            records.clear();
+        }
+        return records;
+    }
+
+    private static void writeManifest(File targetDir, Map<String, Record> records) throws IOException {
+        File file = new File(targetDir, MANIFEST_FILE);
+        File tempFile = tempFileFor(file);
+        try (BufferedWriter writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(MANIFEST_HEADER);
+            writer.newLine();
+            for (Map.Entry<String, Record> entry : records.entrySet()) {
+                Record record = entry.getValue();
+                writer.write(record.crc + "\t" + record.size + "\t" + record.diskSize + "\t" + record.diskModified + "\t" + entry.getKey());
+                writer.newLine();
+            }
+        }
+        replace(tempFile, file);
+    }
+
+    /**
+     * Zustand eines extrahierten Eintrags
+     */
+    private static final class Record {
+        private final long crc;
+        private final long size;
+        private final long diskSize;
+        private final long diskModified;
+
+        Record(long crc, long size, long diskSize, long diskModified) {
+            this.crc = crc;
+            this.size = size;
+            this.diskSize = diskSize;
+            this.diskModified = diskModified;
+        }
+
+        boolean matchesDisk(File file) {
+            return file.length() == diskSize && file.lastModified() == diskModified;
+        }
+    }
+
+    /**
+     * Ergebnis einer Extraktion
+     */
+    public static final class Result {
+        private final AtomicInteger extracted = new AtomicInteger();
+        private final AtomicInteger unchanged = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final Set<String> corrupt = ConcurrentHashMap.newKeySet();
+        private final Set<String> paths = new LinkedHashSet<>();
+
+        /** @return Anzahl der geschriebenen Dateien */
+        public int getExtracted() {
+            return extracted.get();
+        }
+
+        /** @return Anzahl der Dateien, deren Eintrag sich nicht geändert hat */
+        public int getUnchanged() {
+            return unchanged.get();
+        }
+
+        /** @return Anzahl der veränderten Dateien, die nicht ersetzt wurden */
+        public int getSkipped() {
+            return skipped.get();
+        }
+
+        /** @return Anzahl der fehlgeschlagenen Einträge */
+        public int getFailed() {
+            return failed.get();
+        }
+
+        /** @return Pfade, deren geschriebene Daten nicht zur CRC der JAR passten */
+        public Set<String> getCorrupt() {
+            return Collections.unmodifiableSet(corrupt);
+        }
+
+        /** @return Relative Pfade aller Ressourcen, die laut Manifest aus der JAR stammen */
+        public Set<String> getPaths() {
+            return Collections.unmodifiableSet(paths);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.essentialscore.api.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CronScheduleTest {
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+    private static ZonedDateTime berlin(String localDateTime) {
+        return LocalDateTime.parse(localDateTime).atZone(BERLIN);
+    }
+
+    private static OffsetDateTime offset(ZonedDateTime time) {
+        return time.toOffsetDateTime();
+    }
+
+    @Test
+    void timeInTheSkippedHourFiresAtTheEndOfTheGap() {
+        // 2025-03-30 02:00 CET jumps to 03:00 CEST
+        CronSchedule schedule = new CronSchedule("30 2 * * *");
+        List<ZonedDateTime> times = schedule.next(berlin("2025-03-29T12:00"), 2);
+
+        assertEquals(OffsetDateTime.parse("2025-03-30T03:00+02:00"), offset(times.get(0)));
+        assertEquals(OffsetDateTime.parse("2025-03-31T02:30+02:00"), offset(times.get(1)));
+    }
+
+    @Test
+    void allTimesInTheSkippedHourFireOnce() {
+        CronSchedule schedule = new CronSchedule("*/15 2 * * *");
+        List<ZonedDateTime> times = schedule.next(berlin("2025-03-30T01:59"), 2);
+
+        assertEquals(OffsetDateTime.parse("2025-03-30T03:00+02:00"), offset(times.get(0)));
+        assertEquals(OffsetDateTime.parse("2025-03-31T02:00+02:00"), offset(times.get(1)));
+    }
+
+    @Test
+    void timeInTheRepeatedHourFiresOnceAtItsFirstOccurrence() {
+        // 2025-10-26 03:00 CEST falls back to 02:00 CET
+        CronSchedule schedule = new CronSchedule("30 2 * * *");
+        List<ZonedDateTime> times = schedule.next(berlin("2025-10-26T00:00"), 2);
+
+        assertEquals(OffsetDateTime.parse("2025-10-26T02:30+02:00"), offset(times.get(0)));
+        assertEquals(OffsetDateTime.parse("2025-10-27T02:30+01:00"), offset(times.get(1)));
+    }
+
+    @Test
+    void repeatedHourIsNotRunTwice() {
+        CronSchedule schedule = new CronSchedule("0,30 * * * *");
+        List<ZonedDateTime> times = schedule.next(berlin("2025-10-26T01:45"), 3);
+
+        assertEquals(OffsetDateTime.parse("2025-10-26T02:00+02:00"), offset(times.get(0)));
+        assertEquals(OffsetDateTime.parse("2025-10-26T02:30+02:00"), offset(times.get(1)));
+        assertEquals(OffsetDateTime.parse("2025-10-26T03:00+01:00"), offset(times.get(2)));
+    }
+
+    @Test
+    void restrictedDayFieldsMatchEitherDay() {
+        // The 13th or any Monday; 13 September 2025 is a Saturday
+        CronSchedule schedule = new CronSchedule("0 0 13 * MON");
+        List<ZonedDateTime> times = schedule.next(berlin("2025-09-09T00:00"), 3);
+
+        assertEquals(berlin("2025-09-13T00:00"), times.get(0));
+        assertEquals(berlin("2025-09-15T00:00"), times.get(1));
+        assertEquals(berlin("2025-09-22T00:00"), times.get(2));
+    }
+
+    @Test
+    void steppedDayOfMonthFiresEveryOtherDay() {
+        CronSchedule schedule = new CronSchedule("0 0 */2 * *");
+        List<ZonedDateTime> times = schedule.next(berlin("2025-09-27T12:00"), 3);
+
+        assertEquals(berlin("2025-09-29T00:00"), times.get(0));
+        assertEquals(berlin("2025-10-01T00:00"), times.get(1));
+        assertEquals(berlin("2025-10-03T00:00"), times.get(2));
+        assertFalse(schedule.matches(LocalDateTime.parse("2025-09-30T00:00")));
+    }
+
+    @Test
+    void steppedDayOfWeekFiresOnEveryOtherWeekday() {
+        // Sunday, Tuesday, Thursday and Saturday
+        CronSchedule schedule = new CronSchedule("0 0 * * */2");
+        List<ZonedDateTime> times = schedule.next(berlin("2025-09-08T00:00"), 4);
+
+        assertEquals(berlin("2025-09-09T00:00"), times.get(0));
+        assertEquals(berlin("2025-09-11T00:00"), times.get(1));
+        assertEquals(berlin("2025-09-13T00:00"), times.get(2));
+        assertEquals(berlin("2025-09-14T00:00"), times.get(3));
+    }
+
+    @Test
+    void steppedDayFieldMustMatchTogetherWithTheOther() {
+        // Odd days that are Mondays
+        CronSchedule schedule = new CronSchedule("0 0 */2 * MON");
+        List<ZonedDateTime> times = schedule.next(berlin("2025-09-01T00:00"), 3);
+
+        assertEquals(berlin("2025-09-15T00:00"), times.get(0));
+        assertEquals(berlin("2025-09-29T00:00"), times.get(1));
+        assertEquals(berlin("2025-10-13T00:00"), times.get(2));
+    }
+
+    @Test
+    void unrestrictedDayOfWeekLeavesOnlyTheDayOfMonth() {
+        CronSchedule schedule = new CronSchedule("0 0 13 * *");
+
+        assertTrue(schedule.matches(LocalDateTime.parse("2025-09-13T00:00")));
+        assertFalse(schedule.matches(LocalDateTime.parse("2025-09-15T00:00")));
+        assertEquals(berlin("2025-10-13T00:00"), schedule.next(berlin("2025-09-13T00:00")));
+    }
+
+    @Test
+    void sundayMayBeWrittenAsSeven() {
+        CronSchedule schedule = new CronSchedule("0 12 * * 7");
+
+        assertTrue(schedule.matches(LocalDateTime.parse("2025-09-14T12:00")));
+        assertFalse(schedule.matches(LocalDateTime.parse("2025-09-15T12:00")));
+    }
+
+    @Test
+    void nextIsStrictlyAfterTheStart() {
+        CronSchedule schedule = new CronSchedule("0 * * * *");
+
+        assertEquals(berlin("2025-09-09T11:00"), schedule.next(berlin("2025-09-09T10:00")));
+        assertEquals(berlin("2025-09-09T11:00"), schedule.next(berlin("2025-09-09T10:00:30")));
+    }
+
+    @Test
+    void impossibleDateNeverFires() {
+        CronSchedule schedule = new CronSchedule("0 0 30 2 *");
+
+        assertThrows(IllegalStateException.class, () -> schedule.next(berlin("2025-01-01T00:00")));
+    }
+
+    @Test
+    void invalidExpressionsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new CronSchedule("* * *"));
+        assertThrows(IllegalArgumentException.class, () -> new CronSchedule("60 * * * *"));
+        assertThrows(IllegalArgumentException.class, () -> new CronSchedule("* * * FOO *"));
+    }
+
+    @Test
+    void compiledSchedulesAreCached() {
+        assertSame(CronSchedule.compile("5 4 * * *"), CronSchedule.compile("5 4 * * *"));
+    }
+}
@@ -0,0 +1,176 @@
+package com.essentialscore.api.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class ModuleTaskScopeTest {
+
+    private static <T> ModuleTaskScope<T> scope(ModuleTaskScope.Policy policy, long timeoutMillis, Semaphore permits) {
+        return new ModuleTaskScope<>("test", policy, timeoutMillis, permits, null, null);
+    }
+
+    private static Integer block() throws InterruptedException {
+        new CountDownLatch(1).await();
+        return -1;
+    }
+
+    @Test
+    void allSuccessfulWaitsForEverySubtask() throws Exception {
+        try (ModuleTaskScope<Integer> scope = scope(ModuleTaskScope.Policy.ALL_SUCCESSFUL, 5000, null)) {
+            ModuleTaskScope.Subtask<Integer> first = scope.fork(() -> 1);
+            ModuleTaskScope.Subtask<Integer> second = scope.fork(() -> {
+                Thread.sleep(20);
+                return 2;
+            });
+            scope.join();
+
+            assertEquals(ModuleTaskScope.State.SUCCESS, first.state());
+            assertEquals(ModuleTaskScope.State.SUCCESS, second.state());
+            assertEquals(3, first.get() + second.get());
+        }
+    }
+
+    @Test
+    void allSuccessfulCancelsTheRestOnFirstFailure() throws Exception {
+        IllegalStateException boom = new IllegalStateException("boom");
+        ModuleTaskScope.Subtask<Integer> blocked;
+        try (ModuleTaskScope<Integer> scope = scope(ModuleTaskScope.Policy.ALL_SUCCESSFUL, 5000, null)) {
+            blocked = scope.fork(ModuleTaskScopeTest::block);
+            scope.fork(() -> {
+                throw boom;
+            });
+
+            ExecutionException thrown = assertThrows(ExecutionException.class, scope::join);
+            assertSame(boom, thrown.getCause());
+        }
+        assertEquals(ModuleTaskScope.State.CANCELLED, blocked.state());
+    }
+
+    @Test
+    void firstSuccessKeepsTheFirstResult() throws Exception {
+        ModuleTaskScope.Subtask<Integer> blocked;
+        try (ModuleTaskScope<Integer> scope = scope(ModuleTaskScope.Policy.FIRST_SUCCESS, 5000, null)) {
+            blocked = scope.fork(ModuleTaskScopeTest::block);
+            scope.fork(() -> {
+                throw new IllegalStateException("ignored");
+            });
+            scope.fork(() -> 42);
+            scope.join();
+
+            assertEquals(42, scope.result());
+        }
+        assertEquals(ModuleTaskScope.State.CANCELLED, blocked.state());
+    }
+
+    @Test
+    void firstSuccessFailsWhenNoSubtaskSucceeds() throws Exception {
+        try (ModuleTaskScope<Integer> scope = scope(ModuleTaskScope.Policy.FIRST_SUCCESS, 5000, null)) {
+            scope.fork(() -> {
+                throw new IllegalStateException("first");
+            });
+            scope.fork(() -> {
+                throw new IllegalStateException("second");
+            });
+
+            assertThrows(ExecutionException.class, scope::join);
+            assertThrows(IllegalStateException.class, scope::result);
+        }
+    }
+
+    @Test
+    void deadlineCancelsUnfinishedSubtasks() throws Exception {
+        ModuleTaskScope.Subtask<Integer> blocked;
+        try (ModuleTaskScope<Integer> scope = scope(ModuleTaskScope.Policy.ALL_SUCCESSFUL, 50, null)) {
+            blocked = scope.fork(ModuleTaskScopeTest::block);
+
+            assertThrows(TimeoutException.class, scope::join);
+        }
+        assertEquals(ModuleTaskScope.State.CANCELLED, blocked.state());
+    }
+
+    @Test
+    void cancelFromAnotherThreadEndsTheJoin() throws Exception {
+        try (ModuleTaskScope<Integer> scope = scope(ModuleTaskScope.Policy.ALL_SUCCESSFUL, 5000, null)) {
+            scope.fork(ModuleTaskScopeTest::block);
+            Thread canceller = new Thread(() -> {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException ignored) {
+                    // Cancel right away
+                }
+                scope.cancel();
+            });
+            canceller.start();
+
+            assertThrows(CancellationException.class, scope::join);
+            canceller.join();
+        }
+    }
+
+    @Test
+    void nestedScopeNeverOutlivesTheEnclosingDeadline() throws Exception {
+        try (ModuleTaskScope<Long> scope = scope(ModuleTaskScope.Policy.ALL_SUCCESSFUL, 1000, null)) {
+            ModuleTaskScope.Subtask<Long> outer = scope.fork(() -> {
+                try (ModuleTaskScope<Long> nested = scope(ModuleTaskScope.Policy.ALL_SUCCESSFUL, 0, null)) {
+                    ModuleTaskScope.Subtask<Long> inner = nested.fork(ModuleTaskScope::remainingNanos);
+                    nested.join();
+                    return inner.get();
+                }
+            });
+            scope.join();
+
+            assertTrue(outer.get() <= TimeUnit.SECONDS.toNanos(1), "remaining " + outer.get());
+        }
+        assertEquals(Long.MAX_VALUE, ModuleTaskScope.remainingNanos());
+    }
+
+    @Test
+    void nestedJoinHandsBackThePermit() throws Exception {
+        Semaphore permits = new Semaphore(1);
+        try (ModuleTaskScope<Integer> scope = scope(ModuleTaskScope.Policy.ALL_SUCCESSFUL, 5000, permits)) {
+            ModuleTaskScope.Subtask<Integer> outer = scope.fork(() -> {
+                try (ModuleTaskScope<Integer> nested = scope(ModuleTaskScope.Policy.ALL_SUCCESSFUL, 0, permits)) {
+                    ModuleTaskScope.Subtask<Integer> inner = nested.fork(() -> 7);
+                    nested.join();
+                    return inner.get();
+                }
+            });
+            scope.join();
+
+            assertEquals(7, outer.get());
+        }
+        assertEquals(1, permits.availablePermits());
+    }
+
+    @Test
+    void onlyTheOwnerMayFork() throws Exception {
+        AtomicInteger closed = new AtomicInteger();
+        try (ModuleTaskScope<Integer> scope = new ModuleTaskScope<>("test", null, 0, null, null, s -> closed.incrementAndGet())) {
+            AtomicInteger rejected = new AtomicInteger();
+            Thread other = new Thread(() -> {
+                try {
+                    scope.fork(() -> 1);
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                }
+            });
+            other.start();
+            other.join();
+
+            assertEquals(1, rejected.get());
+        }
+        assertEquals(1, closed.get());
+    }
+}
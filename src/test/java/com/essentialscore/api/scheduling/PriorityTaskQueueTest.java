@@ -0,0 +1,150 @@
+package com.essentialscore.api.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class PriorityTaskQueueTest {
+
+    private static ScheduledTask task(String name, TaskPriority priority, long executeAt) {
+        return ScheduledTask.builder()
+            .name(name)
+            .runnable(() -> { })
+            .priority(priority)
+            .executeAt(executeAt)
+            .build();
+    }
+
+    private static PriorityTaskQueue startedQueue() {
+        PriorityTaskQueue queue = new PriorityTaskQueue(1);
+        queue.start();
+        return queue;
+    }
+
+    /** Polls until a task comes out or the timeout passes */
+    private static ScheduledTask pollWithin(PriorityTaskQueue queue, long timeoutMillis) throws InterruptedException {
+        long end = System.currentTimeMillis() + timeoutMillis;
+        ScheduledTask task;
+        while ((task = queue.poll()) == null && System.currentTimeMillis() < end) {
+            Thread.sleep(1);
+        }
+        return task;
+    }
+
+    @Test
+    void offersAreIgnoredBeforeStart() {
+        PriorityTaskQueue queue = new PriorityTaskQueue(1);
+        queue.offer(task("early", TaskPriority.NORMAL, System.currentTimeMillis()));
+
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void dueTasksComeOutByPriority() {
+        PriorityTaskQueue queue = startedQueue();
+        long now = System.currentTimeMillis();
+        ScheduledTask low = task("low", TaskPriority.LOW, now - 10);
+        ScheduledTask critical = task("critical", TaskPriority.CRITICAL, now - 5);
+        ScheduledTask normal = task("normal", TaskPriority.NORMAL, now - 20);
+        queue.offer(low);
+        queue.offer(critical);
+        queue.offer(normal);
+
+        assertSame(critical, queue.poll());
+        assertSame(normal, queue.poll());
+        assertSame(low, queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void pendingHighPriorityDoesNotBlockDueTasks() {
+        PriorityTaskQueue queue = startedQueue();
+        long now = System.currentTimeMillis();
+        ScheduledTask later = task("later", TaskPriority.CRITICAL, now + 60_000);
+        ScheduledTask due = task("due", TaskPriority.LOW, now);
+        queue.offer(later);
+        queue.offer(due);
+
+        assertSame(due, queue.poll());
+        assertNull(queue.poll());
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    void tasksCascadeDownFromHigherLevels() throws InterruptedException {
+        PriorityTaskQueue queue = startedQueue();
+        // More than 256 ticks ahead, so the task starts on the second level
+        long dueAt = System.currentTimeMillis() + 400;
+        ScheduledTask task = task("cascaded", TaskPriority.NORMAL, dueAt);
+        queue.offer(task);
+
+        assertNull(queue.poll());
+        assertEquals(1, queue.getStatistics().get("waiting"));
+
+        ScheduledTask polled = pollWithin(queue, 5000);
+        assertSame(task, polled);
+        assertTrue(System.currentTimeMillis() >= dueAt, "Task came out before it was due");
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void removedTasksNeverComeOut() throws InterruptedException {
+        PriorityTaskQueue queue = startedQueue();
+        long now = System.currentTimeMillis();
+        ScheduledTask first = task("first", TaskPriority.HIGH, now);
+        ScheduledTask ready = task("ready", TaskPriority.NORMAL, now);
+        ScheduledTask waiting = task("waiting", TaskPriority.NORMAL, now + 20);
+        ScheduledTask kept = task("kept", TaskPriority.LOW, now + 20);
+        queue.offer(first);
+        queue.offer(ready);
+        queue.offer(waiting);
+        queue.offer(kept);
+        // Leaves one task in the ready queue and two in the wheel
+        assertSame(first, queue.poll());
+
+        assertTrue(queue.remove(ready));
+        assertTrue(queue.remove(waiting));
+        assertFalse(queue.remove(waiting));
+        assertEquals(1, queue.size());
+
+        assertSame(kept, pollWithin(queue, 5000));
+        assertNull(pollWithin(queue, 50));
+        assertEquals(0, queue.getStatistics().get("waiting"));
+        assertEquals(0, queue.getStatistics().get("ready"));
+    }
+
+    @Test
+    void offeringAgainReplacesTheDueTime() throws InterruptedException {
+        PriorityTaskQueue queue = startedQueue();
+        long now = System.currentTimeMillis();
+        ScheduledTask task = task("moved", TaskPriority.NORMAL, now);
+        queue.offer(task);
+        queue.offerAt(task, now + 60_000);
+
+        assertEquals(1, queue.size());
+        assertNull(pollWithin(queue, 50));
+
+        queue.offerAt(task, now);
+        assertSame(task, queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void clearDropsEverything() {
+        PriorityTaskQueue queue = startedQueue();
+        long now = System.currentTimeMillis();
+        queue.offer(task("due", TaskPriority.NORMAL, now));
+        queue.offer(task("later", TaskPriority.NORMAL, now + 60_000));
+        queue.clear();
+
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        assertEquals(0, queue.getStatistics().get("waiting"));
+    }
+}
@@ -0,0 +1,165 @@
+package com.essentialscore.api.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TaskPersistenceManagerTest {
+
+    @TempDir
+    Path dataFolder;
+
+    private TaskPersistenceManager manager;
+
+    @AfterEach
+    void stopManager() {
+        if (manager != null) {
+            manager.stop();
+        }
+    }
+
+    /** A plugin that only knows its data folder */
+    private Plugin plugin() {
+        File folder = dataFolder.toFile();
+        return (Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(), new Class<?>[] {Plugin.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getDataFolder":
+                        return folder;
+                    case "getName":
+                    case "toString":
+                        return "test";
+                    default:
+                        return null;
+                }
+            });
+    }
+
+    private TaskPersistenceManager restart() {
+        if (manager != null) {
+            manager.stop();
+        }
+        manager = new TaskPersistenceManager(plugin());
+        manager.start();
+        return manager;
+    }
+
+    private static ScheduledTask task(String name) {
+        return ScheduledTask.builder()
+            .name(name)
+            .runnable(() -> { })
+            .executeAt(System.currentTimeMillis() + 60_000)
+            .build();
+    }
+
+    private Path journal() {
+        return dataFolder.resolve("scheduled_tasks.journal");
+    }
+
+    private Map<UUID, ScheduledTask> loadAfterRestart() {
+        return restart().loadTasks();
+    }
+
+    @Test
+    void journaledChangesSurviveARestart() {
+        ScheduledTask kept = task("kept");
+        ScheduledTask done = task("done");
+        restart().recordScheduled(kept);
+        manager.recordScheduled(done);
+        manager.recordCompleted(done.getId());
+
+        Map<UUID, ScheduledTask> tasks = loadAfterRestart();
+        assertEquals(1, tasks.size());
+        assertEquals("kept", tasks.get(kept.getId()).getName());
+    }
+
+    @Test
+    void tornTailIsCutOff() throws Exception {
+        ScheduledTask intact = task("intact");
+        ScheduledTask torn = task("torn");
+        restart().recordScheduled(intact);
+        manager.flush();
+        long intactLength = Files.size(journal());
+        manager.recordScheduled(torn);
+        manager.stop();
+        manager = null;
+
+        // A crash in the middle of the last write
+        byte[] data = Files.readAllBytes(journal());
+        int cut = (int) (intactLength + (data.length - intactLength) / 2);
+        Files.write(journal(), Arrays.copyOf(data, cut));
+
+        Map<UUID, ScheduledTask> tasks = loadAfterRestart();
+        assertEquals(1, tasks.size());
+        assertTrue(tasks.containsKey(intact.getId()));
+        assertEquals(intactLength, Files.size(journal()));
+
+        // New records follow the last intact one
+        ScheduledTask later = task("later");
+        manager.recordScheduled(later);
+        tasks = loadAfterRestart();
+        assertEquals(2, tasks.size());
+        assertTrue(tasks.containsKey(later.getId()));
+    }
+
+    @Test
+    void damagedRecordEndsTheReplay() throws Exception {
+        ScheduledTask intact = task("intact");
+        restart().recordScheduled(intact);
+        manager.flush();
+        long intactLength = Files.size(journal());
+        manager.recordScheduled(task("damaged"));
+        manager.recordScheduled(task("after"));
+        manager.stop();
+        manager = null;
+
+        byte[] data = Files.readAllBytes(journal());
+        // Flip a payload byte of the first record after the intact one, its checksum no longer matches
+        int index = (int) intactLength + 12;
+        data[index] = (byte) (data[index] == 'a' ? 'b' : 'a');
+        Files.write(journal(), data);
+
+        Map<UUID, ScheduledTask> tasks = loadAfterRestart();
+        assertEquals(1, tasks.size());
+        assertTrue(tasks.containsKey(intact.getId()));
+    }
+
+    @Test
+    void journalOfAnOlderGenerationIsIgnored() throws Exception {
+        ScheduledTask replaced = task("replaced");
+        ScheduledTask saved = task("saved");
+        restart().recordScheduled(replaced);
+        manager.flush();
+        byte[] oldJournal = Files.readAllBytes(journal());
+
+        manager.saveTasks(Map.of(saved.getId(), saved));
+        manager.stop();
+        manager = null;
+
+        // A crash after the new snapshot was in place but before the journal was started over
+        Files.write(journal(), oldJournal);
+
+        Map<UUID, ScheduledTask> tasks = loadAfterRestart();
+        assertEquals(1, tasks.size());
+        assertTrue(tasks.containsKey(saved.getId()));
+
+        // The stale journal was started over for the current generation
+        ScheduledTask later = task("later");
+        manager.recordScheduled(later);
+        tasks = loadAfterRestart();
+        assertEquals(2, tasks.size());
+        assertTrue(tasks.containsKey(later.getId()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.essentialscore.threading;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesHaveTheirOwnBucket() {
+        for (long nanos = 0; nanos < 16; nanos++) {
+            int index = LatencyHistogram.bucketIndex(nanos);
+            assertEquals(nanos, index);
+            assertEquals(nanos, LatencyHistogram.bucketUpperBound(index));
+        }
+    }
+
+    @Test
+    void bucketBoundsStayWithinRelativeError() {
+        int previous = -1;
+        for (long nanos = 1; nanos < (1L << 40); nanos = nanos * 3 / 2 + 1) {
+            int index = LatencyHistogram.bucketIndex(nanos);
+            long upper = LatencyHistogram.bucketUpperBound(index);
+            assertTrue(index >= previous, "Buckets müssen monoton steigen bei " + nanos);
+            assertTrue(upper >= nanos, "Obergrenze " + upper + " liegt unter " + nanos);
+            assertTrue((upper - nanos) * 16 <= nanos, "Fehler zu groß bei " + nanos + ": " + upper);
+            previous = index;
+        }
+    }
+
+    @Test
+    void adjacentBucketsDoNotOverlap() {
+        for (int index = 1; index < LatencyHistogram.bucketIndex(Long.MAX_VALUE); index++) {
+            long lower = LatencyHistogram.bucketUpperBound(index - 1) + 1;
+            assertEquals(index, LatencyHistogram.bucketIndex(lower));
+            assertEquals(index, LatencyHistogram.bucketIndex(LatencyHistogram.bucketUpperBound(index)));
+        }
+    }
+
+    @Test
+    void hugeValuesLandInTheLastBucket() {
+        int last = LatencyHistogram.bucketIndex((1L << 40) - 1);
+        assertEquals(last, LatencyHistogram.bucketIndex(1L << 40));
+        assertEquals(last, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    void percentilesAreCappedAtTheMaximum() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 1000; nanos++) {
+            histogram.record(nanos);
+        }
+        histogram.record(-5);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1001, snapshot.getCount());
+        assertEquals(1000, snapshot.getMaxNanos());
+        assertEquals(1000, snapshot.getPercentileNanos(100));
+        assertEquals(0, snapshot.getPercentileNanos(0));
+        long p50 = snapshot.getPercentileNanos(50);
+        assertTrue(p50 >= 500 && p50 <= 500 + 500 / 16, "p50 = " + p50);
+    }
+
+    @Test
+    void emptySnapshotReportsZero() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getPercentileNanos(99));
+        assertEquals(0.0, snapshot.getMeanNanos());
+    }
+}